@@ -175,6 +175,11 @@ public ConfigurationBuilder batchSize(int batchSize) {
       return builder.batchSize(batchSize);
    }
 
+   @Override
+   public ConfigurationBuilder bulkOperationChunkSize(int bulkOperationChunkSize) {
+      return builder.bulkOperationChunkSize(bulkOperationChunkSize);
+   }
+
    @Override
    public ConfigurationBuilder withProperties(Properties properties) {
       return builder.withProperties(properties);
@@ -49,13 +49,15 @@ public class Configuration {
    private final List<ClusterConfiguration> clusters;
    private final List<String> serialWhitelist;
    private final int batchSize;
+   private final int bulkOperationChunkSize;
 
    Configuration(ExecutorFactoryConfiguration asyncExecutorFactory, Class<? extends FailoverRequestBalancingStrategy> balancingStrategyClass, FailoverRequestBalancingStrategy balancingStrategy, ClassLoader classLoader,
                  ClientIntelligence clientIntelligence, ConnectionPoolConfiguration connectionPool, int connectionTimeout, Class<? extends ConsistentHash>[] consistentHashImpl, boolean forceReturnValues, int keySizeEstimate,
                  Marshaller marshaller, Class<? extends Marshaller> marshallerClass,
                  ProtocolVersion protocolVersion, List<ServerConfiguration> servers, int socketTimeout, SecurityConfiguration security, boolean tcpNoDelay, boolean tcpKeepAlive,
                  int valueSizeEstimate, int maxRetries, NearCacheConfiguration nearCache,
-                 List<ClusterConfiguration> clusters, List<String> serialWhitelist, int batchSize) {
+                 List<ClusterConfiguration> clusters, List<String> serialWhitelist, int batchSize,
+                 int bulkOperationChunkSize) {
       this.asyncExecutorFactory = asyncExecutorFactory;
       this.balancingStrategyClass = balancingStrategyClass;
       this.balancingStrategy = balancingStrategy;
@@ -80,6 +82,7 @@ public class Configuration {
       this.clusters = clusters;
       this.serialWhitelist = serialWhitelist;
       this.batchSize = batchSize;
+      this.bulkOperationChunkSize = bulkOperationChunkSize;
    }
 
    public ExecutorFactoryConfiguration asyncExecutorFactory() {
@@ -196,6 +199,10 @@ public int batchSize() {
       return batchSize;
    }
 
+   public int bulkOperationChunkSize() {
+      return bulkOperationChunkSize;
+   }
+
    @Override
    public String toString() {
       return "Configuration [asyncExecutorFactory=" + asyncExecutorFactory + ", balancingStrategyClass=" + balancingStrategyClass + ", balancingStrategy=" + balancingStrategy
@@ -206,6 +213,7 @@ public String toString() {
             + ", valueSizeEstimate=" + valueSizeEstimate + ", maxRetries=" + maxRetries
             + ", serialWhiteList=" + serialWhitelist
             + ", batchSize=" + batchSize
+            + ", bulkOperationChunkSize=" + bulkOperationChunkSize
             + "nearCache=" + nearCache + "]";
    }
 
@@ -311,6 +319,8 @@ public Properties properties() {
 
       properties.setProperty(ConfigurationProperties.BATCH_SIZE, Integer.toString(batchSize));
 
+      properties.setProperty(ConfigurationProperties.BULK_OPERATION_CHUNK_SIZE, Integer.toString(bulkOperationChunkSize));
+
       return properties;
    }
 }
@@ -70,6 +70,7 @@ public class ConfigurationBuilder implements ConfigurationChildBuilder, Builder<
    private final NearCacheConfigurationBuilder nearCache;
    private final List<String> whiteListRegExs = new ArrayList<>();
    private int batchSize = ConfigurationProperties.DEFAULT_BATCH_SIZE;
+   private int bulkOperationChunkSize = ConfigurationProperties.DEFAULT_BULK_OPERATION_CHUNK_SIZE;
 
    private final List<ClusterConfigurationBuilder> clusters = new ArrayList<ClusterConfigurationBuilder>();
 
@@ -298,6 +299,15 @@ public ConfigurationBuilder batchSize(int batchSize) {
       return this;
    }
 
+   @Override
+   public ConfigurationBuilder bulkOperationChunkSize(int bulkOperationChunkSize) {
+      if (bulkOperationChunkSize <= 0) {
+         throw new IllegalArgumentException("bulkOperationChunkSize must be greater than 0");
+      }
+      this.bulkOperationChunkSize = bulkOperationChunkSize;
+      return this;
+   }
+
    @Override
    public ConfigurationBuilder withProperties(Properties properties) {
       TypedProperties typed = TypedProperties.toTypedProperties(properties);
@@ -350,6 +360,7 @@ public ConfigurationBuilder withProperties(Properties properties) {
       }
 
       this.batchSize(typed.getIntProperty(ConfigurationProperties.BATCH_SIZE, batchSize, true));
+      this.bulkOperationChunkSize(typed.getIntProperty(ConfigurationProperties.BULK_OPERATION_CHUNK_SIZE, bulkOperationChunkSize, true));
 
       return this;
    }
@@ -391,7 +402,8 @@ public Configuration create() {
 
       return new Configuration(asyncExecutorFactory.create(), balancingStrategyClass, balancingStrategy, classLoader == null ? null : classLoader.get(), clientIntelligence, connectionPool.create(), connectionTimeout,
             consistentHashImpl, forceReturnValues, keySizeEstimate, marshaller, marshallerClass, protocolVersion, servers, socketTimeout, security.create(), tcpNoDelay, tcpKeepAlive,
-            valueSizeEstimate, maxRetries, nearCache.create(), serverClusterConfigs, whiteListRegExs, batchSize);
+            valueSizeEstimate, maxRetries, nearCache.create(), serverClusterConfigs, whiteListRegExs, batchSize,
+            bulkOperationChunkSize);
    }
 
    @Override
@@ -201,6 +201,14 @@ public interface ConfigurationChildBuilder {
     */
    ConfigurationBuilder batchSize(int batchSize);
 
+   /**
+    * Sets the maximum number of entries sent to a server in a single <code>getAll()</code> or <code>putAll()</code>
+    * request. Defaults to 1_000
+    * @param bulkOperationChunkSize the chunk size to set
+    * @return this configuration builder with the chunk size set
+    */
+   ConfigurationBuilder bulkOperationChunkSize(int bulkOperationChunkSize);
+
    /**
     * Configures this builder using the specified properties
     */
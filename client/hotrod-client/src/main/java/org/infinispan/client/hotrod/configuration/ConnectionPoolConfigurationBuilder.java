@@ -26,6 +26,7 @@ public class ConnectionPoolConfigurationBuilder extends AbstractConfigurationChi
    private boolean testOnReturn = false;
    private boolean testWhileIdle = true;
    private int maxPendingRequests = 5;
+   private boolean leastLoadedRouting = false;
 
    ConnectionPoolConfigurationBuilder(ConfigurationBuilder builder) {
       super(builder);
@@ -206,6 +207,20 @@ public ConnectionPoolConfigurationBuilder maxPendingRequests(int maxPendingReque
       return this;
    }
 
+   /**
+    * Whether operations that can be executed by any server, like queries, iteration, or key operations when the
+    * owner of the key is not known, are sent to the least loaded of two servers picked by the
+    * balancing strategy, instead of the first one. The load of a server is estimated from the number of requests
+    * waiting for a response and the moving average of its response time, so a slow server receives fewer requests.
+    * Default setting for this parameter is false.
+    *
+    * @since 9.2
+    */
+   public ConnectionPoolConfigurationBuilder leastLoadedRouting(boolean leastLoadedRouting) {
+      this.leastLoadedRouting = leastLoadedRouting;
+      return this;
+   }
+
    /**
     * Configures the connection pool parameter according to properties
     */
@@ -225,6 +240,7 @@ public ConnectionPoolConfigurationBuilder withPoolProperties(Properties properti
       testOnReturn(typed.getBooleanProperty("testOnReturn", testOnReturn, true));
       testWhileIdle(typed.getBooleanProperty("testWhileIdle", testWhileIdle, true));
       maxPendingRequests(typed.getIntProperty("maxPendingRequests", maxPendingRequests, true));
+      leastLoadedRouting(typed.getBooleanProperty("leastLoadedRouting", leastLoadedRouting, true));
       return this;
    }
 
@@ -235,7 +251,8 @@ public void validate() {
    @Override
    public ConnectionPoolConfiguration create() {
       return new ConnectionPoolConfiguration(exhaustedAction, lifo, maxActive, maxTotal, maxWait, maxIdle, minIdle, numTestsPerEvictionRun, timeBetweenEvictionRuns,
-            minEvictableIdleTime, testOnBorrow, testOnReturn, testWhileIdle, maxPendingRequests);
+            minEvictableIdleTime, testOnBorrow, testOnReturn, testWhileIdle, maxPendingRequests,
+            leastLoadedRouting);
    }
 
    @Override
@@ -254,6 +271,7 @@ public ConnectionPoolConfigurationBuilder read(ConnectionPoolConfiguration templ
       testOnReturn = template.testOnReturn();
       testWhileIdle = template.testWhileIdle();
       maxPendingRequests = template.maxPendingRequests();
+      leastLoadedRouting = template.leastLoadedRouting();
       return this;
    }
 
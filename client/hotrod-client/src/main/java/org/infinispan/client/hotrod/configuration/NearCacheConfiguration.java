@@ -4,16 +4,38 @@ public class NearCacheConfiguration {
    // TODO: Consider an option to configure key equivalence function for near cache (e.g. for byte arrays)
    private final NearCacheMode mode;
    private final int maxEntries;
+   private final long maxBytes;
+   private final boolean serializeValues;
 
    public NearCacheConfiguration(NearCacheMode mode, int maxEntries) {
+      this(mode, maxEntries, -1, false);
+   }
+
+   public NearCacheConfiguration(NearCacheMode mode, int maxEntries, long maxBytes, boolean serializeValues) {
       this.mode = mode;
       this.maxEntries = maxEntries;
+      this.maxBytes = maxBytes;
+      this.serializeValues = serializeValues;
    }
 
    public int maxEntries() {
       return maxEntries;
    }
 
+   /**
+    * @since 9.2
+    */
+   public long maxBytes() {
+      return maxBytes;
+   }
+
+   /**
+    * @since 9.2
+    */
+   public boolean serializeValues() {
+      return serializeValues;
+   }
+
    public NearCacheMode mode() {
       return mode;
    }
@@ -23,6 +45,8 @@ public String toString() {
       return "NearCacheConfiguration{" +
             "mode=" + mode +
             ", maxEntries=" + maxEntries +
+            ", maxBytes=" + maxBytes +
+            ", serializeValues=" + serializeValues +
             '}';
    }
 }
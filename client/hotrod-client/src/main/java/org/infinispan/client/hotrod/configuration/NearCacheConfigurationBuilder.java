@@ -10,6 +10,8 @@ public class NearCacheConfigurationBuilder extends AbstractConfigurationChildBui
 
    private NearCacheMode mode = NearCacheMode.DISABLED;
    private Integer maxEntries = null; // undefined
+   private Long maxBytes = null; // undefined
+   private boolean serializeValues = false;
 
    protected NearCacheConfigurationBuilder(ConfigurationBuilder builder) {
       super(builder);
@@ -20,6 +22,28 @@ public NearCacheConfigurationBuilder maxEntries(int maxEntries) {
       return this;
    }
 
+   /**
+    * Limits the near cache by the marshalled size of the values instead of the number of entries. Setting it implies
+    * {@link #serializeValues(boolean)}. Cannot be used together with {@link #maxEntries(int)}.
+    *
+    * @since 9.2
+    */
+   public NearCacheConfigurationBuilder maxBytes(long maxBytes) {
+      this.maxBytes = maxBytes;
+      return this;
+   }
+
+   /**
+    * Whether the near cache stores the values in marshalled form. Each read then unmarshalls a new copy of the value,
+    * but the near cache takes less memory for values with large object graphs.
+    *
+    * @since 9.2
+    */
+   public NearCacheConfigurationBuilder serializeValues(boolean serializeValues) {
+      this.serializeValues = serializeValues;
+      return this;
+   }
+
    public NearCacheConfigurationBuilder mode(NearCacheMode mode) {
       this.mode = mode;
       return this;
@@ -27,19 +51,25 @@ public NearCacheConfigurationBuilder mode(NearCacheMode mode) {
 
    @Override
    public void validate() {
-      if (mode.enabled() && maxEntries == null)
+      if (mode.enabled() && maxEntries == null && maxBytes == null)
          throw log.nearCacheMaxEntriesUndefined();
+      if (maxEntries != null && maxEntries > 0 && maxBytes != null && maxBytes > 0)
+         throw log.nearCacheMaxEntriesAndMaxBytes();
    }
 
    @Override
    public NearCacheConfiguration create() {
-      return new NearCacheConfiguration(mode, maxEntries == null ? -1 : maxEntries);
+      boolean bytesBounded = maxBytes != null && maxBytes > 0;
+      return new NearCacheConfiguration(mode, maxEntries == null ? -1 : maxEntries, maxBytes == null ? -1 : maxBytes,
+            serializeValues || bytesBounded);
    }
 
    @Override
    public Builder<?> read(NearCacheConfiguration template) {
       mode = template.mode();
       maxEntries = template.maxEntries();
+      maxBytes = template.maxBytes();
+      serializeValues = template.serializeValues();
       return this;
    }
 }
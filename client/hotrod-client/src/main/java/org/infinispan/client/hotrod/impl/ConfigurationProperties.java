@@ -66,6 +66,7 @@ public class ConfigurationProperties {
          Pattern.compile('^' + ConfigurationProperties.SASL_PROPERTIES_PREFIX + '.');
    public static final String JAVA_SERIAL_WHITELIST = "infinispan.client.hotrod.java_serial_whitelist";
    public static final String BATCH_SIZE = "infinispan.client.hotrod.batch_size";
+   public static final String BULK_OPERATION_CHUNK_SIZE = "infinispan.client.hotrod.bulk_operation_chunk_size";
 
    // defaults
 
@@ -76,6 +77,7 @@ public class ConfigurationProperties {
    public static final int DEFAULT_CONNECT_TIMEOUT = 60000;
    public static final int DEFAULT_MAX_RETRIES = 10;
    public static final int DEFAULT_BATCH_SIZE = 10000;
+   public static final int DEFAULT_BULK_OPERATION_CHUNK_SIZE = 1000;
 
    private final TypedProperties props;
 
@@ -193,6 +195,10 @@ public int getBatchSize() {
       return props.getIntProperty(BATCH_SIZE, DEFAULT_BATCH_SIZE);
    }
 
+   public int getBulkOperationChunkSize() {
+      return props.getIntProperty(BULK_OPERATION_CHUNK_SIZE, DEFAULT_BULK_OPERATION_CHUNK_SIZE);
+   }
+
    /**
     * Is version previous to, and not including, 1.2?
     */
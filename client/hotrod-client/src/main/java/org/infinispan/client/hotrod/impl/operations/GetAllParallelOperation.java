@@ -27,7 +27,7 @@ protected GetAllParallelOperation(Codec codec, ChannelFactory channelFactory, Se
    }
 
    @Override
-   protected List<GetAllOperation<K, V>> mapOperations() {
+   protected List<List<GetAllOperation<K, V>>> mapOperations() {
       Map<SocketAddress, Set<byte[]>> splittedKeys = new HashMap<>();
 
       for (byte[] key : keys) {
@@ -41,8 +41,9 @@ protected List<GetAllOperation<K, V>> mapOperations() {
       }
 
       return splittedKeys.values().stream().map(
-            keysSubset -> new GetAllOperation<K, V>(codec, channelFactory, keysSubset, cacheName, header.topologyId(),
-                  flags, cfg)).collect(Collectors.toList());
+            keysSubset -> chunks(keysSubset).stream().map(
+                  chunk -> new GetAllOperation<K, V>(codec, channelFactory, new HashSet<>(chunk), cacheName,
+                        header.topologyId(), flags, cfg)).collect(Collectors.toList())).collect(Collectors.toList());
    }
 
    @Override
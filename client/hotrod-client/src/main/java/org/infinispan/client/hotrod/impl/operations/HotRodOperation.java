@@ -49,6 +49,7 @@
    protected final ChannelFactory channelFactory;
    protected final HeaderParams header;
    protected volatile ScheduledFuture<?> timeoutFuture;
+   private volatile long registeredNanos;
 
    private static final byte NO_TX = 0;
    private static final byte XA_TX = 1;
@@ -150,9 +151,17 @@ public boolean complete(T value) {
    }
 
    public void scheduleTimeout(EventLoop eventLoop) {
+      this.registeredNanos = System.nanoTime();
       this.timeoutFuture = eventLoop.schedule(this, channelFactory.socketTimeout(), TimeUnit.MILLISECONDS);
    }
 
+   /**
+    * @return the {@link System#nanoTime()} when the request was last sent, used to track the response time
+    */
+   public long registeredNanos() {
+      return registeredNanos;
+   }
+
    @Override
    public void run() {
       completeExceptionally(new SocketTimeoutException(this + " timed out after " + channelFactory.socketTimeout() + " ms"));
@@ -1,5 +1,7 @@
 package org.infinispan.client.hotrod.impl.operations;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -13,6 +15,10 @@
 
 /**
  * An HotRod operation that span across multiple remote nodes concurrently (like getAll / putAll).
+ * <p>
+ * The work for each server is split in chunks of at most {@link Configuration#bulkOperationChunkSize()} entries. The servers
+ * are contacted in parallel, but each server receives its next chunk only after it has replied to the previous one,
+ * so that neither the client nor the servers have to hold a whole large batch in memory at once.
  *
  * @author Guillaume Darmont / guillaume@dropinocean.com
  */
@@ -27,48 +33,78 @@ protected ParallelHotRodOperation(Codec codec, ChannelFactory channelFactory, by
 
    @Override
    public CompletableFuture<T> execute() {
-      List<SUBOP> operations = mapOperations();
+      List<List<SUBOP>> operations = mapOperations();
 
       if (operations.isEmpty()) {
          return CompletableFuture.completedFuture(createCollector());
-      } else if (operations.size() == 1) {
+      } else if (operations.size() == 1 && operations.get(0).size() == 1) {
          // Only one operation to do, we stay in the caller thread
-         return operations.get(0).execute();
+         return operations.get(0).get(0).execute();
       } else {
          // Multiple operation, submit to the thread poll
          return executeParallel(operations);
       }
    }
 
-   private CompletableFuture<T> executeParallel(List<SUBOP> operations) {
+   private CompletableFuture<T> executeParallel(List<List<SUBOP>> operations) {
       T collector = createCollector();
       AtomicInteger counter = new AtomicInteger(operations.size());
-      for (SUBOP operation : operations) {
-         operation.execute().whenComplete((result, throwable) -> {
-            if (throwable != null) {
-               completeExceptionally(throwable);
-            } else {
-               if (collector != null) {
-                  synchronized (collector) {
-                     combine(collector, result);
-                  }
-               }
-               if (counter.decrementAndGet() == 0) {
-                  complete(collector);
-               }
-            }
-         });
+      for (List<SUBOP> serverOperations : operations) {
+         executeSequentially(serverOperations, 0, collector, counter);
       }
       this.exceptionally(throwable -> {
-         for (SUBOP operation : operations) {
-            operation.cancel(true);
+         for (List<SUBOP> serverOperations : operations) {
+            for (SUBOP operation : serverOperations) {
+               operation.cancel(true);
+            }
          }
          return null;
       });
       return this;
    }
 
-   protected abstract List<SUBOP> mapOperations();
+   private void executeSequentially(List<SUBOP> serverOperations, int index, T collector, AtomicInteger counter) {
+      serverOperations.get(index).execute().whenComplete((result, throwable) -> {
+         if (throwable != null) {
+            completeExceptionally(throwable);
+         } else {
+            if (collector != null) {
+               synchronized (collector) {
+                  combine(collector, result);
+               }
+            }
+            if (index + 1 < serverOperations.size()) {
+               if (!isDone()) {
+                  executeSequentially(serverOperations, index + 1, collector, counter);
+               }
+            } else if (counter.decrementAndGet() == 0) {
+               complete(collector);
+            }
+         }
+      });
+   }
+
+   /**
+    * Splits the entries of a server in chunks of at most {@link Configuration#bulkOperationChunkSize()} entries.
+    */
+   protected <E> List<List<E>> chunks(Collection<E> entries) {
+      int chunkSize = cfg.bulkOperationChunkSize();
+      List<List<E>> chunks = new ArrayList<>(entries.size() / chunkSize + 1);
+      List<E> chunk = null;
+      for (E entry : entries) {
+         if (chunk == null || chunk.size() == chunkSize) {
+            chunk = new ArrayList<>(Math.min(chunkSize, entries.size()));
+            chunks.add(chunk);
+         }
+         chunk.add(entry);
+      }
+      return chunks;
+   }
+
+   /**
+    * @return the operations to execute for each server, in the order they must be executed
+    */
+   protected abstract List<List<SUBOP>> mapOperations();
 
    protected abstract T createCollector();
 
@@ -36,7 +36,7 @@ public PutAllParallelOperation(Codec codec, ChannelFactory channelFactory, Map<b
    }
 
    @Override
-   protected List<PutAllOperation> mapOperations() {
+   protected List<List<PutAllOperation>> mapOperations() {
       Map<SocketAddress, Map<byte[], byte[]>> splittedMaps = new HashMap<>();
 
       for (Map.Entry<byte[], byte[]> entry : map.entrySet()) {
@@ -50,8 +50,18 @@ protected List<PutAllOperation> mapOperations() {
       }
 
       return splittedMaps.values().stream().map(
-            mapSubset -> new PutAllOperation(codec, channelFactory, mapSubset, cacheName, header.topologyId(), flags,
-                  cfg, lifespan, lifespanTimeUnit, maxIdle, maxIdleTimeUnit)).collect(Collectors.toList());
+            mapSubset -> chunks(mapSubset.entrySet()).stream().map(
+                  chunk -> new PutAllOperation(codec, channelFactory, toMap(chunk), cacheName, header.topologyId(),
+                        flags, cfg, lifespan, lifespanTimeUnit, maxIdle, maxIdleTimeUnit))
+                  .collect(Collectors.toList())).collect(Collectors.toList());
+   }
+
+   private static Map<byte[], byte[]> toMap(List<Map.Entry<byte[], byte[]>> entries) {
+      Map<byte[], byte[]> map = new HashMap<>(entries.size() * 4 / 3 + 1);
+      for (Map.Entry<byte[], byte[]> entry : entries) {
+         map.put(entry.getKey(), entry.getValue());
+      }
+      return map;
    }
 
    @Override
@@ -268,6 +268,13 @@ private SocketAddress getNextServer(Set<SocketAddress> failedServers, byte[] cac
       try {
          FailoverRequestBalancingStrategy balancer = getOrCreateIfAbsentBalancer(cacheName);
          server = balancer.nextServer(failedServers);
+         if (configuration.connectionPool().leastLoadedRouting()) {
+            // Ask the balancer for a second server and use the one with the lower load
+            SocketAddress other = balancer.nextServer(failedServers);
+            if (!other.equals(server) && getLoad(other) < getLoad(server)) {
+               server = other;
+            }
+         }
       } finally {
          lock.writeLock().unlock();
       }
@@ -277,6 +284,11 @@ private SocketAddress getNextServer(Set<SocketAddress> failedServers, byte[] cac
       return server;
    }
 
+   private long getLoad(SocketAddress server) {
+      ChannelPool pool = channelPoolMap.get(server);
+      return pool == null ? 0 : pool.getLoad();
+   }
+
    @GuardedBy("lock")
    private FailoverRequestBalancingStrategy getOrCreateIfAbsentBalancer(byte[] cacheName) {
       return balancers.computeIfAbsent(new WrappedByteArray(cacheName), this::createBalancer);
@@ -577,6 +589,19 @@ public int getNumIdle(SocketAddress address) {
       return pool == null ? 0 : pool.getIdle();
    }
 
+   /**
+    * @return the moving average of the response time of the server in nanoseconds, or {@code 0} if unknown
+    */
+   public long getAverageLatency(SocketAddress address) {
+      ChannelPool pool = channelPoolMap.get(address);
+      return pool == null ? 0 : pool.getAverageLatency();
+   }
+
+   public int getPendingRequests(SocketAddress address) {
+      ChannelPool pool = channelPoolMap.get(address);
+      return pool == null ? 0 : pool.getPendingRequests();
+   }
+
    public int getNumActive() {
       return channelPoolMap.values().stream().mapToInt(ChannelPool::getActive).sum();
    }
@@ -32,11 +32,16 @@
  * if the channel is available.
  *
  * The connections are handled LIFO, pending requests are handled FIFO.
+ *
+ * The pool also tracks the requests sent to its server that did not receive a response yet, and an exponentially
+ * weighted moving average of the response time, so that {@link ChannelFactory} can estimate the load of each server.
  */
 class ChannelPool {
    private static final AtomicIntegerFieldUpdater<TimeoutCallback> invokedUpdater = AtomicIntegerFieldUpdater.newUpdater(TimeoutCallback.class, "invoked");
    private static final Log log = LogFactory.getLog(ChannelPool.class);
    private static final int MAX_FULL_CHANNELS_SEEN = 10;
+   // Weight of the most recent response time in the average is 1/2^LATENCY_SHIFT
+   private static final int LATENCY_SHIFT = 3;
 
    private final Deque<Channel> channels = PlatformDependent.newConcurrentDeque();
    private final Deque<ChannelOperation> callbacks = PlatformDependent.newConcurrentDeque();
@@ -49,6 +54,9 @@ class ChannelPool {
    private final int maxPendingRequests;
    private final AtomicInteger created  = new AtomicInteger();
    private final AtomicInteger active = new AtomicInteger();
+   private final AtomicInteger pendingRequests = new AtomicInteger();
+   // Updates are not atomic and concurrent updates may lose a sample, which is fine for an average
+   private volatile long averageLatency;
    private final ReadWriteLock lock = new ReentrantReadWriteLock();
    private volatile boolean terminated = false;
 
@@ -234,6 +242,42 @@ private void discardChannel(Channel channel, ChannelRecord record) {
       }
    }
 
+   void requestSent() {
+      pendingRequests.incrementAndGet();
+   }
+
+   void responseReceived(long latencyNanos) {
+      pendingRequests.decrementAndGet();
+      long average = averageLatency;
+      averageLatency = average == 0 ? latencyNanos : average + ((latencyNanos - average) >> LATENCY_SHIFT);
+   }
+
+   void requestAborted() {
+      pendingRequests.decrementAndGet();
+   }
+
+   /**
+    * @return the number of requests sent to the server that did not receive a response yet
+    */
+   public int getPendingRequests() {
+      return pendingRequests.get();
+   }
+
+   /**
+    * @return the moving average of the response time in nanoseconds, or {@code 0} if there were no responses yet
+    */
+   public long getAverageLatency() {
+      return averageLatency;
+   }
+
+   /**
+    * Estimates how long a new request would take to complete, assuming the server handles the pending requests
+    * one at a time. A server without any responses yet has load {@code 0}, so that it is tried first.
+    */
+   long getLoad() {
+      return (pendingRequests.get() + 1) * averageLatency;
+   }
+
    public int getActive() {
       return active.get();
    }
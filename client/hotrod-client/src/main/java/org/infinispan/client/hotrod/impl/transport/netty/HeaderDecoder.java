@@ -28,6 +28,8 @@ public class HeaderDecoder extends HintedReplayingDecoder<HeaderDecoder.State> {
    // operations may be registered in any thread, and are removed in event loop thread
    private final ConcurrentMap<Long, HotRodOperation<?>> incomplete = new ConcurrentHashMap<>();
    private volatile boolean closing;
+   // Looked up on first use, the channel record is not available when the decoder is created
+   private ChannelPool channelPool;
 
    private HotRodOperation<?> operation;
    private short status;
@@ -54,6 +56,7 @@ public void registerOperation(Channel channel, HotRodOperation<?> operation) {
       HotRodOperation<?> prev = incomplete.put(operation.header().messageId(), operation);
       assert prev == null : "Already registered: " + prev + ", new: " + operation;
       operation.scheduleTimeout(channel.eventLoop());
+      channelPool(channel).requestSent();
    }
 
    @Override
@@ -74,6 +77,7 @@ protected void decode(ChannelHandlerContext ctx, ByteBuf in, List<Object> out) t
                if (operation == null) {
                   throw log.unknownMessageId(messageId);
                }
+               channelPool(ctx.channel()).responseReceived(System.nanoTime() - operation.registeredNanos());
                if (trace) {
                   log.tracef("Response %d belongs to %s on %s", messageId, operation, ctx.channel());
                }
@@ -130,6 +134,22 @@ public void channelInactive(ChannelHandlerContext ctx) {
             log.errorf(t, "Failed to complete %s", op);
          }
       }
+      // No more responses will arrive on this channel
+      ChannelPool channelPool = channelPool(ctx.channel());
+      for (Long messageId : incomplete.keySet()) {
+         if (incomplete.remove(messageId) != null) {
+            channelPool.requestAborted();
+         }
+      }
+   }
+
+   private ChannelPool channelPool(Channel channel) {
+      ChannelPool channelPool = this.channelPool;
+      if (channelPool == null) {
+         channelPool = ChannelRecord.of(channel).getChannelPool();
+         this.channelPool = channelPool;
+      }
+      return channelPool;
    }
 
    public CompletableFuture<Void> allCompleteFuture() {
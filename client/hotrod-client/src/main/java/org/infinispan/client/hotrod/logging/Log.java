@@ -282,4 +282,7 @@ public interface Log extends BasicLogger {
 
    @Message(value = "This channel is about to be closed and does not accept any further operations.", id = 4078)
    HotRodClientException noMoreOperationsAllowed();
+
+   @Message(value = "The near cache can be bounded either by the number of entries or by the size of the values in bytes, but not both", id = 4079)
+   CacheConfigurationException nearCacheMaxEntriesAndMaxBytes();
 }
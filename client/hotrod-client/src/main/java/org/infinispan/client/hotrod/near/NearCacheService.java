@@ -34,6 +34,7 @@
 
    private final NearCacheConfiguration config;
    private final ClientListenerNotifier listenerNotifier;
+   private Marshaller marshaller;
    private Object listener;
    private byte[] listenerId;
    private NearCache<K, V> cache;
@@ -45,6 +46,7 @@ protected NearCacheService(NearCacheConfiguration config, ClientListenerNotifier
 
    public void start(RemoteCache<K, V> remote) {
       // Create near cache
+      marshaller = remote.getRemoteCacheManager().getMarshaller();
       cache = createNearCache(config);
       // Add a listener that updates the near cache
       listener = createListener(remote);
@@ -56,7 +58,7 @@ public void start(RemoteCache<K, V> remote) {
    private Object createListener(RemoteCache<K, V> remote) {
       return config.mode().invalidated()
             ? new InvalidatedNearCacheListener<K, V>(this)
-            : new EagerNearCacheListener<K, V>(this, remote.getRemoteCacheManager().getMarshaller());
+            : new EagerNearCacheListener<K, V>(this, marshaller);
    }
 
    public void stop(RemoteCache<K, V> remote) {
@@ -70,6 +72,9 @@ public void stop(RemoteCache<K, V> remote) {
    }
 
    protected NearCache<K, V> createNearCache(NearCacheConfiguration config) {
+      if (config.serializeValues())
+         return SerializedNearCache.create(config, marshaller);
+
       return config.maxEntries() > 0
             ? BoundedConcurrentMapNearCache.<K, V>create(config)
             : ConcurrentMapNearCache.<K, V>create();
@@ -0,0 +1,112 @@
+package org.infinispan.client.hotrod.near;
+
+import java.util.concurrent.ConcurrentMap;
+
+import org.infinispan.client.hotrod.VersionedValue;
+import org.infinispan.client.hotrod.configuration.NearCacheConfiguration;
+import org.infinispan.client.hotrod.impl.VersionedValueImpl;
+import org.infinispan.client.hotrod.logging.Log;
+import org.infinispan.client.hotrod.logging.LogFactory;
+import org.infinispan.commons.marshall.Marshaller;
+import org.infinispan.commons.util.CollectionFactory;
+import org.infinispan.commons.util.Util;
+
+/**
+ * Near cache that keeps the values in marshalled form, and unmarshalls a new copy of the value on every read.
+ * <p>
+ * It can be bounded either by the number of entries or by the total size of the marshalled values. Either way the
+ * entries are evicted based on how often they are read, not only on how recently.
+ *
+ * @since 9.2
+ */
+final class SerializedNearCache<K, V> implements NearCache<K, V> {
+   private static final Log log = LogFactory.getLog(SerializedNearCache.class);
+   private static final boolean trace = log.isTraceEnabled();
+   // Approximate size of the map entry and of the SerializedValue, so that empty values still count
+   private static final int ENTRY_OVERHEAD = 64;
+
+   private final ConcurrentMap<K, SerializedValue> cache;
+   private final Marshaller marshaller;
+
+   private SerializedNearCache(ConcurrentMap<K, SerializedValue> cache, Marshaller marshaller) {
+      this.cache = cache;
+      this.marshaller = marshaller;
+   }
+
+   public static <K, V> NearCache<K, V> create(NearCacheConfiguration config, Marshaller marshaller) {
+      ConcurrentMap<K, SerializedValue> map;
+      if (config.maxBytes() > 0) {
+         map = CollectionFactory.makeBoundedConcurrentMap(config.maxBytes(),
+               (k, v) -> v.bytes.length + ENTRY_OVERHEAD);
+      } else if (config.maxEntries() > 0) {
+         map = CollectionFactory.makeBoundedConcurrentMap(config.maxEntries());
+      } else {
+         map = CollectionFactory.makeConcurrentMap();
+      }
+      return new SerializedNearCache<>(map, marshaller);
+   }
+
+   @Override
+   public void put(K key, VersionedValue<V> value) {
+      SerializedValue serialized = serialize(value);
+      if (serialized != null) {
+         cache.put(key, serialized);
+      } else {
+         cache.remove(key);
+      }
+   }
+
+   @Override
+   public void putIfAbsent(K key, VersionedValue<V> value) {
+      SerializedValue serialized = serialize(value);
+      if (serialized != null) {
+         cache.putIfAbsent(key, serialized);
+      }
+   }
+
+   @Override
+   public void remove(K key) {
+      cache.remove(key);
+   }
+
+   @Override
+   @SuppressWarnings("unchecked")
+   public VersionedValue<V> get(K key) {
+      SerializedValue serialized = cache.get(key);
+      if (serialized == null)
+         return null;
+
+      try {
+         return new VersionedValueImpl<>(serialized.version, (V) marshaller.objectFromByteBuffer(serialized.bytes));
+      } catch (Exception e) {
+         log.unableToUnmarshallBytesError("value", Util.toStr(serialized.bytes), e);
+         cache.remove(key, serialized);
+         return null;
+      }
+   }
+
+   @Override
+   public void clear() {
+      cache.clear();
+   }
+
+   private SerializedValue serialize(VersionedValue<V> value) {
+      try {
+         return new SerializedValue(value.getVersion(), marshaller.objectToByteBuffer(value.getValue()));
+      } catch (Exception e) {
+         if (trace)
+            log.tracef(e, "Unable to marshall value %s, not storing it in the near cache", value.getValue());
+         return null;
+      }
+   }
+
+   private static final class SerializedValue {
+      final long version;
+      final byte[] bytes;
+
+      SerializedValue(long version, byte[] bytes) {
+         this.version = version;
+         this.bytes = bytes;
+      }
+   }
+}
@@ -81,6 +81,25 @@ public void testBulkGetKeys() {
       }
    }
 
+   public void testBulkOperationsInChunks() {
+      org.infinispan.client.hotrod.configuration.ConfigurationBuilder clientBuilder =
+            new org.infinispan.client.hotrod.configuration.ConfigurationBuilder();
+      clientBuilder.addServers(HotRodClientTestingUtil.getServersString(hotrodServers)).bulkOperationChunkSize(7);
+      RemoteCacheManager chunkingRemoteCacheManager = new RemoteCacheManager(clientBuilder.build());
+      try {
+         RemoteCache<Object, Object> chunkingRemoteCache = chunkingRemoteCacheManager.getCache();
+         Map<Object, Object> entries = new HashMap<>();
+         for (int i = 1000; i < 1100; i++) {
+            entries.put(i, "v" + i);
+         }
+         chunkingRemoteCache.putAll(entries);
+         assertEquals(entries, remoteCache.getAll(entries.keySet()));
+         assertEquals(entries, chunkingRemoteCache.getAll(entries.keySet()));
+      } finally {
+         killRemoteCacheManager(chunkingRemoteCacheManager);
+      }
+   }
+
    public void testBulkGetAfterLifespanExpire() throws InterruptedException {
       Map<String, String> dataIn = new HashMap<String, String>();
       dataIn.put("aKey", "aValue");
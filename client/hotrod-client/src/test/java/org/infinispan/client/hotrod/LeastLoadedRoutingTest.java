@@ -0,0 +1,92 @@
+package org.infinispan.client.hotrod;
+
+import static org.infinispan.client.hotrod.test.HotRodClientTestingUtil.killRemoteCacheManager;
+import static org.infinispan.client.hotrod.test.HotRodClientTestingUtil.killServers;
+import static org.infinispan.server.hotrod.test.HotRodTestingUtil.hotRodCacheConfiguration;
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+
+import org.infinispan.Cache;
+import org.infinispan.client.hotrod.impl.transport.netty.ChannelFactory;
+import org.infinispan.client.hotrod.test.HotRodClientTestingUtil;
+import org.infinispan.client.hotrod.test.InternalRemoteCacheManager;
+import org.infinispan.commands.write.PutKeyValueCommand;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.context.InvocationContext;
+import org.infinispan.interceptors.BaseCustomAsyncInterceptor;
+import org.infinispan.interceptors.impl.EntryWrappingInterceptor;
+import org.infinispan.server.hotrod.HotRodServer;
+import org.infinispan.test.MultipleCacheManagersTest;
+import org.infinispan.test.fwk.TestCacheManagerFactory;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.Test;
+
+/**
+ * Tests that the client sends most of the requests to the faster server when least-loaded routing is enabled.
+ *
+ * @since 9.2
+ */
+@Test(testName = "client.hotrod.LeastLoadedRoutingTest", groups = "functional")
+public class LeastLoadedRoutingTest extends MultipleCacheManagersTest {
+
+   private Cache<String, String> slowCache;
+   private Cache<String, String> fastCache;
+   private HotRodServer slowServer;
+   private HotRodServer fastServer;
+   private InternalRemoteCacheManager remoteCacheManager;
+   private RemoteCache<String, String> remoteCache;
+
+   @Override
+   protected void createCacheManagers() throws Throwable {
+      ConfigurationBuilder builder = new ConfigurationBuilder();
+      builder.customInterceptors().addInterceptor().interceptor(new DelayingInterceptor())
+            .after(EntryWrappingInterceptor.class);
+      slowCache = TestCacheManagerFactory.createCacheManager(hotRodCacheConfiguration(builder)).getCache();
+      fastCache = TestCacheManagerFactory.createCacheManager(hotRodCacheConfiguration()).getCache();
+      registerCacheManager(slowCache.getCacheManager(), fastCache.getCacheManager());
+
+      slowServer = HotRodClientTestingUtil.startHotRodServer(slowCache.getCacheManager());
+      fastServer = HotRodClientTestingUtil.startHotRodServer(fastCache.getCacheManager());
+
+      org.infinispan.client.hotrod.configuration.ConfigurationBuilder clientBuilder =
+            new org.infinispan.client.hotrod.configuration.ConfigurationBuilder();
+      clientBuilder.addServers(HotRodClientTestingUtil.getServersString(slowServer, fastServer));
+      clientBuilder.connectionPool().leastLoadedRouting(true);
+      remoteCacheManager = new InternalRemoteCacheManager(clientBuilder.build());
+      remoteCache = remoteCacheManager.getCache();
+   }
+
+   @AfterClass(alwaysRun = true)
+   public void tearDown() {
+      killRemoteCacheManager(remoteCacheManager);
+      killServers(slowServer, fastServer);
+   }
+
+   public void testRequestsAvoidSlowServer() {
+      int numPuts = 40;
+      for (int i = 0; i < numPuts; i++) {
+         remoteCache.put("k" + i, "v" + i);
+      }
+
+      assertEquals(numPuts, slowCache.size() + fastCache.size());
+      assertTrue("Slow server received " + slowCache.size() + " requests", slowCache.size() < numPuts / 4);
+
+      ChannelFactory channelFactory = remoteCacheManager.getChannelFactory();
+      SocketAddress slowAddress = InetSocketAddress.createUnresolved("localhost", slowServer.getPort());
+      SocketAddress fastAddress = InetSocketAddress.createUnresolved("localhost", fastServer.getPort());
+      assertEquals(0, channelFactory.getPendingRequests(slowAddress));
+      assertEquals(0, channelFactory.getPendingRequests(fastAddress));
+      assertTrue(channelFactory.getAverageLatency(slowAddress) > channelFactory.getAverageLatency(fastAddress));
+   }
+
+   static class DelayingInterceptor extends BaseCustomAsyncInterceptor {
+      @Override
+      public Object visitPutKeyValueCommand(InvocationContext ctx, PutKeyValueCommand command) throws Throwable {
+         Thread.sleep(50);
+         return invokeNext(ctx, command);
+      }
+   }
+}
@@ -0,0 +1,63 @@
+package org.infinispan.client.hotrod.near;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertNotSame;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.infinispan.client.hotrod.RemoteCacheManager;
+import org.infinispan.client.hotrod.configuration.ConfigurationBuilder;
+import org.infinispan.client.hotrod.configuration.NearCacheMode;
+import org.infinispan.client.hotrod.test.SingleHotRodServerTest;
+import org.infinispan.commons.CacheConfigurationException;
+import org.testng.annotations.Test;
+
+/**
+ * Tests a near cache that stores the values in marshalled form and is bounded by their size.
+ *
+ * @since 9.2
+ */
+@Test(groups = "functional", testName = "client.hotrod.near.SerializedNearCacheTest")
+public class SerializedNearCacheTest extends SingleHotRodServerTest {
+
+   AssertsNearCache<Integer, List<String>> assertClient;
+
+   @Override
+   protected RemoteCacheManager getRemoteCacheManager() {
+      ConfigurationBuilder builder = new ConfigurationBuilder();
+      builder.addServer().host("127.0.0.1").port(hotrodServer.getPort());
+      builder.nearCache().mode(NearCacheMode.INVALIDATED).maxBytes(1024 * 1024);
+      assertClient = AssertsNearCache.create(this.<byte[], Object>cache(), builder);
+      return assertClient.manager;
+   }
+
+   public void testConfiguration() {
+      assertTrue(assertClient.manager.getConfiguration().nearCache().serializeValues());
+      assertEquals(1024 * 1024, assertClient.manager.getConfiguration().nearCache().maxBytes());
+   }
+
+   @Test(expectedExceptions = CacheConfigurationException.class)
+   public void testMaxEntriesAndMaxBytes() {
+      new ConfigurationBuilder().nearCache().mode(NearCacheMode.INVALIDATED).maxEntries(10).maxBytes(1024).build();
+   }
+
+   public void testGetReturnsCopies() {
+      List<String> value = new ArrayList<>();
+      value.add("v1");
+      assertClient.expectNoNearEvents();
+      assertClient.put(1, value).expectNearRemove(1);
+      assertClient.get(1, value).expectNearGetNull(1).expectNearPutIfAbsent(1, value);
+
+      List<String> first = assertClient.remote.get(1);
+      List<String> second = assertClient.remote.get(1);
+      assertClient.expectNearGetValue(1, value).expectNearGetValue(1, value);
+      assertEquals(value, first);
+      assertNotSame(first, second);
+
+      // Changing the returned value does not change the near cache
+      first.add("v2");
+      assertClient.get(1, value).expectNearGetValue(1, value);
+   }
+}
@@ -8,6 +8,7 @@
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.function.ToIntBiFunction;
 
 import org.infinispan.commons.equivalence.Equivalence;
 
@@ -128,6 +129,18 @@ public static <K, V> ConcurrentMap<K, V> makeBoundedConcurrentMap(int maxSize) {
       return cache.asMap();
    }
 
+   /**
+    * Creates a concurrent map that evicts entries when the total weight of its entries exceeds {@code maxWeight}.
+    *
+    * @param weigher computes the weight of an entry, it must not change while the entry is in the map
+    * @since 9.2
+    */
+   public static <K, V> ConcurrentMap<K, V> makeBoundedConcurrentMap(long maxWeight,
+                                                                     ToIntBiFunction<? super K, ? super V> weigher) {
+      Cache<K, V> cache = Caffeine.newBuilder().maximumWeight(maxWeight).weigher(weigher::applyAsInt).build();
+      return cache.asMap();
+   }
+
    /**
     * @deprecated Since 9.0, please use {@link #makeMap()} instead.
     */
@@ -4,7 +4,10 @@
 import java.util.Map;
 import java.util.Set;
 import java.util.Spliterator;
+import java.util.function.Function;
 import java.util.function.ToIntFunction;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import org.infinispan.Cache;
 import org.infinispan.CacheSet;
@@ -16,9 +19,11 @@
 import org.infinispan.commons.util.CloseableSpliterator;
 import org.infinispan.commons.util.Closeables;
 import org.infinispan.commons.util.EnumUtil;
+import org.infinispan.commons.util.IntSet;
 import org.infinispan.commons.util.IteratorMapper;
 import org.infinispan.commons.util.RemovableIterator;
 import org.infinispan.container.DataContainer;
+import org.infinispan.container.SegmentedDataContainer;
 import org.infinispan.container.entries.CacheEntry;
 import org.infinispan.context.Flag;
 import org.infinispan.context.InvocationContext;
@@ -146,16 +151,25 @@ private ToIntFunction<Object> getSegmentMapper(Cache<K, V> cache) {
          return null;
       }
 
+      private Function<IntSet, Stream<CacheEntry<K, V>>> getSegmentSupplier(Cache<K, V> cache) {
+         DataContainer<K, V> dc = cache.getAdvancedCache().getDataContainer();
+         if (dc instanceof SegmentedDataContainer) {
+            SegmentedDataContainer<K, V> sdc = (SegmentedDataContainer<K, V>) dc;
+            return segments -> StreamSupport.stream(cast(sdc.spliterator(segments)), false);
+         }
+         return null;
+      }
+
       @Override
       public CacheStream<CacheEntry<K, V>> stream() {
          return new LocalCacheStream<>(new EntryStreamSupplier<>(cache, isRemoteIteration, getSegmentMapper(cache),
-                 () -> super.stream()), false, cache.getAdvancedCache().getComponentRegistry());
+                 () -> super.stream(), getSegmentSupplier(cache)), false, cache.getAdvancedCache().getComponentRegistry());
       }
 
       @Override
       public CacheStream<CacheEntry<K, V>> parallelStream() {
          return new LocalCacheStream<>(new EntryStreamSupplier<>(cache, isRemoteIteration, getSegmentMapper(cache),
-                 () -> super.stream()), true, cache.getAdvancedCache().getComponentRegistry());
+                 () -> super.stream(), getSegmentSupplier(cache)), true, cache.getAdvancedCache().getComponentRegistry());
       }
    }
 }
@@ -130,6 +130,9 @@ public EvictionStrategy evictionStrategy() {
     * more address pointers there are the less collisions there will be which improve performance of
     * both read and write operations. This is only used when OFF_HEAP storage type is configured
     * {@link MemoryConfigurationBuilder#storageType(StorageType)}.
+    * <p>
+    * Unless eviction is based on {@link EvictionType#MEMORY} this is only the initial number of pointers, as they are
+    * doubled whenever the container holds more than 3/4 as many entries as pointers.
     * @param addressCount
     * @return this
     */
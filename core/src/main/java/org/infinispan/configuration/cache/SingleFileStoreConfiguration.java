@@ -20,13 +20,15 @@ public class SingleFileStoreConfiguration extends AbstractStoreConfiguration imp
    public static final AttributeDefinition<String> LOCATION = AttributeDefinition.builder("location", "Infinispan-SingleFileStore").immutable().xmlName("path").global(false).build();
    public static final AttributeDefinition<Integer> MAX_ENTRIES = AttributeDefinition.builder("maxEntries", -1).immutable().build();
    public static final AttributeDefinition<Float> FRAGMENTATION_FACTOR = AttributeDefinition.builder("fragmentationFactor", 0.75f).immutable().build();
+   public static final AttributeDefinition<Boolean> OFF_HEAP_INDEX = AttributeDefinition.builder("offHeapIndex", false).immutable().build();
    public static AttributeSet attributeDefinitionSet() {
-      return new AttributeSet(SingleFileStoreConfiguration.class, AbstractStoreConfiguration.attributeDefinitionSet(), LOCATION, MAX_ENTRIES, FRAGMENTATION_FACTOR);
+      return new AttributeSet(SingleFileStoreConfiguration.class, AbstractStoreConfiguration.attributeDefinitionSet(), LOCATION, MAX_ENTRIES, FRAGMENTATION_FACTOR, OFF_HEAP_INDEX);
    }
 
    private final Attribute<String> location;
    private final Attribute<Integer> maxEntries;
    private final Attribute<Float> fragmentationFactor;
+   private final Attribute<Boolean> offHeapIndex;
 
    public SingleFileStoreConfiguration(AttributeSet attributes, AsyncStoreConfiguration async,
                                        SingletonStoreConfiguration singletonStore) {
@@ -34,6 +36,7 @@ public SingleFileStoreConfiguration(AttributeSet attributes, AsyncStoreConfigura
       location = attributes.attribute(LOCATION);
       maxEntries = attributes.attribute(MAX_ENTRIES);
       fragmentationFactor = attributes.attribute(FRAGMENTATION_FACTOR);
+      offHeapIndex = attributes.attribute(OFF_HEAP_INDEX);
    }
 
    public String location() {
@@ -48,6 +51,10 @@ public float fragmentationFactor () {
       return fragmentationFactor.get();
    }
 
+   public boolean offHeapIndex() {
+      return offHeapIndex.get();
+   }
+
    @Override
    public AttributeSet attributes() {
       return attributes;
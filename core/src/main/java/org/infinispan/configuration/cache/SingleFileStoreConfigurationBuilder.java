@@ -3,9 +3,12 @@
 import static org.infinispan.configuration.cache.SingleFileStoreConfiguration.FRAGMENTATION_FACTOR;
 import static org.infinispan.configuration.cache.SingleFileStoreConfiguration.LOCATION;
 import static org.infinispan.configuration.cache.SingleFileStoreConfiguration.MAX_ENTRIES;
+import static org.infinispan.configuration.cache.SingleFileStoreConfiguration.OFF_HEAP_INDEX;
 
 import org.infinispan.commons.configuration.Builder;
 import org.infinispan.commons.configuration.attributes.AttributeSet;
+import org.infinispan.util.logging.Log;
+import org.infinispan.util.logging.LogFactory;
 
 /**
  * Single file cache store configuration builder.
@@ -15,6 +18,7 @@
  */
 public class SingleFileStoreConfigurationBuilder
       extends AbstractStoreConfigurationBuilder<SingleFileStoreConfiguration, SingleFileStoreConfigurationBuilder> {
+   private static final Log log = LogFactory.getLog(SingleFileStoreConfigurationBuilder.class, Log.class);
 
    public SingleFileStoreConfigurationBuilder(PersistenceConfigurationBuilder builder) {
       this(builder, SingleFileStoreConfiguration.attributeDefinitionSet());
@@ -72,6 +76,25 @@ public SingleFileStoreConfigurationBuilder fragmentationFactor(float fragmentati
       return this;
    }
 
+   /**
+    * Keeps the index of keys and their position in the file outside of the Java heap. The off-heap index stores only
+    * the hash of the serialized keys, so the heap usage of the store doesn't grow with the number of entries, but
+    * every lookup compares the key with the one stored in the file. It cannot be used together with
+    * {@link #maxEntries(int)}.
+    */
+   public SingleFileStoreConfigurationBuilder offHeapIndex(boolean offHeapIndex) {
+      attributes.attribute(OFF_HEAP_INDEX).set(offHeapIndex);
+      return this;
+   }
+
+   @Override
+   public void validate() {
+      if (attributes.attribute(OFF_HEAP_INDEX).get() && attributes.attribute(MAX_ENTRIES).get() > 0) {
+         throw log.singleFileStoreOffHeapIndexWithMaxEntries();
+      }
+      super.validate();
+   }
+
    @Override
    public SingleFileStoreConfiguration create() {
       return new SingleFileStoreConfiguration(attributes.protect(), async.create(), singletonStore.create());
@@ -160,6 +160,7 @@ public enum Attribute {
     WHEN_SPLIT("when-split"),
     WRITE_SKEW_CHECK("write-skew"),
     FRAGMENTATION_FACTOR("fragmentation-factor"),
+    OFF_HEAP_INDEX("off-heap-index"),
     ;
 
     private final String name;
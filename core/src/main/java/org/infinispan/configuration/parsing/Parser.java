@@ -2396,6 +2396,10 @@ protected void parseFileStore(XMLExtendedStreamReader reader, ConfigurationBuild
                storeBuilder.fragmentationFactor(Float.parseFloat(value));
                break;
             }
+            case OFF_HEAP_INDEX: {
+               storeBuilder.offHeapIndex(Boolean.parseBoolean(value));
+               break;
+            }
             default: {
                parseStoreAttribute(reader, i, storeBuilder);
             }
@@ -0,0 +1,539 @@
+package org.infinispan.container;
+
+import static org.infinispan.commons.util.Util.toStr;
+
+import java.util.AbstractCollection;
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+import org.infinispan.commons.logging.Log;
+import org.infinispan.commons.logging.LogFactory;
+import org.infinispan.commons.util.CloseableSpliterator;
+import org.infinispan.commons.util.IteratorMapper;
+import org.infinispan.commons.util.PeekableMap;
+import org.infinispan.container.entries.InternalCacheEntry;
+import org.infinispan.eviction.ActivationManager;
+import org.infinispan.eviction.PassivationManager;
+import org.infinispan.expiration.ExpirationManager;
+import org.infinispan.factories.annotations.Inject;
+import org.infinispan.filter.KeyFilter;
+import org.infinispan.filter.KeyValueFilter;
+import org.infinispan.metadata.Metadata;
+import org.infinispan.metadata.impl.L1Metadata;
+import org.infinispan.util.CoreImmutables;
+import org.infinispan.util.TimeService;
+
+/**
+ * Base class for the heap based data containers, which store their entries in one or more {@link ConcurrentMap}s.
+ * Subclasses decide which map holds a given key; all the operations on single keys, the handling of expired entries
+ * and the iteration wrappers are implemented here.
+ *
+ * @since 9.2
+ */
+public abstract class AbstractDataContainer<K, V> implements DataContainer<K, V> {
+
+   private static final Log log = LogFactory.getLog(AbstractDataContainer.class);
+   private static final boolean trace = log.isTraceEnabled();
+
+   @Inject protected InternalEntryFactory entryFactory;
+   @Inject protected PassivationManager passivator;
+   @Inject protected ActivationManager activator;
+   @Inject protected TimeService timeService;
+   @Inject protected ExpirationManager<K, V> expirationManager;
+
+   /**
+    * @return the map that holds the given key, or {@code null} if there is none yet
+    */
+   protected abstract ConcurrentMap<K, InternalCacheEntry<K, V>> getMapForRead(Object key);
+
+   /**
+    * @return the map that holds the given key, creating it if needed
+    */
+   protected abstract ConcurrentMap<K, InternalCacheEntry<K, V>> getMapForWrite(Object key);
+
+   /**
+    * @return all the maps currently holding entries
+    */
+   protected abstract Iterable<ConcurrentMap<K, InternalCacheEntry<K, V>>> getMaps();
+
+   @Override
+   public InternalCacheEntry<K, V> peek(Object key) {
+      ConcurrentMap<K, InternalCacheEntry<K, V>> map = getMapForRead(key);
+      if (map == null) {
+         return null;
+      }
+      if (map instanceof PeekableMap) {
+         return ((PeekableMap<K, InternalCacheEntry<K, V>>) map).peek(key);
+      }
+      return map.get(key);
+   }
+
+   @Override
+   public InternalCacheEntry<K, V> get(Object k) {
+      ConcurrentMap<K, InternalCacheEntry<K, V>> map = getMapForRead(k);
+      InternalCacheEntry<K, V> e = map == null ? null : map.get(k);
+      if (e != null && e.canExpire()) {
+         long currentTimeMillis = timeService.wallClockTime();
+         if (e.isExpired(currentTimeMillis)) {
+            expirationManager.handleInMemoryExpiration(e, currentTimeMillis);
+            e = null;
+         } else {
+            e.touch(currentTimeMillis);
+         }
+      }
+      return e;
+   }
+
+   @Override
+   public void put(K k, V v, Metadata metadata) {
+      boolean l1Entry = false;
+      if (metadata instanceof L1Metadata) {
+         metadata = ((L1Metadata) metadata).metadata();
+         l1Entry = true;
+      }
+      ConcurrentMap<K, InternalCacheEntry<K, V>> map = getMapForWrite(k);
+      InternalCacheEntry<K, V> e = map.get(k);
+
+      if (trace) {
+         log.tracef("Creating new ICE for writing. Existing=%s, metadata=%s, new value=%s", e, metadata, toStr(v));
+      }
+      final InternalCacheEntry<K, V> copy;
+      if (l1Entry) {
+         copy = entryFactory.createL1(k, v, metadata);
+      } else if (e != null) {
+         copy = entryFactory.update(e, v, metadata);
+      } else {
+         // this is a brand-new entry
+         copy = entryFactory.create(k, v, metadata);
+      }
+
+      if (trace)
+         log.tracef("Store %s in container", copy);
+
+      map.compute(copy.getKey(), (key, entry) -> {
+         activator.onUpdate(key, entry == null);
+         return copy;
+      });
+      if (copy.canExpire()) {
+         expirationManager.scheduleExpiration(copy.getKey(), copy.getExpiryTime());
+      }
+   }
+
+   @Override
+   public boolean containsKey(Object k) {
+      InternalCacheEntry<K, V> ice = peek(k);
+      if (ice != null && ice.canExpire()) {
+         long currentTimeMillis = timeService.wallClockTime();
+         if (ice.isExpired(currentTimeMillis)) {
+            expirationManager.handleInMemoryExpiration(ice, currentTimeMillis);
+            ice = null;
+         }
+      }
+      return ice != null;
+   }
+
+   @Override
+   public InternalCacheEntry<K, V> remove(Object k) {
+      ConcurrentMap<K, InternalCacheEntry<K, V>> map = getMapForRead(k);
+      if (map == null) {
+         activator.onRemove(k, true);
+         return null;
+      }
+      final InternalCacheEntry<K,V>[] reference = new InternalCacheEntry[1];
+      map.compute((K) k, (key, entry) -> {
+         activator.onRemove(key, entry == null);
+         if (entry != null && entry.canExpire()) {
+            expirationManager.cancelExpiration(key);
+         }
+         reference[0] = entry;
+         return null;
+      });
+      InternalCacheEntry<K, V> e = reference[0];
+      if (trace) {
+         log.tracef("Removed %s from container", e);
+      }
+      return e == null || (e.canExpire() && e.isExpired(timeService.wallClockTime())) ? null : e;
+   }
+
+   @Override
+   public int size() {
+      int size = 0;
+      // We have to loop through to make sure to remove expired entries
+      for (Iterator<InternalCacheEntry<K, V>> iter = iterator(); iter.hasNext(); ) {
+         iter.next();
+         if (++size == Integer.MAX_VALUE) return Integer.MAX_VALUE;
+      }
+      return size;
+   }
+
+   @Override
+   public void clear() {
+      log.tracef("Clearing data container");
+      // The maps are emptied rather than replaced, so a concurrent write cannot end up in a map that was dropped
+      for (ConcurrentMap<K, InternalCacheEntry<K, V>> map : getMaps()) {
+         map.clear();
+      }
+   }
+
+   @Override
+   public Set<K> keySet() {
+      return new KeySet();
+   }
+
+   @Override
+   public Collection<V> values() {
+      return new Values();
+   }
+
+   @Override
+   public Set<InternalCacheEntry<K, V>> entrySet() {
+      return new EntrySet();
+   }
+
+   @Override
+   public void evict(K key) {
+      ConcurrentMap<K, InternalCacheEntry<K, V>> map = getMapForRead(key);
+      if (map != null) {
+         map.computeIfPresent(key, (o, entry) -> {
+            passivator.passivate(entry);
+            if (entry.canExpire()) {
+               expirationManager.cancelExpiration(o);
+            }
+            return null;
+         });
+      }
+   }
+
+   @Override
+   public InternalCacheEntry<K, V> compute(K key, ComputeAction<K, V> action) {
+      return getMapForWrite(key).compute(key, (k, oldEntry) -> {
+         InternalCacheEntry<K, V> newEntry = action.compute(k, oldEntry, entryFactory);
+         if (newEntry == oldEntry) {
+            return oldEntry;
+         } else if (newEntry == null) {
+            activator.onRemove(k, false);
+            if (oldEntry != null && oldEntry.canExpire()) {
+               expirationManager.cancelExpiration(k);
+            }
+            return null;
+         }
+         activator.onUpdate(k, oldEntry == null);
+         if (newEntry.canExpire()) {
+            expirationManager.scheduleExpiration(k, newEntry.getExpiryTime());
+         }
+         if (trace)
+            log.tracef("Store %s in container", newEntry);
+         return newEntry;
+      });
+   }
+
+   @Override
+   public Iterator<InternalCacheEntry<K, V>> iterator() {
+      return new EntryIterator(iteratorIncludingExpired());
+   }
+
+   @Override
+   public Spliterator<InternalCacheEntry<K, V>> spliterator() {
+      return new EntrySpliterator(spliteratorIncludingExpired());
+   }
+
+   @Override
+   public void executeTask(final KeyFilter<? super K> filter, final BiConsumer<? super K, InternalCacheEntry<K, V>> action)
+         throws InterruptedException {
+      if (filter == null)
+         throw new IllegalArgumentException("No filter specified");
+      if (action == null)
+         throw new IllegalArgumentException("No action specified");
+
+      long now = timeService.wallClockTime();
+      for (ConcurrentMap<K, InternalCacheEntry<K, V>> map : getMaps()) {
+         map.forEach((K key, InternalCacheEntry<K, V> value) -> {
+            if (filter.accept(key) && !value.isExpired(now)) {
+               action.accept(key, value);
+            }
+         });
+      }
+      //TODO figure out the way how to do interruption better (during iteration)
+      if(Thread.currentThread().isInterrupted()){
+         throw new InterruptedException();
+      }
+   }
+
+   @Override
+   public void executeTask(final KeyValueFilter<? super K, ? super V> filter, final BiConsumer<? super K, InternalCacheEntry<K, V>> action)
+         throws InterruptedException {
+      if (filter == null)
+         throw new IllegalArgumentException("No filter specified");
+      if (action == null)
+         throw new IllegalArgumentException("No action specified");
+
+      long now = timeService.wallClockTime();
+      for (ConcurrentMap<K, InternalCacheEntry<K, V>> map : getMaps()) {
+         map.forEach((K key, InternalCacheEntry<K, V> value) -> {
+            if (filter.accept(key, value.getValue(), value.getMetadata()) && !value.isExpired(now)) {
+               action.accept(key, value);
+            }
+         });
+      }
+      //TODO figure out the way how to do interruption better (during iteration)
+      if(Thread.currentThread().isInterrupted()){
+         throw new InterruptedException();
+      }
+   }
+
+   private class ImmutableEntryIterator extends EntryIterator {
+      ImmutableEntryIterator(Iterator<InternalCacheEntry<K, V>> it){
+         super(it);
+      }
+
+      @Override
+      public InternalCacheEntry<K, V> next() {
+         return CoreImmutables.immutableInternalCacheEntry(super.next());
+      }
+   }
+
+   /**
+    * Iterator that wraps another to make sure to not return expired entries.
+    */
+   public class EntryIterator implements Iterator<InternalCacheEntry<K, V>> {
+
+      private final Iterator<InternalCacheEntry<K, V>> it;
+
+      private InternalCacheEntry<K, V> next;
+
+      EntryIterator(Iterator<InternalCacheEntry<K, V>> it) {
+         this.it=it;
+      }
+
+      private InternalCacheEntry<K, V> getNext() {
+         boolean initializedTime = false;
+         long now = 0;
+         while (it.hasNext()) {
+            InternalCacheEntry<K, V> entry = it.next();
+            if (!entry.canExpire()) {
+               if (trace) {
+                  log.tracef("Return next entry %s", entry);
+               }
+               return entry;
+            } else {
+               if (!initializedTime) {
+                  now = timeService.wallClockTime();
+                  initializedTime = true;
+               }
+               if (!entry.isExpired(now)) {
+                  if (trace) {
+                     log.tracef("Return next entry %s", entry);
+                  }
+                  return entry;
+               } else if (trace) {
+                  log.tracef("%s is expired", entry);
+               }
+            }
+         }
+         if (trace) {
+            log.tracef("Return next null");
+         }
+         return null;
+      }
+
+      @Override
+      public InternalCacheEntry<K, V> next() {
+         if (next == null) {
+            next = getNext();
+         }
+         if (next == null) {
+            throw new NoSuchElementException();
+         }
+         InternalCacheEntry<K, V> toReturn = next;
+         next = null;
+         return toReturn;
+      }
+
+      @Override
+      public boolean hasNext() {
+         if (next == null) {
+            next = getNext();
+         }
+         return next != null;
+      }
+
+      @Override
+      public void remove() {
+         throw new UnsupportedOperationException();
+      }
+   }
+
+   /**
+    * Spliterator that wraps another to make sure to now return expired entries. This class also implements
+    * CloseableSpliterator to prevent additional allocations if user needs it to be closeable.
+    */
+   class EntrySpliterator implements CloseableSpliterator<InternalCacheEntry<K, V>> {
+      private final Spliterator<InternalCacheEntry<K, V>> spliterator;
+      // We assume that spliterator is not used concurrently - normally it is split so we can use these variables safely
+      private final Consumer<? super InternalCacheEntry<K, V>> consumer = ice -> current = ice;
+
+      private InternalCacheEntry<K, V> current;
+
+      EntrySpliterator(Spliterator<InternalCacheEntry<K, V>> spliterator) {
+         this.spliterator = spliterator;
+      }
+
+      @Override
+      public void close() {
+         // Do nothing
+      }
+
+      @Override
+      public boolean tryAdvance(Consumer<? super InternalCacheEntry<K, V>> action) {
+         InternalCacheEntry<K, V> entryToUse = null;
+         boolean initializedTime = false;
+         long now = 0;
+         while (entryToUse == null && spliterator.tryAdvance(consumer)) {
+            entryToUse = current;
+            if (entryToUse.canExpire()) {
+               if (!initializedTime) {
+                  now = timeService.wallClockTime();
+                  initializedTime = true;
+               }
+               if (entryToUse.isExpired(now)) {
+                  entryToUse = null;
+               }
+            }
+         }
+         if (entryToUse != null) {
+            action.accept(entryToUse);
+            return true;
+         }
+
+         return false;
+      }
+
+      @Override
+      public void forEachRemaining(Consumer<? super InternalCacheEntry<K, V>> action) {
+         // We don't call the forEachRemaining on the actual spliterator since, we want to keep the time between
+         // invocations
+         boolean initializedTime = false;
+         long now = 0;
+
+         while (spliterator.tryAdvance(consumer)) {
+            InternalCacheEntry<K, V> currentEntry = current;
+            if (currentEntry.canExpire()) {
+               if (!initializedTime) {
+                  now = timeService.wallClockTime();
+                  initializedTime = true;
+               }
+               if (currentEntry.isExpired(now)) {
+                  continue;
+               }
+            }
+            action.accept(currentEntry);
+         }
+      }
+
+      @Override
+      public Spliterator<InternalCacheEntry<K, V>> trySplit() {
+         Spliterator<InternalCacheEntry<K, V>> split = spliterator.trySplit();
+         if (split != null) {
+            return new EntrySpliterator(split);
+         }
+         return null;
+      }
+
+      @Override
+      public long estimateSize() {
+         return spliterator.estimateSize();
+      }
+
+      @Override
+      public int characteristics() {
+         return spliterator.characteristics() | Spliterator.DISTINCT;
+      }
+   }
+
+   /**
+    * Minimal implementation needed for unmodifiable Set
+    */
+   private class KeySet extends AbstractSet<K> {
+      @Override
+      public boolean contains(Object o) {
+         return peek(o) != null;
+      }
+
+      @Override
+      public Iterator<K> iterator() {
+         return new IteratorMapper<>(iteratorIncludingExpired(), Map.Entry::getKey);
+      }
+
+      @Override
+      public int size() {
+         return sizeIncludingExpired();
+      }
+   }
+
+   /**
+    * Minimal implementation needed for unmodifiable Set
+    *
+    */
+   private class EntrySet extends AbstractSet<InternalCacheEntry<K, V>> {
+
+      @Override
+      public boolean contains(Object o) {
+         if (!(o instanceof Map.Entry)) {
+            return false;
+         }
+
+         @SuppressWarnings("rawtypes")
+         Map.Entry e = (Map.Entry) o;
+         InternalCacheEntry ice = peek(e.getKey());
+         if (ice == null) {
+            return false;
+         }
+         return ice.getValue().equals(e.getValue());
+      }
+
+      @Override
+      public Iterator<InternalCacheEntry<K, V>> iterator() {
+         return new ImmutableEntryIterator(iteratorIncludingExpired());
+      }
+
+      @Override
+      public int size() {
+         return sizeIncludingExpired();
+      }
+
+      @Override
+      public Spliterator<InternalCacheEntry<K, V>> spliterator() {
+         return Spliterators.spliterator(this, Spliterator.DISTINCT | Spliterator.CONCURRENT);
+      }
+   }
+
+   /**
+    * Minimal implementation needed for unmodifiable Collection
+    *
+    */
+   private class Values extends AbstractCollection<V> {
+      @Override
+      public Iterator<V> iterator() {
+         return new IteratorMapper<>(iteratorIncludingExpired(), Map.Entry::getValue);
+      }
+
+      @Override
+      public int size() {
+         return sizeIncludingExpired();
+      }
+
+      @Override
+      public Spliterator<V> spliterator() {
+         return Spliterators.spliterator(this, Spliterator.CONCURRENT);
+      }
+   }
+}
@@ -0,0 +1,249 @@
+package org.infinispan.container;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+import org.infinispan.commons.logging.Log;
+import org.infinispan.commons.logging.LogFactory;
+import org.infinispan.commons.util.AbstractIterator;
+import org.infinispan.commons.util.CloseableSpliterator;
+import org.infinispan.commons.util.CollectionFactory;
+import org.infinispan.commons.util.IntSet;
+import org.infinispan.container.entries.InternalCacheEntry;
+import org.infinispan.distribution.ch.KeyPartitioner;
+import org.infinispan.factories.annotations.Inject;
+
+import net.jcip.annotations.ThreadSafe;
+
+/**
+ * Unbounded {@link SegmentedDataContainer} that keeps a separate map for every segment. The map for a segment is
+ * created on the first write to it and is kept afterwards: {@link #clear()} only removes its entries, so a write
+ * running concurrently is never lost in a map that is no longer referenced.
+ *
+ * @since 9.2
+ */
+@ThreadSafe
+public class DefaultSegmentedDataContainer<K, V> extends AbstractDataContainer<K, V> implements SegmentedDataContainer<K, V> {
+
+   private static final Log log = LogFactory.getLog(DefaultSegmentedDataContainer.class);
+   private static final boolean trace = log.isTraceEnabled();
+
+   private final AtomicReferenceArray<ConcurrentMap<K, InternalCacheEntry<K, V>>> maps;
+   private final int concurrencyLevel;
+
+   @Inject private KeyPartitioner keyPartitioner;
+
+   public DefaultSegmentedDataContainer(int concurrencyLevel, int numSegments) {
+      this.maps = new AtomicReferenceArray<>(numSegments);
+      this.concurrencyLevel = concurrencyLevel;
+   }
+
+   @Override
+   protected ConcurrentMap<K, InternalCacheEntry<K, V>> getMapForRead(Object key) {
+      return maps.get(keyPartitioner.getSegment(key));
+   }
+
+   @Override
+   protected ConcurrentMap<K, InternalCacheEntry<K, V>> getMapForWrite(Object key) {
+      int segment = keyPartitioner.getSegment(key);
+      ConcurrentMap<K, InternalCacheEntry<K, V>> map;
+      while ((map = maps.get(segment)) == null) {
+         ConcurrentMap<K, InternalCacheEntry<K, V>> newMap = CollectionFactory.makeConcurrentParallelMap(16,
+               concurrencyLevel);
+         if (maps.compareAndSet(segment, null, newMap)) {
+            if (trace) {
+               log.tracef("Created map for segment %d", segment);
+            }
+            return newMap;
+         }
+      }
+      return map;
+   }
+
+   @Override
+   protected Iterable<ConcurrentMap<K, InternalCacheEntry<K, V>>> getMaps() {
+      List<ConcurrentMap<K, InternalCacheEntry<K, V>>> list = new ArrayList<>(maps.length());
+      for (int i = 0; i < maps.length(); ++i) {
+         ConcurrentMap<K, InternalCacheEntry<K, V>> map = maps.get(i);
+         if (map != null) {
+            list.add(map);
+         }
+      }
+      return list;
+   }
+
+   @Override
+   public int sizeIncludingExpired() {
+      return sizeIncludingExpired(allSegments());
+   }
+
+   @Override
+   public int sizeIncludingExpired(IntSet segments) {
+      return sizeIncludingExpired(segments.iterator());
+   }
+
+   private int sizeIncludingExpired(PrimitiveIterator.OfInt segments) {
+      long size = 0;
+      while (segments.hasNext()) {
+         int segment = segments.nextInt();
+         ConcurrentMap<K, InternalCacheEntry<K, V>> map = segment < maps.length() ? maps.get(segment) : null;
+         if (map != null) {
+            size += map.size();
+         }
+      }
+      return size > Integer.MAX_VALUE ? Integer.MAX_VALUE : (int) size;
+   }
+
+   @Override
+   public Iterator<InternalCacheEntry<K, V>> iterator(IntSet segments) {
+      return new EntryIterator(new SegmentsIterator(segments.iterator()));
+   }
+
+   @Override
+   public Iterator<InternalCacheEntry<K, V>> iteratorIncludingExpired() {
+      return new SegmentsIterator(allSegments());
+   }
+
+   @Override
+   public Iterator<InternalCacheEntry<K, V>> iteratorIncludingExpired(IntSet segments) {
+      return new SegmentsIterator(segments.iterator());
+   }
+
+   @Override
+   public Spliterator<InternalCacheEntry<K, V>> spliterator(IntSet segments) {
+      return new EntrySpliterator(spliteratorIncludingExpired(segments));
+   }
+
+   @Override
+   public Spliterator<InternalCacheEntry<K, V>> spliteratorIncludingExpired() {
+      return new SegmentsSpliterator(IntStream.range(0, maps.length()).toArray());
+   }
+
+   @Override
+   public Spliterator<InternalCacheEntry<K, V>> spliteratorIncludingExpired(IntSet segments) {
+      return new SegmentsSpliterator(segments.intStream().filter(s -> s < maps.length()).toArray());
+   }
+
+   private PrimitiveIterator.OfInt allSegments() {
+      return IntStream.range(0, maps.length()).iterator();
+   }
+
+   /**
+    * Iterator that returns the entries of each of the given segments in turn, including expired ones.
+    */
+   private class SegmentsIterator extends AbstractIterator<InternalCacheEntry<K, V>> {
+      private final PrimitiveIterator.OfInt segments;
+      private Iterator<InternalCacheEntry<K, V>> current;
+
+      SegmentsIterator(PrimitiveIterator.OfInt segments) {
+         this.segments = segments;
+      }
+
+      @Override
+      protected InternalCacheEntry<K, V> getNext() {
+         while (current == null || !current.hasNext()) {
+            if (!segments.hasNext()) {
+               return null;
+            }
+            int segment = segments.nextInt();
+            ConcurrentMap<K, InternalCacheEntry<K, V>> map = segment < maps.length() ? maps.get(segment) : null;
+            current = map == null ? null : map.values().iterator();
+         }
+         return current.next();
+      }
+   }
+
+   /**
+    * Spliterator over the entries of the given segments, including expired ones. Splitting first divides the
+    * segments and only when a single segment remains is the map of that segment split.
+    */
+   private class SegmentsSpliterator implements CloseableSpliterator<InternalCacheEntry<K, V>> {
+      private final int[] segments;
+      private int index;
+      private final int end;
+      private Spliterator<InternalCacheEntry<K, V>> current;
+
+      SegmentsSpliterator(int[] segments) {
+         this(segments, 0, segments.length);
+      }
+
+      private SegmentsSpliterator(int[] segments, int index, int end) {
+         this.segments = segments;
+         this.index = index;
+         this.end = end;
+      }
+
+      private Spliterator<InternalCacheEntry<K, V>> nextSpliterator() {
+         while (index < end) {
+            ConcurrentMap<K, InternalCacheEntry<K, V>> map = maps.get(segments[index++]);
+            if (map != null) {
+               return map.values().spliterator();
+            }
+         }
+         return null;
+      }
+
+      @Override
+      public boolean tryAdvance(Consumer<? super InternalCacheEntry<K, V>> action) {
+         do {
+            if (current != null && current.tryAdvance(action)) {
+               return true;
+            }
+         } while ((current = nextSpliterator()) != null);
+         return false;
+      }
+
+      @Override
+      public void forEachRemaining(Consumer<? super InternalCacheEntry<K, V>> action) {
+         if (current != null) {
+            current.forEachRemaining(action);
+         }
+         while ((current = nextSpliterator()) != null) {
+            current.forEachRemaining(action);
+         }
+      }
+
+      @Override
+      public Spliterator<InternalCacheEntry<K, V>> trySplit() {
+         if (current == null && end - index > 1) {
+            int mid = (index + end) >>> 1;
+            SegmentsSpliterator split = new SegmentsSpliterator(segments, index, mid);
+            index = mid;
+            return split;
+         }
+         if (current == null) {
+            current = nextSpliterator();
+         }
+         return current != null ? current.trySplit() : null;
+      }
+
+      @Override
+      public long estimateSize() {
+         long size = current != null ? current.estimateSize() : 0;
+         for (int i = index; i < end; ++i) {
+            ConcurrentMap<K, InternalCacheEntry<K, V>> map = maps.get(segments[i]);
+            if (map != null) {
+               size += map.size();
+            }
+         }
+         return size;
+      }
+
+      @Override
+      public int characteristics() {
+         return Spliterator.CONCURRENT | Spliterator.NONNULL | Spliterator.DISTINCT;
+      }
+
+      @Override
+      public void close() {
+         // Do nothing
+      }
+   }
+}
@@ -0,0 +1,58 @@
+package org.infinispan.container;
+
+import java.util.Iterator;
+import java.util.Spliterator;
+
+import org.infinispan.commons.util.IntSet;
+import org.infinispan.container.entries.InternalCacheEntry;
+
+/**
+ * A {@link DataContainer} that stores the entries of each segment, as determined by the
+ * {@link org.infinispan.distribution.ch.KeyPartitioner}, separately from the others. This allows operations that are
+ * only interested in a subset of segments, such as state transfer or segment filtered streams, to only visit the
+ * entries of those segments instead of the whole container.
+ * <p>
+ * All the methods inherited from {@link DataContainer} still operate on every segment.
+ * @since 9.2
+ */
+public interface SegmentedDataContainer<K, V> extends DataContainer<K, V> {
+
+   /**
+    * Same as {@link DataContainer#iterator()} except that only entries mapping to the provided segments are returned.
+    * @param segments the segments to iterate over
+    * @return iterator that doesn't produce expired entries
+    */
+   Iterator<InternalCacheEntry<K, V>> iterator(IntSet segments);
+
+   /**
+    * Same as {@link DataContainer#iteratorIncludingExpired()} except that only entries mapping to the provided
+    * segments are returned.
+    * @param segments the segments to iterate over
+    * @return iterator that returns all entries including expired ones
+    */
+   Iterator<InternalCacheEntry<K, V>> iteratorIncludingExpired(IntSet segments);
+
+   /**
+    * Same as {@link DataContainer#spliterator()} except that only entries mapping to the provided segments are
+    * returned.
+    * @param segments the segments to iterate over
+    * @return spliterator that doesn't produce expired entries
+    */
+   Spliterator<InternalCacheEntry<K, V>> spliterator(IntSet segments);
+
+   /**
+    * Same as {@link DataContainer#spliteratorIncludingExpired()} except that only entries mapping to the provided
+    * segments are returned.
+    * @param segments the segments to iterate over
+    * @return spliterator that returns all entries including expired ones
+    */
+   Spliterator<InternalCacheEntry<K, V>> spliteratorIncludingExpired(IntSet segments);
+
+   /**
+    * Same as {@link DataContainer#sizeIncludingExpired()} except that only entries mapping to the provided segments
+    * are counted. This method is O(number of segments).
+    * @param segments the segments to count entries for
+    * @return count of the number of entries in the given segments including expired entries
+    */
+   int sizeIncludingExpired(IntSet segments);
+}
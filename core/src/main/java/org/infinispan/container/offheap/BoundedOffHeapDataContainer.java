@@ -4,6 +4,8 @@
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.LongUnaryOperator;
@@ -17,12 +19,16 @@
 
 /**
  * Data Container implementation that stores entries in native memory (off-heap) that is also bounded.  This
- * implementation uses a simple LRU doubly linked list off-heap guarded by a single lock.
+ * implementation keeps a separate LRU doubly linked list off-heap for every stripe of the {@link StripedLock}, so
+ * that threads touching keys in different stripes never contend on the LRU bookkeeping.
  * <p>
- * The link list is represented by firstAddress as the had of the list and lastAddress as the tail of the list. Each
- * entry in the list consists of 28 bytes (3 longs and 1 int), the first long is the actual entry address, the second is
- * a pointer to the previous element in the list, the third is the next pointer and lastly the int is the hashCode of
- * the key to retrieve the lock. The hashCode is required to know which lock to use when trying to read the entry.
+ * The list of a stripe is represented by firstAddresses[stripe] as the head of the list and lastAddresses[stripe] as
+ * the tail of the list. The previous and next pointers are stored in the entry itself, see {@link OffHeapLruNode}.
+ * A list is only modified while holding the write lock of its stripe, or while holding the read lock of its stripe
+ * and its lruLock, which is only needed to reorder the list on a read.
+ * <p>
+ * The size of the container is tracked globally. When it exceeds the maximum, the head of each stripe's list is
+ * evicted in turn, which approximates a global LRU as keys are spread evenly across the stripes.
  *
  * @author wburns
  * @since 9.0
@@ -30,17 +36,21 @@
 public class BoundedOffHeapDataContainer extends OffHeapDataContainer {
    private static final Log log = LogFactory.getLog(MethodHandles.lookup().lookupClass());
    protected final long maxSize;
-   protected final Lock lruLock;
+   protected final Lock[] lruLocks;
    protected final LongUnaryOperator sizeCalculator;
    protected final long initialSize;
+   protected final EvictionType type;
+
+   protected final AtomicLong currentSize;
+   protected final long[] firstAddresses;
+   protected final long[] lastAddresses;
 
-   protected long currentSize;
-   protected long firstAddress;
-   protected long lastAddress;
+   private final AtomicInteger evictionStripe = new AtomicInteger();
 
    public BoundedOffHeapDataContainer(int desiredSize, long maxSize, EvictionType type) {
       super(desiredSize);
       this.maxSize = maxSize;
+      this.type = type;
       if (type == EvictionType.COUNT) {
          sizeCalculator = i -> 1;
          initialSize = 0;
@@ -49,10 +59,14 @@ public BoundedOffHeapDataContainer(int desiredSize, long maxSize, EvictionType t
          sizeCalculator = i -> offHeapEntryFactory.getSize(i);
          // We have to make sure to count the address hash as part of our size
          initialSize = UnpooledOffHeapMemoryAllocator.estimateSizeOverhead(memoryAddressCount << 3);
-         currentSize = initialSize;
       }
-      this.lruLock = new ReentrantLock();
-      firstAddress = 0;
+      this.currentSize = new AtomicLong(initialSize);
+      this.lruLocks = new Lock[lockCount];
+      for (int i = 0; i < lockCount; ++i) {
+         lruLocks[i] = new ReentrantLock();
+      }
+      this.firstAddresses = new long[lockCount];
+      this.lastAddresses = new long[lockCount];
    }
 
    @Override
@@ -76,84 +90,74 @@ public InternalCacheEntry<WrappedBytes, WrappedBytes> compute(WrappedBytes key,
       return result;
    }
 
+   private int getStripe(long address) {
+      return locks.getOffsetFromHashCode(offHeapEntryFactory.getHashCode(address));
+   }
+
    @Override
    protected void entryReplaced(long newAddress, long oldAddress) {
       long oldSize = sizeCalculator.applyAsLong(oldAddress);
       long newSize = sizeCalculator.applyAsLong(newAddress);
-      lruLock.lock();
-      try {
-         removeNode(oldAddress);
-         addEntryAddressToEnd(newAddress);
+      // The write lock of the stripe is held so nobody else can be touching this list
+      int stripe = getStripe(newAddress);
+      removeNode(stripe, oldAddress);
+      addEntryAddressToEnd(stripe, newAddress);
 
-         currentSize += newSize;
-         currentSize -= oldSize;
-         // Must only remove entry while holding lru lock now
-         super.entryReplaced(newAddress, oldAddress);
-      } finally {
-         lruLock.unlock();
-      }
+      currentSize.addAndGet(newSize - oldSize);
+      super.entryReplaced(newAddress, oldAddress);
    }
 
    @Override
    protected void entryCreated(long newAddress) {
       long newSize = sizeCalculator.applyAsLong(newAddress);
-      lruLock.lock();
-      try {
-         currentSize += newSize;
-         addEntryAddressToEnd(newAddress);
-         super.entryCreated(newAddress);
-      } finally {
-         lruLock.unlock();
-      }
+      // The write lock of the stripe is held so nobody else can be touching this list
+      addEntryAddressToEnd(getStripe(newAddress), newAddress);
+      currentSize.addAndGet(newSize);
+      super.entryCreated(newAddress);
    }
 
    @Override
    protected void entryRemoved(long removedAddress) {
       long removedSize = sizeCalculator.applyAsLong(removedAddress);
-      lruLock.lock();
-      try {
-         // Current size has to be updated in the lock
-         currentSize -=  removedSize;
-         removeNode(removedAddress);
-         // Removals are only done while holding lru lock now
-         super.entryRemoved(removedAddress);
-      } finally {
-         lruLock.unlock();
-      }
+      // The write lock of the stripe is held so nobody else can be touching this list
+      removeNode(getStripe(removedAddress), removedAddress);
+      currentSize.addAndGet(-removedSize);
+      super.entryRemoved(removedAddress);
    }
 
    /**
     * Removes the address node and updates previous and next lru node pointers properly
-    * The {@link BoundedOffHeapDataContainer#lruLock} <b>must</b> be held when invoking this
-    * @param address
+    * The write lock of the stripe <b>must</b> be held when invoking this
+    * @param stripe the stripe the address belongs to
+    * @param address the entry address to remove from the list
     */
-   private void removeNode(long address) {
+   private void removeNode(int stripe, long address) {
       boolean middleNode = true;
-      if (address == lastAddress) {
+      if (address == lastAddresses[stripe]) {
          if (trace) {
-            getLog().tracef("Removed entry 0x%016x from the end of the LRU list", address);
+            getLog().tracef("Removed entry 0x%016x from the end of the LRU list %d", address, stripe);
          }
          long previousLRUNode = OffHeapLruNode.getPrevious(address);
          if (previousLRUNode != 0) {
             OffHeapLruNode.setNext(previousLRUNode, 0);
          }
-         lastAddress = previousLRUNode;
+         lastAddresses[stripe] = previousLRUNode;
          middleNode = false;
       }
-      if (address == firstAddress) {
+      if (address == firstAddresses[stripe]) {
          if (trace) {
-            getLog().tracef("Removed entry 0x%016x from the beginning of the LRU list", address);
+            getLog().tracef("Removed entry 0x%016x from the beginning of the LRU list %d", address, stripe);
          }
          long nextLRUNode = OffHeapLruNode.getNext(address);
          if (nextLRUNode != 0) {
             OffHeapLruNode.setPrevious(nextLRUNode, 0);
          }
-         firstAddress = nextLRUNode;
+         firstAddresses[stripe] = nextLRUNode;
          middleNode = false;
       }
       if (middleNode) {
          if (trace) {
-            getLog().tracef("Removed entry 0x%016x from the middle of the LRU list", address);
+            getLog().tracef("Removed entry 0x%016x from the middle of the LRU list %d", address, stripe);
          }
          // We are a middle pointer so both of these have to be non zero
          long previousLRUNode = OffHeapLruNode.getPrevious(address);
@@ -167,12 +171,15 @@ private void removeNode(long address) {
 
    @Override
    protected void entryRetrieved(long entryAddress) {
+      // Only the read lock is held, so other readers of the same stripe may be reordering the list too
+      int stripe = getStripe(entryAddress);
+      Lock lruLock = lruLocks[stripe];
       lruLock.lock();
       try {
          if (trace) {
-            getLog().tracef("Moving entry 0x%016x to the end of the LRU list", entryAddress);
+            getLog().tracef("Moving entry 0x%016x to the end of the LRU list %d", entryAddress, stripe);
          }
-         moveToEnd(entryAddress);
+         moveToEnd(stripe, entryAddress);
          super.entryRetrieved(entryAddress);
       } finally {
          lruLock.unlock();
@@ -184,14 +191,11 @@ protected void performClear() {
       if (trace) {
          getLog().trace("Clearing bounded LRU entries");
       }
-      // Technically we don't need to do lruLock since clear obtains all write locks first
-      lruLock.lock();
-      try {
-         currentSize = initialSize;
-         firstAddress = 0;
-         lastAddress = 0;
-      } finally {
-         lruLock.unlock();
+      // All the write locks are held, so no list can be concurrently modified
+      currentSize.set(initialSize);
+      for (int i = 0; i < lockCount; ++i) {
+         firstAddresses[i] = 0;
+         lastAddresses[i] = 0;
       }
       if (trace) {
          getLog().trace("Cleared bounded LRU entries");
@@ -199,6 +203,12 @@ protected void performClear() {
       super.performClear();
    }
 
+   @Override
+   protected boolean isResizable() {
+      // The address hash is counted against the maximum size when bounded by memory, so it can't grow
+      return type == EvictionType.COUNT;
+   }
+
    @Override
    public long capacity() {
       return maxSize;
@@ -206,83 +216,43 @@ public long capacity() {
 
    @Override
    public long evictionSize() {
-      return currentSize;
+      return currentSize.get();
    }
 
    /**
-    * This method repeatedly removes the head of the LRU list until there the current size is less than or equal to
-    * `maxSize`.
-    * <p>
-    * We need to hold the LRU lock in order to check the current size and to read the head entry,
-    * and then we need to hold the head entry's write lock in order to remove it.
-    * The problem is that the correct acquisition order is entry write lock first, LRU lock second,
-    * and we need to hold the LRU lock so that we know which entry write lock to acquire.
+    * This method repeatedly removes the head of a stripe's LRU list until the current size is less than or equal to
+    * `maxSize`. The stripes are visited in a round robin fashion shared by all the threads that need to evict.
     * <p>
-    * To work around it, we first try to acquire the entry write lock without blocking.
-    * If that fails, we release the LRU lock and we acquire the locks in the correct order, hoping that
-    * the LRU head doesn't change while we wait. Because the entry write locks are striped, we actually
-    * tolerate a LRU head change as long as the new head entry is in the same lock stripe.
-    * If the LRU list head changes, we release both locks and try again.
+    * Since the stripe is known before looking at its list, the write lock of the stripe can be acquired first and
+    * it protects the list as well as the entry that is removed.
     */
    private void ensureSize() {
-
-      while (true) {
-         long addressToRemove;
-         Lock entryWriteLock;
-         lruLock.lock();
+      int emptyStripes = 0;
+      // Stop if every stripe was found empty, so we can't loop forever if the overhead alone is over the maximum
+      while (currentSize.get() > maxSize && emptyStripes < lockCount) {
+         int stripe = evictionStripe.getAndIncrement() & (lockCount - 1);
+         Lock entryWriteLock = locks.getLockWithOffset(stripe).writeLock();
+         entryWriteLock.lock();
          try {
-            if (currentSize <= maxSize) {
+            if (currentSize.get() <= maxSize) {
                break;
             }
-            int hashCode = offHeapEntryFactory.getHashCode(firstAddress);
-            entryWriteLock = locks.getLockFromHashCode(hashCode).writeLock();
-            if (!entryWriteLock.tryLock()) {
-               addressToRemove = 0;
-            } else {
-               addressToRemove = firstAddress;
-            }
-         } finally {
-            lruLock.unlock();
-         }
-
-         if (addressToRemove == 0) {
-            entryWriteLock.lock();
-            try {
-               lruLock.lock();
-               try {
-                  if (currentSize <= maxSize) {
-                     break;
-                  }
-                  int hashCode = offHeapEntryFactory.getHashCode(firstAddress);
-                  Lock innerLock = locks.getLockFromHashCode(hashCode).writeLock();
-                  if (innerLock == entryWriteLock) {
-                     addressToRemove = firstAddress;
-                  } else {
-                     addressToRemove = 0;
-                  }
-               } finally {
-                  lruLock.unlock();
-               }
-            } finally {
-               if (addressToRemove == 0) {
-                  entryWriteLock.unlock();
-               }
+            long addressToRemove = firstAddresses[stripe];
+            if (addressToRemove == 0) {
+               emptyStripes++;
+               continue;
             }
-         }
-
-         if (addressToRemove != 0) {
+            emptyStripes = 0;
             if (trace) {
                getLog().tracef("Removing entry: 0x%016x due to eviction due to size %d being larger than maximum of %d",
-                          addressToRemove, currentSize, maxSize);
-            }
-            try {
-               InternalCacheEntry<WrappedBytes, WrappedBytes> ice = offHeapEntryFactory.fromMemory(addressToRemove);
-               passivator.passivate(ice);
-               performRemove(memoryLookup.getMemoryAddress(ice.getKey()), addressToRemove, ice.getKey(), false);
-               evictionManager.onEntryEviction(Collections.singletonMap(ice.getKey(), ice));
-            } finally {
-               entryWriteLock.unlock();
+                          addressToRemove, currentSize.get(), maxSize);
             }
+            InternalCacheEntry<WrappedBytes, WrappedBytes> ice = offHeapEntryFactory.fromMemory(addressToRemove);
+            passivator.passivate(ice);
+            performRemove(lookup(ice.getKey()).getMemoryAddress(ice.getKey()), addressToRemove, ice.getKey(), false);
+            evictionManager.onEntryEviction(Collections.singletonMap(ice.getKey(), ice));
+         } finally {
+            entryWriteLock.unlock();
          }
       }
    }
@@ -290,18 +260,19 @@ private void ensureSize() {
    /**
     * Method to be invoked when adding a new entry address to the end of the lru nodes.  This occurs for newly created
     * entries.
-    * This method should only be invoked after acquiring the lruLock
+    * This method should only be invoked after acquiring the write lock of the stripe
     *
+    * @param stripe the stripe the entry belongs to
     * @param entryAddress the new entry address pointer *NOT* the lru node
     */
-   private void addEntryAddressToEnd(long entryAddress) {
+   private void addEntryAddressToEnd(int stripe, long entryAddress) {
       if (trace) {
-         getLog().tracef("Adding entry 0x%016x to the end of the LRU list", entryAddress);
+         getLog().tracef("Adding entry 0x%016x to the end of the LRU list %d", entryAddress, stripe);
       }
+      long lastAddress = lastAddresses[stripe];
       // This means it is the first entry
       if (lastAddress == 0) {
-         firstAddress = entryAddress;
-         lastAddress = entryAddress;
+         firstAddresses[stripe] = entryAddress;
          // Have to make sure the memory is cleared so we don't use unitialized values
          OffHeapLruNode.setPrevious(entryAddress, 0);
       } else {
@@ -309,9 +280,9 @@ private void addEntryAddressToEnd(long entryAddress) {
          OffHeapLruNode.setPrevious(entryAddress, lastAddress);
          // Write the forward pointer in old lastAddress to point to us
          OffHeapLruNode.setNext(lastAddress, entryAddress);
-         // Finally make us the last address
-         lastAddress = entryAddress;
       }
+      // Finally make us the last address
+      lastAddresses[stripe] = entryAddress;
       // Since we are last there is no pointer after us
       OffHeapLruNode.setNext(entryAddress, 0);
    }
@@ -319,17 +290,19 @@ private void addEntryAddressToEnd(long entryAddress) {
    /**
     * Method to be invoked when moving an existing lru node to the end.  This occurs when the entry is accessed for this
     * node.
-    * This method should only be invoked after acquiring the lruLock.
+    * This method should only be invoked after acquiring the lruLock of the stripe.
     *
+    * @param stripe the stripe the entry belongs to
     * @param lruNode the node to move to the end
     */
-   private void moveToEnd(long lruNode) {
+   private void moveToEnd(int stripe, long lruNode) {
+      long lastAddress = lastAddresses[stripe];
       if (lruNode != lastAddress) {
          long nextLruNode = OffHeapLruNode.getNext(lruNode);
          assert nextLruNode != 0;
-         if (lruNode == firstAddress) {
+         if (lruNode == firstAddresses[stripe]) {
             OffHeapLruNode.setPrevious(nextLruNode, 0);
-            firstAddress = nextLruNode;
+            firstAddresses[stripe] = nextLruNode;
          } else {
             long prevLruNode = OffHeapLruNode.getPrevious(lruNode);
             assert prevLruNode != 0;
@@ -341,26 +314,25 @@ private void moveToEnd(long lruNode) {
          // Sets the previous node of our new tail node to the previous tail node
          OffHeapLruNode.setPrevious(lruNode, lastAddress);
          OffHeapLruNode.setNext(lruNode, 0);
-         lastAddress = lruNode;
+         lastAddresses[stripe] = lruNode;
       }
    }
 
    @SuppressWarnings("unused")
    private List<String> debugLruList() {
-      if (firstAddress == 0)
-         return Collections.emptyList();
-
-      lruLock.lock();
+      locks.lockAll();
       try {
          List<String> list = new ArrayList<>(sizeIncludingExpired());
-         for (long a = firstAddress; a != 0; a = OffHeapLruNode.getNext(a)) {
-            long n = OffHeapLruNode.getNext(a);
-            list.add(OffHeapLruNode.debugString(a));
-            assert n == 0 || OffHeapLruNode.getPrevious(n) == a;
+         for (int stripe = 0; stripe < lockCount; ++stripe) {
+            for (long a = firstAddresses[stripe]; a != 0; a = OffHeapLruNode.getNext(a)) {
+               long n = OffHeapLruNode.getNext(a);
+               list.add(OffHeapLruNode.debugString(a));
+               assert n == 0 || OffHeapLruNode.getPrevious(n) == a;
+            }
          }
          return list;
       } finally {
-         lruLock.unlock();
+         locks.unlockAll();
       }
    }
 
@@ -46,6 +46,18 @@ public long getMemoryAddressOffset(int offset) {
       return MEMORY.getLong(memory,((long) offset) << 3);
    }
 
+   public void putMemoryAddressOffset(int offset, long address) {
+      MEMORY.putLong(memory, ((long) offset) << 3, address);
+   }
+
+   /**
+    * Returns how many pointers this hash holds, which is always a power of two
+    * @return the number of pointers
+    */
+   public int getPointerCount() {
+      return pointerCount;
+   }
+
    public void deallocate() {
       allocator.deallocate(memory, pointerCount << 3);
    }
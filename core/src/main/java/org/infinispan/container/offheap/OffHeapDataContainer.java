@@ -10,10 +10,12 @@
 import java.util.Spliterator;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.stream.IntStream;
+import java.util.stream.LongStream;
 import java.util.stream.Stream;
 
 import org.infinispan.commons.marshall.WrappedByteArray;
@@ -24,11 +26,15 @@
 import org.infinispan.eviction.ActivationManager;
 import org.infinispan.eviction.EvictionManager;
 import org.infinispan.eviction.PassivationManager;
+import org.infinispan.expiration.ExpirationManager;
 import org.infinispan.factories.annotations.Inject;
 import org.infinispan.factories.annotations.Start;
 import org.infinispan.factories.annotations.Stop;
 import org.infinispan.filter.KeyFilter;
 import org.infinispan.filter.KeyValueFilter;
+import org.infinispan.jmx.annotations.DataType;
+import org.infinispan.jmx.annotations.MBean;
+import org.infinispan.jmx.annotations.ManagedAttribute;
 import org.infinispan.metadata.Metadata;
 import org.infinispan.util.TimeService;
 import org.infinispan.util.logging.Log;
@@ -36,9 +42,14 @@
 
 /**
  * Data Container implementation that stores entries in native memory (off-heap).
+ * <p>
+ * The address hash starts with the configured address count and doubles whenever the number of entries goes over 3/4
+ * of it. The entries are moved to the new hash one lock stripe at a time while holding only the write lock of that
+ * stripe, so operations on the other stripes are never blocked by a resize.
  * @author wburns
  * @since 9.0
  */
+@MBean(objectName = "DataContainer", description = "Off heap data container")
 public class OffHeapDataContainer implements DataContainer<WrappedBytes, WrappedBytes> {
    private static final Log log = LogFactory.getLog(MethodHandles.lookup().lookupClass());
    protected final boolean trace = getLog().isTraceEnabled();
@@ -55,8 +66,15 @@ public class OffHeapDataContainer implements DataContainer<WrappedBytes, Wrapped
    @Inject protected EvictionManager evictionManager;
    @Inject protected ActivationManager activator;
    @Inject protected PassivationManager passivator;
-
-   protected MemoryAddressHash memoryLookup;
+   @Inject protected ExpirationManager<WrappedBytes, WrappedBytes> expirationManager;
+
+   protected volatile MemoryAddressHash memoryLookup;
+   // The hash entries are being moved to while a resize is in progress, null otherwise
+   private volatile MemoryAddressHash resizeLookup;
+   // Which stripes were already moved to resizeLookup - each element is only read or written with its stripe lock held
+   private boolean[] stripesResized;
+   // Only one resize can run at a time, also prevents the hashes from being deallocated while resizing
+   private final Lock resizeLock = new ReentrantLock();
    // Variable to make sure memory locations aren't read after being deallocated
    // This variable should always be read first after acquiring either the read or write lock
    private boolean dellocated = false;
@@ -103,17 +121,22 @@ public void start() {
     */
    @Stop(priority = Integer.MAX_VALUE)
    public void deallocate() {
-      locks.lockAll();
+      resizeLock.lock();
       try {
-         if (size.get() != 0) {
-            getLog().warn("Container was not cleared before deallocating memory lookup tables!  Memory leak " +
-                  "will have occurred!");
+         locks.lockAll();
+         try {
+            if (size.get() != 0) {
+               getLog().warn("Container was not cleared before deallocating memory lookup tables!  Memory leak " +
+                     "will have occurred!");
+            }
+            clear();
+            memoryLookup.deallocate();
+            dellocated = true;
+         } finally {
+            locks.unlockAll();
          }
-         clear();
-         memoryLookup.deallocate();
-         dellocated = true;
       } finally {
-         locks.unlockAll();
+         resizeLock.unlock();
       }
    }
 
@@ -130,6 +153,185 @@ protected void checkDeallocation() {
       }
    }
 
+   /**
+    * Returns the address hash holding the bucket of the given key. The read or write lock for the key <b>must</b> be
+    * held before calling this method and the returned hash may only be used while still holding it.
+    * @param key the key to find the hash for
+    * @return the hash to read or update the bucket of the key
+    */
+   protected MemoryAddressHash lookup(Object key) {
+      return lookupForStripe(locks.getOffsetFromHashCode(key.hashCode()));
+   }
+
+   private MemoryAddressHash lookupForStripe(int stripe) {
+      MemoryAddressHash resizing = resizeLookup;
+      if (resizing != null && stripesResized[stripe]) {
+         return resizing;
+      }
+      return memoryLookup;
+   }
+
+   /**
+    * Whether the address hash can grow past the configured address count. Subclasses that account the hash itself as
+    * part of a memory limit should return {@code false}.
+    * @return {@code true} if the hash is doubled when it gets too full
+    */
+   protected boolean isResizable() {
+      return true;
+   }
+
+   /**
+    * Doubles the address hash if the number of entries is above 3/4 of the pointer count. Must be invoked without
+    * holding any of the stripe locks. If another thread is already resizing this method returns immediately.
+    */
+   protected void resizeIfNeeded() {
+      MemoryAddressHash current = memoryLookup;
+      int pointerCount = current.getPointerCount();
+      if (size.get() <= pointerCount - (pointerCount >>> 2) || pointerCount >= MAX_LOCK_COUNT || !isResizable()) {
+         return;
+      }
+      if (!resizeLock.tryLock()) {
+         return;
+      }
+      try {
+         // Another thread may have completed a resize or shut down the container before we got the lock
+         if (dellocated || memoryLookup != current) {
+            return;
+         }
+         if (trace) {
+            getLog().tracef("Resizing off heap address hash from %d to %d pointers for %d entries", pointerCount,
+                  pointerCount << 1, size.get());
+         }
+         MemoryAddressHash newLookup = new MemoryAddressHash(pointerCount << 1, allocator);
+         // Must be written before resizeLookup so readers seeing the new hash also see this array
+         stripesResized = new boolean[lockCount];
+         resizeLookup = newLookup;
+         for (int stripe = 0; stripe < lockCount; ++stripe) {
+            Lock lock = locks.getLockWithOffset(stripe).writeLock();
+            lock.lock();
+            try {
+               // The buckets of a stripe always map to the same stripe in the new hash as the lock count is a power
+               // of two not larger than the pointer count
+               for (int offset = stripe; offset < pointerCount; offset += lockCount) {
+                  transferBucket(current, newLookup, offset);
+               }
+               stripesResized[stripe] = true;
+            } finally {
+               lock.unlock();
+            }
+         }
+         memoryLookup = newLookup;
+         resizeLookup = null;
+         current.deallocate();
+         lookupResized(current.getPointerCount(), newLookup.getPointerCount());
+      } finally {
+         resizeLock.unlock();
+      }
+   }
+
+   /**
+    * Splits the bucket at the given offset of the old hash between the same offset and the offset plus the old pointer
+    * count in the new hash, keeping the order of the entries. The write lock for the bucket <b>must</b> be held.
+    */
+   private void transferBucket(MemoryAddressHash oldLookup, MemoryAddressHash newLookup, int offset) {
+      int oldPointerCount = oldLookup.getPointerCount();
+      long lowHead = 0, lowTail = 0, highHead = 0, highTail = 0;
+      long address = oldLookup.getMemoryAddressOffset(offset);
+      while (address != 0) {
+         long nextAddress = offHeapEntryFactory.getNext(address);
+         offHeapEntryFactory.setNext(address, 0);
+         if ((MemoryAddressHash.spread(offHeapEntryFactory.getHashCode(address)) & oldPointerCount) == 0) {
+            if (lowTail == 0) {
+               lowHead = address;
+            } else {
+               offHeapEntryFactory.setNext(lowTail, address);
+            }
+            lowTail = address;
+         } else {
+            if (highTail == 0) {
+               highHead = address;
+            } else {
+               offHeapEntryFactory.setNext(highTail, address);
+            }
+            highTail = address;
+         }
+         address = nextAddress;
+      }
+      newLookup.putMemoryAddressOffset(offset, lowHead);
+      newLookup.putMemoryAddressOffset(offset + oldPointerCount, highHead);
+      // Clear the old bucket so a concurrent clear doesn't free the entries twice
+      oldLookup.putMemoryAddressOffset(offset, 0);
+   }
+
+   /**
+    * Invoked after the address hash was replaced by a larger one and the old one was freed. No locks are held.
+    * @param oldPointerCount the pointer count of the previous hash
+    * @param newPointerCount the pointer count of the current hash
+    */
+   protected void lookupResized(int oldPointerCount, int newPointerCount) {
+
+   }
+
+   @ManagedAttribute(
+         description = "Number of pointers in the address hash, which grows as entries are added",
+         displayName = "Address count"
+   )
+   public int getAddressCount() {
+      return memoryLookup.getPointerCount();
+   }
+
+   @ManagedAttribute(
+         description = "Average number of entries in the non empty buckets of the address hash",
+         displayName = "Average chain length",
+         dataType = DataType.MEASUREMENT
+   )
+   public double getAverageChainLength() {
+      long entries = 0;
+      long usedBuckets = 0;
+      for (int i = 0; i < lockCount; ++i) {
+         Lock lock = locks.getLockWithOffset(i).readLock();
+         lock.lock();
+         try {
+            if (dellocated) {
+               return 0;
+            }
+            MemoryAddressHash lookup = lookupForStripe(i);
+            for (int j = i; j < lookup.getPointerCount(); j += lockCount) {
+               long address = lookup.getMemoryAddressOffset(j);
+               if (address != 0) {
+                  usedBuckets++;
+                  do {
+                     entries++;
+                  } while ((address = offHeapEntryFactory.getNext(address)) != 0);
+               }
+            }
+         } finally {
+            lock.unlock();
+         }
+      }
+      return usedBuckets == 0 ? 0 : (double) entries / usedBuckets;
+   }
+
+   @ManagedAttribute(
+         description = "Bytes reserved in slabs by the off heap allocator, which is shared by all off heap caches",
+         displayName = "Allocator slab bytes",
+         dataType = DataType.MEASUREMENT
+   )
+   public long getAllocatorSlabBytes() {
+      return allocator instanceof PooledOffHeapMemoryAllocator ?
+            ((PooledOffHeapMemoryAllocator) allocator).getSlabBytes() : 0;
+   }
+
+   @ManagedAttribute(
+         description = "Ratio of the off heap allocator slab bytes that are not in use, from 0 to 1",
+         displayName = "Allocator fragmentation",
+         dataType = DataType.MEASUREMENT
+   )
+   public double getAllocatorFragmentation() {
+      return allocator instanceof PooledOffHeapMemoryAllocator ?
+            ((PooledOffHeapMemoryAllocator) allocator).getFragmentation() : 0;
+   }
+
    @Override
    public InternalCacheEntry<WrappedBytes, WrappedBytes> get(Object k) {
       return peekOrGet(k, false);
@@ -145,7 +347,7 @@ private InternalCacheEntry<WrappedBytes, WrappedBytes> peekOrGet(Object k, boole
       lock.lock();
       try {
          checkDeallocation();
-         long bucketAddress = memoryLookup.getMemoryAddress(k);
+         long bucketAddress = lookup(k).getMemoryAddress(k);
          if (bucketAddress == 0) {
             return null;
          }
@@ -194,12 +396,26 @@ public void put(WrappedBytes key, WrappedBytes value, Metadata metadata) {
       try {
          checkDeallocation();
          long newAddress = offHeapEntryFactory.create(key, value, metadata);
-         long address = memoryLookup.getMemoryAddress(key);
+         long address = lookup(key).getMemoryAddress(key);
          boolean newEntry = performPut(address, 0, newAddress, key);
          activator.onUpdate(key, newEntry);
       } finally {
          lock.unlock();
       }
+      scheduleExpiration(key, metadata);
+      resizeIfNeeded();
+   }
+
+   private void scheduleExpiration(WrappedBytes key, Metadata metadata) {
+      long lifespan = metadata.lifespan();
+      long maxIdle = metadata.maxIdle();
+      if (lifespan < 0 && maxIdle < 0) {
+         return;
+      }
+      // The entry was created with a time read before this one, so this may be a bit later than the actual expiry
+      long now = timeService.wallClockTime();
+      long expiryTime = lifespan < 0 ? now + maxIdle : maxIdle < 0 ? now + lifespan : now + Math.min(lifespan, maxIdle);
+      expirationManager.scheduleExpiration(key, expiryTime);
    }
 
    /**
@@ -215,7 +431,7 @@ public void put(WrappedBytes key, WrappedBytes value, Metadata metadata) {
    protected boolean performPut(long bucketHeadAddress, long actualAddress, long newAddress, WrappedBytes key) {
       // Have to start new linked node list
       if (bucketHeadAddress == 0) {
-         memoryLookup.putMemoryAddress(key, newAddress);
+         lookup(key).putMemoryAddress(key, newAddress);
          entryCreated(newAddress);
          size.incrementAndGet();
          return true;
@@ -241,7 +457,7 @@ protected boolean performPut(long bucketHeadAddress, long actualAddress, long ne
                         replaceHead = true;
                      } else {
                         // This branch is the case where our key is the first with another after
-                        memoryLookup.putMemoryAddress(key, nextAddress);
+                        lookup(key).putMemoryAddress(key, nextAddress);
                      }
                   } else {
                      // This branch means our node was not the first, so we have to update the address before ours
@@ -263,7 +479,7 @@ protected boolean performPut(long bucketHeadAddress, long actualAddress, long ne
             size.incrementAndGet();
          }
          if (replaceHead) {
-            memoryLookup.putMemoryAddress(key, newAddress);
+            lookup(key).putMemoryAddress(key, newAddress);
          } else {
             // Now prevAddress should be the last link so we fix our link
             offHeapEntryFactory.setNext(prevAddress, newAddress);
@@ -307,7 +523,7 @@ public boolean containsKey(Object k) {
       lock.lock();
       try {
          checkDeallocation();
-         long address = memoryLookup.getMemoryAddress(k);
+         long address = lookup(k).getMemoryAddress(k);
          if (address == 0) {
             return false;
          }
@@ -341,7 +557,7 @@ public InternalCacheEntry<WrappedBytes, WrappedBytes> remove(Object key) {
       lock.lock();
       try {
          checkDeallocation();
-         long address = memoryLookup.getMemoryAddress(key);
+         long address = lookup(key).getMemoryAddress(key);
          if (address == 0) {
             return null;
          }
@@ -349,6 +565,7 @@ public InternalCacheEntry<WrappedBytes, WrappedBytes> remove(Object key) {
          if (ice != null) {
             activator.onRemove(ice.getKey(), ice.getValue() == null);
          }
+         expirationManager.cancelExpiration((WrappedBytes) key);
          return ice;
       } finally {
          lock.unlock();
@@ -386,7 +603,7 @@ protected InternalCacheEntry<WrappedBytes, WrappedBytes> performRemove(long buck
             if (prevAddress != 0) {
                offHeapEntryFactory.setNext(prevAddress, nextAddress);
             } else {
-               memoryLookup.putMemoryAddress(key, nextAddress);
+               lookup(key).putMemoryAddress(key, nextAddress);
             }
             size.decrementAndGet();
             break;
@@ -424,7 +641,13 @@ protected void performClear() {
       if (trace) {
          getLog().trace("Clearing off heap data");
       }
-      memoryLookup.toStreamRemoved().forEach(address -> {
+      // If a resize is in progress the entries of a stripe are in only one of the hashes
+      MemoryAddressHash resizing = resizeLookup;
+      LongStream addresses = memoryLookup.toStreamRemoved();
+      if (resizing != null) {
+         addresses = LongStream.concat(addresses, resizing.toStreamRemoved());
+      }
+      addresses.forEach(address -> {
          while (address != 0) {
             long nextAddress = offHeapEntryFactory.getNext(address);
             allocator.deallocate(address);
@@ -536,13 +759,14 @@ public void evict(WrappedBytes key) {
       lock.lock();
       try {
          checkDeallocation();
-         long bucketAddress = memoryLookup.getMemoryAddress(key);
+         long bucketAddress = lookup(key).getMemoryAddress(key);
          if (bucketAddress != 0) {
             long actualAddress = performGet(bucketAddress, key, false);
             if (actualAddress != 0) {
                InternalCacheEntry<WrappedBytes, WrappedBytes> ice = offHeapEntryFactory.fromMemory(actualAddress);
                passivator.passivate(ice);
                performRemove(bucketAddress, actualAddress, key, false);
+               expirationManager.cancelExpiration(key);
             }
          }
       } finally {
@@ -557,7 +781,7 @@ public InternalCacheEntry<WrappedBytes, WrappedBytes> compute(WrappedBytes key,
       lock.lock();
       try {
          checkDeallocation();
-         long bucketAddress = memoryLookup.getMemoryAddress(key);
+         long bucketAddress = lookup(key).getMemoryAddress(key);
          long actualAddress = bucketAddress == 0 ? 0 : performGet(bucketAddress, key, true);
          InternalCacheEntry<WrappedBytes, WrappedBytes> prev;
          if (actualAddress != 0) {
@@ -574,13 +798,18 @@ public InternalCacheEntry<WrappedBytes, WrappedBytes> compute(WrappedBytes key,
             // entire bucket for no reason as it will never match (doing key equality checks)
             performPut(bucketAddress, actualAddress, newAddress, key);
             activator.onUpdate(key, prev == null);
+            if (result.canExpire()) {
+               expirationManager.scheduleExpiration(key, result.getExpiryTime());
+            }
          } else {
             performRemove(bucketAddress, actualAddress, key, false);
             activator.onRemove(key, false);
+            expirationManager.cancelExpiration(key);
          }
          return result;
       } finally {
          lock.unlock();
+         resizeIfNeeded();
       }
    }
 
@@ -591,8 +820,9 @@ private void executeTask(Consumer<InternalCacheEntry<WrappedBytes, WrappedBytes>
          try {
             checkDeallocation();
             long now = timeService.wallClockTime();
-            for (int j = i; j < memoryAddressCount; j += lockCount) {
-               long address = memoryLookup.getMemoryAddressOffset(j);
+            MemoryAddressHash lookup = lookupForStripe(i);
+            for (int j = i; j < lookup.getPointerCount(); j += lockCount) {
+               long address = lookup.getMemoryAddressOffset(j);
                while (address != 0) {
                   long nextAddress = offHeapEntryFactory.getNext(address);
                   InternalCacheEntry<WrappedBytes, WrappedBytes> ice = offHeapEntryFactory.fromMemory(address);
@@ -629,23 +859,30 @@ public void executeTask(KeyValueFilter<? super WrappedBytes, ? super WrappedByte
    }
 
    private Stream<InternalCacheEntry<WrappedBytes, WrappedBytes>> entryStreamIncludingExpired() {
-      return IntStream.range(0, memoryAddressCount)
+      // The hash can only grow, so if it is resized while streaming each offset also covers the buckets its entries
+      // were split into: offset, offset + stride, offset + 2 * stride...
+      int stride = memoryLookup.getPointerCount();
+      return IntStream.range(0, stride)
             .mapToObj(a -> {
-               Lock lock = locks.getLockWithOffset(a % lockCount).readLock();
+               int stripe = a % lockCount;
+               Lock lock = locks.getLockWithOffset(stripe).readLock();
                lock.lock();
                try {
                   checkDeallocation();
-                  long address = memoryLookup.getMemoryAddressOffset(a);
-                  if (address == 0) {
-                     return null;
+                  MemoryAddressHash lookup = lookupForStripe(stripe);
+                  Stream.Builder<InternalCacheEntry<WrappedBytes, WrappedBytes>> builder = null;
+                  for (int j = a; j < lookup.getPointerCount(); j += stride) {
+                     long address = lookup.getMemoryAddressOffset(j);
+                     while (address != 0) {
+                        if (builder == null) {
+                           builder = Stream.builder();
+                        }
+                        long nextAddress = offHeapEntryFactory.getNext(address);
+                        builder.accept(offHeapEntryFactory.fromMemory(address));
+                        address = nextAddress;
+                     }
                   }
-                  Stream.Builder<InternalCacheEntry<WrappedBytes, WrappedBytes>> builder = Stream.builder();
-                  long nextAddress;
-                  do {
-                     nextAddress = offHeapEntryFactory.getNext(address);
-                     builder.accept(offHeapEntryFactory.fromMemory(address));
-                  } while ((address = nextAddress) != 0);
-                  return builder.build();
+                  return builder == null ? null : builder.build();
                } finally {
                   lock.unlock();
                }
@@ -124,6 +124,33 @@ long allocate(long size) {
       return address;
    }
 
+   /**
+    * Makes a block carved out of a larger allocation accessible when tracing, as if it was allocated on its own.
+    * @param address the start of the block
+    * @param size how many bytes the block has
+    */
+   void markAllocated(long address, long size) {
+      if (trace) {
+         Long prev = allocatedBlocks.put(address, size);
+         if (prev != null) {
+            throw new IllegalArgumentException();
+         }
+      }
+   }
+
+   /**
+    * Reverts {@link #markAllocated(long, long)} once the block is returned to the allocation it was carved from.
+    * @param address the start of the block
+    */
+   void markFreed(long address) {
+      if (trace) {
+         Long prev = allocatedBlocks.remove(address);
+         if (prev == null) {
+            throw new IllegalArgumentException();
+         }
+      }
+   }
+
    void free(long address) {
       Long prev = allocatedBlocks.remove(address);
       if (trace) {
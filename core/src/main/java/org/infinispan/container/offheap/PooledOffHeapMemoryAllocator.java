@@ -0,0 +1,348 @@
+package org.infinispan.container.offheap;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongUnaryOperator;
+
+import org.infinispan.factories.annotations.Inject;
+import org.infinispan.factories.annotations.Stop;
+import org.infinispan.util.logging.Log;
+import org.infinispan.util.logging.LogFactory;
+
+import sun.misc.Unsafe;
+
+/**
+ * Memory allocator that carves small allocations out of larger slabs instead of asking the system allocator for every
+ * one of them.
+ * <p>
+ * Allocations are grouped in size classes of 16 bytes, using the same estimate as
+ * {@link UnpooledOffHeapMemoryAllocator#estimateSizeOverhead(long)}, so that the size reported by
+ * {@link OffHeapEntryFactory#getSize(long)} is enough to know which class an entry belongs to. Each class has a shared
+ * free list and every thread keeps a small cache of free blocks per class on top of it, so most allocations and
+ * deallocations don't need any synchronization. As the thread cache is a stack, replacing an entry with one of the same
+ * size class reuses the block that was freed by the previous replace.
+ * <p>
+ * The blocks cached by a thread are given back to the shared free lists once the thread is gone, so threads coming and
+ * going don't leak them. Allocations larger than {@link #MAX_POOLED_SIZE} are done directly like
+ * {@link UnpooledOffHeapMemoryAllocator}. Slabs are never returned to the system until the allocator is stopped.
+ * <p>
+ * This allocator is not used unless the {@value #POOLED_ALLOCATOR_PROPERTY} system property is set to {@code true}.
+ * @since 9.2
+ */
+public class PooledOffHeapMemoryAllocator implements OffHeapMemoryAllocator {
+   public static final String POOLED_ALLOCATOR_PROPERTY = "infinispan.offheap.pooledAllocator";
+
+   private static final Log log = LogFactory.getLog(PooledOffHeapMemoryAllocator.class, Log.class);
+   private static final boolean trace = log.isTraceEnabled();
+   private static final OffHeapMemory MEMORY = OffHeapMemory.INSTANCE;
+   private static final Unsafe UNSAFE = UnsafeHolder.UNSAFE;
+
+   static final int SIZE_CLASS_GRANULARITY = 16;
+   static final int MAX_POOLED_SIZE = 4096;
+   static final int SLAB_SIZE = 64 * 1024;
+   private static final int SIZE_CLASS_COUNT = MAX_POOLED_SIZE / SIZE_CLASS_GRANULARITY;
+   // How many bytes of free blocks a thread can keep for each size class before giving half of them back
+   private static final int THREAD_CACHE_BYTES = 16 * 1024;
+
+   private final LongAdder amountAllocated = new LongAdder();
+   private final LongAdder pooledAllocated = new LongAdder();
+   private final AtomicLong slabBytes = new AtomicLong();
+   private final List<Long> slabs = new ArrayList<>();
+   private volatile SizeClass[] sizeClasses = newSizeClasses();
+   private volatile ThreadLocal<ThreadCache> threadCaches = ThreadLocal.withInitial(this::newThreadCache);
+   // Keeps the caches of the threads reachable, so their blocks can be given back after the threads are collected
+   private final Set<CacheOwner> cacheOwners = ConcurrentHashMap.newKeySet();
+   private final ReferenceQueue<Thread> collectedOwners = new ReferenceQueue<>();
+   private LongUnaryOperator sizeCalculator;
+
+   @Inject
+   public void inject(OffHeapEntryFactory offHeapEntryFactory) {
+      sizeCalculator = offHeapEntryFactory::getSize;
+   }
+
+   /**
+    * Frees all the slabs. The caches using this allocator must have already released all their memory.
+    */
+   @Stop
+   public void stop() {
+      synchronized (slabs) {
+         if (trace) {
+            log.tracef("Releasing %d off heap slabs with %d bytes still allocated", slabs.size(), pooledAllocated.sum());
+         }
+         for (long slab : slabs) {
+            UNSAFE.freeMemory(slab);
+         }
+         slabs.clear();
+         slabBytes.set(0);
+         pooledAllocated.reset();
+         // Any block still cached by a thread points to a freed slab, so drop the caches along with the classes
+         sizeClasses = newSizeClasses();
+         threadCaches = ThreadLocal.withInitial(this::newThreadCache);
+         cacheOwners.clear();
+      }
+   }
+
+   private ThreadCache newThreadCache() {
+      ThreadCache cache = new ThreadCache(sizeClasses);
+      cacheOwners.add(new CacheOwner(Thread.currentThread(), cache, collectedOwners));
+      return cache;
+   }
+
+   /**
+    * Gives the blocks cached by the threads that were garbage collected back to the shared free lists.
+    * @return how many thread caches were released
+    */
+   int releaseCollectedThreadCaches() {
+      int released = 0;
+      CacheOwner owner;
+      while ((owner = (CacheOwner) collectedOwners.poll()) != null) {
+         // Owners from before the allocator was stopped point to freed slabs
+         if (cacheOwners.remove(owner)) {
+            owner.cache.release();
+            released++;
+         }
+      }
+      if (trace && released > 0) {
+         log.tracef("Released the off heap blocks cached by %d threads that are gone", released);
+      }
+      return released;
+   }
+
+   private SizeClass[] newSizeClasses() {
+      SizeClass[] classes = new SizeClass[SIZE_CLASS_COUNT];
+      for (int i = 0; i < SIZE_CLASS_COUNT; ++i) {
+         classes[i] = new SizeClass((i + 1) * SIZE_CLASS_GRANULARITY);
+      }
+      return classes;
+   }
+
+   private static int sizeClassIndex(long estimatedSize) {
+      return estimatedSize > MAX_POOLED_SIZE ? -1 : (int) (estimatedSize / SIZE_CLASS_GRANULARITY) - 1;
+   }
+
+   @Override
+   public long allocate(long memoryLength) {
+      long estimatedMemoryLength = UnpooledOffHeapMemoryAllocator.estimateSizeOverhead(memoryLength);
+      int index = sizeClassIndex(estimatedMemoryLength);
+      long memoryLocation;
+      if (index < 0) {
+         memoryLocation = MEMORY.allocate(memoryLength);
+      } else {
+         memoryLocation = threadCaches.get().allocate(index);
+         MEMORY.markAllocated(memoryLocation, estimatedMemoryLength);
+         pooledAllocated.add(estimatedMemoryLength);
+      }
+      amountAllocated.add(estimatedMemoryLength);
+      if (trace) {
+         log.tracef("Allocated off heap memory at 0x%016x with %d bytes. Total size: %d", memoryLocation,
+               estimatedMemoryLength, amountAllocated.sum());
+      }
+      return memoryLocation;
+   }
+
+   @Override
+   public void deallocate(long memoryAddress) {
+      // Size calculator already takes care of size estimate
+      innerDeallocate(memoryAddress, sizeCalculator.applyAsLong(memoryAddress));
+   }
+
+   @Override
+   public void deallocate(long memoryAddress, long size) {
+      innerDeallocate(memoryAddress, UnpooledOffHeapMemoryAllocator.estimateSizeOverhead(size));
+   }
+
+   private void innerDeallocate(long memoryAddress, long estimatedSize) {
+      amountAllocated.add(- estimatedSize);
+      if (trace) {
+         log.tracef("Deallocating off heap memory at 0x%016x with %d bytes. Total size: %d", memoryAddress,
+               estimatedSize, amountAllocated.sum());
+      }
+      int index = sizeClassIndex(estimatedSize);
+      if (index < 0) {
+         MEMORY.free(memoryAddress);
+      } else {
+         MEMORY.markFreed(memoryAddress);
+         pooledAllocated.add(- estimatedSize);
+         threadCaches.get().deallocate(index, memoryAddress);
+      }
+   }
+
+   @Override
+   public long getAllocatedAmount() {
+      return amountAllocated.sum();
+   }
+
+   /**
+    * @return how many bytes were reserved in slabs, whether they are in use or not
+    */
+   public long getSlabBytes() {
+      return slabBytes.get();
+   }
+
+   /**
+    * @return how many bytes of the slabs are handed out to the allocator users
+    */
+   public long getPooledAllocatedAmount() {
+      return pooledAllocated.sum();
+   }
+
+   /**
+    * @return the ratio of slab bytes that are not handed out, from 0 when all of them are in use to 1 when none are
+    */
+   public double getFragmentation() {
+      long reserved = slabBytes.get();
+      return reserved == 0 ? 0 : 1 - (double) pooledAllocated.sum() / reserved;
+   }
+
+   private long allocateSlab() {
+      long slab = UNSAFE.allocateMemory(SLAB_SIZE);
+      synchronized (slabs) {
+         slabs.add(slab);
+      }
+      slabBytes.addAndGet(SLAB_SIZE);
+      if (trace) {
+         log.tracef("Allocated off heap slab at 0x%016x. Total slab size: %d", slab, slabBytes.get());
+      }
+      return slab;
+   }
+
+   /**
+    * The free blocks of one size class shared by all threads. Free blocks are chained together by storing the address of
+    * the next one in their first 8 bytes.
+    */
+   private final class SizeClass {
+      private final int blockSize;
+      private final int threadCacheLimit;
+      private long freeHead;
+      private long slabPosition;
+      private long slabEnd;
+
+      SizeClass(int blockSize) {
+         this.blockSize = blockSize;
+         this.threadCacheLimit = Math.max(4, THREAD_CACHE_BYTES / blockSize);
+      }
+
+      /**
+       * Moves up to {@code count} free blocks to a thread cache, carving new ones from a slab if the free list is empty.
+       * @return the head of the list of blocks taken, never 0
+       */
+      synchronized long take(int count) {
+         long head = 0;
+         for (int i = 0; i < count; ++i) {
+            long block;
+            if (freeHead != 0) {
+               block = freeHead;
+               freeHead = UNSAFE.getLong(block);
+            } else {
+               if (slabPosition == slabEnd) {
+                  slabPosition = allocateSlab();
+                  slabEnd = slabPosition + (SLAB_SIZE / blockSize) * blockSize;
+               }
+               block = slabPosition;
+               slabPosition += blockSize;
+            }
+            UNSAFE.putLong(block, head);
+            head = block;
+         }
+         return head;
+      }
+
+      /**
+       * Adds a list of blocks to the free list
+       * @param head the first block of the list
+       * @param tail the last block of the list, which must be reachable from head
+       */
+      synchronized void give(long head, long tail) {
+         UNSAFE.putLong(tail, freeHead);
+         freeHead = head;
+      }
+   }
+
+   /**
+    * Weak reference to a thread that keeps the cache of the thread, so the cache can be released once the thread is
+    * collected.
+    */
+   private static final class CacheOwner extends WeakReference<Thread> {
+      private final ThreadCache cache;
+
+      CacheOwner(Thread thread, ThreadCache cache, ReferenceQueue<Thread> queue) {
+         super(thread, queue);
+         this.cache = cache;
+      }
+   }
+
+   /**
+    * Free blocks only visible to a single thread, as a list per size class.
+    */
+   private final class ThreadCache {
+      private final SizeClass[] classes;
+      private final long[] heads = new long[SIZE_CLASS_COUNT];
+      private final int[] counts = new int[SIZE_CLASS_COUNT];
+
+      ThreadCache(SizeClass[] classes) {
+         this.classes = classes;
+      }
+
+      /**
+       * Gives all the cached blocks back to the shared free lists. Must only be invoked once the owner thread is gone.
+       */
+      void release() {
+         for (int index = 0; index < SIZE_CLASS_COUNT; ++index) {
+            long head = heads[index];
+            if (head != 0) {
+               long tail = head;
+               long next;
+               while ((next = UNSAFE.getLong(tail)) != 0) {
+                  tail = next;
+               }
+               classes[index].give(head, tail);
+               heads[index] = 0;
+               counts[index] = 0;
+            }
+         }
+      }
+
+      long allocate(int index) {
+         SizeClass sizeClass = classes[index];
+         long block = heads[index];
+         if (block == 0) {
+            releaseCollectedThreadCaches();
+            int batch = Math.max(1, sizeClass.threadCacheLimit >>> 1);
+            block = sizeClass.take(batch);
+            counts[index] = batch;
+         }
+         heads[index] = UNSAFE.getLong(block);
+         counts[index]--;
+         return block;
+      }
+
+      void deallocate(int index, long block) {
+         SizeClass sizeClass = classes[index];
+         UNSAFE.putLong(block, heads[index]);
+         heads[index] = block;
+         if (++counts[index] > sizeClass.threadCacheLimit) {
+            // Keep the most recently freed half, which is the most likely to still be in the CPU caches
+            int keep = counts[index] >>> 1;
+            long tail = block;
+            for (int i = 1; i < keep; ++i) {
+               tail = UNSAFE.getLong(tail);
+            }
+            long released = UNSAFE.getLong(tail);
+            UNSAFE.putLong(tail, 0);
+            long releasedTail = released;
+            long next;
+            while ((next = UNSAFE.getLong(releasedTail)) != 0) {
+               releasedTail = next;
+            }
+            sizeClass.give(released, releasedTail);
+            counts[index] = keep;
+         }
+      }
+   }
+}
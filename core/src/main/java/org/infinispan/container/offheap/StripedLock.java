@@ -40,9 +40,17 @@ public ReadWriteLock getLock(Object obj) {
     * @return the lock associated with the given hashCode
     */
    public ReadWriteLock getLockFromHashCode(int hashCode) {
-      int h = spread(hashCode);
-      int offset = h & (locks.length - 1);
-      return locks[offset];
+      return locks[getOffsetFromHashCode(hashCode)];
+   }
+
+   /**
+    * Retrieves the offset of the lock associated with the given hashCode, which can later be passed to
+    * {@link StripedLock#getLockWithOffset(int)}
+    * @param hashCode the hashCode to retrieve the lock offset for
+    * @return the offset of the lock associated with the given hashCode
+    */
+   public int getOffsetFromHashCode(int hashCode) {
+      return spread(hashCode) & (locks.length - 1);
    }
 
    /**
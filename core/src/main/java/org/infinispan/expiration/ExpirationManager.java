@@ -72,4 +72,22 @@
     * @param key the key to use
     */
    void unregisterWrite(K key);
+
+   /**
+    * Invoked by the data container after an entry that can expire was written, so the reaper can find it once it is
+    * due without scanning the whole container. The entry may have been removed or updated by the time the reaper
+    * looks at it, so implementations must check the entry again before expiring it.
+    * @param key the key of the entry
+    * @param expiryTime the wall clock time after which the entry is expired
+    */
+   default void scheduleExpiration(K key, long expiryTime) {
+   }
+
+   /**
+    * Invoked by the data container after an entry was removed from it, so the reaper does not have to look at it
+    * anymore.
+    * @param key the key of the removed entry
+    */
+   default void cancelExpiration(K key) {
+   }
 }
@@ -77,7 +77,7 @@ public void processExpiration() {
                start = timeService.time();
             }
             long currentTimeMillis = timeService.wallClockTime();
-            for (Iterator<InternalCacheEntry<K, V>> purgeCandidates = dataContainer.iteratorIncludingExpired();
+            for (Iterator<InternalCacheEntry<K, V>> purgeCandidates = purgeCandidates(currentTimeMillis);
                  purgeCandidates.hasNext();) {
                InternalCacheEntry<K, V> e = purgeCandidates.next();
                if (e.canExpire()) {
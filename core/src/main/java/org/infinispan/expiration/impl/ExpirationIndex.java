@@ -0,0 +1,114 @@
+package org.infinispan.expiration.impl;
+
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Consumer;
+
+/**
+ * Keys of the entries that can expire, grouped in buckets by the time they expire at. This allows the reaper to only
+ * look at the entries that may be expired instead of every entry in the data container.
+ * <p>
+ * Every key is in a single bucket: adding a key again moves it to the bucket of its new expiration time. Keys stay in
+ * their bucket when polled and are only dropped by {@link #remove(Object)}, so a key whose expiration failed or was
+ * skipped is polled again the next time. The index is still only a hint, whoever polls it has to check the actual
+ * entry, as it may have been updated or removed without the index knowing.
+ * @since 9.2
+ */
+class ExpirationIndex<K> {
+   private final long resolution;
+   private final ConcurrentSkipListMap<Long, Set<K>> buckets = new ConcurrentSkipListMap<>();
+   private final ConcurrentHashMap<K, Long> bucketByKey = new ConcurrentHashMap<>();
+
+   /**
+    * @param resolution how many milliseconds of expiration times each bucket covers
+    */
+   ExpirationIndex(long resolution) {
+      this.resolution = resolution;
+   }
+
+   /**
+    * Adds the key to the bucket for the given expiration time, removing it from the bucket it was in before
+    * @param key the key of the entry
+    * @param expiryTime the wall clock time the entry expires after
+    */
+   void add(K key, long expiryTime) {
+      // A bucket holds the keys expiring in the interval [bucket - resolution, bucket)
+      long bucket = (expiryTime / resolution + 1) * resolution;
+      // Updates of the same key are serialized by the lock of the key in bucketByKey
+      bucketByKey.compute(key, (k, oldBucket) -> {
+         if (oldBucket != null && oldBucket != bucket) {
+            removeFromBucket(oldBucket, k);
+         }
+         addToBucket(bucket, k);
+         return bucket;
+      });
+   }
+
+   /**
+    * Removes the key from the index, if present
+    * @param key the key of the entry
+    */
+   void remove(K key) {
+      bucketByKey.computeIfPresent(key, (k, bucket) -> {
+         removeFromBucket(bucket, k);
+         return null;
+      });
+   }
+
+   private void addToBucket(long bucket, K key) {
+      while (true) {
+         Set<K> keys = buckets.computeIfAbsent(bucket, b -> ConcurrentHashMap.newKeySet());
+         keys.add(key);
+         // If the bucket was dropped concurrently because it was empty, add the key again to a new bucket
+         if (buckets.get(bucket) == keys) {
+            return;
+         }
+      }
+   }
+
+   private void removeFromBucket(long bucket, K key) {
+      Set<K> keys = buckets.get(bucket);
+      if (keys != null) {
+         keys.remove(key);
+      }
+   }
+
+   /**
+    * Passes the keys of all the buckets that may contain expired entries to the consumer. The keys are not removed:
+    * the consumer has to {@link #remove(Object)} the keys of the entries that are gone and {@link #add(Object, long)}
+    * the keys of the entries that expire later. Keys left untouched are passed again by the next invocation.
+    * @param now the current wall clock time
+    * @param consumer invoked for every key that may have expired
+    */
+   void pollExpired(long now, Consumer<? super K> consumer) {
+      // The bucket with the current time is only partially expired, it is polled as well
+      for (Map.Entry<Long, Set<K>> bucket : new ArrayList<>(buckets.headMap(now + resolution, true).entrySet())) {
+         Set<K> keys = bucket.getValue();
+         keys.forEach(consumer);
+         if (keys.isEmpty() && buckets.remove(bucket.getKey(), keys)) {
+            // A key added while the bucket was being dropped has to be moved to a new bucket
+            keys.forEach(k -> bucketByKey.computeIfPresent(k, (kk, b) -> {
+               if (b.equals(bucket.getKey())) {
+                  addToBucket(b, kk);
+               }
+               return b;
+            }));
+         }
+      }
+   }
+
+   /**
+    * @return how many keys are in the index
+    */
+   long size() {
+      return bucketByKey.size();
+   }
+
+   void clear() {
+      bucketByKey.clear();
+      buckets.clear();
+   }
+}
@@ -1,6 +1,8 @@
 package org.infinispan.expiration.impl;
 
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ScheduledExecutorService;
@@ -31,6 +33,8 @@
 public class ExpirationManagerImpl<K, V> implements ExpirationManager<K, V> {
    private static final Log log = LogFactory.getLog(ExpirationManagerImpl.class);
    private static final boolean trace = log.isTraceEnabled();
+   // Upper bound of how many milliseconds of expiration times share a bucket in the expiration index
+   private static final long INDEX_RESOLUTION = 1000;
 
    @Inject @ComponentName(KnownComponentNames.EXPIRATION_SCHEDULED_EXECUTOR)
    protected ScheduledExecutorService executor;
@@ -51,6 +55,11 @@
     */
    protected ConcurrentMap<K, Object> expiring = new ConcurrentHashMap<>();
    protected ScheduledFuture<?> expirationTask;
+   /**
+    * Keys of the entries that can expire by expiration time, only present when the reaper is enabled and the data
+    * container is one of ours, as they are the ones updating it. If null the reaper has to scan the whole container.
+    */
+   protected ExpirationIndex<K> expirationIndex;
 
    // used only for testing
    void initialize(ScheduledExecutorService executor, String cacheName, Configuration cfg) {
@@ -71,6 +80,9 @@ public void start() {
             log.notStartingEvictionThread();
             enabled = false;
          } else {
+            if (configuration.dataContainer().dataContainer() == null) {
+               expirationIndex = new ExpirationIndex<>(Math.min(expWakeUpInt, INDEX_RESOLUTION));
+            }
             expirationTask = executor.scheduleWithFixedDelay(new ScheduledTask(),
                   expWakeUpInt, expWakeUpInt, TimeUnit.MILLISECONDS);
          }
@@ -87,7 +99,7 @@ public void processExpiration() {
                start = timeService.time();
             }
             long currentTimeMillis = timeService.wallClockTime();
-            for (Iterator<InternalCacheEntry<K, V>> purgeCandidates = dataContainer.iteratorIncludingExpired();
+            for (Iterator<InternalCacheEntry<K, V>> purgeCandidates = purgeCandidates(currentTimeMillis);
                  purgeCandidates.hasNext();) {
                InternalCacheEntry<K, V> e = purgeCandidates.next();
                if (e.isExpired(currentTimeMillis)) {
@@ -108,6 +120,58 @@ public void processExpiration() {
       }
    }
 
+   /**
+    * Returns the entries the reaper has to check. If the expiration index is in use these are only the entries that
+    * are expired, otherwise it is every entry in the data container. The keys of the returned entries stay in the index
+    * until the entries are actually removed, so an entry whose expiration fails or is skipped is returned again by the
+    * next invocation.
+    * @param currentTimeMillis the current wall clock time
+    * @return the entries to check for expiration
+    */
+   protected Iterator<InternalCacheEntry<K, V>> purgeCandidates(long currentTimeMillis) {
+      ExpirationIndex<K> index = expirationIndex;
+      if (index == null) {
+         return dataContainer.iteratorIncludingExpired();
+      }
+      List<InternalCacheEntry<K, V>> expired = new ArrayList<>();
+      index.pollExpired(currentTimeMillis, key -> {
+         InternalCacheEntry<K, V> entry = dataContainer.peek(key);
+         if (entry == null || !entry.canExpire()) {
+            index.remove(key);
+            // The entry may have been written again after it was looked up
+            entry = dataContainer.peek(key);
+            if (entry != null && entry.canExpire()) {
+               index.add(key, entry.getExpiryTime());
+            }
+         } else if (entry.isExpired(currentTimeMillis)) {
+            expired.add(entry);
+         } else {
+            // The entry was updated or its max idle was extended since the key was added
+            index.add(key, entry.getExpiryTime());
+         }
+      });
+      if (trace) {
+         log.tracef("Found %d expired entries in the expiration index", expired.size());
+      }
+      return expired.iterator();
+   }
+
+   @Override
+   public void scheduleExpiration(K key, long expiryTime) {
+      ExpirationIndex<K> index = expirationIndex;
+      if (index != null) {
+         index.add(key, expiryTime);
+      }
+   }
+
+   @Override
+   public void cancelExpiration(K key) {
+      ExpirationIndex<K> index = expirationIndex;
+      if (index != null) {
+         index.remove(key);
+      }
+   }
+
    @Override
    public boolean isEnabled() {
       return enabled;
@@ -206,6 +270,9 @@ public void stop() {
       if (expirationTask != null) {
          expirationTask.cancel(true);
       }
+      if (expirationIndex != null) {
+         expirationIndex.clear();
+      }
    }
 
    class ScheduledTask implements Runnable {
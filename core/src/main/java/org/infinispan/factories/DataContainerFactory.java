@@ -5,6 +5,7 @@
 import org.infinispan.configuration.cache.StorageType;
 import org.infinispan.container.DataContainer;
 import org.infinispan.container.DefaultDataContainer;
+import org.infinispan.container.DefaultSegmentedDataContainer;
 import org.infinispan.container.offheap.BoundedOffHeapDataContainer;
 import org.infinispan.container.offheap.OffHeapDataContainer;
 import org.infinispan.eviction.EvictionStrategy;
@@ -36,6 +37,10 @@ public <T> T construct(Class<T> componentType) {
          if (strategy.isExceptionBased() || !strategy.isEnabled()) {
             if (configuration.memory().storageType() == StorageType.OFF_HEAP) {
                return (T) new OffHeapDataContainer(configuration.memory().addressCount());
+            } else if (configuration.clustering().cacheMode().isDistributed()
+                  || configuration.clustering().cacheMode().isScattered()) {
+               // Each node owns only some segments, so keep them apart and state transfer only has to visit the moved ones
+               return (T) new DefaultSegmentedDataContainer<>(level, configuration.clustering().hash().numSegments());
             } else {
                return (T) DefaultDataContainer.unBoundedDataContainer(level);
             }
@@ -7,6 +7,7 @@
 import org.infinispan.container.offheap.OffHeapEntryFactory;
 import org.infinispan.container.offheap.OffHeapEntryFactoryImpl;
 import org.infinispan.container.offheap.OffHeapMemoryAllocator;
+import org.infinispan.container.offheap.PooledOffHeapMemoryAllocator;
 import org.infinispan.container.offheap.UnpooledOffHeapMemoryAllocator;
 import org.infinispan.factories.annotations.DefaultFactoryFor;
 import org.infinispan.factories.scopes.Scope;
@@ -63,7 +64,8 @@ else if (componentType.equals(PersistentUUIDManager.class))
       else if (componentType.equals(OffHeapEntryFactory.class))
          return componentType.cast(new OffHeapEntryFactoryImpl());
       else if (componentType.equals(OffHeapMemoryAllocator.class))
-         return componentType.cast(new UnpooledOffHeapMemoryAllocator());
+         return componentType.cast(Boolean.getBoolean(PooledOffHeapMemoryAllocator.POOLED_ALLOCATOR_PROPERTY) ?
+               new PooledOffHeapMemoryAllocator() : new UnpooledOffHeapMemoryAllocator());
       else if (componentType.equals(IteratorHandler.class))
          return componentType.cast(new IteratorHandler());
       else if (componentType.equals(GlobalStateManager.class))
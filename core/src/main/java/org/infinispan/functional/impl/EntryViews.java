@@ -96,6 +96,23 @@ public static <R> R snapshot(R ret) {
       return ret;
    }
 
+   @SuppressWarnings("unchecked")
+   private static <T extends MetaParam> Optional<T> findMetaParamInMetadata(Metadata metadata, Class<T> type) {
+      if (metadata instanceof MetaParamsInternalMetadata) {
+         MetaParamsInternalMetadata metaParamsMetadata = (MetaParamsInternalMetadata) metadata;
+         return metaParamsMetadata.findMetaParam(type);
+      }
+
+      // Entries written through the Cache API expose their version, e.g. for version based conditional operations
+      if (type == MetaParam.MetaEntryVersion.class && metadata != null && metadata.version() != null) {
+         return Optional.of((T) new MetaParam.MetaEntryVersion(metadata.version()));
+      }
+
+      // TODO: Add interoperability support, e.g. able to retrieve lifespan for data stored in Cache via lifespan API
+
+      return Optional.empty();
+   }
+
    public interface AccessLoggingReadWriteView<K, V> extends ReadWriteEntryView<K, V> {
       boolean isRead();
    }
@@ -132,14 +149,7 @@ public V get() throws NoSuchElementException {
       @Override
       public <T extends MetaParam> Optional<T> findMetaParam(Class<T> type) {
          Metadata metadata = entry.getMetadata();
-         if (metadata instanceof MetaParamsInternalMetadata) {
-            MetaParamsInternalMetadata metaParamsMetadata = (MetaParamsInternalMetadata) metadata;
-            return metaParamsMetadata.findMetaParam(type);
-         }
-
-         // TODO: Add interoperability support, e.g. able to retrieve lifespan for data stored in Cache via lifespan API
-
-         return Optional.empty();
+         return findMetaParamInMetadata(metadata, type);
       }
 
       @Override
@@ -178,14 +188,7 @@ public Optional<V> find() {
       // TODO: Duplication
       @Override
       public <T extends MetaParam> Optional<T> findMetaParam(Class<T> type) {
-         if (metadata instanceof MetaParamsInternalMetadata) {
-            MetaParamsInternalMetadata metaParamsMetadata = (MetaParamsInternalMetadata) metadata;
-            return metaParamsMetadata.findMetaParam(type);
-         }
-
-         // TODO: Add interoperability support, e.g. able to retrieve lifespan for data stored in Cache via lifespan API
-
-         return Optional.empty();
+         return findMetaParamInMetadata(metadata, type);
       }
 
       @Override
@@ -336,14 +339,7 @@ public <T extends MetaParam> Optional<T> findMetaParam(Class<T> type) {
          if (type == MetaParam.MetaLoadedFromPersistence.class) {
             return Optional.of((T) MetaParam.MetaLoadedFromPersistence.of(entry.isLoaded()));
          }
-         if (metadata instanceof MetaParamsInternalMetadata) {
-            MetaParamsInternalMetadata metaParamsMetadata = (MetaParamsInternalMetadata) metadata;
-            return metaParamsMetadata.findMetaParam(type);
-         }
-
-         // TODO: Add interoperability support, e.g. able to retrieve lifespan for data stored in Cache via lifespan API
-
-         return Optional.empty();
+         return findMetaParamInMetadata(metadata, type);
       }
 
       @Override
@@ -464,14 +460,7 @@ public <T extends MetaParam> Optional<T> findMetaParam(Class<T> type) {
             return Optional.of((T) MetaParam.MetaLoadedFromPersistence.of(entry.isLoaded()));
          }
          Metadata metadata = prevMetadata; // Use previous metadata
-         if (metadata instanceof MetaParamsInternalMetadata) {
-            MetaParamsInternalMetadata metaParamsMetadata = (MetaParamsInternalMetadata) metadata;
-            return metaParamsMetadata.findMetaParam(type);
-         }
-
-         // TODO: Add interoperability support, e.g. able to retrieve lifespan for data stored in Cache via lifespan API
-
-         return Optional.empty();
+         return findMetaParamInMetadata(metadata, type);
       }
 
       @Override
@@ -566,14 +555,7 @@ public Optional<V> find() {
       // TODO: Duplication
       @Override
       public <T extends MetaParam> Optional<T> findMetaParam(Class<T> type) {
-         if (metadata instanceof MetaParamsInternalMetadata) {
-            MetaParamsInternalMetadata metaParamsMetadata = (MetaParamsInternalMetadata) metadata;
-            return metaParamsMetadata.findMetaParam(type);
-         }
-
-         // TODO: Add interoperability support, e.g. able to retrieve lifespan for data stored in Cache via lifespan API
-
-         return Optional.empty();
+         return findMetaParamInMetadata(metadata, type);
       }
 
       @Override
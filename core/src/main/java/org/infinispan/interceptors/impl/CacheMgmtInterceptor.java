@@ -54,6 +54,7 @@
 import org.infinispan.topology.CacheTopology;
 import org.infinispan.util.TimeService;
 import org.infinispan.util.concurrent.StripedCounters;
+import org.infinispan.util.concurrent.StripedHistogram;
 
 /**
  * Captures cache management statistics
@@ -71,6 +72,9 @@ public class CacheMgmtInterceptor extends JmxStatsCommandInterceptor {
    private final AtomicLong startNanoseconds = new AtomicLong(0);
    private volatile AtomicLong resetNanoseconds = new AtomicLong(0);
    private StripedCounters<StripeB> counters = new StripedCounters<>(StripeC::new);
+   private final StripedHistogram readTimes = new StripedHistogram();
+   private final StripedHistogram writeTimes = new StripedHistogram();
+   private final StripedHistogram removeTimes = new StripedHistogram();
 
    @Start
    public void start() {
@@ -106,6 +110,7 @@ private Object visitDataReadCommand(InvocationContext ctx, AbstractDataCommand c
       return invokeNextAndFinally(ctx, command, (rCtx, rCommand, rv, t) -> {
          StripeB stripe = counters.stripeForCurrentThread();
          long intervalNanoseconds = timeService.timeDuration(start, TimeUnit.NANOSECONDS);
+         readTimes.record(intervalNanoseconds);
          if (rv == null) {
             counters.add(StripeB.missTimesFieldUpdater, stripe, intervalNanoseconds);
             counters.increment(StripeB.missesFieldUpdater, stripe);
@@ -135,6 +140,7 @@ public Object visitGetAllCommand(InvocationContext ctx, GetAllCommand command) t
          }
 
          int missCount = requests - hitCount;
+         readTimes.record(intervalNanoseconds);
          StripeB stripe = counters.stripeForCurrentThread();
          if (hitCount > 0) {
             counters.add(StripeB.hitsFieldUpdater, stripe, hitCount);
@@ -159,6 +165,7 @@ public Object visitPutMapCommand(InvocationContext ctx, PutMapCommand command) t
          final Map<Object, Object> data = ((PutMapCommand) rCommand).getMap();
          if (data != null && !data.isEmpty()) {
             StripeB stripe = counters.stripeForCurrentThread();
+            writeTimes.record(intervalNanoseconds);
             counters.add(StripeB.storeTimesFieldUpdater, stripe, intervalNanoseconds);
             counters.add(StripeB.storesFieldUpdater, stripe, data.size());
          }
@@ -188,6 +195,7 @@ public Object visitComputeCommand(InvocationContext ctx, ComputeCommand command)
             increaseRemoveMisses();
          } else if (rCommand.isSuccessful()) {
             long intervalMilliseconds = timeService.timeDuration(start, TimeUnit.MILLISECONDS);
+            writeTimes.record(timeService.timeDuration(start, TimeUnit.NANOSECONDS));
             StripeB stripe = counters.stripeForCurrentThread();
             counters.add(StripeB.storeTimesFieldUpdater, stripe, intervalMilliseconds);
             counters.increment(StripeB.storesFieldUpdater, stripe);
@@ -209,6 +217,7 @@ private Object updateStoreStatistics(InvocationContext ctx, WriteCommand command
       return invokeNextAndFinally(ctx, command, (rCtx, rCommand, rv, t) -> {
          if (rCommand.isSuccessful()) {
             long intervalNanoseconds = timeService.timeDuration(start, TimeUnit.NANOSECONDS);
+            writeTimes.record(intervalNanoseconds);
             StripeB stripe = counters.stripeForCurrentThread();
             counters.add(StripeB.storeTimesFieldUpdater, stripe, intervalNanoseconds);
             counters.increment(StripeB.storesFieldUpdater, stripe);
@@ -230,9 +239,11 @@ public Object visitReadOnlyKeyCommand(InvocationContext ctx, ReadOnlyKeyCommand
          StripeB stripe = counters.stripeForCurrentThread();
          StatsEnvelope envelope = (StatsEnvelope) rv;
          if (envelope.isMiss()) {
+            readTimes.record(intervalNanoseconds);
             counters.add(StripeB.missTimesFieldUpdater, stripe, intervalNanoseconds);
             counters.increment(StripeB.missesFieldUpdater, stripe);
          } else if (envelope.isHit()){
+            readTimes.record(intervalNanoseconds);
             counters.add(StripeB.hitTimesFieldUpdater, stripe, intervalNanoseconds);
             counters.increment(StripeB.hitsFieldUpdater, stripe);
          }
@@ -261,6 +272,9 @@ public Object visitReadOnlyManyCommand(InvocationContext ctx, ReadOnlyManyComman
             if (e.isMiss()) missCount.inc();
             retvals.add(e.value());
          });
+         if (hitCount.get() + missCount.get() > 0) {
+            readTimes.record(intervalNanoseconds);
+         }
          if (missCount.get() > 0) {
             counters.add(StripeB.missTimesFieldUpdater, stripe, missCount.get() * intervalNanoseconds / numResults);
             counters.add(StripeB.missesFieldUpdater, stripe, missCount.get());
@@ -291,9 +305,11 @@ private Object updateStatisticsWriteOnly(InvocationContext ctx, AbstractDataComm
          StripeB stripe = counters.stripeForCurrentThread();
          StatsEnvelope<?> envelope = (StatsEnvelope<?>) rv;
          if (envelope.isDelete()) {
+            removeTimes.record(intervalNanoseconds);
             counters.add(StripeB.removeTimesFieldUpdater, stripe, intervalNanoseconds);
             counters.increment(StripeB.removeHitsFieldUpdater, stripe);
          } else if ((envelope.flags() & (StatsEnvelope.CREATE | StatsEnvelope.UPDATE)) != 0) {
+            writeTimes.record(intervalNanoseconds);
             counters.add(StripeB.storeTimesFieldUpdater, stripe, intervalNanoseconds);
             counters.increment(StripeB.storesFieldUpdater, stripe);
          }
@@ -321,16 +337,20 @@ private Object updateStatisticsReadWrite(InvocationContext ctx, AbstractDataComm
          StripeB stripe = counters.stripeForCurrentThread();
          StatsEnvelope<?> envelope = (StatsEnvelope<?>) rv;
          if (envelope.isDelete()) {
+            removeTimes.record(intervalNanoseconds);
             counters.add(StripeB.removeTimesFieldUpdater, stripe, intervalNanoseconds);
             counters.increment(StripeB.removeHitsFieldUpdater, stripe);
          } else if ((envelope.flags() & (StatsEnvelope.CREATE | StatsEnvelope.UPDATE)) != 0) {
+            writeTimes.record(intervalNanoseconds);
             counters.add(StripeB.storeTimesFieldUpdater, stripe, intervalNanoseconds);
             counters.increment(StripeB.storesFieldUpdater, stripe);
          }
          if (envelope.isHit()) {
+            readTimes.record(intervalNanoseconds);
             counters.add(StripeB.hitTimesFieldUpdater, stripe, intervalNanoseconds);
             counters.increment(StripeB.hitsFieldUpdater, stripe);
          } else if (envelope.isMiss()) {
+            readTimes.record(intervalNanoseconds);
             counters.add(StripeB.missTimesFieldUpdater, stripe, intervalNanoseconds);
             counters.increment(StripeB.missesFieldUpdater, stripe);
          }
@@ -389,13 +409,18 @@ private Object updateStatisticsReadWrite(InvocationContext ctx, AbstractWriteMan
             results.add(envelope.value());
          }
          if (removals > 0) {
+            removeTimes.record(intervalNanoseconds);
             counters.add(StripeB.removeTimesFieldUpdater, stripe, removals * intervalNanoseconds / numResults);
             counters.add(StripeB.removeHitsFieldUpdater, stripe, removals);
          }
          if (stores > 0) {
+            writeTimes.record(intervalNanoseconds);
             counters.add(StripeB.storeTimesFieldUpdater, stripe, stores * intervalNanoseconds / numResults);
             counters.add(StripeB.storesFieldUpdater, stripe, stores);
          }
+         if (hits + misses > 0) {
+            readTimes.record(intervalNanoseconds);
+         }
          if (misses > 0) {
             counters.add(StripeB.missTimesFieldUpdater, stripe, misses * intervalNanoseconds / numResults);
             counters.add(StripeB.missesFieldUpdater, stripe, misses);
@@ -438,6 +463,7 @@ public Object visitRemoveCommand(InvocationContext ctx, RemoveCommand command) t
 
    private void increaseRemoveHits(long start) {
       long intervalNanoseconds = timeService.timeDuration(start, TimeUnit.NANOSECONDS);
+      removeTimes.record(intervalNanoseconds);
       StripeB stripe = counters.stripeForCurrentThread();
       counters.add(StripeB.removeTimesFieldUpdater, stripe, intervalNanoseconds);
       counters.increment(StripeB.removeHitsFieldUpdater, stripe);
@@ -579,6 +605,159 @@ public long getAverageRemoveTime() {
       return (counters.get(StripeB.removeTimesFieldUpdater)) / removes;
    }
 
+   @ManagedAttribute(
+         description = "Median number of nanoseconds for a read operation on the cache",
+         displayName = "Read time median",
+         units = Units.NANOSECONDS,
+         displayType = DisplayType.SUMMARY
+   )
+   @SuppressWarnings("unused")
+   public long getReadTimeP50() {
+      return readTimes.snapshot().getValueAtPercentile(50);
+   }
+
+   @ManagedAttribute(
+         description = "99th percentile of the number of nanoseconds for a read operation on the cache",
+         displayName = "Read time 99th percentile",
+         units = Units.NANOSECONDS,
+         displayType = DisplayType.SUMMARY
+   )
+   @SuppressWarnings("unused")
+   public long getReadTimeP99() {
+      return readTimes.snapshot().getValueAtPercentile(99);
+   }
+
+   @ManagedAttribute(
+         description = "99.9th percentile of the number of nanoseconds for a read operation on the cache",
+         displayName = "Read time 99.9th percentile",
+         units = Units.NANOSECONDS,
+         displayType = DisplayType.SUMMARY
+   )
+   @SuppressWarnings("unused")
+   public long getReadTimeP999() {
+      return readTimes.snapshot().getValueAtPercentile(99.9);
+   }
+
+   @ManagedAttribute(
+         description = "Maximum number of nanoseconds for a read operation on the cache",
+         displayName = "Maximum read time",
+         units = Units.NANOSECONDS,
+         displayType = DisplayType.SUMMARY
+   )
+   @SuppressWarnings("unused")
+   public long getMaxReadTime() {
+      return readTimes.getMax();
+   }
+
+   @ManagedAttribute(
+         description = "Median number of nanoseconds for a write operation on the cache",
+         displayName = "Write time median",
+         units = Units.NANOSECONDS,
+         displayType = DisplayType.SUMMARY
+   )
+   @SuppressWarnings("unused")
+   public long getWriteTimeP50() {
+      return writeTimes.snapshot().getValueAtPercentile(50);
+   }
+
+   @ManagedAttribute(
+         description = "99th percentile of the number of nanoseconds for a write operation on the cache",
+         displayName = "Write time 99th percentile",
+         units = Units.NANOSECONDS,
+         displayType = DisplayType.SUMMARY
+   )
+   @SuppressWarnings("unused")
+   public long getWriteTimeP99() {
+      return writeTimes.snapshot().getValueAtPercentile(99);
+   }
+
+   @ManagedAttribute(
+         description = "99.9th percentile of the number of nanoseconds for a write operation on the cache",
+         displayName = "Write time 99.9th percentile",
+         units = Units.NANOSECONDS,
+         displayType = DisplayType.SUMMARY
+   )
+   @SuppressWarnings("unused")
+   public long getWriteTimeP999() {
+      return writeTimes.snapshot().getValueAtPercentile(99.9);
+   }
+
+   @ManagedAttribute(
+         description = "Maximum number of nanoseconds for a write operation on the cache",
+         displayName = "Maximum write time",
+         units = Units.NANOSECONDS,
+         displayType = DisplayType.SUMMARY
+   )
+   @SuppressWarnings("unused")
+   public long getMaxWriteTime() {
+      return writeTimes.getMax();
+   }
+
+   @ManagedAttribute(
+         description = "Median number of nanoseconds for a remove operation on the cache",
+         displayName = "Remove time median",
+         units = Units.NANOSECONDS,
+         displayType = DisplayType.SUMMARY
+   )
+   @SuppressWarnings("unused")
+   public long getRemoveTimeP50() {
+      return removeTimes.snapshot().getValueAtPercentile(50);
+   }
+
+   @ManagedAttribute(
+         description = "99th percentile of the number of nanoseconds for a remove operation on the cache",
+         displayName = "Remove time 99th percentile",
+         units = Units.NANOSECONDS,
+         displayType = DisplayType.SUMMARY
+   )
+   @SuppressWarnings("unused")
+   public long getRemoveTimeP99() {
+      return removeTimes.snapshot().getValueAtPercentile(99);
+   }
+
+   @ManagedAttribute(
+         description = "99.9th percentile of the number of nanoseconds for a remove operation on the cache",
+         displayName = "Remove time 99.9th percentile",
+         units = Units.NANOSECONDS,
+         displayType = DisplayType.SUMMARY
+   )
+   @SuppressWarnings("unused")
+   public long getRemoveTimeP999() {
+      return removeTimes.snapshot().getValueAtPercentile(99.9);
+   }
+
+   @ManagedAttribute(
+         description = "Maximum number of nanoseconds for a remove operation on the cache",
+         displayName = "Maximum remove time",
+         units = Units.NANOSECONDS,
+         displayType = DisplayType.SUMMARY
+   )
+   @SuppressWarnings("unused")
+   public long getMaxRemoveTime() {
+      return removeTimes.getMax();
+   }
+
+   /**
+    * @return a copy of the latency histogram of the read operations, in nanoseconds
+    */
+   public StripedHistogram.Snapshot getReadTimes() {
+      return readTimes.snapshot();
+   }
+
+   /**
+    * @return a copy of the latency histogram of the write operations, in nanoseconds
+    */
+   public StripedHistogram.Snapshot getWriteTimes() {
+      return writeTimes.snapshot();
+   }
+
+   /**
+    * @return a copy of the latency histogram of the remove operations, in nanoseconds
+    */
+   public StripedHistogram.Snapshot getRemoveTimes() {
+      return removeTimes.snapshot();
+   }
+
    @ManagedAttribute(
          description = "Number of entries in the cache including passivated entries",
          displayName = "Number of current cache entries",
@@ -705,6 +884,9 @@ public void resetStatistics() {
       counters.reset(StripeB.removeHitsFieldUpdater);
       counters.reset(StripeB.removeTimesFieldUpdater);
       counters.reset(StripeB.removeMissesFieldUpdater);
+      readTimes.reset();
+      writeTimes.reset();
+      removeTimes.reset();
       resetNanoseconds.set(timeService.time());
    }
 
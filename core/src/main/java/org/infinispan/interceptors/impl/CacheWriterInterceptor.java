@@ -52,8 +52,10 @@
 import org.infinispan.jmx.annotations.ManagedAttribute;
 import org.infinispan.jmx.annotations.ManagedOperation;
 import org.infinispan.jmx.annotations.MeasurementType;
+import org.infinispan.jmx.annotations.Units;
 import org.infinispan.marshall.core.MarshalledEntry;
 import org.infinispan.marshall.core.MarshalledEntryImpl;
+import org.infinispan.persistence.async.AsyncCacheWriter;
 import org.infinispan.persistence.manager.PersistenceManager;
 import org.infinispan.persistence.support.BatchModification;
 import org.infinispan.transaction.xa.GlobalTransaction;
@@ -444,6 +446,32 @@ public long getWritesToTheStores() {
       return cacheStores.get();
    }
 
+   @ManagedAttribute(
+         description = "Number of modifications waiting to be written to the async stores, after coalescing",
+         displayName = "Async store queue depth"
+   )
+   public int getAsyncStoreQueueDepth() {
+      return persistenceManager.getAsyncWriters().stream().mapToInt(AsyncCacheWriter::getQueueDepth).sum();
+   }
+
+   @ManagedAttribute(
+         description = "Ratio of the modifications replaced by a later modification of the same key before being written to the async stores",
+         displayName = "Async store coalescing ratio",
+         units = Units.PERCENTAGE
+   )
+   public double getAsyncStoreCoalescingRatio() {
+      return persistenceManager.getAsyncWriters().stream().mapToDouble(AsyncCacheWriter::getCoalescingRatio).average().orElse(0);
+   }
+
+   @ManagedAttribute(
+         description = "Average time to write a batch of modifications to the async stores",
+         displayName = "Async store flush latency",
+         units = Units.MILLISECONDS
+   )
+   public double getAsyncStoreFlushLatency() {
+      return persistenceManager.getAsyncWriters().stream().mapToDouble(AsyncCacheWriter::getAverageFlushLatency).average().orElse(0);
+   }
+
    void storeEntry(InvocationContext ctx, Object key, FlagAffectedCommand command) {
       MarshalledEntry entry = createMarshalledEntry(ctx, key);
       persistenceManager.writeToAllNonTxStores(entry, skipSharedStores(ctx, key, command) ? PRIVATE : BOTH, command.getFlagsBitSet());
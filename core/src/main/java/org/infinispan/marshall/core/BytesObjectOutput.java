@@ -2,23 +2,41 @@
 
 import java.io.IOException;
 import java.io.ObjectOutput;
+import java.util.Arrays;
 
 import org.infinispan.commons.io.ByteBuffer;
 import org.infinispan.commons.io.ByteBufferImpl;
 
 /**
  * Array backed, expandable {@link ObjectOutput} implementation.
+ * <p>
+ * The array may be a buffer pooled by the {@link GlobalMarshaller}, in which case the output is always copied out of
+ * it. A pooled buffer that has to grow over {@link #MAX_POOLED_SIZE} is replaced by a buffer that is not pooled.
  */
 final class BytesObjectOutput implements ObjectOutput {
 
+   static final int MAX_POOLED_SIZE = 64 * 1024;
+
    final GlobalMarshaller marshaller;
 
+   // true if the output took the thread's pooled buffer, even if it had to replace it
+   final boolean fromPool;
+
    byte bytes[];
    int pos;
+   boolean pooled;
 
    BytesObjectOutput(int size, GlobalMarshaller marshaller) {
       this.bytes = new byte[size];
       this.marshaller = marshaller;
+      this.fromPool = false;
+   }
+
+   BytesObjectOutput(byte[] pooledBuffer, GlobalMarshaller marshaller) {
+      this.bytes = pooledBuffer;
+      this.marshaller = marshaller;
+      this.fromPool = true;
+      this.pooled = true;
    }
 
    @Override
@@ -240,6 +258,8 @@ private int ensureCapacity(int len) {
          byte newbuf[] = new byte[getNewBufferSize(bytes.length, newcount)];
          System.arraycopy(bytes, 0, newbuf, 0, pos);
          bytes = newbuf;
+         if (pooled && newbuf.length > MAX_POOLED_SIZE)
+            pooled = false;
       }
       return newcount;
    }
@@ -265,6 +285,11 @@ private int getNewBufferSize(int curSize, int minNewSize) {
    }
 
    byte[] toBytes() {
+      if (!pooled && pos == bytes.length) {
+         // The size was predicted exactly, no need to copy
+         pos = 0;
+         return bytes;
+      }
       // Trim out unused bytes
       byte[] b = new byte[pos];
       System.arraycopy(bytes, 0, b, 0, pos);
@@ -273,6 +298,10 @@ byte[] toBytes() {
    }
 
    ByteBuffer toByteBuffer() {
+      if (pooled) {
+         // The pooled buffer is reused by the next marshalling
+         return new ByteBufferImpl(Arrays.copyOf(bytes, pos), 0, pos);
+      }
       // No triming, just take position as length
       return new ByteBufferImpl(bytes, 0, pos);
    }
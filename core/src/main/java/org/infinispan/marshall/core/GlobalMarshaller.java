@@ -46,6 +46,8 @@ public class GlobalMarshaller implements StreamingMarshaller {
 
    private static final Log log = LogFactory.getLog(GlobalMarshaller.class);
    private static final boolean trace = log.isTraceEnabled();
+   private static final int POOLED_BUFFER_SIZE = 1024;
+   private static final byte[] BUFFER_IN_USE = new byte[0];
 
    static final int NOT_FOUND                      = -1;
 
@@ -95,6 +97,13 @@ public class GlobalMarshaller implements StreamingMarshaller {
 
    private final MarshallableTypeHints marshallableTypeHints = new MarshallableTypeHints();
 
+   /**
+    * Per-thread buffers that objects are marshalled into before being copied to right-sized arrays, so that the
+    * intermediate buffers and their resizing don't produce garbage. The thread-local keeps only the byte[], so that
+    * it doesn't keep the marshaller reachable from the threads.
+    */
+   private final ThreadLocal<byte[]> pooledBuffers = new ThreadLocal<>();
+
    @Inject private GlobalComponentRegistry gcr;
    @Inject private RemoteCommandsFactory cmdFactory;
 
@@ -163,7 +172,11 @@ public void stopDefaultExternalMarshaller() {
    public byte[] objectToByteBuffer(Object obj) throws IOException, InterruptedException {
       try {
          BytesObjectOutput out = writeObjectOutput(obj);
-         return out.toBytes(); // trim out unused bytes
+         try {
+            return out.toBytes(); // trim out unused bytes
+         } finally {
+            releaseObjectOutput(out);
+         }
       } catch (java.io.NotSerializableException nse) {
          if (log.isDebugEnabled()) log.debug("Object is not serializable", nse);
          throw new NotSerializableException(nse.getMessage(), nse.getCause());
@@ -178,11 +191,41 @@ private BytesObjectOutput writeObjectOutput(Object obj) throws IOException {
    }
 
    private BytesObjectOutput writeObjectOutput(Object obj, int estimatedSize) throws IOException {
-      BytesObjectOutput out = new BytesObjectOutput(estimatedSize, this);
-      writeNullableObject(obj, out);
+      BytesObjectOutput out = newObjectOutput(estimatedSize);
+      try {
+         writeNullableObject(obj, out);
+      } catch (Throwable t) {
+         releaseObjectOutput(out);
+         throw t;
+      }
       return out;
    }
 
+   private BytesObjectOutput newObjectOutput(int estimatedSize) {
+      byte[] buffer = pooledBuffers.get();
+      if (buffer == BUFFER_IN_USE) {
+         // Reentrant marshalling, e.g. from an externalizer
+         return new BytesObjectOutput(estimatedSize, this);
+      }
+      pooledBuffers.set(BUFFER_IN_USE);
+      if (buffer == null || buffer.length < estimatedSize) {
+         buffer = new byte[Math.min(Math.max(estimatedSize, POOLED_BUFFER_SIZE), BytesObjectOutput.MAX_POOLED_SIZE)];
+      }
+      return new BytesObjectOutput(buffer, this);
+   }
+
+   /**
+    * Must be called once the output has been copied out of the buffer.
+    */
+   private void releaseObjectOutput(BytesObjectOutput out) {
+      if (out.pooled) {
+         pooledBuffers.set(out.bytes);
+      } else if (out.fromPool) {
+         // The pooled buffer outgrew the pool, the next marshalling allocates a new one
+         pooledBuffers.remove();
+      }
+   }
+
    @Override
    public Object objectFromByteBuffer(byte[] buf) throws IOException, ClassNotFoundException {
       BytesObjectInput in = BytesObjectInput.from(buf, this);
@@ -297,7 +340,11 @@ public BufferSizePredictor getBufferSizePredictor(Object o) {
    public ByteBuffer objectToBuffer(Object o) throws IOException, InterruptedException {
       try {
          BytesObjectOutput out = writeObjectOutput(o);
-         return out.toByteBuffer();
+         try {
+            return out.toByteBuffer();
+         } finally {
+            releaseObjectOutput(out);
+         }
       } catch (java.io.NotSerializableException nse) {
          if (log.isDebugEnabled()) log.debug("Object is not serializable", nse);
          throw new NotSerializableException(nse.getMessage(), nse.getCause());
@@ -308,7 +355,11 @@ public ByteBuffer objectToBuffer(Object o) throws IOException, InterruptedExcept
    public byte[] objectToByteBuffer(Object obj, int estimatedSize) throws IOException, InterruptedException {
       try {
          BytesObjectOutput out = writeObjectOutput(obj, estimatedSize);
-         return out.toBytes();
+         try {
+            return out.toBytes();
+         } finally {
+            releaseObjectOutput(out);
+         }
       } catch (java.io.NotSerializableException nse) {
          if (log.isDebugEnabled()) log.debug("Object is not serializable", nse);
          throw new NotSerializableException(nse.getMessage(), nse.getCause());
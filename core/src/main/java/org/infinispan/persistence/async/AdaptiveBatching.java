@@ -0,0 +1,74 @@
+package org.infinispan.persistence.async;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import net.jcip.annotations.GuardedBy;
+
+/**
+ * Adapts the size of the batches written to the underlying store, and how long the coordinator waits for modifications
+ * to coalesce before flushing them, to the measured latency of the writes.
+ * <p/>
+ * The batch size doubles while full batches are written faster than {@link #TARGET_BATCH_NANOS} and halves when a
+ * batch takes longer. The flush interval follows the average batch latency: while the store is slow, waiting as long
+ * as a write takes lets more updates of the same keys coalesce, and while the store is fast the modifications are
+ * flushed immediately.
+ *
+ * @since 9.2
+ */
+class AdaptiveBatching {
+   static final int MIN_BATCH_SIZE = 16;
+   static final long TARGET_BATCH_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+   static final long MAX_FLUSH_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+   private final int maxBatchSize;
+   private final LongAdder batches = new LongAdder();
+   private final LongAdder batchNanos = new LongAdder();
+   private volatile int batchSize;
+   @GuardedBy("this")
+   private long averageBatchNanos;
+
+   AdaptiveBatching(int maxBatchSize) {
+      this.maxBatchSize = Math.max(MIN_BATCH_SIZE, maxBatchSize);
+      this.batchSize = MIN_BATCH_SIZE;
+   }
+
+   /**
+    * @return how many modifications should be written to the store with a single {@code writeBatch}
+    */
+   int batchSize() {
+      return batchSize;
+   }
+
+   /**
+    * @return how long the coordinator should wait for modifications to coalesce before flushing them
+    */
+   synchronized long flushIntervalNanos() {
+      return Math.min(averageBatchNanos, MAX_FLUSH_INTERVAL_NANOS);
+   }
+
+   /**
+    * Records the latency of a batch written to the store
+    * @param size the number of modifications in the batch
+    * @param nanos how long it took to write them
+    */
+   synchronized void recordBatch(int size, long nanos) {
+      batches.increment();
+      batchNanos.add(nanos);
+      // Exponentially weighted, so the interval follows changes in the store latency
+      averageBatchNanos = averageBatchNanos == 0 ? nanos : (averageBatchNanos * 7 + nanos) / 8;
+      if (nanos > TARGET_BATCH_NANOS) {
+         batchSize = Math.max(MIN_BATCH_SIZE, batchSize >> 1);
+      } else if (size >= batchSize && nanos < TARGET_BATCH_NANOS / 2) {
+         batchSize = Math.min(maxBatchSize, batchSize << 1);
+      }
+   }
+
+   /**
+    * @return the average time it took to write a batch to the store, in milliseconds
+    */
+   double averageFlushLatencyMillis() {
+      long count = batches.sum();
+      return count == 0 ? 0 : (double) batchNanos.sum() / count / TimeUnit.MILLISECONDS.toNanos(1);
+   }
+}
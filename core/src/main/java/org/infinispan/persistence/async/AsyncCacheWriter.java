@@ -11,7 +11,10 @@
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
 import java.util.stream.Collectors;
 import java.util.stream.StreamSupport;
 
@@ -20,6 +23,7 @@
 import org.infinispan.commons.util.CollectionFactory;
 import org.infinispan.configuration.cache.AsyncStoreConfiguration;
 import org.infinispan.configuration.cache.Configuration;
+import org.infinispan.distribution.ch.KeyPartitioner;
 import org.infinispan.factories.threads.DefaultThreadFactory;
 import org.infinispan.marshall.core.MarshalledEntry;
 import org.infinispan.persistence.modifications.Modification;
@@ -53,6 +57,11 @@
  * <p/>
  * Write operations affecting same key are now coalesced so that only the final state is actually stored.
  * <p/>
+ * The modifications are written to the underlying store in batches, whose size adapts to the measured latency of
+ * {@link CacheWriter#writeBatch(Iterable)}. While the store is slow, the coordinator also waits up to the average batch
+ * latency before flushing, so that more updates of the same keys are coalesced. All the modifications of a segment in
+ * a flush are written by the same thread, in order.
+ * <p/>
  *
  * @author Manik Surtani
  * @author Galder Zamarreño
@@ -70,12 +79,20 @@ public class AsyncCacheWriter extends DelegatingCacheWriter {
    private int concurrencyLevel;
    private String cacheName;
    private String nodeName;
+   private Cache cache;
+   private KeyPartitioner keyPartitioner;
 
    protected BufferLock stateLock;
    @GuardedBy("stateLock")
    protected final AtomicReference<State> state = new AtomicReference<>();
    @GuardedBy("stateLock")
-   private boolean stopped;
+   private volatile boolean stopped;
+
+   private AdaptiveBatching batching;
+   // Modifications queued since the coordinator last took the state, before coalescing
+   private final AtomicInteger queuedSinceFlush = new AtomicInteger();
+   private final LongAdder queuedModifications = new LongAdder();
+   private final LongAdder writtenModifications = new LongAdder();
 
    protected AsyncStoreConfiguration asyncConfiguration;
 
@@ -88,7 +105,7 @@ public void init(InitializationContext ctx) {
       super.init(ctx);
       this.asyncConfiguration = ctx.getConfiguration().async();
 
-      Cache cache = ctx.getCache();
+      cache = ctx.getCache();
       Configuration cacheCfg = cache != null ? cache.getCacheConfiguration() : null;
       concurrencyLevel = cacheCfg != null ? cacheCfg.locking().concurrencyLevel() : 16;
       cacheName = cache != null ? cache.getName() : null;
@@ -101,6 +118,10 @@ public void start() {
       state.set(newState(false, null));
       stopped = false;
       stateLock = new BufferLock(asyncConfiguration.modificationQueueSize());
+      int queueSize = asyncConfiguration.modificationQueueSize();
+      batching = new AdaptiveBatching(queueSize > 0 ? queueSize : AsyncStoreConfiguration.MODIFICATION_QUEUE_SIZE.getDefaultValue());
+      keyPartitioner = cache != null && cache.getAdvancedCache().getComponentRegistry() != null ?
+            cache.getAdvancedCache().getComponentRegistry().getComponent(KeyPartitioner.class) : null;
 
       // Create a thread pool with unbounded work queue, so that all work is accepted and eventually
       // executed. A bounded queue could throw RejectedExecutionException and thus lose data.
@@ -125,6 +146,8 @@ public void stop() {
       stateLock.writeLock(0);
       stopped = true;
       stateLock.writeUnlock();
+      // Don't wait for more modifications to coalesce
+      LockSupport.unpark(coordinator);
       try {
          // It is safe to wait without timeout because the thread pool uses an unbounded work queue (i.e.
          // all work handed to the pool will be accepted and eventually executed) and AsyncStoreProcessors
@@ -212,6 +235,7 @@ private void put(Modification mod, int count) {
       } finally {
          stateLock.writeUnlock();
       }
+      modificationsQueued(count);
    }
 
    private void putAll(List<Modification> mods) {
@@ -221,6 +245,66 @@ private void putAll(List<Modification> mods) {
       } finally {
          stateLock.writeUnlock();
       }
+      modificationsQueued(mods.size());
+   }
+
+   private void modificationsQueued(int count) {
+      queuedModifications.add(count);
+      int threshold = flushThreshold();
+      int queued = queuedSinceFlush.addAndGet(count);
+      if (queued >= threshold && queued - count < threshold) {
+         // There are enough modifications to fill a batch for every thread, no need to wait for more
+         LockSupport.unpark(coordinator);
+      }
+   }
+
+   private int flushThreshold() {
+      int threshold = batching.batchSize() * asyncConfiguration.threadPoolSize();
+      int queueSize = asyncConfiguration.modificationQueueSize();
+      // Writers block when the queue is full, so flush at the latest when it is
+      return queueSize > 0 ? Math.min(threshold, queueSize) : threshold;
+   }
+
+   private int segmentOf(Object key) {
+      return keyPartitioner != null ? keyPartitioner.getSegment(key) : key.hashCode() & Integer.MAX_VALUE;
+   }
+
+   /**
+    * @return the number of modifications queued or being written to the store, after coalescing
+    */
+   public int getQueueDepth() {
+      int depth = 0;
+      for (State s = state.get(); s != null; s = s.next) {
+         depth += s.modifications.size();
+      }
+      return depth;
+   }
+
+   /**
+    * @return the ratio of the modifications that were replaced by a later modification of the same key before being
+    * written to the store
+    */
+   public double getCoalescingRatio() {
+      long queued = queuedModifications.sum();
+      if (queued == 0) {
+         return 0;
+      }
+      long notCoalesced = writtenModifications.sum() + getQueueDepth();
+      return Math.max(0, 1 - (double) notCoalesced / queued);
+   }
+
+   /**
+    * @return the average time it took to write a batch of modifications to the store, in milliseconds
+    */
+   public double getAverageFlushLatency() {
+      return batching.averageFlushLatencyMillis();
+   }
+
+   /**
+    * @return the current number of modifications written to the store in a single batch
+    */
+   public int getBatchSize() {
+      return batching.batchSize();
    }
 
    public AtomicReference<State> getState() {
@@ -240,6 +324,8 @@ public void run() {
             for (;;) {
                final State s, head, tail;
                final boolean shouldStop;
+               stateLock.awaitAvailable();
+               awaitCoalescing();
                stateLock.readLock();
                try {
                   s = state.get();
@@ -248,6 +334,7 @@ public void run() {
                   assert tail == null || tail.next == null : "State chain longer than 3 entries!";
                   head = newState(false, s);
                   state.set(head);
+                  queuedSinceFlush.set(0);
                } finally {
                   stateLock.reset(0);
                   stateLock.readUnlock();
@@ -309,24 +396,45 @@ public void run() {
          }
       }
 
+      /**
+       * Waits for the flush interval, unless there are already enough modifications to fill a batch for every thread
+       */
+      private void awaitCoalescing() {
+         long interval = batching.flushIntervalNanos();
+         if (interval <= 0)
+            return;
+
+         long deadline = System.nanoTime() + interval;
+         long remaining = interval;
+         while (remaining > 0 && !stopped && queuedSinceFlush.get() < flushThreshold()) {
+            LockSupport.parkNanos(this, remaining);
+            remaining = deadline - System.nanoTime();
+         }
+      }
+
       private List<AsyncStoreProcessor> createProcessors(State state, List<Modification> mods) {
          List<AsyncStoreProcessor> result = new ArrayList<>();
-         // distribute modifications evenly across worker threads
          int threads = Math.min(mods.size(), asyncConfiguration.threadPoolSize());
          if (threads > 0) {
-            // create background threads
-            int start = 0;
-            int quotient = mods.size() / threads;
-            int remainder = mods.size() % threads;
+            // distribute modifications across worker threads by segment, so that a segment is only written by one
+            List<List<Modification>> modsByThread = new ArrayList<>(threads);
             for (int i = 0; i < threads; i++) {
-               int end = start + quotient + (i < remainder ? 1 : 0);
-               result.add(new AsyncStoreProcessor(mods.subList(start, end), state));
-               start = end;
+               modsByThread.add(new ArrayList<>());
+            }
+            for (Modification mod : mods) {
+               modsByThread.get(segmentOf(keyOf(mod)) % threads).add(mod);
+            }
+            for (List<Modification> threadMods : modsByThread) {
+               if (!threadMods.isEmpty())
+                  result.add(new AsyncStoreProcessor(threadMods, state));
             }
-            assert start == mods.size() : "Thread distribution is broken!";
          }
          return result;
       }
+
+      private Object keyOf(Modification mod) {
+         return mod.getType() == Modification.Type.STORE ? ((Store) mod).getKey() : ((Remove) mod).getKey();
+      }
    }
 
    private class AsyncStoreProcessor implements Runnable {
@@ -341,9 +449,14 @@ private class AsyncStoreProcessor implements Runnable {
       @Override
       public void run() {
          try {
-            // try 3 times to store the modifications
-            retryWork(3);
-
+            // write the modifications in batches, in order
+            int start = 0;
+            while (start < modifications.size()) {
+               int end = Math.min(modifications.size(), start + batching.batchSize());
+               // try 3 times to store the modifications
+               retryWork(modifications.subList(start, end), 3);
+               start = end;
+            }
          } finally {
             // decrement active worker threads and disconnect myState if this was the last one
             myState.workerThreads.countDown();
@@ -354,13 +467,16 @@ public void run() {
          }
       }
 
-      private void retryWork(int maxRetries) {
+      private void retryWork(List<Modification> batch, int maxRetries) {
          for (int attempt = 0; attempt < maxRetries; attempt++) {
             if (attempt > 0 && log.isDebugEnabled())
                log.debugf("Retrying due to previous failure. %s attempts left.", maxRetries - attempt);
 
             try {
-               AsyncCacheWriter.this.applyModificationsSync(modifications);
+               long start = System.nanoTime();
+               AsyncCacheWriter.this.applyModificationsSync(batch);
+               batching.recordBatch(batch.size(), System.nanoTime() - start);
+               writtenModifications.add(batch.size());
                return;
             } catch (Exception e) {
                if (log.isDebugEnabled())
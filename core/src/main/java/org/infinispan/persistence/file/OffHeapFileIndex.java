@@ -0,0 +1,270 @@
+package org.infinispan.persistence.file;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Index of the entries of a {@link SingleFileStore} that is kept outside of the Java heap.
+ * <p/>
+ * The index doesn't keep the keys, only the hash of the serialized key, the position of the entry in the file and its
+ * expiration time, 24 bytes per entry in direct buffers. Looking up a key compares the serialized key with the key
+ * stored in the file for all the positions with the same hash, through the {@link KeyMatcher} provided by the store.
+ * <p/>
+ * The index is split in segments, open addressing hash tables with linear probing that grow independently. Each
+ * segment is guarded by its own monitor: callers that need several operations to be atomic synchronize on
+ * {@link #segment(int)}.
+ *
+ * @since 9.2
+ */
+class OffHeapFileIndex {
+   private static final int SEGMENTS = 64;
+   private static final int INITIAL_CAPACITY = 1024;
+   // Keeps every segment table under 2 GB
+   private static final int MAX_CAPACITY = 1 << 26;
+   private static final int SLOT_SIZE = 24;
+   private static final int OFFSET = 0;
+   private static final int EXPIRY = 8;
+   private static final int HASH = 16;
+
+   private final Segment[] segments = new Segment[SEGMENTS];
+
+   OffHeapFileIndex() {
+      for (int i = 0; i < SEGMENTS; ++i) {
+         segments[i] = new Segment();
+      }
+   }
+
+   /**
+    * Checks if the entry stored at the given position has the key the caller is looking for.
+    */
+   interface KeyMatcher {
+      boolean matches(long offset) throws IOException;
+   }
+
+   /**
+    * Receives the entries of a segment, see {@link #forEach(int, EntryConsumer)}.
+    */
+   interface EntryConsumer {
+      void accept(int hash, long offset, long expiryTime);
+   }
+
+   static int segmentCount() {
+      return SEGMENTS;
+   }
+
+   Object segment(int hash) {
+      return segments[(hash >>> 26) & (SEGMENTS - 1)];
+   }
+
+   private Segment segmentFor(int hash) {
+      return segments[(hash >>> 26) & (SEGMENTS - 1)];
+   }
+
+   /**
+    * @return the position of the entry with the key, or {@code -1} if there is none
+    */
+   long get(int hash, KeyMatcher matcher) throws IOException {
+      Segment segment = segmentFor(hash);
+      synchronized (segment) {
+         int slot = segment.find(hash, matcher);
+         return slot < 0 ? -1 : segment.table.getLong(slot * SLOT_SIZE + OFFSET);
+      }
+   }
+
+   /**
+    * @return true if there is an entry with the hash at the given position
+    */
+   boolean contains(int hash, long offset) {
+      Segment segment = segmentFor(hash);
+      synchronized (segment) {
+         return segment.find(hash, offset) >= 0;
+      }
+   }
+
+   /**
+    * @return the position of the entry with the key that was replaced, or {@code -1} if there was none
+    */
+   long put(int hash, long offset, long expiryTime, KeyMatcher matcher) throws IOException {
+      Segment segment = segmentFor(hash);
+      synchronized (segment) {
+         int slot = segment.find(hash, matcher);
+         if (slot >= 0) {
+            long previous = segment.table.getLong(slot * SLOT_SIZE + OFFSET);
+            segment.set(slot, hash, offset, expiryTime);
+            return previous;
+         }
+         segment.insert(hash, offset, expiryTime);
+         return -1;
+      }
+   }
+
+   /**
+    * @return the position of the entry with the key that was removed, or {@code -1} if there was none
+    */
+   long remove(int hash, KeyMatcher matcher) throws IOException {
+      Segment segment = segmentFor(hash);
+      synchronized (segment) {
+         int slot = segment.find(hash, matcher);
+         if (slot < 0) {
+            return -1;
+         }
+         long offset = segment.table.getLong(slot * SLOT_SIZE + OFFSET);
+         segment.delete(slot);
+         return offset;
+      }
+   }
+
+   /**
+    * @return true if the entry with the hash at the given position was removed
+    */
+   boolean remove(int hash, long offset) {
+      Segment segment = segmentFor(hash);
+      synchronized (segment) {
+         int slot = segment.find(hash, offset);
+         if (slot < 0) {
+            return false;
+         }
+         segment.delete(slot);
+         return true;
+      }
+   }
+
+   /**
+    * Passes all the entries of a segment to the consumer, while holding the segment monitor.
+    */
+   void forEach(int segmentIndex, EntryConsumer consumer) {
+      Segment segment = segments[segmentIndex];
+      synchronized (segment) {
+         ByteBuffer table = segment.table;
+         for (int slot = 0; slot < segment.capacity; ++slot) {
+            long offset = table.getLong(slot * SLOT_SIZE + OFFSET);
+            if (offset != 0) {
+               consumer.accept(table.getInt(slot * SLOT_SIZE + HASH), offset, table.getLong(slot * SLOT_SIZE + EXPIRY));
+            }
+         }
+      }
+   }
+
+   int size() {
+      int size = 0;
+      for (Segment segment : segments) {
+         synchronized (segment) {
+            size += segment.size;
+         }
+      }
+      return size;
+   }
+
+   void clear() {
+      for (Segment segment : segments) {
+         synchronized (segment) {
+            segment.reset(INITIAL_CAPACITY);
+         }
+      }
+   }
+
+   /**
+    * Open addressing table. A slot with offset 0 is empty, as no entry can start at the beginning of the file.
+    */
+   private static final class Segment {
+      private ByteBuffer table;
+      private int capacity;
+      private int size;
+
+      Segment() {
+         reset(INITIAL_CAPACITY);
+      }
+
+      void reset(int capacity) {
+         this.table = ByteBuffer.allocateDirect(capacity * SLOT_SIZE);
+         this.capacity = capacity;
+         this.size = 0;
+      }
+
+      int find(int hash, KeyMatcher matcher) throws IOException {
+         int mask = capacity - 1;
+         for (int slot = hash & mask; ; slot = (slot + 1) & mask) {
+            long offset = table.getLong(slot * SLOT_SIZE + OFFSET);
+            if (offset == 0) {
+               return -1;
+            }
+            if (table.getInt(slot * SLOT_SIZE + HASH) == hash && matcher.matches(offset)) {
+               return slot;
+            }
+         }
+      }
+
+      int find(int hash, long offset) {
+         int mask = capacity - 1;
+         for (int slot = hash & mask; ; slot = (slot + 1) & mask) {
+            long slotOffset = table.getLong(slot * SLOT_SIZE + OFFSET);
+            if (slotOffset == 0) {
+               return -1;
+            }
+            if (slotOffset == offset) {
+               return slot;
+            }
+         }
+      }
+
+      void set(int slot, int hash, long offset, long expiryTime) {
+         table.putLong(slot * SLOT_SIZE + OFFSET, offset);
+         table.putLong(slot * SLOT_SIZE + EXPIRY, expiryTime);
+         table.putInt(slot * SLOT_SIZE + HASH, hash);
+      }
+
+      void insert(int hash, long offset, long expiryTime) {
+         if ((size + 1) * 4L > capacity * 3L) {
+            grow();
+         }
+         int mask = capacity - 1;
+         int slot = hash & mask;
+         while (table.getLong(slot * SLOT_SIZE + OFFSET) != 0) {
+            slot = (slot + 1) & mask;
+         }
+         set(slot, hash, offset, expiryTime);
+         size++;
+      }
+
+      /**
+       * Removes the slot and moves back the following entries of the cluster, so that no tombstones are needed.
+       */
+      void delete(int slot) {
+         int mask = capacity - 1;
+         int hole = slot;
+         for (int next = (slot + 1) & mask; ; next = (next + 1) & mask) {
+            long offset = table.getLong(next * SLOT_SIZE + OFFSET);
+            if (offset == 0) {
+               break;
+            }
+            int hash = table.getInt(next * SLOT_SIZE + HASH);
+            int home = hash & mask;
+            // The entry can fill the hole only if its home slot is not between the hole and its current slot
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+               set(hole, hash, offset, table.getLong(next * SLOT_SIZE + EXPIRY));
+               hole = next;
+            }
+         }
+         set(hole, 0, 0, 0);
+         size--;
+      }
+
+      private void grow() {
+         if (capacity >= MAX_CAPACITY) {
+            if (size + 1 >= capacity) {
+               throw new IllegalStateException("Index segment is full");
+            }
+            return;
+         }
+         ByteBuffer oldTable = table;
+         int oldCapacity = capacity;
+         reset(capacity << 1);
+         for (int slot = 0; slot < oldCapacity; ++slot) {
+            long offset = oldTable.getLong(slot * SLOT_SIZE + OFFSET);
+            if (offset != 0) {
+               insert(oldTable.getInt(slot * SLOT_SIZE + HASH), offset, oldTable.getLong(slot * SLOT_SIZE + EXPIRY));
+            }
+         }
+      }
+   }
+}
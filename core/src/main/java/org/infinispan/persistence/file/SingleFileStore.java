@@ -15,11 +15,14 @@
 import java.util.Map;
 import java.util.SortedSet;
 import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.Executor;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 import org.infinispan.commons.configuration.ConfiguredBy;
+import org.infinispan.commons.hash.MurmurHash3;
 import org.infinispan.commons.io.ByteBufferFactory;
 import org.infinispan.commons.persistence.Store;
 import org.infinispan.configuration.cache.SingleFileStoreConfiguration;
@@ -57,6 +60,13 @@
  * data loss, and data can be recomputed or re-queried from the original data
  * source.
  * <p/>
+ * Alternatively, the store can keep its index off-heap (see
+ * {@link org.infinispan.configuration.cache.SingleFileStoreConfigurationBuilder#offHeapIndex(boolean)}). The
+ * off-heap index doesn't keep the keys, only the hash of the serialized keys and the file positions, about 32 bytes
+ * per entry outside of the Java heap, so the heap usage doesn't depend on the number of entries. Keys are compared
+ * with the serialized keys stored in the file, so lookups read the file once more, and the index is rebuilt on start
+ * without deserializing the keys.
+ * <p/>
  * This class is fully thread safe, yet allows for concurrent load / store
  * of individual cache entries.
  *
@@ -82,6 +92,9 @@
 
    private FileChannel channel;
    private Map<K, FileEntry> entries;
+   private OffHeapFileIndex index;
+   // Entries of the off-heap index being read, so that their space is not reused until the readers are done
+   private ConcurrentMap<Long, FileEntry> readEntries;
    private SortedSet<FileEntry> freeList;
    private long filePos = MAGIC.length;
    private File file;
@@ -115,10 +128,15 @@ public void start() {
          channel = new RandomAccessFile(file, "rw").getChannel();
 
          // initialize data structures. Only use LinkedHashMap (LRU) for entries when cache store is bounded
-         Map<K, FileEntry> entryMap = configuration.maxEntries() > 0 ?
-               new LinkedHashMap<>(16, 0.75f, true) :
-               new HashMap<>();
-         entries = Collections.synchronizedMap(entryMap);
+         if (configuration.offHeapIndex()) {
+            index = new OffHeapFileIndex();
+            readEntries = new ConcurrentHashMap<>();
+         } else {
+            Map<K, FileEntry> entryMap = configuration.maxEntries() > 0 ?
+                  new LinkedHashMap<>(16, 0.75f, true) :
+                  new HashMap<>();
+            entries = Collections.synchronizedMap(entryMap);
+         }
          freeList = Collections.synchronizedSortedSet(new TreeSet<FileEntry>());
 
          // check file format and read persistent state if enabled for the cache
@@ -141,12 +159,14 @@ public void start() {
    public void stop() {
       try {
          if (channel != null) {
-            log.tracef("Stopping store %s, size = %d, file size = %d", ctx.getCache().getName(), entries.size(), channel.size());
+            log.tracef("Stopping store %s, size = %d, file size = %d", ctx.getCache().getName(), size(), channel.size());
 
             // reset state
             channel.close();
             channel = null;
             entries = null;
+            index = null;
+            readEntries = null;
             freeList = null;
             filePos = MAGIC.length;
          }
@@ -194,10 +214,16 @@ private void rebuildIndex() throws Exception {
             buf.clear().limit(fe.keyLen);
             channel.read(buf, fe.offset + KEY_POS);
 
-            // deserialize key and add to entries map
-            // Marshaller should allow for provided type return for safety
-            K key = (K) ctx.getMarshaller().objectFromByteBuffer(buf.array(), 0, fe.keyLen);
-            entries.put(key, fe);
+            if (index != null) {
+               // the off-heap index only needs the serialized key
+               KeyLookup lookup = new KeyLookup(buf.array(), 0, fe.keyLen);
+               index.put(lookup.hash, fe.offset, fe.expiryTime, lookup);
+            } else {
+               // deserialize key and add to entries map
+               // Marshaller should allow for provided type return for safety
+               K key = (K) ctx.getMarshaller().objectFromByteBuffer(buf.array(), 0, fe.keyLen);
+               entries.put(key, fe);
+            }
          } else {
             // add to free list
             freeList.add(fe);
@@ -211,6 +237,17 @@ private void rebuildIndex() throws Exception {
     */
    @Override
    public boolean contains(Object key) {
+      if (index != null) {
+         resizeLock.readLock().lock();
+         try {
+            KeyLookup lookup = lookup(key);
+            return index.get(lookup.hash, lookup) >= 0 && !lookup.entry.isExpired(timeService.wallClockTime());
+         } catch (IOException e) {
+            throw new PersistenceException(e);
+         } finally {
+            resizeLock.readLock().unlock();
+         }
+      }
       FileEntry entry = entries.get(key);
       return entry != null && !entry.isExpired(timeService.wallClockTime());
    }
@@ -340,12 +377,18 @@ public void write(MarshalledEntry<? extends K, ? extends V> marshalledEntry) {
             channel.write(buf, newEntry.offset);
             if (trace) log.tracef("Wrote entry %s:%d at %d:%d", marshalledEntry.getKey(), len, newEntry.offset, newEntry.size);
 
-            // add the new entry to in-memory index
-            oldEntry = entries.put(marshalledEntry.getKey(), newEntry);
+            if (index != null) {
+               KeyLookup lookup = new KeyLookup(key.getBuf(), key.getOffset(), key.getLength());
+               if (index.put(lookup.hash, newEntry.offset, newEntry.expiryTime, lookup) >= 0)
+                  oldEntry = lookup.entry;
+            } else {
+               // add the new entry to in-memory index
+               oldEntry = entries.put(marshalledEntry.getKey(), newEntry);
 
-            // if we added an entry, check if we need to evict something
-            if (oldEntry == null)
-               oldEntry = evict();
+               // if we added an entry, check if we need to evict something
+               if (oldEntry == null)
+                  oldEntry = evict();
+            }
          } finally {
             // in case we replaced or evicted an entry, add to freeList
             try {
@@ -382,6 +425,20 @@ private FileEntry evict() {
    public void clear() {
       resizeLock.writeLock().lock();
       try {
+         if (index != null) {
+            synchronized (freeList) {
+               // readers lock the entries before releasing the resize lock
+               for (FileEntry fe : readEntries.values())
+                  fe.waitUnlocked();
+               for (FileEntry fe : freeList)
+                  fe.waitUnlocked();
+
+               index.clear();
+               freeList.clear();
+               resetFile();
+            }
+            return;
+         }
          synchronized (entries) {
             synchronized (freeList) {
                // wait until all readers are done reading file entries
@@ -393,12 +450,7 @@ public void clear() {
                // clear in-memory state
                entries.clear();
                freeList.clear();
-
-               // reset file
-               if (trace) log.tracef("Truncating file, current size is %d", filePos);
-               channel.truncate(0);
-               channel.write(ByteBuffer.wrap(MAGIC), 0);
-               filePos = MAGIC.length;
+               resetFile();
             }
          }
       } catch (Exception e) {
@@ -408,11 +460,24 @@ public void clear() {
       }
    }
 
+   private void resetFile() throws IOException {
+      if (trace) log.tracef("Truncating file, current size is %d", filePos);
+      channel.truncate(0);
+      channel.write(ByteBuffer.wrap(MAGIC), 0);
+      filePos = MAGIC.length;
+   }
+
    @Override
    public boolean delete(Object key) {
       resizeLock.readLock().lock();
       try {
-         FileEntry fe = entries.remove(key);
+         FileEntry fe;
+         if (index != null) {
+            KeyLookup lookup = lookup(key);
+            fe = index.remove(lookup.hash, lookup) >= 0 ? lookup.entry : null;
+         } else {
+            fe = entries.remove(key);
+         }
          free(fe);
          return fe != null;
       } catch (Exception e) {
@@ -431,7 +496,11 @@ private MarshalledEntry<K, V> _load(Object key, boolean loadValue, boolean loadM
       final FileEntry fe;
       resizeLock.readLock().lock();
       try {
-         synchronized (entries) {
+         if (index != null) {
+            fe = lockOffHeapEntry(key);
+            if (fe == null)
+               return null;
+         } else synchronized (entries) {
             // lookup FileEntry of the key
             fe = entries.get(key);
             if (fe == null)
@@ -445,19 +514,27 @@ private MarshalledEntry<K, V> _load(Object key, boolean loadValue, boolean loadM
                fe.lock();
             }
          }
+      } catch (IOException e) {
+         throw new PersistenceException(e);
       } finally {
          resizeLock.readLock().unlock();
       }
+      return readEntry(key, fe, loadValue, loadMetadata);
+   }
 
+   /**
+    * Reads the entry locked by the caller and unlocks it. The key is read from the file if it is {@code null}.
+    */
+   private MarshalledEntry<K, V> readEntry(Object key, FileEntry fe, boolean loadValue, boolean loadMetadata) {
       org.infinispan.commons.io.ByteBuffer valueBb = null;
       org.infinispan.commons.io.ByteBuffer metadataBb = null;
 
       // If we only require the key, then no need to read disk
-      if (!loadValue && !loadMetadata) {
+      if (key != null && !loadValue && !loadMetadata) {
          try {
             return ctx.getMarshalledEntryFactory().newMarshalledEntry(key, valueBb, metadataBb);
          } finally {
-            fe.unlock();
+            unlock(fe);
          }
       }
 
@@ -472,7 +549,7 @@ private MarshalledEntry<K, V> _load(Object key, boolean loadValue, boolean loadM
       } finally {
          // No need to keep the lock for deserialization.
          // FileEntry is immutable, so its members can't be changed by another thread.
-         fe.unlock();
+         unlock(fe);
       }
 
       if (trace) log.tracef("Read entry %s at %d:%d", key, fe.offset, fe.actualSize());
@@ -490,6 +567,10 @@ private MarshalledEntry<K, V> _load(Object key, boolean loadValue, boolean loadM
    @Override
    public void process(KeyFilter<? super K> filter, final CacheLoaderTask<K, V> task, Executor executor, final boolean fetchValue, final boolean fetchMetadata) {
       filter = PersistenceUtil.notNull(filter);
+      if (index != null) {
+         processOffHeap(filter, task, executor, fetchValue, fetchMetadata);
+         return;
+      }
       ArrayList<KeyValuePair<K, FileEntry>> keysToLoad = new ArrayList<>(entries.size());
       long now = timeService.wallClockTime();
       synchronized (entries) {
@@ -547,6 +628,141 @@ public void process(KeyFilter<? super K> filter, final CacheLoaderTask<K, V> tas
       }
    }
 
+   /**
+    * Loads the entries one index segment at a time, so that only the positions of one segment are copied on heap.
+    * The keys are read from the file, so they are filtered after loading the entries.
+    */
+   private void processOffHeap(KeyFilter<? super K> filter, CacheLoaderTask<K, V> task, Executor executor,
+                               boolean fetchValue, boolean fetchMetadata) {
+      final TaskContextImpl taskContext = new TaskContextImpl();
+      ExecutorAllCompletionService eacs = new ExecutorAllCompletionService(executor);
+      for (int segment = 0; segment < OffHeapFileIndex.segmentCount() && !taskContext.isStopped(); ++segment) {
+         List<long[]> positions = segmentPositions(segment, timeService.wallClockTime(), false);
+         positions.sort((o1, o2) -> Long.compare(o1[0], o2[0]));
+         for (long[] position : positions) {
+            if (taskContext.isStopped())
+               break;
+
+            eacs.submit(() -> {
+               try {
+                  final MarshalledEntry<K, V> marshalledEntry = loadAt((int) position[1], position[0], fetchValue, fetchMetadata);
+                  if (marshalledEntry != null && filter.accept(marshalledEntry.getKey())) {
+                     task.processEntry(marshalledEntry, taskContext);
+                  }
+                  return null;
+               } catch (Exception e) {
+                  log.errorExecutingParallelStoreTask(e);
+                  throw e;
+               }
+            });
+         }
+         eacs.waitUntilAllCompleted();
+         if (eacs.isExceptionThrown()) {
+            throw new PersistenceException("Execution exception!", eacs.getFirstException());
+         }
+      }
+   }
+
+   /**
+    * @return the positions and key hashes of the entries of an index segment, either expired or not expired
+    */
+   private List<long[]> segmentPositions(int segment, long now, boolean expired) {
+      List<long[]> positions = new ArrayList<>();
+      index.forEach(segment, (hash, offset, expiryTime) -> {
+         if ((expiryTime > 0 && expiryTime < now) == expired)
+            positions.add(new long[]{offset, hash});
+      });
+      return positions;
+   }
+
+   /**
+    * Loads the entry at the given position, if it is still in the off-heap index.
+    */
+   private MarshalledEntry<K, V> loadAt(int hash, long offset, boolean loadValue, boolean loadMetadata) {
+      final FileEntry fe;
+      resizeLock.readLock().lock();
+      try {
+         synchronized (index.segment(hash)) {
+            // the entry may have been removed or replaced since the segment was copied
+            if (!index.contains(hash, offset))
+               return null;
+            fe = lock(readFileEntry(offset));
+         }
+      } catch (IOException e) {
+         throw new PersistenceException(e);
+      } finally {
+         resizeLock.readLock().unlock();
+      }
+      return readEntry(null, fe, loadValue, loadMetadata);
+   }
+
+   private KeyLookup lookup(Object key) {
+      try {
+         org.infinispan.commons.io.ByteBuffer bytes = ctx.getMarshaller().objectToBuffer(key);
+         return new KeyLookup(bytes.getBuf(), bytes.getOffset(), bytes.getLength());
+      } catch (IOException | InterruptedException e) {
+         throw new PersistenceException(e);
+      }
+   }
+
+   /**
+    * Looks up the key in the off-heap index and locks its entry for reading.
+    *
+    * @return the locked entry, or null if the key is not in the store or expired
+    */
+   private FileEntry lockOffHeapEntry(Object key) throws IOException {
+      KeyLookup lookup = lookup(key);
+      synchronized (index.segment(lookup.hash)) {
+         if (index.get(lookup.hash, lookup) < 0 || lookup.entry.isExpired(timeService.wallClockTime()))
+            return null;
+         return lock(lookup.entry);
+      }
+   }
+
+   /**
+    * Locks an entry of the off-heap index. The index creates a new FileEntry for each lookup, so the entries being read
+    * are registered, and a lookup returns the instance locked by the other readers.
+    * <p/>
+    * Note: Caller must hold the monitor of the index segment.
+    */
+   private FileEntry lock(FileEntry fe) {
+      return readEntries.compute(fe.offset, (offset, reading) -> {
+         FileEntry locked = reading != null ? reading : fe;
+         locked.lock();
+         return locked;
+      });
+   }
+
+   private void unlock(FileEntry fe) {
+      if (index == null) {
+         fe.unlock();
+         return;
+      }
+      readEntries.computeIfPresent(fe.offset, (offset, reading) -> {
+         reading.unlock();
+         return reading.isLocked() ? reading : null;
+      });
+   }
+
+   /**
+    * @return the entry at the given position, as registered by its readers or as read from the file
+    */
+   private FileEntry readFileEntry(long offset) throws IOException {
+      FileEntry reading = readEntries.get(offset);
+      if (reading != null)
+         return reading;
+      ByteBuffer buf = ByteBuffer.allocate(KEY_POS);
+      channel.read(buf, offset);
+      buf.flip();
+      return new FileEntry(offset, buf.getInt(), buf.getInt(), buf.getInt(), buf.getInt(), buf.getLong());
+   }
+
+   private Object readKey(FileEntry fe) throws IOException, ClassNotFoundException {
+      byte[] key = new byte[fe.keyLen];
+      channel.read(ByteBuffer.wrap(key), fe.offset + KEY_POS);
+      return ctx.getMarshaller().objectFromByteBuffer(key);
+   }
+
    /**
     * Manipulates the free entries for optimizing disk space.
     */
@@ -654,6 +870,10 @@ private void mergeAndLogEntry(FileEntry entry, int mergeCounter) {
    }
    @Override
    public void purge(Executor threadPool, final PurgeListener task) {
+      if (index != null) {
+         purgeOffHeap(task);
+         return;
+      }
       long now = timeService.wallClockTime();
       List<KeyValuePair<Object, FileEntry>> entriesToPurge = new ArrayList<>();
       synchronized (entries) {
@@ -692,9 +912,46 @@ public void purge(Executor threadPool, final PurgeListener task) {
       }
    }
 
+   private void purgeOffHeap(PurgeListener task) {
+      long now = timeService.wallClockTime();
+      resizeLock.readLock().lock();
+      try {
+         for (int segment = 0; segment < OffHeapFileIndex.segmentCount(); ++segment) {
+            for (long[] position : segmentPositions(segment, now, true)) {
+               int hash = (int) position[1];
+               long offset = position[0];
+               FileEntry fe;
+               Object key = null;
+               synchronized (index.segment(hash)) {
+                  if (!index.contains(hash, offset))
+                     continue;
+                  // the position may have been reused by a newer entry
+                  fe = readFileEntry(offset);
+                  if (!fe.isExpired(now))
+                     continue;
+                  if (task != null)
+                     key = readKey(fe);
+                  index.remove(hash, offset);
+               }
+               free(fe);
+               if (task != null) task.entryPurged(key);
+            }
+         }
+
+         // Disk space optimizations
+         synchronized (freeList) {
+            processFreeEntries();
+         }
+      } catch (Exception e) {
+         throw new PersistenceException(e);
+      } finally {
+         resizeLock.readLock().unlock();
+      }
+   }
+
    @Override
    public int size() {
-      return entries.size();
+      return index != null ? index.size() : entries.size();
    }
 
    Map<K, FileEntry> getEntries() {
@@ -713,6 +970,45 @@ public SingleFileStoreConfiguration getConfiguration() {
       return configuration;
    }
 
+   /**
+    * Looks up a serialized key in the off-heap index, comparing it with the keys stored in the file. On a match, the
+    * matching entry is kept in {@link #entry}.
+    */
+   private class KeyLookup implements OffHeapFileIndex.KeyMatcher {
+      final byte[] key;
+      final int keyOffset;
+      final int keyLength;
+      final int hash;
+      FileEntry entry;
+
+      KeyLookup(byte[] key, int keyOffset, int keyLength) {
+         this.key = key;
+         this.keyOffset = keyOffset;
+         this.keyLength = keyLength;
+         this.hash = MurmurHash3.getInstance().hash(keyOffset == 0 && keyLength == key.length ?
+               key : Arrays.copyOfRange(key, keyOffset, keyOffset + keyLength));
+      }
+
+      @Override
+      public boolean matches(long offset) throws IOException {
+         ByteBuffer buf = ByteBuffer.allocate(KEY_POS + keyLength);
+         channel.read(buf, offset);
+         buf.flip();
+         FileEntry fe = new FileEntry(offset, buf.getInt(), buf.getInt(), buf.getInt(), buf.getInt(), buf.getLong());
+         if (fe.keyLen != keyLength)
+            return false;
+         byte[] stored = buf.array();
+         for (int i = 0; i < keyLength; ++i) {
+            if (stored[KEY_POS + i] != key[keyOffset + i])
+               return false;
+         }
+         // entries being read must be freed through the instance the readers locked
+         FileEntry reading = readEntries.get(offset);
+         entry = reading != null ? reading : fe;
+         return true;
+      }
+   }
+
    /**
     * Helper class to represent an entry in the cache file.
     * <p/>
@@ -11,6 +11,7 @@
 import org.infinispan.context.InvocationContext;
 import org.infinispan.filter.KeyFilter;
 import org.infinispan.marshall.core.MarshalledEntry;
+import org.infinispan.persistence.async.AsyncCacheWriter;
 import org.infinispan.persistence.spi.AdvancedCacheLoader;
 import org.infinispan.persistence.spi.PersistenceException;
 import org.infinispan.persistence.support.BatchModification;
@@ -45,6 +46,11 @@ public interface PersistenceManager extends Lifecycle {
 
    Collection<String> getStoresAsString();
 
+   /**
+    * @return the writers that buffer modifications and write them to their store asynchronously
+    */
+   Collection<AsyncCacheWriter> getAsyncWriters();
+
    /**
     * Removes the expired entries from all the existing storage.
     */
@@ -626,6 +626,24 @@ public void setClearOnStop(boolean clearOnStop) {
       this.clearOnStop = clearOnStop;
    }
 
+   @Override
+   public Collection<AsyncCacheWriter> getAsyncWriters() {
+      storesMutex.readLock().lock();
+      try {
+         List<AsyncCacheWriter> result = new ArrayList<>();
+         Consumer<CacheWriter> addAsyncWriter = writer -> {
+            if (writer instanceof AsyncCacheWriter) {
+               result.add((AsyncCacheWriter) writer);
+            }
+         };
+         nonTxWriters.forEach(addAsyncWriter);
+         txWriters.forEach(addAsyncWriter);
+         return result;
+      } finally {
+         storesMutex.readLock().unlock();
+      }
+   }
+
    public List<CacheLoader> getAllLoaders() {
       storesMutex.readLock().lock();
       try {
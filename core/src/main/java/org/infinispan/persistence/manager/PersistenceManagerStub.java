@@ -11,6 +11,7 @@
 import org.infinispan.factories.annotations.SurvivesRestarts;
 import org.infinispan.filter.KeyFilter;
 import org.infinispan.marshall.core.MarshalledEntry;
+import org.infinispan.persistence.async.AsyncCacheWriter;
 import org.infinispan.persistence.spi.AdvancedCacheLoader;
 import org.infinispan.persistence.spi.PersistenceException;
 import org.infinispan.persistence.support.BatchModification;
@@ -56,6 +57,11 @@ public Collection<String> getStoresAsString() {
       return Collections.EMPTY_SET;
    }
 
+   @Override
+   public Collection<AsyncCacheWriter> getAsyncWriters() {
+      return Collections.emptyList();
+   }
+
    @Override
    public void purgeExpired() {
    }
@@ -0,0 +1,251 @@
+package org.infinispan.remoting.transport.jgroups;
+
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.infinispan.commons.io.ByteBuffer;
+import org.infinispan.factories.threads.DefaultThreadFactory;
+import org.infinispan.remoting.inboundhandler.DeliverOrder;
+import org.infinispan.remoting.transport.Address;
+import org.infinispan.util.TimeService;
+import org.infinispan.util.logging.Log;
+import org.infinispan.util.logging.LogFactory;
+
+/**
+ * Groups the one-way commands sent to the same member in a single JGroups message.
+ * <p>
+ * The sending thread marshalls the command and appends it to the batch of its target, as a record prefixed with its
+ * length. A batch is sent by the thread that makes it reach {@code maxSize} bytes, or by the flusher thread at most
+ * {@code maxDelay} nanoseconds after its first command. The commands sent while the flusher thread is busy wait in the
+ * next batch, so the batches grow with the load even without a delay.
+ * <p>
+ * Commands sent with {@link DeliverOrder#NONE} and {@link DeliverOrder#PER_SENDER} go in separate batches, because
+ * only the former are sent as OOB messages. Before sending any other message with {@link DeliverOrder#PER_SENDER},
+ * the transport must call {@link #flush(Address)} for its target, so that the message doesn't overtake the batched
+ * commands.
+ *
+ * @since 9.2
+ */
+class CommandBatcher {
+   private static final Log log = LogFactory.getLog(CommandBatcher.class);
+   private static final boolean trace = log.isTraceEnabled();
+   private static final int INITIAL_BUFFER_SIZE = 1024;
+   static final int RECORD_HEADER_SIZE = 4;
+
+   private final JGroupsTransport transport;
+   private final TimeService timeService;
+   private final long maxDelayNanos;
+   private final int maxSize;
+   private final ConcurrentMap<Address, Batch> oobBatches = new ConcurrentHashMap<>();
+   private final ConcurrentMap<Address, Batch> orderedBatches = new ConcurrentHashMap<>();
+   private final BlockingQueue<Batch> scheduledBatches = new LinkedBlockingQueue<>();
+   private final Thread flusher;
+   private volatile boolean running = true;
+
+   CommandBatcher(JGroupsTransport transport, TimeService timeService, long maxDelay, TimeUnit unit, int maxSize,
+                  String nodeName) {
+      this.transport = transport;
+      this.timeService = timeService;
+      this.maxDelayNanos = unit.toNanos(maxDelay);
+      this.maxSize = maxSize;
+      DefaultThreadFactory threadFactory =
+            new DefaultThreadFactory(null, Thread.NORM_PRIORITY, DefaultThreadFactory.DEFAULT_PATTERN, nodeName,
+                                     "CommandBatcher");
+      flusher = threadFactory.newThread(this::runFlusher);
+      flusher.setDaemon(true);
+      flusher.start();
+   }
+
+   /**
+    * Adds a marshalled command to the batch of the target.
+    */
+   void send(Address target, ByteBuffer command, DeliverOrder deliverOrder) {
+      ConcurrentMap<Address, Batch> batches = deliverOrder == DeliverOrder.NONE ? oobBatches : orderedBatches;
+      Batch batch = batches.computeIfAbsent(target, address -> new Batch(address, deliverOrder));
+      synchronized (batch) {
+         if (batch.discarded) {
+            // The target left the cluster
+            return;
+         }
+         batch.append(command);
+         if (batch.size >= maxSize) {
+            batch.flush();
+         } else if (!batch.scheduled) {
+            batch.scheduled = true;
+            batch.deadline = timeService.expectedEndTime(maxDelayNanos, TimeUnit.NANOSECONDS);
+            scheduledBatches.add(batch);
+         }
+      }
+   }
+
+   /**
+    * Sends the commands batched for the target with {@link DeliverOrder#PER_SENDER}.
+    */
+   void flush(Address target) {
+      Batch batch = orderedBatches.get(target);
+      if (batch != null) {
+         synchronized (batch) {
+            batch.flush();
+         }
+      }
+   }
+
+   /**
+    * Sends all the commands batched with {@link DeliverOrder#PER_SENDER}.
+    */
+   void flushAll() {
+      for (Batch batch : orderedBatches.values()) {
+         synchronized (batch) {
+            batch.flush();
+         }
+      }
+   }
+
+   /**
+    * Discards the batches of the members that left the cluster, including the batches already scheduled.
+    */
+   void retainMembers(Set<Address> members) {
+      discardBatches(oobBatches, members);
+      discardBatches(orderedBatches, members);
+      // The flusher skips a discarded batch it has already taken, this only releases the others earlier
+      scheduledBatches.removeIf(batch -> !members.contains(batch.target));
+   }
+
+   private void discardBatches(ConcurrentMap<Address, Batch> batches, Set<Address> members) {
+      batches.values().removeIf(batch -> {
+         if (members.contains(batch.target))
+            return false;
+
+         synchronized (batch) {
+            batch.discard();
+         }
+         return true;
+      });
+   }
+
+   /**
+    * Stops the flusher thread and sends the commands that are still batched.
+    */
+   void stop() {
+      running = false;
+      flusher.interrupt();
+      try {
+         flusher.join(TimeUnit.SECONDS.toMillis(10));
+      } catch (InterruptedException e) {
+         Thread.currentThread().interrupt();
+      }
+      for (Batch batch : oobBatches.values()) {
+         flushQuietly(batch);
+      }
+      for (Batch batch : orderedBatches.values()) {
+         flushQuietly(batch);
+      }
+   }
+
+   private void runFlusher() {
+      while (running) {
+         Batch batch;
+         try {
+            batch = scheduledBatches.take();
+            long remainingNanos = timeService.remainingTime(batch.deadline, TimeUnit.NANOSECONDS);
+            if (remainingNanos > 0) {
+               TimeUnit.NANOSECONDS.sleep(remainingNanos);
+            }
+         } catch (InterruptedException e) {
+            break;
+         }
+         synchronized (batch) {
+            batch.scheduled = false;
+         }
+         flushQuietly(batch);
+      }
+   }
+
+   private void flushQuietly(Batch batch) {
+      synchronized (batch) {
+         int count = batch.count;
+         try {
+            batch.flush();
+         } catch (Throwable t) {
+            if (transport.isChannelConnected()) {
+               log.errorSendingBatchedCommands(count, batch.target, t);
+            }
+         }
+      }
+   }
+
+   static int readInt(byte[] buffer, int offset) {
+      return ((buffer[offset] & 0xFF) << 24) | ((buffer[offset + 1] & 0xFF) << 16) |
+            ((buffer[offset + 2] & 0xFF) << 8) | (buffer[offset + 3] & 0xFF);
+   }
+
+   private static void writeInt(byte[] buffer, int offset, int value) {
+      buffer[offset] = (byte) (value >>> 24);
+      buffer[offset + 1] = (byte) (value >>> 16);
+      buffer[offset + 2] = (byte) (value >>> 8);
+      buffer[offset + 3] = (byte) value;
+   }
+
+   /**
+    * The commands waiting to be sent to a target with the same deliver order. Guarded by its own monitor.
+    */
+   private final class Batch {
+      final Address target;
+      final DeliverOrder deliverOrder;
+      byte[] buffer;
+      int size;
+      int count;
+      long deadline;
+      boolean scheduled;
+      boolean discarded;
+
+      Batch(Address target, DeliverOrder deliverOrder) {
+         this.target = target;
+         this.deliverOrder = deliverOrder;
+      }
+
+      void append(ByteBuffer command) {
+         int length = command.getLength();
+         int required = size + RECORD_HEADER_SIZE + length;
+         if (buffer == null) {
+            buffer = new byte[Math.max(INITIAL_BUFFER_SIZE, required)];
+         } else if (required > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(required, Math.min(buffer.length * 2, maxSize)));
+         }
+         writeInt(buffer, size, length);
+         System.arraycopy(command.getBuf(), command.getOffset(), buffer, size + RECORD_HEADER_SIZE, length);
+         size = required;
+         count++;
+      }
+
+      void discard() {
+         if (trace && count > 0)
+            log.tracef("Discarding %d batched commands to %s", count, target);
+         discarded = true;
+         buffer = null;
+         size = 0;
+         count = 0;
+      }
+
+      void flush() {
+         if (count == 0)
+            return;
+
+         byte[] buffer = this.buffer;
+         int size = this.size;
+         int count = this.count;
+         // JGroups keeps a reference to the buffer until the message is sent, so it cannot be reused
+         this.buffer = null;
+         this.size = 0;
+         this.count = 0;
+         if (trace)
+            log.tracef("Sending %d batched commands to %s", count, target);
+         transport.sendBatch(target, buffer, size, count, deliverOrder);
+      }
+   }
+}
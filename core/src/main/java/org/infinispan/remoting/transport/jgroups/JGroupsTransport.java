@@ -112,6 +112,13 @@
  * <li><tt>channelLookup</tt> - Fully qualified class name of a
  * {@link JGroupsChannelLookup} instance</li>
  * </ul>
+ * One-way commands sent to the same member can also be grouped in a single message, see {@link CommandBatcher}:
+ * <ul>
+ * <li><tt>commandBatching</tt> - Enables the batching of one-way commands, disabled by default</li>
+ * <li><tt>commandBatchMaxDelay</tt> - Maximum time in microseconds a command waits for its batch to be sent,
+ * 0 by default</li>
+ * <li><tt>commandBatchMaxSize</tt> - Size in bytes after which a batch is sent immediately, 16384 by default</li>
+ * </ul>
  * These are normally passed in as Properties in
  * {@link TransportConfigurationBuilder#withProperties(Properties)} or
  * in the Infinispan XML configuration file.
@@ -125,6 +132,9 @@ public class JGroupsTransport implements Transport {
    public static final String CONFIGURATION_XML = "configurationXml";
    public static final String CONFIGURATION_FILE = "configurationFile";
    public static final String CHANNEL_LOOKUP = "channelLookup";
+   public static final String COMMAND_BATCHING = "commandBatching";
+   public static final String COMMAND_BATCH_MAX_DELAY = "commandBatchMaxDelay";
+   public static final String COMMAND_BATCH_MAX_SIZE = "commandBatchMaxSize";
    public static final short REPLY_FLAGS =
          (short) (Message.Flag.NO_FC.value() | Message.Flag.OOB.value() | Message.Flag.NO_TOTAL_ORDER.value());
    protected static final String DEFAULT_JGROUPS_CONFIGURATION_FILE = "default-configs/default-jgroups-udp.xml";
@@ -137,6 +147,8 @@ public class JGroupsTransport implements Transport {
    private static final byte REQUEST = 0;
    private static final byte RESPONSE = 1;
    private static final byte SINGLE_MESSAGE = 2;
+   private static final byte BATCH = 3;
+   private static final int DEFAULT_COMMAND_BATCH_MAX_SIZE = 16384;
 
    @Inject protected GlobalConfiguration configuration;
    @Inject protected StreamingMarshaller marshaller;
@@ -164,6 +176,7 @@ public class JGroupsTransport implements Transport {
    private volatile Set<String>  sitesView = Collections.emptySet();
    private CompletableFuture<Void> nextViewFuture = new CompletableFuture<>();
    private RequestRepository requests;
+   private CommandBatcher commandBatcher;
 
    // ------------------------------------------------------------------------------------------------------------------
    // Lifecycle and setup stuff
@@ -381,6 +394,12 @@ public void start() {
       probeHandler.updateThreadPool(remoteExecutor);
       props = TypedProperties.toTypedProperties(configuration.transport().properties());
       requests = new RequestRepository();
+      if (props.getBooleanProperty(COMMAND_BATCHING, false)) {
+         commandBatcher = new CommandBatcher(this, timeService, props.getLongProperty(COMMAND_BATCH_MAX_DELAY, 0),
+                                             TimeUnit.MICROSECONDS,
+                                             props.getIntProperty(COMMAND_BATCH_MAX_SIZE, DEFAULT_COMMAND_BATCH_MAX_SIZE),
+                                             configuration.transport().nodeName());
+      }
 
       if (log.isInfoEnabled())
          log.startingJGroupsChannel(configuration.transport().clusterName());
@@ -671,6 +690,11 @@ protected void receiveClusterView(View newView) {
          }
       });
 
+      CommandBatcher commandBatcher = this.commandBatcher;
+      if (commandBatcher != null) {
+         commandBatcher.retainMembers(clusterView.getMembersSet());
+      }
+
       JGroupsAddressCache.pruneAddressCache();
    }
 
@@ -682,6 +706,10 @@ private static List<Address> fromJGroupsAddressList(List<org.jgroups.Address> li
 
    @Override
    public void stop() {
+      if (commandBatcher != null) {
+         commandBatcher.stop();
+         commandBatcher = null;
+      }
       if (channel != null) {
          channel.getProtocolStack().getTransport().unregisterProbeHandler(probeHandler);
       }
@@ -928,6 +956,15 @@ private void addRequest(AbstractRequest<?> request) {
 
    void sendCommand(Address target, ReplicableCommand command, long requestId, DeliverOrder deliverOrder,
                     boolean rsvp, boolean noRelay) {
+      CommandBatcher commandBatcher = this.commandBatcher;
+      if (commandBatcher != null && noRelay) {
+         if (isBatchable(requestId, deliverOrder, rsvp)) {
+            commandBatcher.send(target, marshallCommand(command), deliverOrder);
+            return;
+         } else if (deliverOrder == DeliverOrder.PER_SENDER) {
+            commandBatcher.flush(target);
+         }
+      }
       Message message = new Message(toJGroupsAddress(target));
       marshallRequest(message, command, requestId);
       setMessageFlags(message, deliverOrder, rsvp, noRelay);
@@ -935,6 +972,32 @@ void sendCommand(Address target, ReplicableCommand command, long requestId, Deli
       send(message);
    }
 
+   /**
+    * Sends the commands grouped by the {@link CommandBatcher}. A single command is sent like any other one-way command.
+    */
+   void sendBatch(Address target, byte[] buffer, int length, int count, DeliverOrder deliverOrder) {
+      Message message = new Message(toJGroupsAddress(target));
+      if (count == 1) {
+         message.setBuffer(buffer, CommandBatcher.RECORD_HEADER_SIZE, length - CommandBatcher.RECORD_HEADER_SIZE);
+      } else {
+         message.setBuffer(buffer, 0, length);
+         message.putHeader(HEADER_ID, new RequestCorrelator.Header(BATCH, Request.NO_REQUEST_ID, CORRELATOR_ID));
+      }
+      setMessageFlags(message, deliverOrder, false, true);
+
+      send(message);
+   }
+
+   boolean isChannelConnected() {
+      JChannel channel = this.channel;
+      return channel != null && channel.isConnected();
+   }
+
+   private static boolean isBatchable(long requestId, DeliverOrder deliverOrder, boolean rsvp) {
+      // Requests and RSVP commands need their own message, and total order needs a multicast
+      return requestId == Request.NO_REQUEST_ID && !rsvp && deliverOrder != DeliverOrder.TOTAL;
+   }
+
    private static boolean isRsvpCommand(ReplicableCommand command) {
       return command instanceof FlagAffectedCommand &&
             ((FlagAffectedCommand) command).hasAnyFlag(FlagBitSets.GUARANTEED_DELIVERY);
@@ -945,10 +1008,14 @@ private static org.jgroups.Address toJGroupsAddress(Address address) {
    }
 
    private void marshallRequest(Message message, ReplicableCommand command, long requestId) {
+      ByteBuffer bytes = marshallCommand(command);
+      message.setBuffer(bytes.getBuf(), bytes.getOffset(), bytes.getLength());
+      addRequestHeader(message, requestId);
+   }
+
+   private ByteBuffer marshallCommand(ReplicableCommand command) {
       try {
-         ByteBuffer bytes = marshaller.objectToBuffer(command);
-         message.setBuffer(bytes.getBuf(), bytes.getOffset(), bytes.getLength());
-         addRequestHeader(message, requestId);
+         return marshaller.objectToBuffer(command);
       } catch (RuntimeException e) {
          throw e;
       } catch (Exception e) {
@@ -1087,6 +1154,10 @@ public void sendToAll(ReplicableCommand command, DeliverOrder deliverOrder) {
     * Doesn't send the command to itself unless {@code deliverOrder == TOTAL}.
     */
    private void sendCommandToAll(ReplicableCommand command, long requestId, DeliverOrder deliverOrder, boolean rsvp) {
+      CommandBatcher commandBatcher = this.commandBatcher;
+      if (commandBatcher != null && deliverOrder == DeliverOrder.PER_SENDER) {
+         commandBatcher.flushAll();
+      }
       Message message = new Message();
       marshallRequest(message, command, requestId);
       setMessageFlags(message, deliverOrder, rsvp, true);
@@ -1142,6 +1213,20 @@ private void siteUnreachable(String site) {
    private void sendCommand(Collection<Address> targets, ReplicableCommand command, long requestId,
                             DeliverOrder deliverOrder, boolean rsvp) {
       Objects.requireNonNull(targets);
+      CommandBatcher commandBatcher = this.commandBatcher;
+      if (commandBatcher != null) {
+         if (isBatchable(requestId, deliverOrder, rsvp)) {
+            ByteBuffer bytes = marshallCommand(command);
+            for (Address target : targets) {
+               if (!target.equals(getAddress())) {
+                  commandBatcher.send(target, bytes, deliverOrder);
+               }
+            }
+            return;
+         } else if (deliverOrder == DeliverOrder.PER_SENDER) {
+            targets.forEach(commandBatcher::flush);
+         }
+      }
       Message message = new Message();
       marshallRequest(message, command, requestId);
       setMessageFlags(message, deliverOrder, rsvp, true);
@@ -1206,6 +1291,9 @@ private void processMessage(Message message) {
          case RESPONSE:
             processResponse(src, buffer, offset, length, requestId);
             break;
+         case BATCH:
+            processBatch(src, flags, buffer, offset, length);
+            break;
          default:
             log.invalidMessageType(type, src);
       }
@@ -1286,6 +1374,16 @@ private void processRequest(org.jgroups.Address src, short flags, byte[] buffer,
       }
    }
 
+   private void processBatch(org.jgroups.Address src, short flags, byte[] buffer, int offset, int length) {
+      int end = offset + length;
+      while (offset < end) {
+         int commandLength = CommandBatcher.readInt(buffer, offset);
+         offset += CommandBatcher.RECORD_HEADER_SIZE;
+         processRequest(src, flags, buffer, offset, commandLength, Request.NO_REQUEST_ID);
+         offset += commandLength;
+      }
+   }
+
    private void processResponse(org.jgroups.Address src, byte[] buffer, int offset, int length, long requestId) {
       try {
          Response response;
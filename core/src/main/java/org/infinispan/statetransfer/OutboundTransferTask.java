@@ -2,12 +2,15 @@
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.CopyOnWriteArraySet;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.FutureTask;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
 import java.util.function.BiFunction;
 import java.util.function.Consumer;
@@ -18,6 +21,7 @@
 import org.infinispan.commons.util.SmallIntSet;
 import org.infinispan.container.DataContainer;
 import org.infinispan.container.InternalEntryFactory;
+import org.infinispan.container.SegmentedDataContainer;
 import org.infinispan.container.entries.InternalCacheEntry;
 import org.infinispan.distribution.ch.KeyPartitioner;
 import org.infinispan.marshall.core.MarshalledEntry;
@@ -28,6 +32,7 @@
 import org.infinispan.remoting.rpc.RpcOptions;
 import org.infinispan.remoting.transport.Address;
 import org.infinispan.remoting.transport.jgroups.SuspectException;
+import org.infinispan.util.concurrent.CompletableFutures;
 import org.infinispan.util.concurrent.WithinThreadExecutor;
 import org.infinispan.util.logging.Log;
 import org.infinispan.util.logging.LogFactory;
@@ -36,6 +41,11 @@
  * Outbound state transfer task. Pushes data segments to another cluster member on request. Instances of
  * OutboundTransferTask are created and managed by StateTransferManagerImpl. There should be at most
  * one such task per destination at any time.
+ * <p>
+ * Chunks are sent without waiting for the previous ones to be applied, up to {@link #MAX_IN_FLIGHT_CHUNKS}. The
+ * destination only responds once it has applied a chunk, so each response gives back a credit to send another one.
+ * This way reading the next chunk overlaps with sending and applying the previous ones, while the memory used by the
+ * transfer on both nodes stays bounded.
  *
  * @author anistor@redhat.com
  * @since 5.2
@@ -44,6 +54,11 @@ public class OutboundTransferTask implements Runnable {
 
    private static final Log log = LogFactory.getLog(OutboundTransferTask.class);
 
+   /**
+    * How many chunks can be sent to the destination before it has applied them.
+    */
+   static final int MAX_IN_FLIGHT_CHUNKS = 4;
+
    private final boolean trace = log.isTraceEnabled();
 
    private final Consumer<OutboundTransferTask> onCompletion;
@@ -82,6 +97,13 @@ public class OutboundTransferTask implements Runnable {
 
    private final Map<Integer, List<InternalCacheEntry>> entriesBySegment = CollectionFactory.makeConcurrentMap();
 
+   /**
+    * The number of entries of each segment applied by the destination so far, only tracked for trace logging.
+    */
+   private final ConcurrentMap<Integer, Integer> appliedEntriesBySegment = CollectionFactory.makeConcurrentMap();
+
+   private final Semaphore credits = new Semaphore(MAX_IN_FLIGHT_CHUNKS);
+
    /**
     * The total number of entries from all segments accumulated in entriesBySegment.
     */
@@ -165,8 +187,16 @@ public int getTopologyId() {
    public void run() {
       try {
          // send data container entries
-         for (InternalCacheEntry ice : dataContainer) {
-            Object key = ice.getKey();  //todo [anistor] should we check for expired entries?
+         Iterator<InternalCacheEntry<Object, Object>> iterator;
+         if (dataContainer instanceof SegmentedDataContainer) {
+            // only visit the requested segments, the container does not have to be scanned as a whole
+            iterator = ((SegmentedDataContainer<Object, Object>) dataContainer).iterator(new SmallIntSet(segments));
+         } else {
+            iterator = dataContainer.iterator();
+         }
+         while (iterator.hasNext()) {
+            InternalCacheEntry ice = iterator.next();
+            Object key = ice.getKey();
             int segmentId = keyPartitioner.getSegment(key);
             if (segments.contains(segmentId) && !ice.isL1Entry()) {
                InternalCacheEntry entry = mapEntryFromDataContainer.apply(ice, entryFactory);
@@ -257,23 +287,65 @@ private void sendEntries(boolean isLast) {
          }
 
          StateResponseCommand cmd = commandsFactory.buildStateResponseCommand(rpcManager.getAddress(), topologyId, chunks, applyState, pushTransfer);
-         // send synchronously, in order. it is important that the last chunk is received last in order to correctly detect completion of the stream of chunks
          try {
-            rpcManager.invokeRemotely(Collections.singleton(destination), cmd, rpcOptions);
-            onChunkReplicated.accept(chunks);
-         } catch (SuspectException e) {
-            log.debugf("Node %s left cache %s while we were sending state to it, cancelling transfer.", destination, cacheName);
-            cancel();
-         } catch (Exception e) {
-            if (isCancelled()) {
-               log.debugf("Stopping cancelled transfer to node %s, segments %s", destination, segments);
+            if (isLast) {
+               // it is important that the last chunk is received last in order to correctly detect completion of the
+               // stream of chunks, so wait for all the chunks in flight to be applied and then send it synchronously
+               credits.acquire(MAX_IN_FLIGHT_CHUNKS);
+               try {
+                  rpcManager.invokeRemotely(Collections.singleton(destination), cmd, rpcOptions);
+                  onChunksApplied(chunks);
+               } finally {
+                  credits.release(MAX_IN_FLIGHT_CHUNKS);
+               }
             } else {
-               log.errorf(e, "Failed to send entries to node %s: %s", destination, e.getMessage());
+               credits.acquire();
+               rpcManager.invokeRemotelyAsync(Collections.singleton(destination), cmd, rpcOptions)
+                     .whenComplete((responses, t) -> {
+                        try {
+                           if (t != null) {
+                              handleSendFailure(CompletableFutures.extractException(t));
+                           } else {
+                              onChunksApplied(chunks);
+                           }
+                        } finally {
+                           // Only give the credit back after the callback, so it has run for every chunk before the
+                           // last one is sent
+                           credits.release();
+                        }
+                     });
             }
+         } catch (Exception e) {
+            handleSendFailure(e);
          }
       }
    }
 
+   private void onChunksApplied(List<StateChunk> chunks) {
+      onChunkReplicated.accept(chunks);
+      if (!trace)
+         return;
+      for (StateChunk chunk : chunks) {
+         int applied = appliedEntriesBySegment.merge(chunk.getSegmentId(), chunk.getCacheEntries().size(), Integer::sum);
+         if (chunk.isLastChunk()) {
+            log.tracef("Node %s applied all %d entries of segment %d", destination, applied, chunk.getSegmentId());
+         } else {
+            log.tracef("Node %s applied %d entries of segment %d so far", destination, applied, chunk.getSegmentId());
+         }
+      }
+   }
+
+   private void handleSendFailure(Throwable t) {
+      if (t instanceof SuspectException) {
+         log.debugf("Node %s left cache %s while we were sending state to it, cancelling transfer.", destination, cacheName);
+         cancel();
+      } else if (isCancelled()) {
+         log.debugf("Stopping cancelled transfer to node %s, segments %s", destination, segments);
+      } else {
+         log.errorf(t, "Failed to send entries to node %s: %s", destination, t.getMessage());
+      }
+   }
+
    /**
     * Cancel some of the segments. If all segments get cancelled then the whole task will be cancelled.
     *
@@ -32,7 +32,11 @@ public interface StateConsumer {
     */
    CompletableFuture<Void> onTopologyUpdate(CacheTopology cacheTopology, boolean isRebalance);
 
-   void applyState(Address sender, int topologyId, boolean pushTransfer, Collection<StateChunk> stateChunks);
+   /**
+    * Applies the received state chunks asynchronously.
+    * @return a future that is completed once all the chunks were applied, so that the sender can send more of them
+    */
+   CompletableFuture<Void> applyState(Address sender, int topologyId, boolean pushTransfer, Collection<StateChunk> stateChunks);
 
    /**
     * Cancels all incoming state transfers. The already received data is not discarded.
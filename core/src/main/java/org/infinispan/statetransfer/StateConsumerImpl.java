@@ -21,7 +21,6 @@
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -43,6 +42,7 @@
 import org.infinispan.configuration.cache.Configuration;
 import org.infinispan.conflict.impl.InternalConflictManager;
 import org.infinispan.container.DataContainer;
+import org.infinispan.container.SegmentedDataContainer;
 import org.infinispan.container.entries.InternalCacheEntry;
 import org.infinispan.context.InvocationContext;
 import org.infinispan.context.InvocationContextFactory;
@@ -83,7 +83,6 @@
 import org.infinispan.util.concurrent.BlockingTaskAwareExecutorService;
 import org.infinispan.util.concurrent.CommandAckCollector;
 import org.infinispan.util.concurrent.CompletableFutures;
-import org.infinispan.util.concurrent.TimeoutException;
 import org.infinispan.util.logging.Log;
 import org.infinispan.util.logging.LogFactory;
 
@@ -509,14 +508,14 @@ protected Set<Integer> getOwnedSegments(ConsistentHash consistentHash) {
    }
 
    @Override
-   public void applyState(final Address sender, int topologyId, boolean pushTransfer, Collection<StateChunk> stateChunks) {
+   public CompletableFuture<Void> applyState(final Address sender, int topologyId, boolean pushTransfer, Collection<StateChunk> stateChunks) {
       ConsistentHash wCh = cacheTopology.getWriteConsistentHash();
       // Ignore responses received after we are no longer a member
       if (!wCh.getMembers().contains(rpcManager.getAddress())) {
          if (trace) {
             log.tracef("Ignoring received state because we are no longer a member of cache %s", cacheName);
          }
-         return;
+         return CompletableFutures.completedNull();
       }
 
       // Ignore segments that we requested for a previous rebalance
@@ -525,60 +524,53 @@ public void applyState(final Address sender, int topologyId, boolean pushTransfe
       if (rebalanceTopologyId == NO_STATE_TRANSFER_IN_PROGRESS && !pushTransfer) {
          log.debugf("Discarding state response with topology id %d for cache %s, we don't have a state transfer in progress",
                topologyId, cacheName);
-         return;
+         return CompletableFutures.completedNull();
       }
       if (topologyId < rebalanceTopologyId) {
          log.debugf("Discarding state response with old topology id %d for cache %s, state transfer request topology was %b",
                topologyId, cacheName, waitingForState);
-         return;
+         return CompletableFutures.completedNull();
       }
 
       if (trace) {
          log.tracef("Before applying the received state the data container of cache %s has %d keys", cacheName,
                     dataContainer.sizeIncludingExpired());
       }
-      final CountDownLatch countDownLatch = new CountDownLatch(stateChunks.size());
+      // The chunks are applied in the state transfer executor, the calling thread doesn't wait for them
+      List<CompletableFuture<Void>> chunkFutures = new ArrayList<>(stateChunks.size());
       if (pushTransfer) {
          // push-transfer is specific for scattered cache but this is the easiest way to integrate it
          for (StateChunk stateChunk : stateChunks) {
             if (stateChunk.getCacheEntries() != null) {
-               stateTransferExecutor.submit(() -> {
-                  doApplyState(sender, stateChunk.getSegmentId(), stateChunk.getCacheEntries());
-                  countDownLatch.countDown();
-               });
+               chunkFutures.add(CompletableFuture.runAsync(
+                     () -> doApplyState(sender, stateChunk.getSegmentId(), stateChunk.getCacheEntries()),
+                     stateTransferExecutor));
             }
          }
       } else {
          Set<Integer> mySegments = wCh.getSegmentsForOwner(rpcManager.getAddress());
          for (StateChunk stateChunk : stateChunks) {
-            stateTransferExecutor.submit(() -> {
+            chunkFutures.add(CompletableFuture.runAsync(() -> {
                try {
                   applyChunk(sender, mySegments, stateChunk);
                } catch (Throwable e) {
                   log.error("Failed applying state", e);
                }
-               countDownLatch.countDown();
-               log.tracef("Latch %d", countDownLatch.getCount());
-            });
-         }
-      }
-      try {
-         boolean await = countDownLatch.await(timeout, TimeUnit.MILLISECONDS);
-         if (!await) {
-            throw new TimeoutException("Timed out applying state");
+            }, stateTransferExecutor));
          }
-      } catch (InterruptedException e) {
-         Thread.currentThread().interrupt();
-         throw new CacheException(e);
       }
-
+      CompletableFuture<Void> allApplied =
+            CompletableFuture.allOf(chunkFutures.toArray(new CompletableFuture[chunkFutures.size()]));
       if (trace) {
-         log.tracef("After applying the received state the data container of cache %s has %d keys", cacheName,
-                    dataContainer.sizeIncludingExpired());
-         synchronized (transferMapsLock) {
-            log.tracef("Segments not received yet for cache %s: %s", cacheName, transfersBySource);
-         }
+         allApplied.thenRun(() -> {
+            log.tracef("After applying the received state the data container of cache %s has %d keys", cacheName,
+                       dataContainer.sizeIncludingExpired());
+            synchronized (transferMapsLock) {
+               log.tracef("Segments not received yet for cache %s: %s", cacheName, transfersBySource);
+            }
+         });
       }
+      return allApplied;
    }
 
    private void applyChunk(Address sender, Set<Integer> mySegments, StateChunk stateChunk) {
@@ -950,13 +942,19 @@ protected void removeStaleData(final Set<Integer> removedSegments) throws Interr
       // Keys that we used to own, and need to be removed from the data container AND the cache stores
       final ConcurrentHashSet<Object> keysToRemove = new ConcurrentHashSet<>();
 
-      dataContainer.executeTask(KeyFilter.ACCEPT_ALL_FILTER, (o, ice) -> {
-         Object key = ice.getKey();
-         int keySegment = getSegment(key);
-         if (removedSegments.contains(keySegment)) {
-            keysToRemove.add(key);
-         }
-      });
+      if (dataContainer instanceof SegmentedDataContainer) {
+         // only visit the entries of the removed segments
+         ((SegmentedDataContainer<Object, Object>) dataContainer).iteratorIncludingExpired(new SmallIntSet(removedSegments))
+               .forEachRemaining(ice -> keysToRemove.add(ice.getKey()));
+      } else {
+         dataContainer.executeTask(KeyFilter.ACCEPT_ALL_FILTER, (o, ice) -> {
+            Object key = ice.getKey();
+            int keySegment = getSegment(key);
+            if (removedSegments.contains(keySegment)) {
+               keysToRemove.add(key);
+            }
+         });
+      }
 
       // gather all keys from cache store that belong to the segments that are being removed/moved to L1
       if (!removedSegments.isEmpty()) {
@@ -85,7 +85,8 @@ public CompletableFuture<Object> invokeAsync() throws Throwable {
       LogFactory.pushNDC(cacheName, trace);
       try {
          if (applyState) {
-            stateConsumer.applyState(getOrigin(), topologyId, pushTransfer, stateChunks);
+            // Only respond once the state is applied, as the sender uses the response to know it can send more
+            return stateConsumer.applyState(getOrigin(), topologyId, pushTransfer, stateChunks).thenApply(v -> null);
          } else {
             stateReceiver.receiveState(getOrigin(), topologyId, stateChunks);
          }
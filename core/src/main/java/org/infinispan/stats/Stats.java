@@ -95,6 +95,36 @@ public interface Stats {
     */
    long getAverageRemoveTime();
 
+   /**
+    * @param percentile the percentage of operations, between {@code 0} and {@code 100}, e.g. {@code 99.9}
+    * @return Number of nanoseconds within which that percentage of the cache gets completed, or {@code -1} if
+    * the latency is not tracked
+    * @since 9.2
+    */
+   default long getReadTimePercentile(double percentile) {
+      return -1;
+   }
+
+   /**
+    * @param percentile the percentage of operations, between {@code 0} and {@code 100}, e.g. {@code 99.9}
+    * @return Number of nanoseconds within which that percentage of the cache puts completed, or {@code -1} if
+    * the latency is not tracked
+    * @since 9.2
+    */
+   default long getWriteTimePercentile(double percentile) {
+      return -1;
+   }
+
+   /**
+    * @param percentile the percentage of operations, between {@code 0} and {@code 100}, e.g. {@code 99.9}
+    * @return Number of nanoseconds within which that percentage of the cache removes completed, or {@code -1} if
+    * the latency is not tracked
+    * @since 9.2
+    */
+   default long getRemoveTimePercentile(double percentile) {
+      return -1;
+   }
+
    /**
     * @return Required minimum number of nodes to guarantee data consistency
     */
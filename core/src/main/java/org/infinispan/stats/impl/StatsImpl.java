@@ -23,6 +23,7 @@
 import org.infinispan.interceptors.AsyncInterceptorChain;
 import org.infinispan.interceptors.impl.CacheMgmtInterceptor;
 import org.infinispan.stats.Stats;
+import org.infinispan.util.concurrent.StripedHistogram;
 
 import net.jcip.annotations.Immutable;
 
@@ -42,6 +43,9 @@ public class StatsImpl implements Stats {
    private final Map<String, Long> statsMap = new HashMap<>();
    final CacheMgmtInterceptor mgmtInterceptor;
    final Stats source;
+   private final StripedHistogram.Snapshot readTimes;
+   private final StripedHistogram.Snapshot writeTimes;
+   private final StripedHistogram.Snapshot removeTimes;
 
    public StatsImpl(AsyncInterceptorChain chain) {
       mgmtInterceptor = chain.findInterceptorExtending(CacheMgmtInterceptor.class);
@@ -64,15 +68,24 @@ public StatsImpl(AsyncInterceptorChain chain) {
          statsMap.put(AVERAGE_REMOVE_TIME, mgmtInterceptor.getAverageRemoveTime());
          statsMap.put(AVERAGE_WRITE_TIME, mgmtInterceptor.getAverageWriteTime());
          statsMap.put(REQUIRED_MIN_NODES, (long) mgmtInterceptor.getRequiredMinimumNumberOfNodes());
+         readTimes = mgmtInterceptor.getReadTimes();
+         writeTimes = mgmtInterceptor.getWriteTimes();
+         removeTimes = mgmtInterceptor.getRemoveTimes();
       } else {
          for (String key : Attributes)
             statsMap.put(key, -1L);
+         readTimes = null;
+         writeTimes = null;
+         removeTimes = null;
       }
    }
 
    public StatsImpl(Stats other) {
       mgmtInterceptor = null;
       source = other;
+      readTimes = null;
+      writeTimes = null;
+      removeTimes = null;
       if (other != null) {
          statsMap.put(TIME_SINCE_RESET, other.getTimeSinceReset());
          statsMap.put(TIME_SINCE_START, other.getTimeSinceStart());
@@ -176,6 +189,27 @@ public long getAverageRemoveTime() {
       return statsMap.get(AVERAGE_REMOVE_TIME);
    }
 
+   @Override
+   public long getReadTimePercentile(double percentile) {
+      if (readTimes != null)
+         return readTimes.getValueAtPercentile(percentile);
+      return source != null ? source.getReadTimePercentile(percentile) : -1;
+   }
+
+   @Override
+   public long getWriteTimePercentile(double percentile) {
+      if (writeTimes != null)
+         return writeTimes.getValueAtPercentile(percentile);
+      return source != null ? source.getWriteTimePercentile(percentile) : -1;
+   }
+
+   @Override
+   public long getRemoveTimePercentile(double percentile) {
+      if (removeTimes != null)
+         return removeTimes.getValueAtPercentile(percentile);
+      return source != null ? source.getRemoveTimePercentile(percentile) : -1;
+   }
+
    @Override
    public int getRequiredMinimumNumberOfNodes() {
       return Math.toIntExact(statsMap.get(REQUIRED_MIN_NODES));
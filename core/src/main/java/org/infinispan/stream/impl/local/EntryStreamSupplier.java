@@ -2,6 +2,7 @@
 
 import java.util.Objects;
 import java.util.Set;
+import java.util.function.Function;
 import java.util.function.Supplier;
 import java.util.function.ToIntFunction;
 import java.util.stream.Stream;
@@ -30,13 +31,24 @@
    private final boolean remoteIterator;
    private final ToIntFunction<Object> toIntFunction;
    private final Supplier<Stream<CacheEntry<K, V>>> supplier;
+   private final Function<IntSet, Stream<CacheEntry<K, V>>> segmentSupplier;
 
    public EntryStreamSupplier(Cache<K, V> cache, boolean remoteIterator, ToIntFunction<Object> toIntFunction,
          Supplier<Stream<CacheEntry<K, V>>> supplier) {
+      this(cache, remoteIterator, toIntFunction, supplier, null);
+   }
+
+   /**
+    * Same as the other constructor, but when segments are filtered the stream is built from {@code segmentSupplier}
+    * which must only return entries from the given segments, so no entry has to be filtered by its segment.
+    */
+   public EntryStreamSupplier(Cache<K, V> cache, boolean remoteIterator, ToIntFunction<Object> toIntFunction,
+         Supplier<Stream<CacheEntry<K, V>>> supplier, Function<IntSet, Stream<CacheEntry<K, V>>> segmentSupplier) {
       this.cache = cache;
       this.remoteIterator = remoteIterator;
       this.toIntFunction = toIntFunction;
       this.supplier = supplier;
+      this.segmentSupplier = segmentSupplier;
    }
 
    @Override
@@ -53,7 +65,16 @@ public Stream<CacheEntry<K, V>> buildStream(Set<Integer> segmentsToFilter, Set<?
                .map(advancedCache::getCacheEntry)
                .filter(Objects::nonNull);
       } else {
-         stream = supplier.get();
+         if (segmentsToFilter != null && segmentSupplier != null) {
+            if (trace) {
+               log.tracef("Only retrieving entries from segments %s", segmentsToFilter);
+            }
+            stream = segmentSupplier.apply(SmallIntSet.from(segmentsToFilter));
+            // The supplier already limited the entries to the given segments
+            segmentsToFilter = null;
+         } else {
+            stream = supplier.get();
+         }
          if (cache.getCacheConfiguration().clustering().cacheMode().isScattered()) {
             // Ignore tombstones
             stream = stream.filter(e -> e.getValue() != null);
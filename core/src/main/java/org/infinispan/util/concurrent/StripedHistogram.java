@@ -0,0 +1,169 @@
+package org.infinispan.util.concurrent;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A histogram of non-negative values, e.g. durations in nanoseconds, that multiple threads can update without locking.
+ * <p>
+ * Values are counted in log-linear buckets: each power of two is split in {@code 32} buckets of equal width, so the
+ * value reported for a percentile is at most about 3% above the actual value, whatever the magnitude. Values larger
+ * than {@code 2^36} (about 68 seconds in nanoseconds) are counted in the last bucket, but the maximum is always exact.
+ * <p>
+ * Like {@link StripedCounters}, the buckets are duplicated in stripes to reduce contention. A stripe is only
+ * allocated when a thread mapped to it records its first value, so a histogram that is never updated is cheap.
+ *
+ * @since 9.2
+ */
+public class StripedHistogram {
+   private static final int STRIPE_COUNT = (int) (Long.highestOneBit(Runtime.getRuntime().availableProcessors()) << 1);
+   private static final int STRIPE_MASK = STRIPE_COUNT - 1;
+   private static final int SUB_BUCKET_BITS = 5;
+   private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+   private static final int MAX_VALUE_BITS = 36;
+   private static final long MAX_TRACKED_VALUE = (1L << MAX_VALUE_BITS) - 1;
+   static final int BUCKET_COUNT = (MAX_VALUE_BITS - SUB_BUCKET_BITS + 1) * SUB_BUCKET_COUNT;
+
+   private final AtomicReferenceArray<AtomicLongArray> stripes = new AtomicReferenceArray<>(STRIPE_COUNT);
+   private final AtomicLong max = new AtomicLong();
+
+   /**
+    * Records a value. Negative values are recorded as {@code 0}.
+    */
+   public void record(long value) {
+      if (value < 0) {
+         value = 0;
+      }
+      stripeForCurrentThread().getAndIncrement(bucketIndex(value));
+      long currentMax = max.get();
+      while (value > currentMax && !max.compareAndSet(currentMax, value)) {
+         currentMax = max.get();
+      }
+   }
+
+   /**
+    * @return the largest recorded value, or {@code 0} if there are none
+    */
+   public long getMax() {
+      return max.get();
+   }
+
+   /**
+    * @return a point-in-time copy of the histogram. Values recorded concurrently may or may not be included.
+    */
+   public Snapshot snapshot() {
+      long[] counts = new long[BUCKET_COUNT];
+      long count = 0;
+      for (int i = 0; i < STRIPE_COUNT; i++) {
+         AtomicLongArray stripe = stripes.get(i);
+         if (stripe != null) {
+            for (int j = 0; j < BUCKET_COUNT; j++) {
+               long bucketCount = stripe.get(j);
+               counts[j] += bucketCount;
+               count += bucketCount;
+            }
+         }
+      }
+      return new Snapshot(counts, count, max.get());
+   }
+
+   /**
+    * Discards all the recorded values. Values recorded concurrently may or may not be discarded.
+    */
+   public void reset() {
+      for (int i = 0; i < STRIPE_COUNT; i++) {
+         AtomicLongArray stripe = stripes.get(i);
+         if (stripe != null) {
+            for (int j = 0; j < BUCKET_COUNT; j++) {
+               stripe.set(j, 0);
+            }
+         }
+      }
+      max.set(0);
+   }
+
+   private AtomicLongArray stripeForCurrentThread() {
+      // Spread the thread id a bit, in case it's always a multiple of 16
+      long id = Thread.currentThread().getId();
+      id ^= id >>> 7 ^ id >>> 4;
+      int index = (int) (id & STRIPE_MASK);
+      AtomicLongArray stripe = stripes.get(index);
+      if (stripe == null) {
+         stripes.compareAndSet(index, null, new AtomicLongArray(BUCKET_COUNT));
+         stripe = stripes.get(index);
+      }
+      return stripe;
+   }
+
+   static int bucketIndex(long value) {
+      if (value < SUB_BUCKET_COUNT) {
+         return (int) value;
+      }
+      value = Math.min(value, MAX_TRACKED_VALUE);
+      int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+      // The highest bit is always set, so (value >>> shift) is between SUB_BUCKET_COUNT and 2 * SUB_BUCKET_COUNT - 1
+      return (shift + 1) * SUB_BUCKET_COUNT + (int) (value >>> shift) - SUB_BUCKET_COUNT;
+   }
+
+   static long highestValueInBucket(int index) {
+      if (index < SUB_BUCKET_COUNT) {
+         return index;
+      }
+      int shift = index / SUB_BUCKET_COUNT - 1;
+      long lowest = (long) (index % SUB_BUCKET_COUNT + SUB_BUCKET_COUNT) << shift;
+      return lowest + (1L << shift) - 1;
+   }
+
+   /**
+    * An immutable copy of a {@link StripedHistogram}.
+    */
+   public static class Snapshot {
+      private final long[] counts;
+      private final long count;
+      private final long max;
+
+      Snapshot(long[] counts, long count, long max) {
+         this.counts = counts;
+         this.count = count;
+         this.max = max;
+      }
+
+      /**
+       * @return the number of recorded values
+       */
+      public long getCount() {
+         return count;
+      }
+
+      /**
+       * @return the largest recorded value, or {@code 0} if there are none
+       */
+      public long getMax() {
+         return max;
+      }
+
+      /**
+       * Returns a value that is greater than or equal to the given percentage of the recorded values.
+       *
+       * @param percentile the percentage, between {@code 0} and {@code 100}, e.g. {@code 99.9}
+       * @return the value, never larger than {@link #getMax()}, or {@code 0} if there are no values
+       */
+      public long getValueAtPercentile(double percentile) {
+         if (percentile < 0 || percentile > 100)
+            throw new IllegalArgumentException("Percentile must be between 0 and 100: " + percentile);
+         if (count == 0)
+            return 0;
+
+         long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+         long seen = 0;
+         for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+               return Math.min(highestValueInBucket(i), max);
+            }
+         }
+         return max;
+      }
+   }
+}
@@ -38,6 +38,10 @@
  * In addition, it has an asynchronous interface. {@link #acquire(Object, long, TimeUnit)}  will not acquire the lock
  * immediately (except if it is free) but will return a {@link ExtendedLockPromise}. This promise allow to test if the
  * lock is acquired asynchronously and cancel the lock acquisition, without any blocking.
+ * <p/>
+ * An uncontended acquisition does not use the queue: the lock is acquired with a single CAS and the returned {@link
+ * ExtendedLockPromise} is already completed. The queue and the {@link CompletableFuture} used to notify the waiting
+ * lock owners are only created when needed.
  *
  * @author Pedro Ruivo
  * @since 8.0
@@ -50,9 +54,17 @@ public class InfinispanLock {
          newUpdater(InfinispanLock.class, LockPlaceHolder.class, "current");
    private static final AtomicReferenceFieldUpdater<LockPlaceHolder, LockState> STATE_UPDATER =
          newUpdater(LockPlaceHolder.class, LockState.class, "lockState");
-
-
-   private final Queue<LockPlaceHolder> pendingRequest;
+   @SuppressWarnings("rawtypes")
+   private static final AtomicReferenceFieldUpdater<InfinispanLock, Queue> QUEUE_UPDATER =
+         newUpdater(InfinispanLock.class, Queue.class, "pendingRequest");
+   @SuppressWarnings("rawtypes")
+   private static final AtomicReferenceFieldUpdater<LockPlaceHolder, CompletableFuture> NOTIFIER_UPDATER =
+         newUpdater(LockPlaceHolder.class, CompletableFuture.class, "notifier");
+   // Most locks only ever have one owner, so start with the smallest table
+   private static final int INITIAL_OWNERS_CAPACITY = 1;
+
+   // Created on the first contended acquisition
+   private volatile Queue<LockPlaceHolder> pendingRequest;
    private final ConcurrentMap<Object, LockPlaceHolder> lockOwners;
    private final Runnable releaseRunnable;
    private final Executor executor;
@@ -69,8 +81,7 @@ public class InfinispanLock {
    public InfinispanLock(Executor executor, TimeService timeService) {
       this.executor = executor;
       this.timeService = timeService;
-      pendingRequest = new ConcurrentLinkedQueue<>();
-      lockOwners = new ConcurrentHashMap<>();
+      lockOwners = new ConcurrentHashMap<>(INITIAL_OWNERS_CAPACITY);
       current = null;
       releaseRunnable = null;
    }
@@ -85,8 +96,7 @@ public InfinispanLock(Executor executor, TimeService timeService) {
    public InfinispanLock(Executor executor, TimeService timeService, Runnable releaseRunnable) {
       this.executor = executor;
       this.timeService = timeService;
-      pendingRequest = new ConcurrentLinkedQueue<>();
-      lockOwners = new ConcurrentHashMap<>();
+      lockOwners = new ConcurrentHashMap<>(INITIAL_OWNERS_CAPACITY);
       current = null;
       this.releaseRunnable = releaseRunnable;
    }
@@ -144,8 +154,10 @@ public ExtendedLockPromise acquire(Object lockOwner, long time, TimeUnit timeUni
          log.tracef("Created a new one: %s", lockPlaceHolder);
       }
 
-      pendingRequest.add(lockPlaceHolder);
-      tryAcquire(null);
+      if (!tryAcquireUncontended(lockPlaceHolder)) {
+         pendingRequest().add(lockPlaceHolder);
+         tryAcquire(null);
+      }
       return lockPlaceHolder;
    }
 
@@ -214,8 +226,9 @@ public void deadlockCheck(DeadlockChecker deadlockChecker) {
          return; //no-op
       }
       LockPlaceHolder holder = current;
-      if (holder != null) {
-         for (LockPlaceHolder pending : pendingRequest) {
+      Queue<LockPlaceHolder> queue = pendingRequest;
+      if (holder != null && queue != null) {
+         for (LockPlaceHolder pending : queue) {
             pending.checkDeadlock(deadlockChecker, holder.owner);
          }
       }
@@ -265,10 +278,39 @@ private boolean cas(LockPlaceHolder release, LockPlaceHolder acquire) {
       return cas;
    }
 
+   private Queue<LockPlaceHolder> pendingRequest() {
+      Queue<LockPlaceHolder> queue = pendingRequest;
+      if (queue == null) {
+         QUEUE_UPDATER.compareAndSet(this, null, new ConcurrentLinkedQueue<>());
+         queue = pendingRequest;
+      }
+      return queue;
+   }
+
+   /**
+    * Acquires the lock without queueing if it is free and nobody is waiting for it.
+    * <p/>
+    * If it returns {@code false}, the lock owner must be queued as usual.
+    */
+   private boolean tryAcquireUncontended(LockPlaceHolder lockPlaceHolder) {
+      Queue<LockPlaceHolder> queue = pendingRequest;
+      if (current != null || (queue != null && !queue.isEmpty()) || !cas(null, lockPlaceHolder)) {
+         return false;
+      }
+      if (!lockPlaceHolder.setAcquire()) {
+         //it was released or timed out in the meantime, let the next in queue acquire it
+         tryAcquire(lockPlaceHolder);
+      } else if (trace) {
+         log.tracef("%s successfully acquired the lock without contention.", lockPlaceHolder);
+      }
+      return true;
+   }
+
    private void tryAcquire(LockPlaceHolder release) {
       LockPlaceHolder toRelease = release;
       do {
-         LockPlaceHolder toAcquire = pendingRequest.peek();
+         Queue<LockPlaceHolder> queue = pendingRequest;
+         LockPlaceHolder toAcquire = queue == null ? null : queue.peek();
          if (trace) {
             log.tracef("Try acquire. Next in queue=%s. Current=%s", toAcquire, current);
          }
@@ -284,7 +326,7 @@ private void tryAcquire(LockPlaceHolder release) {
          }
          if (cas(toRelease, toAcquire)) {
             //we set the current lock owner, so we must remove it from the queue
-            pendingRequest.remove(toAcquire);
+            queue.remove(toAcquire);
             if (toAcquire.setAcquire()) {
                if (trace) {
                   log.tracef("%s successfully acquired the lock.", toAcquire);
@@ -314,7 +356,8 @@ private class LockPlaceHolder implements ExtendedLockPromise {
 
       private final Object owner;
       private final long timeout;
-      private final CompletableFuture<LockState> notifier;
+      // Created only if somebody waits for the lock state to change
+      volatile CompletableFuture<LockState> notifier;
       @SuppressWarnings("CanBeFinal")
       volatile LockState lockState;
 
@@ -322,7 +365,6 @@ private LockPlaceHolder(Object owner, long timeout) {
          this.owner = owner;
          this.timeout = timeout;
          lockState = LockState.WAITING;
-         notifier = new CompletableFuture<>();
       }
 
       @Override
@@ -338,7 +380,7 @@ public void lock() throws InterruptedException, TimeoutException {
             switch (currentState) {
                case WAITING:
                   checkTimeout();
-                  await(notifier, timeService.remainingTime(timeout, TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS);
+                  await(notifier(), timeService.remainingTime(timeout, TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS);
                   break;
                case ACQUIRED:
                   return; //acquired!
@@ -358,7 +400,7 @@ public void lock() throws InterruptedException, TimeoutException {
 
       @Override
       public void addListener(LockListener listener) {
-         notifier.thenAccept(listener::onEvent);
+         notifier().thenAccept(listener::onEvent);
       }
 
       @Override
@@ -404,11 +446,18 @@ public Object getOwner() {
 
       @Override
       public InvocationStage toInvocationStage(Supplier<TimeoutException> timeoutSupplier) {
-         if (notifier.isDone()) {
-            return checkState(notifier.getNow(lockState), SyncInvocationStage::new,
+         LockState currentState = lockState;
+         if (currentState != LockState.WAITING) {
+            CompletableFuture<LockState> completed = notifier;
+            return checkState(completed == null ? currentState : completed.getNow(currentState), SyncInvocationStage::new,
+                  SimpleAsyncInvocationStage::new, timeoutSupplier);
+         }
+         CompletableFuture<LockState> future = notifier();
+         if (future.isDone()) {
+            return checkState(future.getNow(lockState), SyncInvocationStage::new,
                   SimpleAsyncInvocationStage::new, timeoutSupplier);
          }
-         return new SimpleAsyncInvocationStage(notifier.thenApplyAsync(state -> {
+         return new SimpleAsyncInvocationStage(future.thenApplyAsync(state -> {
             Object rv = checkState(state, () -> null, throwable -> throwable, timeoutSupplier);
             if (rv != null) {
                throw (RuntimeException) rv;
@@ -517,10 +566,22 @@ private void checkTimeout() {
 
       }
 
+      private CompletableFuture<LockState> notifier() {
+         CompletableFuture<LockState> future = notifier;
+         if (future == null) {
+            NOTIFIER_UPDATER.compareAndSet(this, null, new CompletableFuture<>());
+            future = notifier;
+            //the state may have changed before the future was created
+            notifyListeners();
+         }
+         return future;
+      }
+
       private void notifyListeners() {
          LockState state = lockState;
-         if (state != LockState.WAITING) {
-            notifier.complete(state);
+         CompletableFuture<LockState> future = notifier;
+         if (state != LockState.WAITING && future != null) {
+            future.complete(state);
          }
       }
    }
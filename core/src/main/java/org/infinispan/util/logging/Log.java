@@ -1761,4 +1761,11 @@ CacheConfigurationException offHeapMemoryEvictionSizeNotLargeEnoughForAddresses(
 
    @Message(value = "The state file for '%s' is invalid. Startup halted to prevent further corruption of persistent state", id = 516)
    CacheConfigurationException invalidPersistentState(String globalScope);
+
+   @Message(value = "The off-heap index of the single file store cannot be combined with max-entries", id = 517)
+   CacheConfigurationException singleFileStoreOffHeapIndexWithMaxEntries();
+
+   @LogMessage(level = ERROR)
+   @Message(value = "Error sending %d batched commands to %s", id = 518)
+   void errorSendingBatchedCommands(int count, Address target, @Cause Throwable t);
 }
@@ -0,0 +1,96 @@
+package org.infinispan.container;
+
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.mock;
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertFalse;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+import org.infinispan.commons.util.SmallIntSet;
+import org.infinispan.configuration.cache.CacheMode;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.container.entries.InternalCacheEntry;
+import org.infinispan.distribution.ch.KeyPartitioner;
+import org.infinispan.distribution.ch.impl.HashFunctionPartitioner;
+import org.infinispan.eviction.ActivationManager;
+import org.infinispan.expiration.ExpirationManager;
+import org.infinispan.metadata.EmbeddedMetadata;
+import org.infinispan.test.TestingUtil;
+import org.infinispan.util.ControlledTimeService;
+import org.mockito.Mockito;
+import org.testng.annotations.Test;
+
+@Test(groups = "unit", testName = "container.SegmentedDataContainerTest")
+public class SegmentedDataContainerTest extends SimpleDataContainerTest {
+   private static final int NUM_SEGMENTS = 16;
+
+   private SegmentedDataContainer<String, String> sdc;
+   private KeyPartitioner keyPartitioner;
+
+   @Override
+   protected DataContainer<String, String> createContainer() {
+      keyPartitioner = new HashFunctionPartitioner();
+      keyPartitioner.init(new ConfigurationBuilder().clustering().cacheMode(CacheMode.DIST_SYNC)
+            .hash().numSegments(NUM_SEGMENTS).build().clustering().hash());
+      DefaultSegmentedDataContainer<String, String> dc = new DefaultSegmentedDataContainer<>(16, NUM_SEGMENTS);
+      InternalEntryFactoryImpl internalEntryFactory = new InternalEntryFactoryImpl();
+      timeService = new ControlledTimeService();
+      TestingUtil.inject(internalEntryFactory, timeService);
+      ActivationManager activationManager = mock(ActivationManager.class);
+      doNothing().when(activationManager).onUpdate(Mockito.any(), Mockito.anyBoolean());
+      TestingUtil.inject(dc, internalEntryFactory, activationManager, timeService, mock(ExpirationManager.class),
+            keyPartitioner);
+      sdc = dc;
+      return dc;
+   }
+
+   private Set<String> putKeys(int count) {
+      Set<String> keys = new HashSet<>();
+      for (int i = 0; i < count; i++) {
+         String key = "k" + i;
+         sdc.put(key, "v" + i, new EmbeddedMetadata.Builder().build());
+         keys.add(key);
+      }
+      return keys;
+   }
+
+   private Set<String> keysInSegments(Set<String> keys, SmallIntSet segments) {
+      return keys.stream().filter(k -> segments.contains(keyPartitioner.getSegment(k))).collect(Collectors.toSet());
+   }
+
+   public void testSegmentIteration() {
+      Set<String> keys = putKeys(100);
+      SmallIntSet segments = SmallIntSet.of(0, 3, 7);
+      Set<String> expected = keysInSegments(keys, segments);
+
+      Set<String> iterated = new HashSet<>();
+      for (Iterator<InternalCacheEntry<String, String>> iter = sdc.iterator(segments); iter.hasNext(); ) {
+         assertTrue(iterated.add(iter.next().getKey()));
+      }
+      assertEquals(expected, iterated);
+
+      Set<String> split = StreamSupport.stream(sdc.spliterator(segments), true)
+            .map(InternalCacheEntry::getKey).collect(Collectors.toSet());
+      assertEquals(expected, split);
+      assertEquals(expected.size(), sdc.sizeIncludingExpired(segments));
+      assertEquals(keys.size(), sdc.sizeIncludingExpired());
+   }
+
+   public void testSegmentIterationSkipsExpired() {
+      sdc.put("expiring", "v", new EmbeddedMetadata.Builder().lifespan(100, TimeUnit.MILLISECONDS).build());
+      SmallIntSet segment = SmallIntSet.of(keyPartitioner.getSegment("expiring"));
+      timeService.advance(200);
+
+      assertFalse(sdc.iterator(segment).hasNext());
+      assertTrue(sdc.iteratorIncludingExpired(segment).hasNext());
+      assertEquals(0, StreamSupport.stream(sdc.spliterator(segment), false).count());
+      assertEquals(1, StreamSupport.stream(sdc.spliteratorIncludingExpired(segment), false).count());
+   }
+}
@@ -59,15 +59,15 @@ public void testAllocatedAmountEqual() {
       OffHeapMemoryAllocator allocator = cache.getComponentRegistry().getComponent(
             OffHeapMemoryAllocator.class);
       BoundedOffHeapDataContainer container = (BoundedOffHeapDataContainer) getContainer(cache);
-      assertEquals(allocator.getAllocatedAmount(), container.currentSize);
+      assertEquals(allocator.getAllocatedAmount(), container.currentSize.get());
 
       cache.put(1, 2);
 
-      assertEquals(allocator.getAllocatedAmount(), container.currentSize);
+      assertEquals(allocator.getAllocatedAmount(), container.currentSize.get());
 
       cache.clear();
 
-      assertEquals(allocator.getAllocatedAmount(), container.currentSize);
+      assertEquals(allocator.getAllocatedAmount(), container.currentSize.get());
    }
 
    public void testAllocatedAmountEqualWithVersion() {
@@ -84,11 +84,11 @@ public void testAllocatedAmountEqualWithVersion() {
       OffHeapMemoryAllocator allocator = cache.getComponentRegistry().getComponent(
             OffHeapMemoryAllocator.class);
       BoundedOffHeapDataContainer container = (BoundedOffHeapDataContainer) getContainer(cache);
-      assertEquals(allocator.getAllocatedAmount(), container.currentSize);
+      assertEquals(allocator.getAllocatedAmount(), container.currentSize.get());
 
       cache.clear();
 
-      assertEquals(allocator.getAllocatedAmount(), container.currentSize);
+      assertEquals(allocator.getAllocatedAmount(), container.currentSize.get());
    }
 
    @Test(expectedExceptions = CacheConfigurationException.class)
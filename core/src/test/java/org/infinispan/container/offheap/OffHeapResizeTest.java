@@ -0,0 +1,87 @@
+package org.infinispan.container.offheap;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Future;
+
+import org.infinispan.Cache;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.configuration.cache.StorageType;
+import org.infinispan.container.DataContainer;
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.test.SingleCacheManagerTest;
+import org.infinispan.test.TestingUtil;
+import org.infinispan.test.fwk.TestCacheManagerFactory;
+import org.testng.annotations.Test;
+
+/**
+ * Tests that the off heap address hash grows as entries are added while all of them stay reachable.
+ * @since 9.2
+ */
+@Test(groups = "functional", testName = "container.offheap.OffHeapResizeTest")
+public class OffHeapResizeTest extends SingleCacheManagerTest {
+   private static final int INITIAL_ADDRESS_COUNT = 16;
+
+   @Override
+   protected EmbeddedCacheManager createCacheManager() throws Exception {
+      ConfigurationBuilder builder = new ConfigurationBuilder();
+      builder.memory().storageType(StorageType.OFF_HEAP).addressCount(INITIAL_ADDRESS_COUNT);
+      return TestCacheManagerFactory.createCacheManager(builder);
+   }
+
+   private OffHeapDataContainer container() {
+      return (OffHeapDataContainer) TestingUtil.extractComponent(cache, DataContainer.class);
+   }
+
+   public void testResizeKeepsAllEntries() {
+      int initialAddressCount = container().getAddressCount();
+      int entries = initialAddressCount * 64;
+      for (int i = 0; i < entries; ++i) {
+         cache.put("key-" + i, "value-" + i);
+      }
+      int addressCount = container().getAddressCount();
+      assertTrue("Address count " + addressCount + " didn't grow", addressCount > initialAddressCount);
+      assertTrue(container().getAverageChainLength() < 4);
+
+      assertEquals(entries, cache.size());
+      assertEquals(entries, cache.entrySet().stream().count());
+      for (int i = 0; i < entries; ++i) {
+         assertEquals("value-" + i, cache.get("key-" + i));
+      }
+
+      cache.clear();
+      assertEquals(0, cache.size());
+      assertEquals(0, container().sizeIncludingExpired());
+   }
+
+   public void testConcurrentWritesWhileResizing() throws Exception {
+      cache.clear();
+      int threads = 4;
+      int entriesPerThread = 5_000;
+      List<Future<Void>> futures = new ArrayList<>(threads);
+      for (int t = 0; t < threads; ++t) {
+         int thread = t;
+         futures.add(fork(() -> {
+            Cache<Object, Object> c = cache;
+            for (int i = 0; i < entriesPerThread; ++i) {
+               c.put(thread + "-" + i, i);
+               // Read back a previous entry which may have been moved by a resize in the meantime
+               assertEquals(i / 2, c.get(thread + "-" + i / 2));
+            }
+            return null;
+         }));
+      }
+      for (Future<Void> future : futures) {
+         future.get();
+      }
+      assertEquals(threads * entriesPerThread, cache.size());
+      for (int t = 0; t < threads; ++t) {
+         for (int i = 0; i < entriesPerThread; ++i) {
+            assertEquals(i, cache.get(t + "-" + i));
+         }
+      }
+   }
+}
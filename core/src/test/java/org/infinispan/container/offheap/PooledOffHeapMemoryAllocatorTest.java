@@ -0,0 +1,126 @@
+package org.infinispan.container.offheap;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertFalse;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * @since 9.2
+ */
+@Test(groups = "functional", testName = "container.offheap.PooledOffHeapMemoryAllocatorTest")
+public class PooledOffHeapMemoryAllocatorTest {
+   private PooledOffHeapMemoryAllocator allocator;
+
+   @BeforeMethod
+   public void createAllocator() {
+      allocator = new PooledOffHeapMemoryAllocator();
+   }
+
+   @AfterMethod(alwaysRun = true)
+   public void stopAllocator() {
+      allocator.stop();
+   }
+
+   public void testSameSizeClassIsReused() {
+      long address = allocator.allocate(100);
+      allocator.deallocate(address, 100);
+      // 100 and 104 are both rounded to 112 so they share the size class
+      assertEquals(address, allocator.allocate(104));
+      assertEquals(UnpooledOffHeapMemoryAllocator.estimateSizeOverhead(104), allocator.getAllocatedAmount());
+   }
+
+   public void testBlocksDontOverlap() {
+      int count = PooledOffHeapMemoryAllocator.SLAB_SIZE / 16;
+      long size = 40;
+      long blockSize = UnpooledOffHeapMemoryAllocator.estimateSizeOverhead(size);
+      Set<Long> addresses = new HashSet<>();
+      for (int i = 0; i < count; ++i) {
+         long address = allocator.allocate(size);
+         assertTrue(addresses.add(address));
+         UnsafeHolder.UNSAFE.setMemory(address, blockSize, (byte) i);
+      }
+      long[] sorted = addresses.stream().mapToLong(Long::longValue).sorted().toArray();
+      for (int i = 1; i < sorted.length; ++i) {
+         assertTrue(sorted[i] - sorted[i - 1] >= blockSize);
+      }
+      assertEquals(count * blockSize, allocator.getPooledAllocatedAmount());
+      assertTrue(allocator.getSlabBytes() >= allocator.getPooledAllocatedAmount());
+
+      for (long address : addresses) {
+         allocator.deallocate(address, size);
+      }
+      assertEquals(0, allocator.getAllocatedAmount());
+      assertEquals(1.0, allocator.getFragmentation(), 0.0);
+   }
+
+   public void testLargeAllocationIsNotPooled() {
+      long size = PooledOffHeapMemoryAllocator.MAX_POOLED_SIZE;
+      long address = allocator.allocate(size);
+      assertEquals(0, allocator.getSlabBytes());
+      assertEquals(UnpooledOffHeapMemoryAllocator.estimateSizeOverhead(size), allocator.getAllocatedAmount());
+      allocator.deallocate(address, size);
+      assertEquals(0, allocator.getAllocatedAmount());
+   }
+
+   public void testBlocksFreedByOtherThread() throws InterruptedException {
+      int count = 10_000;
+      long[] addresses = new long[count];
+      for (int i = 0; i < count; ++i) {
+         addresses[i] = allocator.allocate(24);
+      }
+      long slabBytes = allocator.getSlabBytes();
+      Thread thread = new Thread(() -> {
+         for (long address : addresses) {
+            allocator.deallocate(address, 24);
+         }
+      });
+      thread.start();
+      thread.join();
+      assertEquals(0, allocator.getAllocatedAmount());
+      // Most of the blocks were given back to the shared list, so allocating again doesn't need new slabs
+      for (int i = 0; i < count / 2; ++i) {
+         allocator.allocate(24);
+      }
+      assertEquals(slabBytes, allocator.getSlabBytes());
+      assertFalse(allocator.getFragmentation() == 0);
+   }
+
+   public void testBlocksCachedByCollectedThreadAreReleased() throws InterruptedException {
+      int count = 100;
+      Thread thread = new Thread(() -> {
+         long[] addresses = new long[count];
+         for (int i = 0; i < count; ++i) {
+            addresses[i] = allocator.allocate(24);
+         }
+         // Few enough blocks to all stay in the cache of this thread
+         for (long address : addresses) {
+            allocator.deallocate(address, 24);
+         }
+      });
+      thread.start();
+      thread.join();
+      thread = null;
+      long slabBytes = allocator.getSlabBytes();
+
+      long deadline = System.currentTimeMillis() + 10_000;
+      int released = 0;
+      while (released == 0 && System.currentTimeMillis() < deadline) {
+         System.gc();
+         Thread.sleep(10);
+         released = allocator.releaseCollectedThreadCaches();
+      }
+      assertEquals(1, released);
+      // The blocks of the thread are reused instead of carving new ones
+      for (int i = 0; i < count; ++i) {
+         allocator.allocate(24);
+      }
+      assertEquals(slabBytes, allocator.getSlabBytes());
+   }
+}
@@ -0,0 +1,101 @@
+package org.infinispan.expiration.impl;
+
+import static org.testng.AssertJUnit.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+
+import org.infinispan.test.AbstractInfinispanTest;
+import org.testng.annotations.Test;
+
+@Test(groups = "unit", testName = "expiration.impl.ExpirationIndexTest")
+public class ExpirationIndexTest extends AbstractInfinispanTest {
+
+   public void testOnlyDueBucketsArePolled() {
+      ExpirationIndex<String> index = new ExpirationIndex<>(100);
+      index.add("a", 50);
+      index.add("b", 150);
+      index.add("c", 1_000);
+
+      List<String> polled = new ArrayList<>();
+      index.pollExpired(120, key -> {
+         polled.add(key);
+         index.remove(key);
+      });
+      // b expires at 150 but shares the bucket with times up to 199, so it is a candidate as well
+      assertEquals(new HashSet<>(Arrays.asList("a", "b")), new HashSet<>(polled));
+      assertEquals(1, index.size());
+
+      polled.clear();
+      index.pollExpired(500, polled::add);
+      assertEquals(0, polled.size());
+
+      index.pollExpired(1_001, key -> {
+         polled.add(key);
+         index.remove(key);
+      });
+      assertEquals(Arrays.asList("c"), polled);
+      assertEquals(0, index.size());
+   }
+
+   public void testKeysNotRemovedArePolledAgain() {
+      ExpirationIndex<String> index = new ExpirationIndex<>(100);
+      index.add("a", 50);
+
+      List<String> polled = new ArrayList<>();
+      // The expiration of the key failed, so it is left in the index
+      index.pollExpired(120, polled::add);
+      index.pollExpired(220, polled::add);
+      assertEquals(Arrays.asList("a", "a"), polled);
+      assertEquals(1, index.size());
+   }
+
+   public void testKeysAddedBackAreNotPolledAgain() {
+      ExpirationIndex<String> index = new ExpirationIndex<>(100);
+      index.add("a", 150);
+
+      List<String> polled = new ArrayList<>();
+      index.pollExpired(120, key -> {
+         polled.add(key);
+         // Not expired yet
+         index.add(key, 150);
+      });
+      assertEquals(Arrays.asList("a"), polled);
+      assertEquals(1, index.size());
+   }
+
+   public void testAddMovesKeyToNewBucket() {
+      ExpirationIndex<String> index = new ExpirationIndex<>(100);
+      index.add("a", 50);
+      index.add("a", 1_000);
+      assertEquals(1, index.size());
+
+      List<String> polled = new ArrayList<>();
+      index.pollExpired(500, polled::add);
+      assertEquals(0, polled.size());
+
+      index.pollExpired(1_001, polled::add);
+      assertEquals(Arrays.asList("a"), polled);
+   }
+
+   public void testRemovedKeyIsNotPolled() {
+      ExpirationIndex<String> index = new ExpirationIndex<>(100);
+      index.add("a", 50);
+      index.remove("a");
+      assertEquals(0, index.size());
+
+      List<String> polled = new ArrayList<>();
+      index.pollExpired(1_000, polled::add);
+      assertEquals(0, polled.size());
+   }
+
+   public void testSameKeyIsOnlyOnceInBucket() {
+      ExpirationIndex<String> index = new ExpirationIndex<>(100);
+      for (int i = 0; i < 10; ++i) {
+         index.add("a", 110 + i);
+      }
+      assertEquals(1, index.size());
+   }
+}
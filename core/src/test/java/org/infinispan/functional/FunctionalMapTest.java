@@ -60,6 +60,7 @@
 import org.infinispan.functional.impl.ReadOnlyMapImpl;
 import org.infinispan.functional.impl.ReadWriteMapImpl;
 import org.infinispan.functional.impl.WriteOnlyMapImpl;
+import org.infinispan.metadata.EmbeddedMetadata;
 import org.infinispan.test.CacheManagerCallable;
 import org.infinispan.test.fwk.InTransactionMode;
 import org.infinispan.test.fwk.TestCacheManagerFactory;
@@ -305,6 +306,38 @@ public void testDistReadWriteForConditionalParamBasedReplaceOnOwner() {
       doReadWriteForConditionalParamBasedReplace(supplyKeyForCache(1, DIST), rw(fmapD1), rw(fmapD2));
    }
 
+   @InTransactionMode(TransactionMode.NON_TRANSACTIONAL)
+   public void testLocalReadWriteForConditionalReplaceOfCacheEntry() {
+      doReadWriteForConditionalReplaceOfCacheEntry(supplyIntKey(), getAdvancedCache(cacheManagers.get(0), null),
+            rw(fmapL1));
+   }
+
+   @InTransactionMode(TransactionMode.NON_TRANSACTIONAL)
+   public void testDistReadWriteForConditionalReplaceOfCacheEntryOnNonOwner() {
+      doReadWriteForConditionalReplaceOfCacheEntry(supplyKeyForCache(0, DIST), getAdvancedCache(cacheManagers.get(1), DIST),
+            rw(fmapD1));
+   }
+
+   @InTransactionMode(TransactionMode.NON_TRANSACTIONAL)
+   public void testDistReadWriteForConditionalReplaceOfCacheEntryOnOwner() {
+      doReadWriteForConditionalReplaceOfCacheEntry(supplyKeyForCache(1, DIST), getAdvancedCache(cacheManagers.get(1), DIST),
+            rw(fmapD1));
+   }
+
+   /**
+    * The version of the entries written through the Cache API is visible to the functional API as well, so that
+    * they can be replaced based on the version too.
+    */
+   private <K> void doReadWriteForConditionalReplaceOfCacheEntry(Supplier<K> keySupplier,
+         AdvancedCache<K, String> cache, ReadWriteMap<K, String> map) {
+      K key = keySupplier.get();
+      cache.put(key, "one", new EmbeddedMetadata.Builder().version(new NumericVersion(100)).build());
+      ReadWriteEntryView<K, String> rw = await(map.eval(key, new VersionBasedConditionalReplace<>(100)));
+      assertEquals("uno", rw.get());
+      assertEquals(Optional.of(new MetaEntryVersion(new NumericVersion(200))),
+            rw.findMetaParam(MetaEntryVersion.class));
+   }
+
    /**
     * Read-write allows for replace operations to happen based on version
     * comparison, and update version information if replace is versions are
@@ -206,6 +206,31 @@ public void testGetAll() throws Exception {
       assertEquals(0.5f, hitRatio);
    }
 
+   public void testLatencyPercentiles() throws Exception {
+      assertAttributeValue("MaxReadTime", 0);
+      assertAttributeValue("WriteTimeP99", 0);
+
+      for (int i = 0; i < 100; i++) {
+         cache.put("key" + i, "value" + i);
+         cache.get("key" + i);
+      }
+      cache.remove("key0");
+
+      for (String operation : new String[]{"Read", "Write", "Remove"}) {
+         long p50 = (Long) server.getAttribute(mgmtInterceptor, operation + "TimeP50");
+         long p99 = (Long) server.getAttribute(mgmtInterceptor, operation + "TimeP99");
+         long p999 = (Long) server.getAttribute(mgmtInterceptor, operation + "TimeP999");
+         long max = (Long) server.getAttribute(mgmtInterceptor, "Max" + operation + "Time");
+         assert 0 < p50 && p50 <= p99 && p99 <= p999 && p999 <= max : operation + ": " + p50 + ", " + p99 + ", " + p999 + ", " + max;
+      }
+      assertEquals(advanced.getStats().getReadTimePercentile(100),
+            ((Long) server.getAttribute(mgmtInterceptor, "MaxReadTime")).longValue());
+
+      resetStats();
+      assertAttributeValue("MaxReadTime", 0);
+      assertAttributeValue("WriteTimeP99", 0);
+   }
+
    private void assertAttributeValue(String attrName, float expectedValue) throws Exception {
       String receivedVal = server.getAttribute(mgmtInterceptor, attrName).toString();
       assert Float.parseFloat(receivedVal) == expectedValue : "expecting " + expectedValue + " for " + attrName + ", but received " + receivedVal;
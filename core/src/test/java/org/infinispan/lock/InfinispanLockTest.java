@@ -4,11 +4,13 @@
 import static org.testng.AssertJUnit.assertEquals;
 import static org.testng.AssertJUnit.assertFalse;
 import static org.testng.AssertJUnit.assertNull;
+import static org.testng.AssertJUnit.assertSame;
 import static org.testng.AssertJUnit.assertTrue;
 import static org.testng.AssertJUnit.fail;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
@@ -224,6 +226,41 @@ public void testCancel() throws InterruptedException {
       assertFalse(lock.isLocked());
    }
 
+   public void testUncontended() throws InterruptedException {
+      final String lockOwner1 = "LO1";
+      final String lockOwner2 = "LO2";
+      final List<LockState> events = new ArrayList<>();
+
+      final InfinispanLock lock = new InfinispanLock(commonPool(), AbstractCacheTest.TIME_SERVICE);
+      final ExtendedLockPromise lockPromise1 = lock.acquire(lockOwner1, 0, TimeUnit.MILLISECONDS);
+
+      //acquired immediately, without waiting
+      assertTrue(lockPromise1.isAvailable());
+      assertTrue(lockPromise1.toInvocationStage().isDone());
+      lockPromise1.addListener(events::add);
+      assertEquals(Collections.singletonList(LockState.ACQUIRED), events);
+      assertEquals(lockOwner1, lock.getLockOwner());
+      assertTrue(lock.containsLockOwner(lockOwner1));
+      assertSame(lockPromise1, lock.acquire(lockOwner1, 0, TimeUnit.MILLISECONDS));
+
+      //the second owner has to wait
+      final ExtendedLockPromise lockPromise2 = lock.acquire(lockOwner2, 1, TimeUnit.DAYS);
+      assertFalse(lockPromise2.isAvailable());
+      lock.release(lockOwner1);
+      assertTrue(lockPromise2.isAvailable());
+      lockPromise2.lock();
+      assertEquals(lockOwner2, lock.getLockOwner());
+
+      //and the lock is uncontended again after it is released
+      lock.release(lockOwner2);
+      assertFalse(lock.isLocked());
+      assertTrue(lock.acquire(lockOwner1, 0, TimeUnit.MILLISECONDS).isAvailable());
+      assertEquals(lockOwner1, lock.getLockOwner());
+      lock.release(lockOwner1);
+      assertFalse(lock.isLocked());
+      assertFalse(lock.containsLockOwner(lockOwner1));
+   }
+
    public void testSingleCounter() throws ExecutionException, InterruptedException {
       final NotThreadSafeCounter counter = new NotThreadSafeCounter();
       final InfinispanLock counterLock = new InfinispanLock(commonPool(), AbstractCacheTest.TIME_SERVICE);
@@ -511,6 +511,33 @@ public void testIsMarshallableJBossExternalizeAnnotation() throws Exception {
       assertTrue(marshaller.isMarshallable(pojo));
    }
 
+   public void testBuffersAreNotSharedBetweenCalls() throws Exception {
+      org.infinispan.commons.io.ByteBuffer first = marshaller.objectToBuffer("first");
+      byte[] second = marshaller.objectToByteBuffer("second");
+      org.infinispan.commons.io.ByteBuffer third = marshaller.objectToBuffer("third");
+      assertEquals("first", marshaller.objectFromByteBuffer(first.getBuf(), first.getOffset(), first.getLength()));
+      assertEquals("second", marshaller.objectFromByteBuffer(second));
+      assertEquals("third", marshaller.objectFromByteBuffer(third.getBuf(), third.getOffset(), third.getLength()));
+   }
+
+   public void testMarshallingLargerThanPooledBuffer() throws Exception {
+      byte[] large = new byte[200 * 1024];
+      Arrays.fill(large, (byte) 7);
+      for (int i = 0; i < 3; i++) {
+         assertArrayEquals(large, (byte[]) marshaller.objectFromByteBuffer(marshaller.objectToByteBuffer(large)));
+         marshallAndAssertEquality("small");
+      }
+   }
+
+   public void testMarshallingAfterFailure() throws Exception {
+      try {
+         marshaller.objectToByteBuffer(Collections.singletonList(new Object()));
+      } catch (NotSerializableException e) {
+         // expected
+      }
+      marshallAndAssertEquality(Collections.singletonList("k"));
+   }
+
    public void testListArray() throws Exception {
       List<Integer>[] numbers = new List[]{Arrays.asList(1), Arrays.asList(2)};
       marshallAndAssertArrayEquality(numbers);
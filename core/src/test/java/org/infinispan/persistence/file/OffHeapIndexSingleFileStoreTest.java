@@ -0,0 +1,82 @@
+package org.infinispan.persistence.file;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertNull;
+
+import org.infinispan.commons.CacheConfigurationException;
+import org.infinispan.commons.util.Util;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.configuration.cache.SingleFileStoreConfigurationBuilder;
+import org.infinispan.persistence.BaseStoreTest;
+import org.infinispan.persistence.spi.AdvancedLoadWriteStore;
+import org.infinispan.test.TestingUtil;
+import org.infinispan.test.fwk.TestCacheManagerFactory;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+/**
+ * Low level single-file cache store tests, with the index kept off-heap.
+ *
+ * @since 9.2
+ */
+@Test(groups = "unit", testName = "persistence.file.OffHeapIndexSingleFileStoreTest")
+public class OffHeapIndexSingleFileStoreTest extends BaseStoreTest {
+
+   private String tmpDirectory;
+
+   @BeforeClass(alwaysRun = true)
+   protected void setUpTempDir() {
+      tmpDirectory = TestingUtil.tmpDirectory(this.getClass());
+   }
+
+   @AfterClass(alwaysRun = true)
+   protected void clearTempDir() {
+      Util.recursiveFileRemove(tmpDirectory);
+   }
+
+   @Override
+   protected AdvancedLoadWriteStore createStore() throws Exception {
+      clearTempDir();
+      SingleFileStore store = new SingleFileStore();
+      ConfigurationBuilder configurationBuilder = TestCacheManagerFactory.getDefaultCacheConfiguration(false);
+      configurationBuilder
+            .persistence()
+               .addStore(SingleFileStoreConfigurationBuilder.class)
+                  .location(this.tmpDirectory)
+                  .offHeapIndex(true);
+      store.init(createContext(configurationBuilder.build()));
+      return store;
+   }
+
+   public void testManyEntriesSurviveRestart() {
+      // enough entries to grow the index segments
+      int count = 100_000;
+      for (int i = 0; i < count; i++) {
+         cl.write(marshalledEntry(internalCacheEntry("k" + i, "v" + i, -1)));
+      }
+      for (int i = 0; i < count; i += 2) {
+         cl.delete("k" + i);
+      }
+      assertEquals(count / 2, cl.size());
+
+      cl.stop();
+      cl.start();
+
+      assertEquals(count / 2, cl.size());
+      for (int i = 0; i < count; i++) {
+         if (i % 2 == 0) {
+            assertNull(cl.load("k" + i));
+         } else {
+            assertEquals("v" + i, unwrap(cl.load("k" + i).getValue()));
+         }
+      }
+   }
+
+   @Test(expectedExceptions = CacheConfigurationException.class)
+   public void testMaxEntriesNotAllowed() {
+      ConfigurationBuilder builder = new ConfigurationBuilder();
+      builder.persistence().addStore(SingleFileStoreConfigurationBuilder.class).offHeapIndex(true).maxEntries(10);
+      builder.build();
+   }
+}
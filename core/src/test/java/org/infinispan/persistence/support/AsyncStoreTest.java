@@ -7,6 +7,7 @@
 import static org.testng.AssertJUnit.assertFalse;
 import static org.testng.AssertJUnit.assertNotNull;
 import static org.testng.AssertJUnit.assertNull;
+import static org.testng.AssertJUnit.assertTrue;
 import static org.testng.AssertJUnit.fail;
 
 import java.lang.reflect.Method;
@@ -212,6 +213,23 @@ public void testMultiplePutsOnSameKey() throws Exception {
       doTestSameKeyRemove(key);
    }
 
+   @Test(timeOut=30000)
+   public void testHotKeyWritesAreCoalesced() throws Exception {
+      TestResourceTracker.testThreadStarted(this);
+      createStore(true);
+
+      final int number = 100;
+      String key = "testHotKeyWritesAreCoalesced-k";
+      String value = "testHotKeyWritesAreCoalesced-v-";
+      for (int i = 0; i < number; i++) {
+         writer.write(new MarshalledEntryImpl(key, value + i, null, marshaller()));
+      }
+      eventually(() -> writer.getQueueDepth() == 0);
+      // The writes made while the store was busy only reached it once
+      assertTrue(writer.getCoalescingRatio() > 0.5);
+      assertTrue(writer.getAverageFlushLatency() > 0);
+   }
+
    @Test(timeOut=30000)
    public void testRestrictionOnAddingToAsyncQueue() throws Exception {
       TestResourceTracker.testThreadStarted(this);
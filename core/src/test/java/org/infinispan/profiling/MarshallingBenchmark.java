@@ -0,0 +1,111 @@
+package org.infinispan.profiling;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.infinispan.commands.CommandsFactory;
+import org.infinispan.commons.marshall.StreamingMarshaller;
+import org.infinispan.commons.util.EnumUtil;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.manager.DefaultCacheManager;
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.metadata.EmbeddedMetadata;
+import org.infinispan.metadata.Metadata;
+import org.infinispan.remoting.responses.SuccessfulResponse;
+import org.infinispan.test.TestingUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.testng.annotations.Test;
+
+/**
+ * Measures the throughput and, through the GC profiler, the allocation rate per operation ({@code gc.alloc.rate.norm})
+ * of marshalling the commands and responses sent most often between the nodes, as the transport does.
+ */
+@Test(groups = "profiling", testName = "profiling.MarshallingBenchmark")
+public class MarshallingBenchmark {
+
+   private static final int MEASUREMENT_ITERATIONS_COUNT = 5;
+   private static final int WARMUP_ITERATIONS_COUNT = 5;
+
+   public void performMarshallingTest() throws Exception {
+      Options opt = new OptionsBuilder()
+            .include(this.getClass().getName() + ".*")
+            .mode(Mode.Throughput)
+            .timeUnit(TimeUnit.MILLISECONDS)
+            .warmupIterations(WARMUP_ITERATIONS_COUNT)
+            .measurementIterations(MEASUREMENT_ITERATIONS_COUNT)
+            .addProfiler(GCProfiler.class)
+            .forks(1)
+            .shouldFailOnError(true)
+            .build();
+
+      new Runner(opt).run();
+   }
+
+   @State(Scope.Thread)
+   public static class BenchmarkState {
+      @Param({"PutKeyValueCommand", "GetKeyValueCommand", "RemoveCommand", "PutMapCommand", "SuccessfulResponse"})
+      private String type;
+
+      private EmbeddedCacheManager cacheManager;
+      private StreamingMarshaller marshaller;
+      private Object object;
+
+      @Setup
+      public void setup() {
+         cacheManager = new DefaultCacheManager(new ConfigurationBuilder().build());
+         marshaller = TestingUtil.extractGlobalMarshaller(cacheManager);
+         CommandsFactory commandsFactory = TestingUtil.extractCommandsFactory(cacheManager.getCache());
+         Metadata metadata = new EmbeddedMetadata.Builder().lifespan(1, TimeUnit.MINUTES).build();
+         byte[] value = new byte[256];
+         switch (type) {
+            case "PutKeyValueCommand":
+               object = commandsFactory.buildPutKeyValueCommand("key", value, metadata, EnumUtil.EMPTY_BIT_SET);
+               break;
+            case "GetKeyValueCommand":
+               object = commandsFactory.buildGetKeyValueCommand("key", EnumUtil.EMPTY_BIT_SET);
+               break;
+            case "RemoveCommand":
+               object = commandsFactory.buildRemoveCommand("key", null, EnumUtil.EMPTY_BIT_SET);
+               break;
+            case "PutMapCommand":
+               Map<String, byte[]> map = new HashMap<>();
+               for (int i = 0; i < 16; ++i) {
+                  map.put("key" + i, value);
+               }
+               object = commandsFactory.buildPutMapCommand(map, metadata, EnumUtil.EMPTY_BIT_SET);
+               break;
+            case "SuccessfulResponse":
+               object = SuccessfulResponse.create(value);
+               break;
+            default:
+               throw new IllegalArgumentException(type);
+         }
+      }
+
+      @TearDown
+      public void tearDown() {
+         cacheManager.stop();
+      }
+
+      @Benchmark
+      public Object measure_objectToBuffer() throws Exception {
+         return marshaller.objectToBuffer(object);
+      }
+
+      @Benchmark
+      public Object measure_objectToByteBuffer() throws Exception {
+         return marshaller.objectToByteBuffer(object);
+      }
+   }
+}
@@ -0,0 +1,101 @@
+package org.infinispan.profiling;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.infinispan.commons.marshall.WrappedByteArray;
+import org.infinispan.commons.marshall.WrappedBytes;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.configuration.cache.StorageType;
+import org.infinispan.container.DataContainer;
+import org.infinispan.eviction.EvictionType;
+import org.infinispan.manager.DefaultCacheManager;
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.metadata.EmbeddedMetadata;
+import org.infinispan.metadata.Metadata;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.testng.annotations.Test;
+
+/**
+ * Measures the throughput of reads (which reorder the LRU) and of writes (which evict) on a bounded off-heap data
+ * container with 1 to 64 threads. The container is used directly so that the interceptor stack and marshalling don't
+ * hide the cost of the eviction bookkeeping.
+ */
+@Test(groups = "profiling", testName = "profiling.OffHeapEvictionBenchmark")
+public class OffHeapEvictionBenchmark {
+
+   private static final int[] THREAD_COUNTS = {1, 2, 4, 8, 16, 32, 64};
+   private static final int MEASUREMENT_ITERATIONS_COUNT = 5;
+   private static final int WARMUP_ITERATIONS_COUNT = 5;
+
+   public void performOffHeapEvictionTest() throws Exception {
+      for (int threads : THREAD_COUNTS) {
+         Options opt = new OptionsBuilder()
+               .include(this.getClass().getName() + ".*")
+               .mode(Mode.Throughput)
+               .timeUnit(TimeUnit.MILLISECONDS)
+               .warmupIterations(WARMUP_ITERATIONS_COUNT)
+               .measurementIterations(MEASUREMENT_ITERATIONS_COUNT)
+               .threads(threads)
+               .forks(1)
+               .shouldFailOnError(true)
+               .shouldDoGC(true)
+               .build();
+
+         new Runner(opt).run();
+      }
+   }
+
+   @State(Scope.Benchmark)
+   public static class BenchmarkState {
+      private static final int MAX_ENTRIES = 100_000;
+      // Writes go to a key space twice as large as the container so half of them evict
+      private static final int KEY_SPACE = MAX_ENTRIES * 2;
+
+      private EmbeddedCacheManager cacheManager;
+      private DataContainer<WrappedBytes, WrappedBytes> container;
+      private WrappedBytes[] keys;
+      private WrappedBytes value;
+      private Metadata metadata;
+
+      @Setup
+      public void setup() {
+         ConfigurationBuilder builder = new ConfigurationBuilder();
+         builder.memory().storageType(StorageType.OFF_HEAP).evictionType(EvictionType.COUNT).size(MAX_ENTRIES);
+         cacheManager = new DefaultCacheManager(builder.build());
+         container = (DataContainer) cacheManager.getCache().getAdvancedCache().getDataContainer();
+         keys = new WrappedBytes[KEY_SPACE];
+         for (int i = 0; i < KEY_SPACE; ++i) {
+            keys[i] = new WrappedByteArray(("key-" + i).getBytes());
+         }
+         value = new WrappedByteArray(new byte[64]);
+         metadata = new EmbeddedMetadata.Builder().build();
+         for (int i = 0; i < MAX_ENTRIES; ++i) {
+            container.put(keys[i], value, metadata);
+         }
+      }
+
+      @TearDown
+      public void tearDown() {
+         cacheManager.stop();
+      }
+
+      @Benchmark
+      public Object measure_get() {
+         return container.get(keys[ThreadLocalRandom.current().nextInt(KEY_SPACE)]);
+      }
+
+      @Benchmark
+      public void measure_put() {
+         container.put(keys[ThreadLocalRandom.current().nextInt(KEY_SPACE)], value, metadata);
+      }
+   }
+}
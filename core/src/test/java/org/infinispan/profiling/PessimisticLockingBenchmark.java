@@ -0,0 +1,108 @@
+package org.infinispan.profiling;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import javax.transaction.TransactionManager;
+
+import org.infinispan.AdvancedCache;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.manager.DefaultCacheManager;
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.transaction.LockingMode;
+import org.infinispan.transaction.TransactionMode;
+import org.infinispan.transaction.lookup.EmbeddedTransactionManagerLookup;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.testng.annotations.Test;
+
+/**
+ * Measures the throughput of writes to a local cache with per-key locks, both in pessimistic transactions and without
+ * transactions. The keys are picked at random from a large key space, so most lock acquisitions are uncontended and
+ * the cost of the lock bookkeeping is a large part of each write. Run it with {@code -prof gc} to see the allocations.
+ */
+@Test(groups = "profiling", testName = "profiling.PessimisticLockingBenchmark")
+public class PessimisticLockingBenchmark {
+
+   private static final int[] THREAD_COUNTS = {1, 4, 16};
+   private static final int MEASUREMENT_ITERATIONS_COUNT = 5;
+   private static final int WARMUP_ITERATIONS_COUNT = 5;
+
+   public void performPessimisticLockingTest() throws Exception {
+      for (int threads : THREAD_COUNTS) {
+         Options opt = new OptionsBuilder()
+               .include(this.getClass().getName() + ".*")
+               .mode(Mode.Throughput)
+               .timeUnit(TimeUnit.MILLISECONDS)
+               .warmupIterations(WARMUP_ITERATIONS_COUNT)
+               .measurementIterations(MEASUREMENT_ITERATIONS_COUNT)
+               .threads(threads)
+               .forks(1)
+               .shouldFailOnError(true)
+               .shouldDoGC(true)
+               .build();
+
+         new Runner(opt).run();
+      }
+   }
+
+   @State(Scope.Benchmark)
+   public static class BenchmarkState {
+      private static final int KEY_SPACE = 100_000;
+
+      private EmbeddedCacheManager cacheManager;
+      private AdvancedCache<String, String> txCache;
+      private AdvancedCache<String, String> nonTxCache;
+      private TransactionManager transactionManager;
+      private String[] keys;
+
+      @Setup
+      public void setup() {
+         cacheManager = new DefaultCacheManager();
+         ConfigurationBuilder txBuilder = new ConfigurationBuilder();
+         txBuilder.transaction().transactionMode(TransactionMode.TRANSACTIONAL)
+               .lockingMode(LockingMode.PESSIMISTIC)
+               .transactionManagerLookup(new EmbeddedTransactionManagerLookup());
+         cacheManager.defineConfiguration("tx", txBuilder.build());
+         cacheManager.defineConfiguration("non-tx", new ConfigurationBuilder().build());
+         txCache = cacheManager.<String, String>getCache("tx").getAdvancedCache();
+         nonTxCache = cacheManager.<String, String>getCache("non-tx").getAdvancedCache();
+         transactionManager = txCache.getTransactionManager();
+         keys = new String[KEY_SPACE];
+         for (int i = 0; i < KEY_SPACE; ++i) {
+            keys[i] = "key-" + i;
+         }
+      }
+
+      @TearDown
+      public void tearDown() {
+         cacheManager.stop();
+      }
+
+      @Benchmark
+      public Object measure_pessimistic_tx_put() throws Exception {
+         transactionManager.begin();
+         try {
+            return txCache.put(randomKey(), "value");
+         } finally {
+            transactionManager.commit();
+         }
+      }
+
+      @Benchmark
+      public Object measure_non_tx_put() {
+         return nonTxCache.put(randomKey(), "value");
+      }
+
+      private String randomKey() {
+         return keys[ThreadLocalRandom.current().nextInt(KEY_SPACE)];
+      }
+   }
+}
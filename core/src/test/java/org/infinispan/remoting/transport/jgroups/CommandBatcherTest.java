@@ -0,0 +1,51 @@
+package org.infinispan.remoting.transport.jgroups;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import org.infinispan.commons.io.ByteBufferImpl;
+import org.infinispan.remoting.inboundhandler.DeliverOrder;
+import org.infinispan.remoting.transport.Address;
+import org.infinispan.test.AbstractInfinispanTest;
+import org.infinispan.util.DefaultTimeService;
+import org.jgroups.util.UUID;
+import org.testng.annotations.Test;
+
+/**
+ * Tests that the batches of the members that left the cluster are not sent.
+ *
+ * @since 9.2
+ */
+@Test(groups = "unit", testName = "remoting.transport.jgroups.CommandBatcherTest")
+public class CommandBatcherTest extends AbstractInfinispanTest {
+   private static final long MAX_DELAY_MILLIS = 100;
+
+   public void testScheduledBatchOfLeaverIsNotSent() throws InterruptedException {
+      JGroupsTransport transport = mock(JGroupsTransport.class);
+      CommandBatcher batcher = new CommandBatcher(transport, new DefaultTimeService(), MAX_DELAY_MILLIS,
+                                                  TimeUnit.MILLISECONDS, 4096, "test");
+      Address leaver = new JGroupsAddress(UUID.randomUUID());
+      Address member = new JGroupsAddress(UUID.randomUUID());
+      try {
+         batcher.send(leaver, new ByteBufferImpl(new byte[16], 0, 16), DeliverOrder.NONE);
+         batcher.send(member, new ByteBufferImpl(new byte[16], 0, 16), DeliverOrder.NONE);
+         batcher.retainMembers(Collections.singleton(member));
+
+         verify(transport, timeout(10 * MAX_DELAY_MILLIS))
+               .sendBatch(eq(member), any(byte[].class), anyInt(), eq(1), eq(DeliverOrder.NONE));
+         // The batch of the leaver had the same deadline
+         Thread.sleep(MAX_DELAY_MILLIS);
+         verify(transport, never()).sendBatch(eq(leaver), any(byte[].class), anyInt(), anyInt(), any(DeliverOrder.class));
+      } finally {
+         batcher.stop();
+      }
+   }
+}
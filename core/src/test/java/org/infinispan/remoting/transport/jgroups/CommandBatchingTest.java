@@ -0,0 +1,88 @@
+package org.infinispan.remoting.transport.jgroups;
+
+import static org.testng.AssertJUnit.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Future;
+
+import org.infinispan.Cache;
+import org.infinispan.configuration.cache.CacheMode;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.configuration.global.GlobalConfigurationBuilder;
+import org.infinispan.container.entries.InternalCacheEntry;
+import org.infinispan.test.MultipleCacheManagersTest;
+import org.testng.annotations.Test;
+
+/**
+ * Tests that the one-way commands are delivered, and in order when needed, when the transport batches them.
+ *
+ * @since 9.2
+ */
+@Test(groups = "functional", testName = "remoting.transport.jgroups.CommandBatchingTest")
+public class CommandBatchingTest extends MultipleCacheManagersTest {
+   private static final String DIST_ASYNC = "distAsync";
+
+   @Override
+   protected void createCacheManagers() throws Throwable {
+      ConfigurationBuilder distSync = new ConfigurationBuilder();
+      distSync.clustering().cacheMode(CacheMode.DIST_SYNC).hash().numOwners(2);
+      ConfigurationBuilder distAsync = new ConfigurationBuilder();
+      distAsync.clustering().cacheMode(CacheMode.DIST_ASYNC).hash().numOwners(3);
+      for (int i = 0; i < 3; i++) {
+         GlobalConfigurationBuilder global = GlobalConfigurationBuilder.defaultClusteredBuilder();
+         global.transport()
+               .addProperty(JGroupsTransport.COMMAND_BATCHING, "true")
+               .addProperty(JGroupsTransport.COMMAND_BATCH_MAX_DELAY, "200")
+               .addProperty(JGroupsTransport.COMMAND_BATCH_MAX_SIZE, "4096");
+         addClusterEnabledCacheManager(global, distSync);
+         manager(i).defineConfiguration(DIST_ASYNC, distAsync.build());
+      }
+      waitForClusterToForm();
+      waitForClusterToForm(DIST_ASYNC);
+   }
+
+   public void testConcurrentWrites() throws Exception {
+      int threads = 6;
+      int keysPerThread = 300;
+      List<Future<Void>> futures = new ArrayList<>();
+      for (int t = 0; t < threads; t++) {
+         Cache<String, String> cache = cache(t % 3);
+         String prefix = "t" + t + "-";
+         futures.add(fork(() -> {
+            for (int i = 0; i < keysPerThread; i++) {
+               cache.put(prefix + i, "v" + i);
+            }
+            return null;
+         }));
+      }
+      for (Future<Void> future : futures) {
+         future.get();
+      }
+
+      for (Cache<String, String> cache : this.<String, String>caches()) {
+         for (int t = 0; t < threads; t++) {
+            for (int i = 0; i < keysPerThread; i++) {
+               assertEquals("v" + i, cache.get("t" + t + "-" + i));
+            }
+         }
+      }
+   }
+
+   public void testOrderedCommandsKeepTheirOrder() {
+      Cache<Object, Integer> primary = cache(0, DIST_ASYNC);
+      Object key = getKeyForCache(primary);
+      int count = 1000;
+      for (int i = 0; i < count; i++) {
+         primary.put(key, i);
+      }
+
+      for (int i = 1; i < 3; i++) {
+         Cache<Object, Integer> backup = cache(i, DIST_ASYNC);
+         eventuallyEquals(count - 1, () -> {
+            InternalCacheEntry<Object, Integer> entry = backup.getAdvancedCache().getDataContainer().get(key);
+            return entry != null ? entry.getValue() : null;
+         });
+      }
+   }
+}
@@ -0,0 +1,110 @@
+package org.infinispan.statetransfer;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyBoolean;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.AssertJUnit.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.infinispan.commands.CommandsFactory;
+import org.infinispan.commands.ReplicableCommand;
+import org.infinispan.container.DataContainer;
+import org.infinispan.container.InternalEntryFactory;
+import org.infinispan.container.entries.ImmortalCacheEntry;
+import org.infinispan.container.entries.InternalCacheEntry;
+import org.infinispan.distribution.TestAddress;
+import org.infinispan.distribution.ch.KeyPartitioner;
+import org.infinispan.persistence.manager.PersistenceManager;
+import org.infinispan.remoting.inboundhandler.DeliverOrder;
+import org.infinispan.remoting.responses.Response;
+import org.infinispan.remoting.rpc.ResponseMode;
+import org.infinispan.remoting.rpc.RpcManager;
+import org.infinispan.remoting.rpc.RpcOptions;
+import org.infinispan.remoting.rpc.RpcOptionsBuilder;
+import org.infinispan.remoting.transport.Address;
+import org.infinispan.test.AbstractInfinispanTest;
+import org.testng.annotations.Test;
+
+/**
+ * Tests that the outbound transfer keeps a bounded number of chunks in flight and only sends the last chunk once the
+ * destination applied all the others.
+ *
+ * @since 9.2
+ */
+@Test(groups = "unit", testName = "statetransfer.OutboundTransferTaskTest")
+public class OutboundTransferTaskTest extends AbstractInfinispanTest {
+   private static final TestAddress A = new TestAddress(0, "A");
+   private static final TestAddress B = new TestAddress(1, "B");
+   private static final int CHUNK_SIZE = 10;
+
+   public void testChunksArePipelined() throws Exception {
+      int chunks = OutboundTransferTask.MAX_IN_FLIGHT_CHUNKS * 2;
+      List<InternalCacheEntry> entries = new ArrayList<>();
+      // One more entry than the full chunks, so the last chunk isn't empty
+      for (int i = 0; i < chunks * CHUNK_SIZE + 1; ++i) {
+         entries.add(new ImmortalCacheEntry("k" + i, "v" + i));
+      }
+      DataContainer dataContainer = mock(DataContainer.class);
+      when(dataContainer.iterator()).thenAnswer(invocation -> entries.iterator());
+      KeyPartitioner keyPartitioner = mock(KeyPartitioner.class);
+      when(keyPartitioner.getSegment(any())).thenReturn(0);
+      CommandsFactory commandsFactory = mock(CommandsFactory.class);
+      when(commandsFactory.buildStateResponseCommand(any(Address.class), anyInt(), any(Collection.class), anyBoolean(),
+            anyBoolean())).thenReturn(mock(StateResponseCommand.class));
+
+      List<CompletableFuture<Map<Address, Response>>> inFlight = Collections.synchronizedList(new ArrayList<>());
+      RpcManager rpcManager = mock(RpcManager.class);
+      when(rpcManager.getAddress()).thenReturn(A);
+      when(rpcManager.getRpcOptionsBuilder(any(ResponseMode.class))).thenAnswer(invocation ->
+            new RpcOptionsBuilder(10000, TimeUnit.MILLISECONDS, (ResponseMode) invocation.getArguments()[0],
+                  DeliverOrder.PER_SENDER));
+      when(rpcManager.invokeRemotelyAsync(any(Collection.class), any(ReplicableCommand.class), any(RpcOptions.class)))
+            .thenAnswer(invocation -> {
+               CompletableFuture<Map<Address, Response>> future = new CompletableFuture<>();
+               inFlight.add(future);
+               return future;
+            });
+
+      OutboundTransferTask task = new OutboundTransferTask(B, Collections.singleton(0), CHUNK_SIZE, 1, keyPartitioner,
+            t -> {}, c -> {}, OutboundTransferTask::defaultMapEntryFromDataContainer,
+            OutboundTransferTask::defaultMapEntryFromStore, dataContainer, mock(PersistenceManager.class), rpcManager,
+            commandsFactory, mock(InternalEntryFactory.class), 10000, "testCache", true, false);
+      Future<Void> future = fork(() -> {
+         task.run();
+         return null;
+      });
+
+      // The task stops sending once all the credits are used
+      eventually(() -> inFlight.size() == OutboundTransferTask.MAX_IN_FLIGHT_CHUNKS);
+      Thread.sleep(100);
+      assertEquals(OutboundTransferTask.MAX_IN_FLIGHT_CHUNKS, inFlight.size());
+
+      // Applying chunks gives the credits back
+      for (int i = 0; i < chunks; ++i) {
+         int sent = i + 1;
+         eventually(() -> inFlight.size() >= sent);
+         verify(rpcManager, never()).invokeRemotely(any(Collection.class), any(ReplicableCommand.class),
+               any(RpcOptions.class));
+         inFlight.get(i).complete(Collections.emptyMap());
+      }
+
+      // The last chunk is sent synchronously once all the others were applied
+      future.get(10, TimeUnit.SECONDS);
+      verify(rpcManager, timeout(10000)).invokeRemotely(any(Collection.class), any(ReplicableCommand.class),
+            any(RpcOptions.class));
+      assertEquals(chunks, inFlight.size());
+   }
+}
@@ -0,0 +1,85 @@
+package org.infinispan.util.concurrent;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+
+import org.infinispan.test.AbstractInfinispanTest;
+import org.testng.annotations.Test;
+
+/**
+ * @since 9.2
+ */
+@Test(groups = "unit", testName = "util.concurrent.StripedHistogramTest")
+public class StripedHistogramTest extends AbstractInfinispanTest {
+
+   public void testEmpty() {
+      StripedHistogram.Snapshot snapshot = new StripedHistogram().snapshot();
+      assertEquals(0, snapshot.getCount());
+      assertEquals(0, snapshot.getMax());
+      assertEquals(0, snapshot.getValueAtPercentile(50));
+      assertEquals(0, snapshot.getValueAtPercentile(100));
+   }
+
+   public void testBuckets() {
+      long previousIndex = -1;
+      for (long value = 0; value < 1L << 20; value++) {
+         int index = StripedHistogram.bucketIndex(value);
+         assertTrue(index == previousIndex || index == previousIndex + 1);
+         long highest = StripedHistogram.highestValueInBucket(index);
+         assertTrue(value <= highest);
+         assertTrue(value + " -> " + highest, highest - value <= value / 32);
+         previousIndex = index;
+      }
+      assertEquals(StripedHistogram.BUCKET_COUNT - 1, StripedHistogram.bucketIndex(Long.MAX_VALUE));
+   }
+
+   public void testPercentiles() {
+      StripedHistogram histogram = new StripedHistogram();
+      for (long i = 1; i <= 10000; i++) {
+         histogram.record(i * 1000);
+      }
+      StripedHistogram.Snapshot snapshot = histogram.snapshot();
+      assertEquals(10000, snapshot.getCount());
+      assertEquals(10_000_000, snapshot.getMax());
+      assertApproximately(5_000_000, snapshot.getValueAtPercentile(50));
+      assertApproximately(9_900_000, snapshot.getValueAtPercentile(99));
+      assertApproximately(9_990_000, snapshot.getValueAtPercentile(99.9));
+      assertEquals(10_000_000, snapshot.getValueAtPercentile(100));
+
+      histogram.record(-1);
+      assertEquals(0, histogram.snapshot().getValueAtPercentile(0));
+
+      histogram.reset();
+      assertEquals(0, histogram.snapshot().getCount());
+      assertEquals(0, histogram.getMax());
+   }
+
+   public void testConcurrentRecord() throws Exception {
+      StripedHistogram histogram = new StripedHistogram();
+      int threads = 4;
+      int valuesPerThread = 100_000;
+      Future<?>[] futures = new Future[threads];
+      for (int t = 0; t < threads; t++) {
+         long offset = t;
+         futures[t] = fork((Callable<Void>) () -> {
+            for (int i = 0; i < valuesPerThread; i++) {
+               histogram.record(i + offset);
+            }
+            return null;
+         });
+      }
+      for (Future<?> future : futures) {
+         future.get();
+      }
+      StripedHistogram.Snapshot snapshot = histogram.snapshot();
+      assertEquals(threads * valuesPerThread, snapshot.getCount());
+      assertEquals(valuesPerThread - 1 + threads - 1, snapshot.getMax());
+   }
+
+   private void assertApproximately(long expected, long actual) {
+      assertTrue("Expected " + expected + " but got " + actual, expected <= actual && actual <= expected * 33 / 32);
+   }
+}
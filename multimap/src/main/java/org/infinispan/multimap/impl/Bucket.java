@@ -0,0 +1,262 @@
+package org.infinispan.multimap.impl;
+
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.Predicate;
+
+import org.infinispan.commons.marshall.AdvancedExternalizer;
+
+/**
+ * Immutable set of the values of a multimap key, split in small chunks by the hash of the values.
+ * <p>
+ * Adding or removing a value only copies the chunk the value belongs to and the array of chunks, instead of the whole
+ * collection, so updating a key with a lot of values doesn't cost as much as rewriting all of them. The chunks are
+ * never modified once the bucket is created, so a bucket can be stored in the data container and handed to readers
+ * without copying it.
+ * <p>
+ * The number of chunks doubles when one of them grows over {@link #MAX_CHUNK_SIZE} values.
+ *
+ * @since 9.2
+ */
+public final class Bucket<V> extends AbstractSet<V> {
+
+   public static final AdvancedExternalizer<Bucket> EXTERNALIZER = new Externalizer();
+   static final int MAX_CHUNK_SIZE = 32;
+   // Stop splitting chunks if the values don't spread, e.g. they all have the same hash code
+   static final int MAX_CHUNKS = 1 << 16;
+   private static final Object[] EMPTY_CHUNK = new Object[0];
+   private static final Bucket EMPTY = new Bucket<>(new Object[][]{EMPTY_CHUNK}, 0);
+
+   private final Object[][] chunks;
+   private final int size;
+
+   private Bucket(Object[][] chunks, int size) {
+      this.chunks = chunks;
+      this.size = size;
+   }
+
+   @SuppressWarnings("unchecked")
+   public static <V> Bucket<V> empty() {
+      return EMPTY;
+   }
+
+   /**
+    * @return the values as a bucket, without copying them if they already are one
+    */
+   public static <V> Bucket<V> of(Collection<? extends V> values) {
+      if (values instanceof Bucket) {
+         return (Bucket<V>) values;
+      }
+      Collection<? extends V> distinct = values instanceof Set ? values : new HashSet<>(values);
+      return new Bucket<>(distribute(distinct.toArray(), chunkCountFor(distinct.size())), distinct.size());
+   }
+
+   private static int chunkCountFor(int size) {
+      int chunkCount = 1;
+      while (chunkCount < MAX_CHUNKS && chunkCount * MAX_CHUNK_SIZE < size) {
+         chunkCount <<= 1;
+      }
+      return chunkCount;
+   }
+
+   private static int spread(int h) {
+      return h ^ (h >>> 16);
+   }
+
+   private static int indexOf(Object[] chunk, Object value) {
+      for (int i = 0; i < chunk.length; ++i) {
+         if (chunk[i].equals(value)) {
+            return i;
+         }
+      }
+      return -1;
+   }
+
+   private int chunkIndex(Object value) {
+      return spread(value.hashCode()) & (chunks.length - 1);
+   }
+
+   /**
+    * @return a bucket with the value added, or this bucket if it already contains the value
+    */
+   public Bucket<V> withValue(V value) {
+      int index = chunkIndex(value);
+      Object[] chunk = chunks[index];
+      if (indexOf(chunk, value) >= 0) {
+         return this;
+      }
+      Object[] newChunk = Arrays.copyOf(chunk, chunk.length + 1);
+      newChunk[chunk.length] = value;
+      Object[][] newChunks = chunks.clone();
+      newChunks[index] = newChunk;
+      if (newChunk.length > MAX_CHUNK_SIZE && chunks.length < MAX_CHUNKS) {
+         newChunks = split(newChunks);
+      }
+      return new Bucket<>(newChunks, size + 1);
+   }
+
+   /**
+    * @return a bucket without the value, or this bucket if it doesn't contain the value
+    */
+   public Bucket<V> withoutValue(V value) {
+      int index = chunkIndex(value);
+      Object[] chunk = chunks[index];
+      int position = indexOf(chunk, value);
+      if (position < 0) {
+         return this;
+      }
+      Object[] newChunk = new Object[chunk.length - 1];
+      System.arraycopy(chunk, 0, newChunk, 0, position);
+      System.arraycopy(chunk, position + 1, newChunk, position, newChunk.length - position);
+      Object[][] newChunks = chunks.clone();
+      newChunks[index] = newChunk;
+      return new Bucket<>(newChunks, size - 1);
+   }
+
+   /**
+    * @return a bucket without the values matching the predicate, or this bucket if none of them match
+    */
+   public Bucket<V> withoutValues(Predicate<? super V> predicate) {
+      Object[][] newChunks = null;
+      int newSize = size;
+      for (int i = 0; i < chunks.length; ++i) {
+         Object[] chunk = chunks[i];
+         Object[] newChunk = null;
+         int kept = 0;
+         for (int j = 0; j < chunk.length; ++j) {
+            if (predicate.test((V) chunk[j])) {
+               if (newChunk == null) {
+                  newChunk = new Object[chunk.length];
+                  System.arraycopy(chunk, 0, newChunk, 0, j);
+                  kept = j;
+               }
+            } else if (newChunk != null) {
+               newChunk[kept++] = chunk[j];
+            }
+         }
+         if (newChunk != null) {
+            if (newChunks == null) {
+               newChunks = chunks.clone();
+            }
+            newChunks[i] = Arrays.copyOf(newChunk, kept);
+            newSize -= chunk.length - kept;
+         }
+      }
+      return newChunks == null ? this : new Bucket<>(newChunks, newSize);
+   }
+
+   private static Object[][] split(Object[][] chunks) {
+      int size = 0;
+      for (Object[] chunk : chunks) {
+         size += chunk.length;
+      }
+      Object[] values = new Object[size];
+      int position = 0;
+      for (Object[] chunk : chunks) {
+         System.arraycopy(chunk, 0, values, position, chunk.length);
+         position += chunk.length;
+      }
+      return distribute(values, chunks.length << 1);
+   }
+
+   private static Object[][] distribute(Object[] values, int chunkCount) {
+      int[] counts = new int[chunkCount];
+      for (Object value : values) {
+         counts[spread(value.hashCode()) & (chunkCount - 1)]++;
+      }
+      Object[][] chunks = new Object[chunkCount][];
+      for (int i = 0; i < chunkCount; ++i) {
+         chunks[i] = counts[i] == 0 ? EMPTY_CHUNK : new Object[counts[i]];
+         counts[i] = 0;
+      }
+      for (Object value : values) {
+         int index = spread(value.hashCode()) & (chunkCount - 1);
+         chunks[index][counts[index]++] = value;
+      }
+      return chunks;
+   }
+
+   @Override
+   public boolean contains(Object o) {
+      return o != null && indexOf(chunks[chunkIndex(o)], o) >= 0;
+   }
+
+   @Override
+   public int size() {
+      return size;
+   }
+
+   /**
+    * Iterates over the values chunk by chunk, without copying them.
+    */
+   @Override
+   public Iterator<V> iterator() {
+      return new Iterator<V>() {
+         private int chunk;
+         private int position;
+
+         @Override
+         public boolean hasNext() {
+            while (chunk < chunks.length) {
+               if (position < chunks[chunk].length) {
+                  return true;
+               }
+               chunk++;
+               position = 0;
+            }
+            return false;
+         }
+
+         @Override
+         public V next() {
+            if (!hasNext()) {
+               throw new NoSuchElementException();
+            }
+            return (V) chunks[chunk][position++];
+         }
+      };
+   }
+
+   private static class Externalizer implements AdvancedExternalizer<Bucket> {
+
+      @Override
+      public Set<Class<? extends Bucket>> getTypeClasses() {
+         return Collections.singleton(Bucket.class);
+      }
+
+      @Override
+      public Integer getId() {
+         return ExternalizerIds.BUCKET;
+      }
+
+      @Override
+      public void writeObject(ObjectOutput output, Bucket bucket) throws IOException {
+         output.writeInt(bucket.size);
+         for (Object[] chunk : bucket.chunks) {
+            for (Object value : chunk) {
+               output.writeObject(value);
+            }
+         }
+      }
+
+      @Override
+      public Bucket readObject(ObjectInput input) throws IOException, ClassNotFoundException {
+         // Hash codes may be different in another JVM, so the values are distributed again
+         int size = input.readInt();
+         Object[] values = new Object[size];
+         for (int i = 0; i < size; ++i) {
+            values[i] = input.readObject();
+         }
+         return new Bucket<>(distribute(values, chunkCountFor(size)), size);
+      }
+   }
+}
@@ -7,7 +7,6 @@
 import static org.infinispan.util.concurrent.CompletableFutures.rethrowException;
 
 import java.util.Collection;
-import java.util.HashSet;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import java.util.function.Predicate;
@@ -60,6 +59,9 @@
  *    // prints the value 2. "k" -> ["v1", "v2"]
  * </pre>
  *
+ * <h2>Storage</h2>
+ * The values of a key are stored as an immutable {@link Bucket}, split in small chunks. Adding or removing a value
+ * only copies one chunk, and {@link #get(Object)} returns the stored bucket without copying the values.
  *
  * @author Katia Aresti, karesti@redhat.com
  * @since 9.2
@@ -177,12 +179,8 @@ private boolean isExplicitTxContext() throws SystemException {
 
    private Void removeInternal(Predicate<? super V> p) {
       cache.keySet().stream().forEach((c, key) -> c.computeIfPresent(key, (o, o1) -> {
-         Collection<V> values = (Collection<V>) o1;
-         Collection<V> newValues = new HashSet<>();
-         for (V v : values) {
-            if (!p.test(v))
-               newValues.add(v);
-         }
+         // Only the chunks with matching values are copied
+         Bucket<V> newValues = Bucket.of((Collection<V>) o1).withoutValues(p);
          return newValues.isEmpty() ? null : newValues;
       }));
       return null;
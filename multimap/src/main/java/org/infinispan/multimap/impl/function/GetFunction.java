@@ -27,9 +27,10 @@
 
    @Override
    public Collection<V> apply(EntryView.ReadWriteEntryView<K, Collection<V>> entryView) {
+      // The stored bucket is immutable, the caller gets a copy it can modify
       Optional<Collection<V>> valuesOpt = entryView.find();
       if (valuesOpt.isPresent()) {
-         return new HashSet<>(entryView.find().get());
+         return new HashSet<>(valuesOpt.get());
       } else {
          return Collections.emptySet();
       }
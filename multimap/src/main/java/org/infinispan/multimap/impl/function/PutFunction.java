@@ -5,11 +5,11 @@
 import java.io.ObjectOutput;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashSet;
 import java.util.Set;
 
 import org.infinispan.commons.marshall.AdvancedExternalizer;
 import org.infinispan.functional.EntryView;
+import org.infinispan.multimap.impl.Bucket;
 import org.infinispan.multimap.impl.ExternalizerIds;
 
 /**
@@ -31,10 +31,11 @@ public PutFunction(V value) {
 
    @Override
    public Void apply(EntryView.ReadWriteEntryView<K, Collection<V>> entryView) {
-      Collection<V> newValues = new HashSet<>();
-      newValues.add(value);
-      entryView.find().map(newValues::addAll);
-      entryView.set(newValues);
+      Bucket<V> values = entryView.find().map(Bucket::<V>of).orElse(Bucket.empty());
+      Bucket<V> newValues = values.withValue(value);
+      if (newValues != values) {
+         entryView.set(newValues);
+      }
       return null;
    }
 
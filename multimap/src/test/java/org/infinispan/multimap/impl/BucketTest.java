@@ -0,0 +1,85 @@
+package org.infinispan.multimap.impl;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertFalse;
+import static org.testng.AssertJUnit.assertSame;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.infinispan.test.AbstractInfinispanTest;
+import org.testng.annotations.Test;
+
+/**
+ * @since 9.2
+ */
+@Test(groups = "unit", testName = "multimap.BucketTest")
+public class BucketTest extends AbstractInfinispanTest {
+
+   public void testAddAndRemoveManyValues() {
+      int count = Bucket.MAX_CHUNK_SIZE * 100;
+      Bucket<Integer> bucket = Bucket.empty();
+      Set<Integer> expected = new HashSet<>();
+      for (int i = 0; i < count; ++i) {
+         Bucket<Integer> previous = bucket;
+         bucket = bucket.withValue(i);
+         expected.add(i);
+         assertEquals(i + 1, bucket.size());
+         // Updates never modify the previous bucket
+         assertEquals(i, previous.size());
+         assertFalse(previous.contains(i));
+      }
+      assertEquals(expected, bucket);
+      assertEquals(expected, new HashSet<>(bucket));
+
+      for (int i = 0; i < count; i += 2) {
+         bucket = bucket.withoutValue(i);
+         expected.remove(i);
+      }
+      assertEquals(expected, bucket);
+   }
+
+   public void testNoChangeReturnsSameBucket() {
+      Bucket<String> bucket = Bucket.<String>empty().withValue("a").withValue("b");
+      assertSame(bucket, bucket.withValue("a"));
+      assertSame(bucket, bucket.withoutValue("c"));
+      assertSame(bucket, bucket.withoutValues(v -> v.equals("c")));
+   }
+
+   public void testWithoutValues() {
+      Bucket<Integer> bucket = Bucket.of(Arrays.asList(1, 2, 3, 4, 5, 6, 2));
+      assertEquals(6, bucket.size());
+      bucket = bucket.withoutValues(v -> v % 2 == 0);
+      assertEquals(new HashSet<>(Arrays.asList(1, 3, 5)), bucket);
+   }
+
+   public void testSameHashCodeValues() {
+      Bucket<Colliding> bucket = Bucket.empty();
+      for (int i = 0; i < Bucket.MAX_CHUNK_SIZE * 4; ++i) {
+         bucket = bucket.withValue(new Colliding(i));
+      }
+      assertEquals(Bucket.MAX_CHUNK_SIZE * 4, bucket.size());
+      assertTrue(bucket.contains(new Colliding(0)));
+      assertFalse(bucket.contains(new Colliding(-1)));
+   }
+
+   private static final class Colliding {
+      private final int id;
+
+      Colliding(int id) {
+         this.id = id;
+      }
+
+      @Override
+      public boolean equals(Object o) {
+         return o instanceof Colliding && ((Colliding) o).id == id;
+      }
+
+      @Override
+      public int hashCode() {
+         return 42;
+      }
+   }
+}
@@ -1,10 +1,12 @@
 package org.infinispan.objectfilter.impl.aggregation;
 
+import java.io.Serializable;
+
 /**
  * @author anistor@redhat.com
  * @since 8.2
  */
-public final class Counter {
+public final class Counter implements Serializable {
 
    private long counter;
 
@@ -1,14 +1,17 @@
 package org.infinispan.objectfilter.impl.aggregation;
 
+import java.io.Serializable;
+
 import org.infinispan.objectfilter.impl.ql.AggregationFunction;
 
 /**
- * An accumulator is a stateless object that operates on row data.
+ * An accumulator is a stateless object that operates on row data. It is serializable so that the grouping can be
+ * performed on remote nodes.
  *
  * @author anistor@redhat.com
  * @since 8.0
  */
-public abstract class FieldAccumulator {
+public abstract class FieldAccumulator implements Serializable {
 
    /**
     * Input column.
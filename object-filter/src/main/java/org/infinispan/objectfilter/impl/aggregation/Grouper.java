@@ -1,17 +1,19 @@
 package org.infinispan.objectfilter.impl.aggregation;
 
+import java.io.Serializable;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 
 /**
- * Groups rows by their grouping fields and computes aggregates.
+ * Groups rows by their grouping fields and computes aggregates. Groupers that have processed different sets of rows
+ * can be merged before calling {@link #finish()}, so the rows can be grouped in parallel, or on remote nodes.
  *
  * @author anistor@redhat.com
  * @since 8.0
  */
-public final class Grouper {
+public final class Grouper implements Serializable {
 
    /**
     * The number of columns at the beginning of the row that are used for grouping.
@@ -36,12 +38,15 @@ public final class Grouper {
     */
    private final Object[] globalGroup;
 
-   private final class GroupRowKey {
+   private static final class GroupRowKey implements Serializable {
 
       private final Object[] row;
 
-      GroupRowKey(Object[] row) {
+      private final int noOfGroupingColumns;
+
+      GroupRowKey(Object[] row, int noOfGroupingColumns) {
          this.row = row;
+         this.noOfGroupingColumns = noOfGroupingColumns;
       }
 
       @Override
@@ -115,7 +120,7 @@ public void addRow(Object[] row) {
       }
       if (noOfGroupingColumns > 0) {
          // compute grouping and aggregations
-         GroupRowKey groupRowKey = new GroupRowKey(row);
+         GroupRowKey groupRowKey = new GroupRowKey(row, noOfGroupingColumns);
          Object[] existingGroup = groups.get(groupRowKey);
          if (existingGroup == null) {
             existingGroup = new Object[outRowLength];
@@ -145,6 +150,41 @@ public void addRow(Object[] row) {
       }
    }
 
+   /**
+    * Adds the groups computed by another Grouper having the same grouping columns and accumulators. Neither of them
+    * must be finished.
+    *
+    * @return this Grouper
+    */
+   public Grouper merge(Grouper other) {
+      if (noOfGroupingColumns != other.noOfGroupingColumns || outRowLength != other.outRowLength) {
+         throw new IllegalArgumentException("Groupers are not compatible");
+      }
+      if (groups != null) {
+         for (Object[] otherGroup : other.groups.values()) {
+            GroupRowKey groupRowKey = new GroupRowKey(otherGroup, noOfGroupingColumns);
+            Object[] existingGroup = groups.get(groupRowKey);
+            if (existingGroup == null) {
+               groups.put(groupRowKey, otherGroup);
+            } else if (accumulators != null) {
+               mergeAccumulated(otherGroup, existingGroup);
+            }
+         }
+      } else {
+         mergeAccumulated(other.globalGroup, globalGroup);
+      }
+      return this;
+   }
+
+   /**
+    * Merges the accumulated values of a row, which are in the output columns, unlike the values of an input row.
+    */
+   private void mergeAccumulated(Object[] srcGroup, Object[] accGroup) {
+      for (FieldAccumulator acc : accumulators) {
+         acc.merge(accGroup, srcGroup[acc.outPos]);
+      }
+   }
+
    public Iterator<Object[]> finish() {
       if (groups != null) {
          return new Iterator<Object[]>() {
@@ -1,12 +1,13 @@
 package org.infinispan.objectfilter.impl.util;
 
+import java.io.Serializable;
 import java.util.Comparator;
 
 /**
  * @author anistor@redhat.com
  * @since 7.0
  */
-public class ComparableArrayComparator implements Comparator<Comparable[]> {
+public class ComparableArrayComparator implements Comparator<Comparable[]>, Serializable {
 
    private final boolean[] direction;
 
@@ -0,0 +1,111 @@
+package org.infinispan.objectfilter.impl.aggregation;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import org.infinispan.objectfilter.impl.ql.AggregationFunction;
+import org.junit.Test;
+
+/**
+ * @since 9.2
+ */
+public class GrouperTest {
+
+   private static final Object[][] ROWS = {
+         {"a", 1L, 1.5d},
+         {"b", 2L, 2.5d},
+         {"a", 3L, null},
+         {"c", null, 4d},
+         {"b", 5L, 0.5d},
+         {"a", 7L, 3d},
+   };
+
+   private static FieldAccumulator[] makeAccumulators() {
+      return new FieldAccumulator[]{
+            FieldAccumulator.makeAccumulator(AggregationFunction.SUM, 1, 1, Long.class),
+            FieldAccumulator.makeAccumulator(AggregationFunction.AVG, 2, 2, Double.class),
+            FieldAccumulator.makeAccumulator(AggregationFunction.COUNT, 2, 3, Double.class),
+            FieldAccumulator.makeAccumulator(AggregationFunction.MAX, 1, 4, Long.class),
+      };
+   }
+
+   private static Map<Object, Object[]> toMap(Iterator<Object[]> it) {
+      Map<Object, Object[]> groups = new HashMap<>();
+      while (it.hasNext()) {
+         Object[] row = it.next();
+         groups.put(row[0], row);
+      }
+      return groups;
+   }
+
+   @Test
+   public void testMergeGroups() {
+      FieldAccumulator[] accumulators = makeAccumulators();
+      Grouper all = new Grouper(1, accumulators, false);
+      Grouper first = new Grouper(1, accumulators, false);
+      Grouper second = new Grouper(1, accumulators, false);
+      for (int i = 0; i < ROWS.length; i++) {
+         all.addRow(ROWS[i]);
+         (i < 3 ? first : second).addRow(ROWS[i]);
+      }
+
+      Map<Object, Object[]> expected = toMap(all.finish());
+      Map<Object, Object[]> merged = toMap(first.merge(second).finish());
+      assertEquals(3, merged.size());
+      for (Map.Entry<Object, Object[]> e : expected.entrySet()) {
+         assertArrayEquals(e.getValue(), merged.get(e.getKey()));
+      }
+      assertArrayEquals(new Object[]{"a", 11L, 2.25d, 2L, 7L}, merged.get("a"));
+      assertArrayEquals(new Object[]{"c", null, 4d, 1L, null}, merged.get("c"));
+   }
+
+   @Test
+   public void testMergeGlobalAggregations() {
+      FieldAccumulator[] accumulators = {
+            FieldAccumulator.makeAccumulator(AggregationFunction.SUM, 0, 0, Long.class),
+            FieldAccumulator.makeAccumulator(AggregationFunction.AVG, 1, 1, Double.class),
+      };
+      Grouper first = new Grouper(0, accumulators, false);
+      Grouper second = new Grouper(0, accumulators, false);
+      Grouper empty = new Grouper(0, accumulators, false);
+      first.addRow(new Object[]{1L, 1d});
+      second.addRow(new Object[]{2L, 2d});
+      second.addRow(new Object[]{3L, null});
+
+      Iterator<Object[]> it = first.merge(empty).merge(second).finish();
+      assertArrayEquals(new Object[]{6L, 1.5d}, it.next());
+      assertFalse(it.hasNext());
+   }
+
+   @Test
+   public void testMergeSerializedGroups() throws Exception {
+      FieldAccumulator[] accumulators = makeAccumulators();
+      Grouper first = new Grouper(1, accumulators, false);
+      Grouper second = new Grouper(1, accumulators, false);
+      for (int i = 0; i < ROWS.length; i++) {
+         (i % 2 == 0 ? first : second).addRow(ROWS[i]);
+      }
+
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+         out.writeObject(second);
+      }
+      Grouper deserialized;
+      try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+         deserialized = (Grouper) in.readObject();
+      }
+
+      Map<Object, Object[]> merged = toMap(first.merge(deserialized).finish());
+      assertArrayEquals(new Object[]{"a", 11L, 2.25d, 2L, 7L}, merged.get("a"));
+      assertArrayEquals(new Object[]{"b", 7L, 1.5d, 2L, 5L}, merged.get("b"));
+   }
+}
@@ -7,6 +7,7 @@
 import java.io.IOException;
 import java.io.RandomAccessFile;
 import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
 import java.nio.channels.FileChannel;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -27,6 +28,10 @@
 /**
  * Provides resource management for files - only limited amount of files may be opened in one moment, and opened file
  * should not be deleted. Also allows to generate file indexes.
+ * <p>
+ * When memory mapped reads are enabled, files that are not written anymore are mapped when opened and the reads are
+ * served from the mapping instead of the file channel. The file currently appended by {@link LogAppender} is always
+ * read through the channel. The mappings are not unmapped explicitly, they are released when garbage collected.
  *
  * @author Radim Vansa &lt;rvansa@redhat.com&gt;
  */
@@ -36,6 +41,7 @@ class FileProvider {
 
    private final File dataDir;
    private final int openFileLimit;
+   private final boolean memoryMapped;
    private final ArrayBlockingQueue<Record> recordQueue;
    private final ConcurrentMap<Integer, Record> openFiles = new ConcurrentHashMap<Integer, Record>();
    private final AtomicInteger currentOpenFiles = new AtomicInteger(0);
@@ -46,7 +52,12 @@ class FileProvider {
    private int nextFileId = 0;
 
    public FileProvider(String dataDir, int openFileLimit) {
+      this(dataDir, openFileLimit, false);
+   }
+
+   public FileProvider(String dataDir, int openFileLimit, boolean memoryMapped) {
       this.openFileLimit = openFileLimit;
+      this.memoryMapped = memoryMapped;
       this.recordQueue = new ArrayBlockingQueue<Record>(openFileLimit);
       this.dataDir = new File(dataDir);
       this.dataDir.mkdirs();
@@ -80,6 +91,9 @@ public Handle getFile(int fileId) throws IOException {
                      return null;
                   }
                   Record newRecord = new Record(fileChannel, fileId);
+                  if (memoryMapped && !logFiles.contains(fileId)) {
+                     newRecord.map();
+                  }
                   Record other = openFiles.putIfAbsent(fileId, newRecord);
                   if (other != null) {
                      fileChannel.close();
@@ -303,6 +317,17 @@ private Handle(Record record) {
 
       public int read(ByteBuffer buffer, long offset) throws IOException {
          if (!usable) throw new IllegalStateException();
+         MappedByteBuffer mapped = record.mapped;
+         if (mapped != null) {
+            if (offset >= mapped.capacity()) {
+               return -1;
+            }
+            int length = (int) Math.min(buffer.remaining(), mapped.capacity() - offset);
+            ByteBuffer source = mapped.duplicate();
+            source.position((int) offset).limit((int) offset + length);
+            buffer.put(source);
+            return length;
+         }
          return record.getFileChannel().read(buffer, offset);
       }
 
@@ -326,6 +351,7 @@ public int getFileId() {
    private class Record {
       private final int fileId;
       private FileChannel fileChannel;
+      private MappedByteBuffer mapped;
       private int handleCount;
       private boolean deleteOnClose = false;
 
@@ -338,6 +364,10 @@ FileChannel getFileChannel() {
          return fileChannel;
       }
 
+      void map() throws IOException {
+         mapped = fileChannel.map(FileChannel.MapMode.READ_ONLY, 0, fileChannel.size());
+      }
+
       void increaseHandleCount() {
          handleCount++;
       }
@@ -349,6 +379,7 @@ void decreaseHandleCount() throws IOException {
             // but physically close and delete the file
             fileChannel.close();
             fileChannel = null;
+            mapped = null;
             openFiles.remove(fileId, this);
             delete();
          }
@@ -369,6 +400,7 @@ public int getFileId() {
       public void close() throws IOException {
          fileChannel.close();
          fileChannel = null;
+         mapped = null;
          if (deleteOnClose) {
             delete();
          }
@@ -384,6 +416,7 @@ public void deleteOnClose() throws IOException {
             if (fileChannel != null) {
                fileChannel.close();
                fileChannel = null;
+               mapped = null;
             }
             openFiles.remove(fileId, this);
             delete();
@@ -1,6 +1,7 @@
 package org.infinispan.persistence.sifs;
 
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
 
 import org.infinispan.commons.io.ByteBuffer;
 import org.infinispan.util.logging.LogFactory;
@@ -9,27 +10,43 @@
  * This component has the only thread that polls the queue with requests to write some entry into the cache store.
  * It writes the records to append-only log files, inserts the entry position into TemporaryTable and queues the position
  * to be persisted in Index.
+ * <p>
+ * With group commit, when the writes are concurrent the thread waits a fraction of the usual fsync time for more
+ * writes before the fsync, so that a single fsync confirms all of them.
  *
  * @author Radim Vansa &lt;rvansa@redhat.com&gt;
  */
 public class LogAppender extends Thread {
    private static final Log log = LogFactory.getLog(LogAppender.class, Log.class);
+   private static final long MAX_GROUP_COMMIT_WAIT_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
 
    private final SyncProcessingQueue<LogRequest> queue;
    private final BlockingQueue<IndexRequest> indexQueue;
    private final boolean syncWrites;
+   private final boolean groupCommit;
    private final TemporaryTable temporaryTable;
    private final int maxFileSize;
    private final Compactor compactor;
    private final FileProvider fileProvider;
    private LogRequest pausedRequest;
    private long seqId = 0;
+   private long averageForceNanos;
+   private int lastGroupSize;
+   private volatile long syncCount;
 
    LogAppender(SyncProcessingQueue<LogRequest> inboundQueue,
                BlockingQueue<IndexRequest> indexQueue,
                TemporaryTable temporaryTable,
                Compactor compactor,
                FileProvider fileProvider, boolean syncWrites, int maxFileSize) {
+      this(inboundQueue, indexQueue, temporaryTable, compactor, fileProvider, syncWrites, false, maxFileSize);
+   }
+
+   LogAppender(SyncProcessingQueue<LogRequest> inboundQueue,
+               BlockingQueue<IndexRequest> indexQueue,
+               TemporaryTable temporaryTable,
+               Compactor compactor,
+               FileProvider fileProvider, boolean syncWrites, boolean groupCommit, int maxFileSize) {
       super("BCS-LogAppender");
       this.setDaemon(true);
       this.queue = inboundQueue;
@@ -38,6 +55,7 @@ public class LogAppender extends Thread {
       this.compactor = compactor;
       this.fileProvider = fileProvider;
       this.syncWrites = syncWrites;
+      this.groupCommit = groupCommit;
       this.maxFileSize = maxFileSize;
       start();
    }
@@ -68,6 +86,8 @@ public void run() {
       try {
          FileProvider.Log logFile = fileProvider.getFileForLog();
          int currentOffset = 0;
+         int groupSize = 0;
+         boolean waitedForGroup = false;
          while (true) {
             LogRequest request = queue.pop();
             if (request != null) {
@@ -104,10 +124,27 @@ public void run() {
                request.setIndexRequest(indexRequest);
                indexQueue.put(indexRequest);
                currentOffset += request.length();
+               groupSize++;
             } else {
                if (syncWrites) {
+                  if (groupCommit && !waitedForGroup && (groupSize > 1 || lastGroupSize > 1)) {
+                     // concurrent writers: let the others join this fsync
+                     waitedForGroup = true;
+                     if (queue.awaitPush(Math.min(averageForceNanos / 2, MAX_GROUP_COMMIT_WAIT_NANOS))) {
+                        continue;
+                     }
+                  }
+                  long start = System.nanoTime();
                   logFile.fileChannel.force(false);
+                  long forceNanos = System.nanoTime() - start;
+                  averageForceNanos = averageForceNanos == 0 ? forceNanos : (averageForceNanos * 7 + forceNanos) / 8;
+                  syncCount++;
+               }
+               if (groupSize > 0) {
+                  lastGroupSize = groupSize;
                }
+               groupSize = 0;
+               waitedForGroup = false;
                queue.notifyAndWait();
             }
          }
@@ -131,6 +168,13 @@ private final long nextSeqId() {
       return seqId++;
    }
 
+   /**
+    * @return how many times the log files were synced to disk
+    */
+   long getSyncCount() {
+      return syncCount;
+   }
+
    public void stopOperations() throws InterruptedException {
       queue.pushAndWait(LogRequest.stopRequest());
       this.join();
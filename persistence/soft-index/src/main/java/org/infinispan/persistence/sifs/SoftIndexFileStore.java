@@ -138,9 +138,10 @@ public void start() {
       temporaryTable = new TemporaryTable(configuration.indexQueueLength() * configuration.indexSegments());
       storeQueue = new SyncProcessingQueue<>();
       indexQueue = new IndexQueue(configuration.indexSegments(), configuration.indexQueueLength());
-      fileProvider = new FileProvider(configuration.dataLocation(), configuration.openFilesLimit());
+      fileProvider = new FileProvider(configuration.dataLocation(), configuration.openFilesLimit(), configuration.memoryMappedReads());
       compactor = new Compactor(fileProvider, temporaryTable, indexQueue, marshaller, timeService, configuration.maxFileSize(), configuration.compactionThreshold());
-      logAppender = new LogAppender(storeQueue, indexQueue, temporaryTable, compactor, fileProvider, configuration.syncWrites(), configuration.maxFileSize());
+      logAppender = new LogAppender(storeQueue, indexQueue, temporaryTable, compactor, fileProvider,
+            configuration.syncWrites(), configuration.groupCommit(), configuration.maxFileSize());
       try {
          index = new Index(fileProvider, configuration.indexLocation(), configuration.indexSegments(),
                configuration.minNodeSize(), configuration.maxNodeSize(),
@@ -1,6 +1,7 @@
 package org.infinispan.persistence.sifs;
 
 import java.util.ArrayDeque;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Multiple producer-single consumer queue. The producers are expected to call pushAndWait(),
@@ -101,6 +102,31 @@ public void notifyAndWait() {
       }
    }
 
+   /**
+    * Waits until a producer pushes an element, without releasing the producers waiting for the elements already
+    * popped. Used to let more producers join the batch confirmed by the next {@link #notifyAndWait()}.
+    *
+    * @return true if the queue contains an element
+    */
+   public boolean awaitPush(long nanos) {
+      long deadline = System.nanoTime() + nanos;
+      synchronized (queue) {
+         while (queue.isEmpty()) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+               return false;
+            }
+            try {
+               TimeUnit.NANOSECONDS.timedWait(queue, remaining);
+            } catch (InterruptedException e) {
+               Thread.currentThread().interrupt();
+               return false;
+            }
+         }
+         return true;
+      }
+   }
+
    public void notifyNoWait() {
       poppedInRow = 0;
       popIndex = processorPopIndex;
@@ -12,6 +12,8 @@ public enum Attribute {
    // must be first
    UNKNOWN(null),
    COMPACTION_THRESHOLD("compaction-threshold"),
+   GROUP_COMMIT("group-commit"),
+   MEMORY_MAPPED_READS("memory-mapped-reads"),
    PATH("path"),
    INDEX_QUEUE_LENGTH("max-queue-length"),
    SEGMENTS("segments"),
@@ -2,12 +2,14 @@
 
 import static org.infinispan.persistence.sifs.configuration.SoftIndexFileStoreConfiguration.COMPACTION_THRESHOLD;
 import static org.infinispan.persistence.sifs.configuration.SoftIndexFileStoreConfiguration.DATA_LOCATION;
+import static org.infinispan.persistence.sifs.configuration.SoftIndexFileStoreConfiguration.GROUP_COMMIT;
 import static org.infinispan.persistence.sifs.configuration.SoftIndexFileStoreConfiguration.INDEX_LOCATION;
 import static org.infinispan.persistence.sifs.configuration.SoftIndexFileStoreConfiguration.INDEX_QUEUE_LENGTH;
 import static org.infinispan.persistence.sifs.configuration.SoftIndexFileStoreConfiguration.INDEX_SEGMENTS;
 import static org.infinispan.persistence.sifs.configuration.SoftIndexFileStoreConfiguration.MAX_FILE_SIZE;
 import static org.infinispan.persistence.sifs.configuration.SoftIndexFileStoreConfiguration.MAX_NODE_SIZE;
 import static org.infinispan.persistence.sifs.configuration.SoftIndexFileStoreConfiguration.MIN_NODE_SIZE;
+import static org.infinispan.persistence.sifs.configuration.SoftIndexFileStoreConfiguration.MEMORY_MAPPED_READS;
 import static org.infinispan.persistence.sifs.configuration.SoftIndexFileStoreConfiguration.OPEN_FILES_LIMIT;
 import static org.infinispan.persistence.sifs.configuration.SoftIndexFileStoreConfiguration.SYNC_WRITES;
 
@@ -66,6 +68,23 @@ public SoftIndexFileStoreConfigurationBuilder syncWrites(boolean syncWrites) {
       return this;
    }
 
+   /**
+    * When {@link #syncWrites(boolean)} is enabled, waits shortly for more concurrent writers before the fsync, so that
+    * a single fsync confirms all of them.
+    */
+   public SoftIndexFileStoreConfigurationBuilder groupCommit(boolean groupCommit) {
+      attributes.attribute(GROUP_COMMIT).set(groupCommit);
+      return this;
+   }
+
+   /**
+    * Reads entries from the data files through memory mappings instead of file channel reads.
+    */
+   public SoftIndexFileStoreConfigurationBuilder memoryMappedReads(boolean memoryMappedReads) {
+      attributes.attribute(MEMORY_MAPPED_READS).set(memoryMappedReads);
+      return this;
+   }
+
    public SoftIndexFileStoreConfigurationBuilder openFilesLimit(int openFilesLimit) {
       attributes.attribute(OPEN_FILES_LIMIT).set(openFilesLimit);
       return this;
@@ -29,6 +29,10 @@ protected void clearTempDir() {
       new File(tmpDirectory).mkdirs();
    }
 
+   protected String getTmpDirectory() {
+      return tmpDirectory;
+   }
+
 
    @Override
    protected PersistenceConfigurationBuilder createCacheStoreConfig(PersistenceConfigurationBuilder persistence, boolean preload) {
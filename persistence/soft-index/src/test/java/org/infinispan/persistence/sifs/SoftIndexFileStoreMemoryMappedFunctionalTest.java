@@ -0,0 +1,75 @@
+package org.infinispan.persistence.sifs;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.infinispan.Cache;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.configuration.cache.PersistenceConfigurationBuilder;
+import org.infinispan.persistence.sifs.configuration.SoftIndexFileStoreConfigurationBuilder;
+import org.infinispan.test.TestingUtil;
+import org.infinispan.test.fwk.TestCacheManagerFactory;
+import org.testng.annotations.Test;
+
+/**
+ * Runs the functional tests with small data files, so that most reads are served from mapped files, and with the
+ * writes confirmed by group commit.
+ *
+ * @since 9.2
+ */
+@Test(groups = "unit", testName = "persistence.SoftIndexFileStoreMemoryMappedFunctionalTest")
+public class SoftIndexFileStoreMemoryMappedFunctionalTest extends SoftIndexFileStoreFunctionalTest {
+
+   @Override
+   protected PersistenceConfigurationBuilder createCacheStoreConfig(PersistenceConfigurationBuilder persistence, boolean preload) {
+      persistence.addStore(SoftIndexFileStoreConfigurationBuilder.class).preload(preload)
+            .dataLocation(getTmpDirectory() + "/data").indexLocation(getTmpDirectory())
+            .maxFileSize(1024).memoryMappedReads(true).syncWrites(true).groupCommit(true);
+      return persistence;
+   }
+
+   public void testConcurrentSyncWritesShareFsync() throws Exception {
+      ConfigurationBuilder cb = TestCacheManagerFactory.getDefaultCacheConfiguration(false);
+      createCacheStoreConfig(cb.persistence(), false);
+      cacheManager.defineConfiguration("testConcurrentSyncWritesShareFsync", cb.build());
+      Cache<String, Object> cache = cacheManager.getCache("testConcurrentSyncWritesShareFsync");
+      SoftIndexFileStore store = TestingUtil.getFirstWriter(cache);
+      LogAppender logAppender = TestingUtil.extractField(store, "logAppender");
+
+      int threads = 8;
+      int writesPerThread = 50;
+      CyclicBarrier barrier = new CyclicBarrier(threads);
+      long syncsBefore = logAppender.getSyncCount();
+      List<Future<Void>> futures = new ArrayList<>();
+      for (int t = 0; t < threads; t++) {
+         String prefix = "t" + t + "-";
+         futures.add(fork(() -> {
+            barrier.await(10, TimeUnit.SECONDS);
+            for (int i = 0; i < writesPerThread; i++) {
+               cache.put(prefix + i, wrap(prefix + i, "v" + i));
+            }
+            return null;
+         }));
+      }
+      for (Future<Void> future : futures) {
+         future.get(30, TimeUnit.SECONDS);
+      }
+      long syncs = logAppender.getSyncCount() - syncsBefore;
+
+      int writes = threads * writesPerThread;
+      // Each write waits for its fsync, so the writers only share one if they are confirmed together
+      assertTrue("Expected the " + writes + " writes to share fsyncs, but there were " + syncs + " fsyncs",
+            syncs < writes / 2);
+      for (int t = 0; t < threads; t++) {
+         for (int i = 0; i < writesPerThread; i++) {
+            assertEquals("v" + i, unwrap(cache.get("t" + t + "-" + i)));
+         }
+      }
+   }
+}
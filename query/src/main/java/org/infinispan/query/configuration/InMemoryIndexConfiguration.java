@@ -0,0 +1,65 @@
+package org.infinispan.query.configuration;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.infinispan.commons.configuration.BuiltBy;
+import org.infinispan.commons.configuration.attributes.AttributeDefinition;
+import org.infinispan.commons.configuration.attributes.AttributeSet;
+import org.infinispan.commons.configuration.attributes.CollectionAttributeCopier;
+
+/**
+ * Declares the fields that have an in-memory index in a non-indexed cache. Ickle queries having conditions on these
+ * fields look up the matching keys in the index instead of scanning the whole cache. The indexes are kept in memory
+ * only, they are rebuilt from the cache contents when the cache starts.
+ *
+ * @since 9.2
+ */
+@BuiltBy(InMemoryIndexConfigurationBuilder.class)
+public class InMemoryIndexConfiguration {
+
+   static final AttributeDefinition<Set<IndexedField>> INDEXED_FIELDS = AttributeDefinition.builder("indexed-fields", null, (Class<Set<IndexedField>>) (Class<?>) Set.class)
+         .copier(CollectionAttributeCopier.INSTANCE)
+         .initializer(HashSet::new).immutable().build();
+
+   private final AttributeSet attributes;
+
+   InMemoryIndexConfiguration(AttributeSet attributeSet) {
+      this.attributes = attributeSet.checkProtection();
+   }
+
+   static AttributeSet attributeSet() {
+      return new AttributeSet(InMemoryIndexConfiguration.class, INDEXED_FIELDS);
+   }
+
+   public AttributeSet attributes() {
+      return attributes;
+   }
+
+   /**
+    * @return the fields that have an in-memory index
+    */
+   public Set<IndexedField> indexedFields() {
+      return attributes.attribute(INDEXED_FIELDS).get();
+   }
+
+   @Override
+   public String toString() {
+      return "InMemoryIndexConfiguration [attributes=" + attributes + ']';
+   }
+
+   @Override
+   public boolean equals(Object o) {
+      if (this == o) return true;
+      if (o == null || getClass() != o.getClass()) return false;
+
+      InMemoryIndexConfiguration that = (InMemoryIndexConfiguration) o;
+
+      return attributes.equals(that.attributes);
+   }
+
+   @Override
+   public int hashCode() {
+      return attributes.hashCode();
+   }
+}
@@ -0,0 +1,91 @@
+package org.infinispan.query.configuration;
+
+import static org.infinispan.query.configuration.InMemoryIndexConfiguration.INDEXED_FIELDS;
+
+import java.util.Set;
+
+import org.infinispan.commons.configuration.Builder;
+import org.infinispan.commons.configuration.attributes.AttributeSet;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.configuration.cache.StorageType;
+import org.infinispan.query.logging.Log;
+import org.infinispan.util.logging.LogFactory;
+
+/**
+ * A {@link Builder} implementation of {@link InMemoryIndexConfiguration}, added to a cache configuration with
+ * {@code builder.addModule(InMemoryIndexConfigurationBuilder.class)}.
+ *
+ * @since 9.2
+ */
+public class InMemoryIndexConfigurationBuilder implements Builder<InMemoryIndexConfiguration> {
+
+   private static final Log log = LogFactory.getLog(InMemoryIndexConfigurationBuilder.class, Log.class);
+
+   private final ConfigurationBuilder builder;
+
+   private final AttributeSet attributes;
+
+   public InMemoryIndexConfigurationBuilder(ConfigurationBuilder builder) {
+      this.builder = builder;
+      this.attributes = InMemoryIndexConfiguration.attributeSet();
+   }
+
+   /**
+    * Adds an in-memory index on a field of an entity.
+    *
+    * @param entityClass the class of the entity, as stored in the cache
+    * @param path        the dot separated path of the field, relative to the entity. The field must not be a
+    *                    collection or an array, nor be nested in one.
+    */
+   public InMemoryIndexConfigurationBuilder addIndexedField(Class<?> entityClass, String path) {
+      return addIndexedField(entityClass.getName(), path);
+   }
+
+   /**
+    * Adds an in-memory index on a field of an entity.
+    *
+    * @param entityName the fully qualified name of the entity class
+    * @param path       the dot separated path of the field, relative to the entity
+    */
+   public InMemoryIndexConfigurationBuilder addIndexedField(String entityName, String path) {
+      Set<IndexedField> indexedFields = attributes.attribute(INDEXED_FIELDS).get();
+      indexedFields.add(new IndexedField(entityName, path));
+      attributes.attribute(INDEXED_FIELDS).set(indexedFields);
+      return this;
+   }
+
+   @Override
+   public void validate() {
+      if (attributes.attribute(INDEXED_FIELDS).get().isEmpty()) {
+         return;
+      }
+      // each node would only see its own writes
+      if (builder.clustering().cacheMode().isClustered()) {
+         throw log.inMemoryIndexRequiresLocalCache(builder.clustering().cacheMode());
+      }
+      // the index is maintained from the values seen by the interceptors and listeners, which must be the entities
+      if (builder.memory().storageType() != StorageType.OBJECT) {
+         throw log.inMemoryIndexRequiresObjectStorage(builder.memory().storageType());
+      }
+      // simple caches have no interceptors to maintain the index
+      if (builder.simpleCache()) {
+         throw log.inMemoryIndexNotSupportedBySimpleCache();
+      }
+   }
+
+   @Override
+   public InMemoryIndexConfiguration create() {
+      return new InMemoryIndexConfiguration(attributes.protect());
+   }
+
+   @Override
+   public Builder<?> read(InMemoryIndexConfiguration template) {
+      this.attributes.read(template.attributes());
+      return this;
+   }
+
+   @Override
+   public String toString() {
+      return "InMemoryIndexConfigurationBuilder [attributes=" + attributes + ']';
+   }
+}
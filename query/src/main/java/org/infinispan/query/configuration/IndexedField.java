@@ -0,0 +1,57 @@
+package org.infinispan.query.configuration;
+
+/**
+ * A field of an entity that has an in-memory index.
+ *
+ * @since 9.2
+ */
+public final class IndexedField {
+
+   private final String entityName;
+
+   private final String path;
+
+   public IndexedField(String entityName, String path) {
+      if (entityName == null) {
+         throw new IllegalArgumentException("entityName cannot be null");
+      }
+      if (path == null) {
+         throw new IllegalArgumentException("path cannot be null");
+      }
+      this.entityName = entityName;
+      this.path = path;
+   }
+
+   /**
+    * @return the fully qualified name of the entity class
+    */
+   public String getEntityName() {
+      return entityName;
+   }
+
+   /**
+    * @return the dot separated path of the field, relative to the entity
+    */
+   public String getPath() {
+      return path;
+   }
+
+   @Override
+   public boolean equals(Object o) {
+      if (this == o) return true;
+      if (o == null || getClass() != o.getClass()) return false;
+
+      IndexedField that = (IndexedField) o;
+      return entityName.equals(that.entityName) && path.equals(that.path);
+   }
+
+   @Override
+   public int hashCode() {
+      return 31 * entityName.hashCode() + path.hashCode();
+   }
+
+   @Override
+   public String toString() {
+      return entityName + '.' + path;
+   }
+}
@@ -0,0 +1,5 @@
+/**
+ * Query module configuration, declared per cache with
+ * {@link org.infinispan.configuration.cache.ConfigurationBuilder#addModule(Class)}.
+ */
+package org.infinispan.query.configuration;
@@ -46,10 +46,16 @@ final class AggregatingQuery extends HybridQuery {
 
    @Override
    protected Iterator<?> getBaseIterator() {
-      Grouper grouper = new Grouper(noOfGroupingColumns, accumulators, twoPhaseAcc);
-      List<Object[]> list = baseQuery.list();
-      for (Object[] row : list) {
-         grouper.addRow(row);
+      Grouper grouper;
+      if (baseQuery instanceof EmbeddedQuery) {
+         // group on each node, and only merge the groups here
+         grouper = ((EmbeddedQuery) baseQuery).aggregate(noOfGroupingColumns, accumulators, twoPhaseAcc);
+      } else {
+         grouper = new Grouper(noOfGroupingColumns, accumulators, twoPhaseAcc);
+         List<Object[]> list = baseQuery.list();
+         for (Object[] row : list) {
+            grouper.addRow(row);
+         }
       }
       return grouper.finish();
    }
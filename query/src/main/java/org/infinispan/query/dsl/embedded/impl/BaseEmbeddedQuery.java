@@ -6,7 +6,6 @@
 import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
-import java.util.PriorityQueue;
 
 import org.infinispan.AdvancedCache;
 import org.infinispan.commons.util.CloseableIterator;
@@ -16,7 +15,8 @@
 
 /**
  * Base class for embedded-mode query implementations. Subclasses need to implement {@link #getIterator()} and {@link
- * #getComparator()} methods and this class will take care of sorting (fully in-memory).
+ * #getComparator()} methods and this class will take care of sorting (fully in-memory, unless the subclass overrides
+ * {@link #collectSorted}).
  *
  * @author anistor@redhat.com
  * @since 8.0
@@ -60,53 +60,41 @@ public <T> List<T> list() {
    }
 
    private List<Object> listInternal() {
-      List<Object> results;
-
-      try (CloseableIterator<ObjectFilter.FilterResult> iterator = getIterator()) {
-         if (!iterator.hasNext()) {
-            results = Collections.emptyList();
-         } else {
-            Comparator<Comparable[]> comparator = getComparator();
-            if (comparator == null) {
-               // collect unsorted results and get the requested page if any was specified
-               results = new ArrayList<>(INITIAL_CAPACITY);
-               while (iterator.hasNext()) {
-                  ObjectFilter.FilterResult entry = iterator.next();
-                  resultSize++;
-                  if (resultSize > startOffset && (maxResults == -1 || results.size() < maxResults)) {
-                     results.add(projection != null ? entry.getProjection() : entry.getInstance());
-                  }
-               }
-            } else {
-               // collect and sort results, in reverse order for now
-               PriorityQueue<ObjectFilter.FilterResult> filterResults = new PriorityQueue<>(INITIAL_CAPACITY, new ReverseFilterResultComparator(comparator));
-               while (iterator.hasNext()) {
-                  ObjectFilter.FilterResult entry = iterator.next();
-                  resultSize++;
-                  filterResults.add(entry);
-                  if (maxResults != -1 && filterResults.size() > startOffset + maxResults) {
-                     // remove the head, which is actually the highest result
-                     filterResults.remove();
-                  }
-               }
-
-               // collect and reverse
-               if (filterResults.size() > startOffset) {
-                  Object[] res = new Object[filterResults.size() - startOffset];
-                  int i = filterResults.size();
-                  while (i-- > startOffset) {
-                     ObjectFilter.FilterResult r = filterResults.remove();
-                     res[i - startOffset] = projection != null ? r.getProjection() : r.getInstance();
-                  }
-                  results = Arrays.asList(res);
-               } else {
-                  results = Collections.emptyList();
+      Comparator<Comparable[]> comparator = getComparator();
+      if (comparator == null) {
+         try (CloseableIterator<ObjectFilter.FilterResult> iterator = getIterator()) {
+            if (!iterator.hasNext()) {
+               return Collections.emptyList();
+            }
+            // collect unsorted results and get the requested page if any was specified
+            List<Object> results = new ArrayList<>(INITIAL_CAPACITY);
+            while (iterator.hasNext()) {
+               ObjectFilter.FilterResult entry = iterator.next();
+               resultSize++;
+               if (resultSize > startOffset && (maxResults == -1 || results.size() < maxResults)) {
+                  results.add(projection != null ? entry.getProjection() : entry.getInstance());
                }
             }
+            return results;
          }
       }
 
-      return results;
+      // collect and sort results, in reverse order for now
+      SortedResults sortedResults = collectSorted(comparator, maxResults == -1 ? -1 : startOffset + maxResults);
+      resultSize += sortedResults.getCount();
+
+      // collect and reverse
+      if (sortedResults.size() > startOffset) {
+         Object[] res = new Object[sortedResults.size() - startOffset];
+         int i = sortedResults.size();
+         while (i-- > startOffset) {
+            ObjectFilter.FilterResult r = sortedResults.pollHighest();
+            res[i - startOffset] = projection != null ? r.getProjection() : r.getInstance();
+         }
+         return Arrays.asList(res);
+      } else {
+         return Collections.emptyList();
+      }
    }
 
    /**
@@ -122,6 +110,22 @@ private List<Object> listInternal() {
     */
    protected abstract CloseableIterator<ObjectFilter.FilterResult> getIterator();
 
+   /**
+    * Collect the first results returned by {@link #getIterator()} in the order given by the comparator. Subclasses can
+    * override this to sort the results where they are stored, and only retrieve the first ones.
+    *
+    * @param maxResults the number of results to keep or {@code -1} to keep all of them
+    */
+   protected SortedResults collectSorted(Comparator<Comparable[]> comparator, long maxResults) {
+      SortedResults sortedResults = new SortedResults(comparator, maxResults);
+      try (CloseableIterator<ObjectFilter.FilterResult> iterator = getIterator()) {
+         while (iterator.hasNext()) {
+            sortedResults.add(iterator.next());
+         }
+      }
+      return sortedResults;
+   }
+
    @Override
    public int getResultSize() {
       list();
@@ -138,22 +142,4 @@ public String toString() {
             ", maxResults=" + maxResults +
             '}';
    }
-
-   /**
-    * Compares two {@link ObjectFilter.FilterResult} objects based on a given {@link Comparator} and reverses the
-    * result.
-    */
-   private static class ReverseFilterResultComparator implements Comparator<ObjectFilter.FilterResult> {
-
-      private final Comparator<Comparable[]> comparator;
-
-      private ReverseFilterResultComparator(Comparator<Comparable[]> comparator) {
-         this.comparator = comparator;
-      }
-
-      @Override
-      public int compare(ObjectFilter.FilterResult o1, ObjectFilter.FilterResult o2) {
-         return -comparator.compare(o1.getSortProjection(), o2.getSortProjection());
-      }
-   }
 }
@@ -3,6 +3,10 @@
 import java.util.Arrays;
 import java.util.Comparator;
 import java.util.Map;
+import java.util.Set;
+
+import javax.transaction.SystemException;
+import javax.transaction.TransactionManager;
 
 import org.infinispan.AdvancedCache;
 import org.infinispan.CacheStream;
@@ -11,6 +15,8 @@
 import org.infinispan.container.entries.CacheEntry;
 import org.infinispan.filter.CacheFilters;
 import org.infinispan.objectfilter.ObjectFilter;
+import org.infinispan.objectfilter.impl.aggregation.FieldAccumulator;
+import org.infinispan.objectfilter.impl.aggregation.Grouper;
 import org.infinispan.query.dsl.QueryFactory;
 
 
@@ -24,13 +30,26 @@ final class EmbeddedQuery extends BaseEmbeddedQuery {
 
    private final QueryEngine queryEngine;
 
+   /**
+    * Optional lookup of the candidate keys in the in-memory field indexes. This is {@code null} if the whole cache
+    * must be scanned.
+    */
+   private final FieldIndexLookup indexLookup;
+
    private IckleFilterAndConverter<?, ?> filter;
 
    EmbeddedQuery(QueryEngine queryEngine, QueryFactory queryFactory, AdvancedCache<?, ?> cache,
                  String queryString, Map<String, Object> namedParameters, String[] projection,
                  long startOffset, int maxResults) {
+      this(queryEngine, queryFactory, cache, queryString, namedParameters, projection, startOffset, maxResults, null);
+   }
+
+   EmbeddedQuery(QueryEngine queryEngine, QueryFactory queryFactory, AdvancedCache<?, ?> cache,
+                 String queryString, Map<String, Object> namedParameters, String[] projection,
+                 long startOffset, int maxResults, FieldIndexLookup indexLookup) {
       super(queryFactory, cache, queryString, namedParameters, projection, startOffset, maxResults);
       this.queryEngine = queryEngine;
+      this.indexLookup = indexLookup;
    }
 
    @Override
@@ -57,8 +76,60 @@ protected Comparator<Comparable[]> getComparator() {
 
    @Override
    protected CloseableIterator<ObjectFilter.FilterResult> getIterator() {
-      CacheStream<CacheEntry<?, ObjectFilter.FilterResult>> stream = (CacheStream<CacheEntry<?, ObjectFilter.FilterResult>>) CacheFilters.filterAndConvert(cache.cacheEntrySet().stream(), createFilter());
-      return Closeables.iterator(stream.map(CacheEntry::getValue));
+      return Closeables.iterator(filteredStream().map(CacheEntry::getValue));
+   }
+
+   /**
+    * Only the first {@code maxResults} results of each node are sent to the originator, but all results are counted.
+    */
+   @Override
+   protected SortedResults collectSorted(Comparator<Comparable[]> comparator, long maxResults) {
+      if (maxResults == -1) {
+         // all the results are needed anyway
+         return super.collectSorted(comparator, maxResults);
+      }
+      return filteredStream().collect(() -> new SortedResults(comparator, maxResults),
+            (sortedResults, entry) -> sortedResults.add(entry.getValue()), SortedResults::merge);
+   }
+
+   /**
+    * Groups and aggregates the matching rows on each node, so only the partial aggregations are sent to the originator
+    * instead of all the matching rows. The returned {@link Grouper} is not finished.
+    */
+   Grouper aggregate(int noOfGroupingColumns, FieldAccumulator[] accumulators, boolean twoPhaseAcc) {
+      return filteredStream().collect(() -> new Grouper(noOfGroupingColumns, accumulators, twoPhaseAcc),
+            (grouper, entry) -> grouper.addRow(entry.getValue().getProjection()), Grouper::merge);
+   }
+
+   private CacheStream<CacheEntry<?, ObjectFilter.FilterResult>> filteredStream() {
+      IckleFilterAndConverter ickleFilter = createFilter();
+      CacheStream stream = cache.cacheEntrySet().stream();
+      Set<Object> candidateKeys = lookupCandidateKeys();
+      if (candidateKeys != null) {
+         // the candidates are a superset of the matches, the filter still applies to each of them
+         stream = stream.filterKeys(candidateKeys);
+      }
+      return (CacheStream<CacheEntry<?, ObjectFilter.FilterResult>>) CacheFilters.filterAndConvert(stream, ickleFilter);
+   }
+
+   /**
+    * @return the keys of the entries that can match the query, or {@code null} if all the entries must be scanned
+    */
+   private Set<Object> lookupCandidateKeys() {
+      // the indexes are updated on commit, so they do not reflect the writes of an ongoing transaction
+      if (indexLookup == null || isInTransaction()) {
+         return null;
+      }
+      return indexLookup.lookup(namedParameters);
+   }
+
+   private boolean isInTransaction() {
+      TransactionManager tm = cache.getTransactionManager();
+      try {
+         return tm != null && tm.getTransaction() != null;
+      } catch (SystemException e) {
+         return true;
+      }
    }
 
    @Override
@@ -0,0 +1,248 @@
+package org.infinispan.query.dsl.embedded.impl;
+
+import java.beans.IntrospectionException;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.infinispan.objectfilter.impl.util.ReflectionHelper;
+
+/**
+ * An in-memory index of the values of a single field of an entity. It maps each value to the keys of the entries
+ * having that value, using a hash map for equality lookups and a sorted map for range lookups. Entries having a
+ * {@code null} value, or a value of a different type than the entity, are not indexed.
+ *
+ * @since 9.2
+ */
+final class FieldIndex {
+
+   private final Class<?> entityType;
+
+   /**
+    * The accessors of each property on the path to the field, starting from the entity.
+    */
+   private final ReflectionHelper.PropertyAccessor[] accessors;
+
+   /**
+    * The type of the indexed values, boxed if the field is primitive.
+    */
+   private final Class<?> valueType;
+
+   private final Map<Object, Comparable> valueByKey = new HashMap<>();
+
+   private final Map<Comparable, Set<Object>> keysByValue = new HashMap<>();
+
+   /**
+    * Holds the same key sets as {@link #keysByValue}, in the order of their values.
+    */
+   private final NavigableMap<Comparable, Set<Object>> sortedKeysByValue = new TreeMap<>();
+
+   private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+   FieldIndex(Class<?> entityType, ReflectionHelper.PropertyAccessor[] accessors, Class<?> valueType) {
+      this.entityType = entityType;
+      this.accessors = accessors;
+      this.valueType = valueType;
+   }
+
+   /**
+    * Is the value of the right type to be looked up in this index?
+    */
+   boolean accepts(Object value) {
+      return valueType.isInstance(value);
+   }
+
+   /**
+    * Updates the indexed value of an entry.
+    *
+    * @param key    the key of the entry
+    * @param entity the new value of the entry, or {@code null} if the entry was removed
+    */
+   void update(Object key, Object entity) {
+      Comparable value = extractValue(entity);
+      lock.writeLock().lock();
+      try {
+         Comparable oldValue = value == null ? valueByKey.remove(key) : valueByKey.put(key, value);
+         if (oldValue != null) {
+            if (oldValue.equals(value)) {
+               return;
+            }
+            removeKey(oldValue, key);
+         }
+         if (value != null) {
+            addKey(value, key);
+         }
+      } finally {
+         lock.writeLock().unlock();
+      }
+   }
+
+   /**
+    * Indexes an entry unless it is already indexed. This is used to build the index from the existing entries while
+    * the entries are also being modified, so it must not overwrite a newer value.
+    */
+   void add(Object key, Object entity) {
+      Comparable value = extractValue(entity);
+      if (value == null) {
+         return;
+      }
+      lock.writeLock().lock();
+      try {
+         if (valueByKey.putIfAbsent(key, value) == null) {
+            addKey(value, key);
+         }
+      } finally {
+         lock.writeLock().unlock();
+      }
+   }
+
+   void clear() {
+      lock.writeLock().lock();
+      try {
+         valueByKey.clear();
+         keysByValue.clear();
+         sortedKeysByValue.clear();
+      } finally {
+         lock.writeLock().unlock();
+      }
+   }
+
+   /**
+    * @return a copy of the keys of the entries having the given value
+    */
+   Set<Object> getKeys(Comparable value) {
+      lock.readLock().lock();
+      try {
+         Set<Object> keys = keysByValue.get(value);
+         return keys == null ? Collections.emptySet() : new HashSet<>(keys);
+      } finally {
+         lock.readLock().unlock();
+      }
+   }
+
+   /**
+    * @param from          the lower bound, or {@code null} if there is none
+    * @param fromInclusive is the lower bound included?
+    * @param to            the upper bound, or {@code null} if there is none
+    * @param toInclusive   is the upper bound included?
+    * @return a copy of the keys of the entries having a value in the given range
+    */
+   Set<Object> getKeys(Comparable from, boolean fromInclusive, Comparable to, boolean toInclusive) {
+      lock.readLock().lock();
+      try {
+         NavigableMap<Comparable, Set<Object>> range = sortedKeysByValue;
+         if (from != null && to != null) {
+            if (from.compareTo(to) > 0) {
+               return Collections.emptySet();
+            }
+            range = range.subMap(from, fromInclusive, to, toInclusive);
+         } else if (from != null) {
+            range = range.tailMap(from, fromInclusive);
+         } else if (to != null) {
+            range = range.headMap(to, toInclusive);
+         }
+         Set<Object> keys = new HashSet<>();
+         for (Set<Object> k : range.values()) {
+            keys.addAll(k);
+         }
+         return keys;
+      } finally {
+         lock.readLock().unlock();
+      }
+   }
+
+   private void addKey(Comparable value, Object key) {
+      Set<Object> keys = keysByValue.get(value);
+      if (keys == null) {
+         keys = new HashSet<>();
+         keysByValue.put(value, keys);
+         sortedKeysByValue.put(value, keys);
+      }
+      keys.add(key);
+   }
+
+   private void removeKey(Comparable value, Object key) {
+      Set<Object> keys = keysByValue.get(value);
+      if (keys != null) {
+         keys.remove(key);
+         if (keys.isEmpty()) {
+            keysByValue.remove(value);
+            sortedKeysByValue.remove(value);
+         }
+      }
+   }
+
+   private Comparable extractValue(Object entity) {
+      // the matcher only matches instances of the exact entity type
+      if (entity == null || entity.getClass() != entityType) {
+         return null;
+      }
+      Object value = entity;
+      for (ReflectionHelper.PropertyAccessor accessor : accessors) {
+         value = accessor.getValue(value);
+         if (value == null) {
+            return null;
+         }
+      }
+      return accepts(value) ? (Comparable) value : null;
+   }
+
+   /**
+    * Creates the index of a field, if the field can be indexed.
+    *
+    * @param entityType the type of the entity
+    * @param path       the dot separated path of the field
+    * @return the index, or {@code null} if the field does not exist, is multi-valued, is nested in a multi-valued
+    * property or its type is not a final {@link Comparable} class or an enum
+    */
+   static FieldIndex create(Class<?> entityType, String path) {
+      List<ReflectionHelper.PropertyAccessor> accessors = new ArrayList<>();
+      try {
+         ReflectionHelper.PropertyAccessor accessor = null;
+         for (String propertyName : path.split("[.]")) {
+            accessor = accessor == null ? ReflectionHelper.getAccessor(entityType, propertyName) : accessor.getAccessor(propertyName);
+            if (accessor.isMultiple()) {
+               return null;
+            }
+            accessors.add(accessor);
+         }
+      } catch (IntrospectionException e) {
+         return null;
+      }
+      Class<?> valueType = box(accessors.get(accessors.size() - 1).getPropertyType());
+      // subclasses could have a different ordering, or be looked up with a value of the base class
+      if (!Comparable.class.isAssignableFrom(valueType) || !valueType.isEnum() && !Modifier.isFinal(valueType.getModifiers())) {
+         return null;
+      }
+      return new FieldIndex(entityType, accessors.toArray(new ReflectionHelper.PropertyAccessor[accessors.size()]), valueType);
+   }
+
+   private static Class<?> box(Class<?> type) {
+      if (!type.isPrimitive()) {
+         return type;
+      }
+      if (type == int.class) return Integer.class;
+      if (type == long.class) return Long.class;
+      if (type == double.class) return Double.class;
+      if (type == float.class) return Float.class;
+      if (type == short.class) return Short.class;
+      if (type == byte.class) return Byte.class;
+      if (type == boolean.class) return Boolean.class;
+      if (type == char.class) return Character.class;
+      return type;
+   }
+
+   @Override
+   public String toString() {
+      return "FieldIndex{entityType=" + entityType.getName() + ", valueType=" + valueType.getName() + '}';
+   }
+}
@@ -0,0 +1,100 @@
+package org.infinispan.query.dsl.embedded.impl;
+
+import java.util.Collection;
+
+import org.infinispan.commands.VisitableCommand;
+import org.infinispan.commands.tx.CommitCommand;
+import org.infinispan.commands.tx.PrepareCommand;
+import org.infinispan.commands.write.ClearCommand;
+import org.infinispan.commands.write.EvictCommand;
+import org.infinispan.commands.write.WriteCommand;
+import org.infinispan.container.entries.CacheEntry;
+import org.infinispan.context.InvocationContext;
+import org.infinispan.context.impl.TxInvocationContext;
+import org.infinispan.interceptors.DDAsyncInterceptor;
+import org.infinispan.interceptors.InvocationSuccessAction;
+
+/**
+ * Updates the {@link FieldIndexes} with the values of the entries once the writes are committed. The indexes are
+ * rebuilt when the cache is cleared, as the clear does not tell which entries it removed. Evictions are left to the
+ * listener of the {@link FieldIndexes}, because evicted entries are still part of the results if the cache has a
+ * store.
+ *
+ * @since 9.2
+ */
+public final class FieldIndexInterceptor extends DDAsyncInterceptor {
+
+   private final FieldIndexes fieldIndexes;
+
+   private final InvocationSuccessAction updateIndexes = this::updateIndexes;
+
+   private final InvocationSuccessAction commitToIndexes = this::commitToIndexes;
+
+   private final InvocationSuccessAction rebuildIndexes = this::rebuildIndexes;
+
+   public FieldIndexInterceptor(FieldIndexes fieldIndexes) {
+      this.fieldIndexes = fieldIndexes;
+   }
+
+   @Override
+   protected Object handleDefault(InvocationContext ctx, VisitableCommand command) throws Throwable {
+      // the writes of a transaction are only applied when it commits
+      if (command instanceof WriteCommand && !ctx.isInTxScope()) {
+         return invokeNextThenAccept(ctx, command, updateIndexes);
+      }
+      return invokeNext(ctx, command);
+   }
+
+   @Override
+   public Object visitEvictCommand(InvocationContext ctx, EvictCommand command) throws Throwable {
+      return invokeNext(ctx, command);
+   }
+
+   @Override
+   public Object visitClearCommand(InvocationContext ctx, ClearCommand command) throws Throwable {
+      if (ctx.isInTxScope()) {
+         return invokeNext(ctx, command);
+      }
+      return invokeNextThenAccept(ctx, command, rebuildIndexes);
+   }
+
+   @Override
+   public Object visitPrepareCommand(TxInvocationContext ctx, PrepareCommand command) throws Throwable {
+      if (command.isOnePhaseCommit()) {
+         return invokeNextThenAccept(ctx, command, commitToIndexes);
+      } else {
+         return invokeNext(ctx, command);
+      }
+   }
+
+   @Override
+   public Object visitCommitCommand(TxInvocationContext ctx, CommitCommand command) throws Throwable {
+      return invokeNextThenAccept(ctx, command, commitToIndexes);
+   }
+
+   private void updateIndexes(InvocationContext ctx, VisitableCommand command, Object rv) {
+      updateIndexes(ctx, ((WriteCommand) command).getAffectedKeys());
+   }
+
+   private void commitToIndexes(InvocationContext ctx, VisitableCommand command, Object rv) {
+      TxInvocationContext<?> txCtx = (TxInvocationContext<?>) ctx;
+      if (txCtx.getModifications().stream().anyMatch(mod -> mod instanceof ClearCommand)) {
+         fieldIndexes.rebuild();
+      } else {
+         updateIndexes(ctx, txCtx.getAffectedKeys());
+      }
+   }
+
+   private void rebuildIndexes(InvocationContext ctx, VisitableCommand command, Object rv) {
+      fieldIndexes.rebuild();
+   }
+
+   private void updateIndexes(InvocationContext ctx, Collection<?> keys) {
+      for (Object key : keys) {
+         CacheEntry entry = ctx.lookupEntry(key);
+         if (entry != null) {
+            fieldIndexes.update(key, entry.isRemoved() || entry.isNull() ? null : entry.getValue());
+         }
+      }
+   }
+}
@@ -0,0 +1,213 @@
+package org.infinispan.query.dsl.embedded.impl;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.infinispan.objectfilter.impl.syntax.AndExpr;
+import org.infinispan.objectfilter.impl.syntax.BooleanExpr;
+import org.infinispan.objectfilter.impl.syntax.ComparisonExpr;
+import org.infinispan.objectfilter.impl.syntax.ConstantValueExpr;
+import org.infinispan.objectfilter.impl.syntax.OrExpr;
+import org.infinispan.objectfilter.impl.syntax.PropertyValueExpr;
+
+/**
+ * A plan for finding the candidate keys of a non-indexed query in the {@link FieldIndexes}, built from the normalized
+ * WHERE clause. The candidates are a superset of the matching keys, so they still have to be filtered with the full
+ * query. A condition that cannot be looked up in an index is ignored inside a conjunction, but makes the lookup
+ * impossible inside a disjunction, in which case the whole cache must be scanned.
+ *
+ * @since 9.2
+ */
+abstract class FieldIndexLookup {
+
+   /**
+    * Looks up the candidate keys.
+    *
+    * @param namedParameters the values of the query parameters
+    * @return the candidate keys, or {@code null} if the lookup is not possible with these parameter values
+    */
+   abstract Set<Object> lookup(Map<String, Object> namedParameters);
+
+   /**
+    * Plans the lookup of the candidates of a query.
+    *
+    * @return the lookup, or {@code null} if the whole cache must be scanned
+    */
+   static FieldIndexLookup plan(FieldIndexes fieldIndexes, Class<?> entityType, BooleanExpr normalizedWhereClause) {
+      if (normalizedWhereClause instanceof ComparisonExpr) {
+         return planComparison(fieldIndexes, entityType, (ComparisonExpr) normalizedWhereClause);
+      }
+      if (normalizedWhereClause instanceof AndExpr) {
+         List<FieldIndexLookup> children = new ArrayList<>();
+         for (BooleanExpr child : ((AndExpr) normalizedWhereClause).getChildren()) {
+            FieldIndexLookup lookup = plan(fieldIndexes, entityType, child);
+            if (lookup != null) {
+               children.add(lookup);
+            }
+         }
+         if (children.isEmpty()) {
+            return null;
+         }
+         return children.size() == 1 ? children.get(0) : new Intersection(children);
+      }
+      if (normalizedWhereClause instanceof OrExpr) {
+         List<FieldIndexLookup> children = new ArrayList<>();
+         for (BooleanExpr child : ((OrExpr) normalizedWhereClause).getChildren()) {
+            FieldIndexLookup lookup = plan(fieldIndexes, entityType, child);
+            if (lookup == null) {
+               return null;
+            }
+            children.add(lookup);
+         }
+         return new Union(children);
+      }
+      return null;
+   }
+
+   private static FieldIndexLookup planComparison(FieldIndexes fieldIndexes, Class<?> entityType, ComparisonExpr comparisonExpr) {
+      // the normalizer always places the constant on the right
+      if (!(comparisonExpr.getLeftChild() instanceof PropertyValueExpr) || !(comparisonExpr.getRightChild() instanceof ConstantValueExpr)) {
+         return null;
+      }
+      PropertyValueExpr propertyValueExpr = (PropertyValueExpr) comparisonExpr.getLeftChild();
+      if (propertyValueExpr.isRepeated() || propertyValueExpr.getPrimitiveType() == null) {
+         return null;
+      }
+      FieldIndex fieldIndex = fieldIndexes.getIndex(entityType, propertyValueExpr.getPropertyPath().asStringPathWithoutAlias());
+      if (fieldIndex == null) {
+         return null;
+      }
+      ConstantValueExpr constantValueExpr = (ConstantValueExpr) comparisonExpr.getRightChild();
+      Class<?> primitiveType = propertyValueExpr.getPrimitiveType();
+      switch (comparisonExpr.getComparisonType()) {
+         case EQUAL:
+            return new Equal(fieldIndex, primitiveType, constantValueExpr);
+         case LESS:
+            return new Range(fieldIndex, primitiveType, null, false, constantValueExpr, false);
+         case LESS_OR_EQUAL:
+            return new Range(fieldIndex, primitiveType, null, false, constantValueExpr, true);
+         case GREATER:
+            return new Range(fieldIndex, primitiveType, constantValueExpr, false, null, false);
+         case GREATER_OR_EQUAL:
+            return new Range(fieldIndex, primitiveType, constantValueExpr, true, null, false);
+         default:
+            // NOT_EQUAL matches almost everything, a scan is better
+            return null;
+      }
+   }
+
+   private static final class Equal extends FieldIndexLookup {
+
+      private final FieldIndex fieldIndex;
+
+      private final Class<?> primitiveType;
+
+      private final ConstantValueExpr value;
+
+      Equal(FieldIndex fieldIndex, Class<?> primitiveType, ConstantValueExpr value) {
+         this.fieldIndex = fieldIndex;
+         this.primitiveType = primitiveType;
+         this.value = value;
+      }
+
+      @Override
+      Set<Object> lookup(Map<String, Object> namedParameters) {
+         Comparable v = value.getConstantValueAs(primitiveType, namedParameters);
+         return fieldIndex.accepts(v) ? fieldIndex.getKeys(v) : null;
+      }
+   }
+
+   private static final class Range extends FieldIndexLookup {
+
+      private final FieldIndex fieldIndex;
+
+      private final Class<?> primitiveType;
+
+      private final ConstantValueExpr from;
+
+      private final boolean fromInclusive;
+
+      private final ConstantValueExpr to;
+
+      private final boolean toInclusive;
+
+      Range(FieldIndex fieldIndex, Class<?> primitiveType, ConstantValueExpr from, boolean fromInclusive, ConstantValueExpr to, boolean toInclusive) {
+         this.fieldIndex = fieldIndex;
+         this.primitiveType = primitiveType;
+         this.from = from;
+         this.fromInclusive = fromInclusive;
+         this.to = to;
+         this.toInclusive = toInclusive;
+      }
+
+      @Override
+      Set<Object> lookup(Map<String, Object> namedParameters) {
+         Comparable fromValue = from != null ? from.getConstantValueAs(primitiveType, namedParameters) : null;
+         Comparable toValue = to != null ? to.getConstantValueAs(primitiveType, namedParameters) : null;
+         if (fromValue != null && !fieldIndex.accepts(fromValue) || toValue != null && !fieldIndex.accepts(toValue)) {
+            return null;
+         }
+         return fieldIndex.getKeys(fromValue, fromInclusive, toValue, toInclusive);
+      }
+   }
+
+   private static final class Intersection extends FieldIndexLookup {
+
+      private final List<FieldIndexLookup> children;
+
+      Intersection(List<FieldIndexLookup> children) {
+         this.children = children;
+      }
+
+      @Override
+      Set<Object> lookup(Map<String, Object> namedParameters) {
+         Set<Object> result = null;
+         for (FieldIndexLookup child : children) {
+            Set<Object> keys = child.lookup(namedParameters);
+            // a condition that cannot be looked up is just not used for narrowing down the candidates
+            if (keys != null) {
+               if (result == null) {
+                  result = keys;
+               } else {
+                  if (keys.size() < result.size()) {
+                     Set<Object> smaller = keys;
+                     keys = result;
+                     result = smaller;
+                  }
+                  result.retainAll(keys);
+               }
+               if (result.isEmpty()) {
+                  return Collections.emptySet();
+               }
+            }
+         }
+         return result;
+      }
+   }
+
+   private static final class Union extends FieldIndexLookup {
+
+      private final List<FieldIndexLookup> children;
+
+      Union(List<FieldIndexLookup> children) {
+         this.children = children;
+      }
+
+      @Override
+      Set<Object> lookup(Map<String, Object> namedParameters) {
+         Set<Object> result = new HashSet<>();
+         for (FieldIndexLookup child : children) {
+            Set<Object> keys = child.lookup(namedParameters);
+            if (keys == null) {
+               return null;
+            }
+            result.addAll(keys);
+         }
+         return result;
+      }
+   }
+}
@@ -0,0 +1,163 @@
+package org.infinispan.query.dsl.embedded.impl;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.transaction.InvalidTransactionException;
+import javax.transaction.SystemException;
+import javax.transaction.Transaction;
+import javax.transaction.TransactionManager;
+
+import org.infinispan.AdvancedCache;
+import org.infinispan.commons.CacheException;
+import org.infinispan.commons.util.CloseableIterator;
+import org.infinispan.container.entries.CacheEntry;
+import org.infinispan.notifications.Listener;
+import org.infinispan.notifications.cachelistener.annotation.CacheEntriesEvicted;
+import org.infinispan.notifications.cachelistener.annotation.CacheEntryExpired;
+import org.infinispan.notifications.cachelistener.event.CacheEntriesEvictedEvent;
+import org.infinispan.notifications.cachelistener.event.CacheEntryExpiredEvent;
+import org.infinispan.objectfilter.impl.syntax.parser.EntityNameResolver;
+import org.infinispan.query.configuration.InMemoryIndexConfiguration;
+import org.infinispan.query.configuration.IndexedField;
+import org.infinispan.query.logging.Log;
+import org.infinispan.util.logging.LogFactory;
+
+/**
+ * The in-memory field indexes of a non-indexed cache, declared with {@link InMemoryIndexConfiguration}. The indexes
+ * are built from the cache contents when the cache starts. Then the {@link FieldIndexInterceptor} updates them on every
+ * write, including the writes that skip the listener notifications, and a listener removes the entries that expired or
+ * were evicted. They are used by the {@link QueryEngine} to find the candidate entries of a query without scanning the
+ * whole cache.
+ *
+ * @since 9.2
+ */
+public final class FieldIndexes {
+
+   private static final Log log = LogFactory.getLog(FieldIndexes.class, Log.class);
+
+   private final Map<Class<?>, Map<String, FieldIndex>> indexes = new HashMap<>();
+
+   private final Collection<FieldIndex> allIndexes = new ArrayList<>();
+
+   private final IndexUpdater indexUpdater = new IndexUpdater();
+
+   private AdvancedCache<?, ?> cache;
+
+   /**
+    * Evicted entries are removed from the indexes only if the cache has no store, otherwise they are still part of the
+    * query results.
+    */
+   private boolean removeEvicted;
+
+   public FieldIndexes(InMemoryIndexConfiguration configuration, EntityNameResolver entityNameResolver) {
+      for (IndexedField indexedField : configuration.indexedFields()) {
+         Class<?> entityType = entityNameResolver.resolve(indexedField.getEntityName());
+         FieldIndex fieldIndex = entityType != null ? FieldIndex.create(entityType, indexedField.getPath()) : null;
+         if (fieldIndex == null) {
+            throw log.cannotCreateInMemoryIndex(indexedField.toString());
+         }
+         indexes.computeIfAbsent(entityType, k -> new HashMap<>()).put(indexedField.getPath(), fieldIndex);
+         allIndexes.add(fieldIndex);
+      }
+   }
+
+   /**
+    * Starts maintaining the indexes and indexes the entries already in the cache.
+    */
+   public void start(AdvancedCache<?, ?> cache) {
+      this.cache = cache;
+      removeEvicted = !cache.getCacheConfiguration().persistence().usingStores();
+      // the listener is added first so no modification is missed, the existing entries do not overwrite newer values
+      cache.addListener(indexUpdater);
+      indexEntries();
+   }
+
+   public void stop() {
+      if (cache != null) {
+         cache.removeListener(indexUpdater);
+         cache = null;
+      }
+      for (FieldIndex fieldIndex : allIndexes) {
+         fieldIndex.clear();
+      }
+   }
+
+   /**
+    * @return the index of a field or {@code null} if the field is not indexed
+    */
+   FieldIndex getIndex(Class<?> entityType, String path) {
+      Map<String, FieldIndex> entityIndexes = indexes.get(entityType);
+      return entityIndexes != null ? entityIndexes.get(path) : null;
+   }
+
+   void update(Object key, Object value) {
+      for (FieldIndex fieldIndex : allIndexes) {
+         fieldIndex.update(key, value);
+      }
+   }
+
+   /**
+    * Builds the indexes again from the cache contents, after the cache was cleared. The writes that happen meanwhile
+    * are not lost, because the existing entries do not overwrite newer values.
+    */
+   void rebuild() {
+      for (FieldIndex fieldIndex : allIndexes) {
+         fieldIndex.clear();
+      }
+      // the entries must be read outside of the transaction that cleared the cache
+      TransactionManager tm = cache.getTransactionManager();
+      Transaction tx = null;
+      try {
+         if (tm != null) {
+            tx = tm.suspend();
+         }
+         indexEntries();
+      } catch (SystemException e) {
+         throw new CacheException(e);
+      } finally {
+         if (tx != null) {
+            try {
+               tm.resume(tx);
+            } catch (InvalidTransactionException | SystemException e) {
+               throw new CacheException(e);
+            }
+         }
+      }
+   }
+
+   private void indexEntries() {
+      try (CloseableIterator<? extends CacheEntry<?, ?>> it = cache.cacheEntrySet().iterator()) {
+         while (it.hasNext()) {
+            CacheEntry<?, ?> entry = it.next();
+            for (FieldIndex fieldIndex : allIndexes) {
+               fieldIndex.add(entry.getKey(), entry.getValue());
+            }
+         }
+      }
+   }
+
+   /**
+    * Removes the entries that expired or were evicted, as they are not removed by a command going through the
+    * {@link FieldIndexInterceptor}.
+    */
+   @Listener(observation = Listener.Observation.POST)
+   private final class IndexUpdater {
+
+      @CacheEntryExpired
+      public void expired(CacheEntryExpiredEvent<?, ?> event) {
+         update(event.getKey(), null);
+      }
+
+      @CacheEntriesEvicted
+      public void evicted(CacheEntriesEvictedEvent<?, ?> event) {
+         if (removeEvicted) {
+            for (Object key : event.getEntries().keySet()) {
+               update(key, null);
+            }
+         }
+      }
+   }
+}
@@ -95,6 +95,11 @@
     */
    private final QueryCache queryCache;
 
+   /**
+    * Optional in-memory field indexes. This is {@code null} if the cache is indexed or none were configured.
+    */
+   private final FieldIndexes fieldIndexes;
+
    /**
     * Optional, lazily acquired. This is {@code null} if the cache is not indexed.
     */
@@ -113,6 +118,7 @@ protected QueryEngine(AdvancedCache<?, ?> cache, boolean isIndexed, Class<? exte
       this.matcherImplClass = matcherImplClass;
       this.queryCache = ComponentRegistryUtils.getQueryCache(cache);
       this.matcher = SecurityActions.getCacheComponentRegistry(cache).getComponent(matcherImplClass);
+      this.fieldIndexes = SecurityActions.getCacheComponentRegistry(cache).getComponent(FieldIndexes.class);
       propertyHelper = ((BaseMatcher<TypeMetadata, ?, ?>) matcher).getPropertyHelper();
       if (fieldBridgeAndAnalyzerProvider == null && propertyHelper instanceof HibernateSearchPropertyHelper) {
          this.fieldBridgeAndAnalyzerProvider = (LuceneQueryMaker.FieldBridgeAndAnalyzerProvider<TypeMetadata>) (((HibernateSearchPropertyHelper) propertyHelper).getDefaultFieldBridgeProvider());
@@ -501,6 +507,18 @@ private BaseQuery buildQueryWithRepeatedAggregations(QueryFactory queryFactory,
             startOffset, maxResults, projectingAggregatingQuery);
    }
 
+   /**
+    * Plans the lookup of the candidates of a non-indexed query in the in-memory field indexes, if there are any.
+    *
+    * @return the lookup, or {@code null} if the whole cache must be scanned
+    */
+   private FieldIndexLookup planIndexLookup(IckleParsingResult<TypeMetadata> parsingResult, BooleanExpr normalizedWhereClause) {
+      if (fieldIndexes == null || !(parsingResult.getTargetEntityMetadata() instanceof Class)) {
+         return null;
+      }
+      return FieldIndexLookup.plan(fieldIndexes, (Class<?>) parsingResult.getTargetEntityMetadata(), normalizedWhereClause);
+   }
+
    private BaseQuery buildQueryNoAggregations(QueryFactory queryFactory, String queryString, Map<String, Object> namedParameters,
                                               long startOffset, int maxResults, IckleParsingResult<TypeMetadata> parsingResult, IndexedQueryMode queryMode) {
       if (parsingResult.hasGroupingOrAggregations()) {
@@ -539,7 +557,8 @@ private BaseQuery buildQueryNoAggregations(QueryFactory queryFactory, String que
       }
 
       if (!isIndexed) {
-         return new EmbeddedQuery(this, queryFactory, cache, queryString, namedParameters, parsingResult.getProjections(), startOffset, maxResults);
+         FieldIndexLookup indexLookup = planIndexLookup(parsingResult, normalizedWhereClause);
+         return new EmbeddedQuery(this, queryFactory, cache, queryString, namedParameters, parsingResult.getProjections(), startOffset, maxResults, indexLookup);
       }
 
       IndexedFieldProvider.FieldIndexingMetadata fieldIndexingMetadata = propertyHelper.getIndexedFieldProvider().get(parsingResult.getTargetEntityMetadata());
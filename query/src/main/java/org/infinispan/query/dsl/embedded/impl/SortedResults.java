@@ -0,0 +1,99 @@
+package org.infinispan.query.dsl.embedded.impl;
+
+import java.io.Serializable;
+import java.util.Comparator;
+import java.util.PriorityQueue;
+
+import org.infinispan.objectfilter.ObjectFilter;
+
+/**
+ * Collects the first results of a query in sort order, and counts all the results it was offered. Instances that
+ * collected the results of different nodes or segments can be merged, so only the first results of each node need to
+ * be sent to the originator.
+ *
+ * @since 9.2
+ */
+final class SortedResults implements Serializable {
+
+   /**
+    * Initial capacity of the queue, when the number of results is not bounded.
+    */
+   private static final int INITIAL_CAPACITY = 1000;
+
+   /**
+    * The results, in reverse order, so the head is the highest result and the first one to remove.
+    */
+   private final PriorityQueue<ObjectFilter.FilterResult> queue;
+
+   /**
+    * The maximum number of results to keep, or {@code -1} to keep all of them.
+    */
+   private final long maxResults;
+
+   private int count;
+
+   SortedResults(Comparator<Comparable[]> comparator, long maxResults) {
+      int initialCapacity = maxResults != -1 && maxResults < INITIAL_CAPACITY ? (int) maxResults + 1 : INITIAL_CAPACITY;
+      this.queue = new PriorityQueue<>(initialCapacity, new ReverseFilterResultComparator(comparator));
+      this.maxResults = maxResults;
+   }
+
+   void add(ObjectFilter.FilterResult result) {
+      count++;
+      offer(result);
+   }
+
+   SortedResults merge(SortedResults other) {
+      count += other.count;
+      for (ObjectFilter.FilterResult result : other.queue) {
+         offer(result);
+      }
+      return this;
+   }
+
+   private void offer(ObjectFilter.FilterResult result) {
+      queue.add(result);
+      if (maxResults != -1 && queue.size() > maxResults) {
+         // remove the head, which is actually the highest result
+         queue.remove();
+      }
+   }
+
+   /**
+    * @return the number of results offered, including the ones that were not kept
+    */
+   int getCount() {
+      return count;
+   }
+
+   /**
+    * Removes the kept results, starting with the highest.
+    *
+    * @return the highest result or {@code null} if there are no more
+    */
+   ObjectFilter.FilterResult pollHighest() {
+      return queue.poll();
+   }
+
+   int size() {
+      return queue.size();
+   }
+
+   /**
+    * Compares two {@link ObjectFilter.FilterResult} objects based on a given {@link Comparator} and reverses the
+    * result.
+    */
+   private static final class ReverseFilterResultComparator implements Comparator<ObjectFilter.FilterResult>, Serializable {
+
+      private final Comparator<Comparable[]> comparator;
+
+      private ReverseFilterResultComparator(Comparator<Comparable[]> comparator) {
+         this.comparator = comparator;
+      }
+
+      @Override
+      public int compare(ObjectFilter.FilterResult o1, ObjectFilter.FilterResult o2) {
+         return -comparator.compare(o1.getSortProjection(), o2.getSortProjection());
+      }
+   }
+}
@@ -58,9 +58,12 @@
 import org.infinispan.query.backend.TxQueryInterceptor;
 import org.infinispan.query.clustered.QueryBox;
 import org.infinispan.query.clustered.QueryDefinitionExternalizer;
+import org.infinispan.query.configuration.InMemoryIndexConfiguration;
 import org.infinispan.query.continuous.impl.ContinuousQueryResult;
 import org.infinispan.query.continuous.impl.IckleContinuousQueryCacheEventFilterConverter;
 import org.infinispan.query.dsl.embedded.impl.EmbeddedQueryEngine;
+import org.infinispan.query.dsl.embedded.impl.FieldIndexInterceptor;
+import org.infinispan.query.dsl.embedded.impl.FieldIndexes;
 import org.infinispan.query.dsl.embedded.impl.HibernateSearchPropertyHelper;
 import org.infinispan.query.dsl.embedded.impl.IckleCacheEventFilterConverter;
 import org.infinispan.query.dsl.embedded.impl.IckleFilterAndConverter;
@@ -139,6 +142,10 @@ public void cacheStarting(ComponentRegistry cr, Configuration cfg, String cacheN
 
          registerMatcher(cr, searchFactory);
 
+         if (!isIndexed) {
+            registerFieldIndexes(cr, cfg);
+         }
+
          EmbeddedQueryEngine queryEngine = new EmbeddedQueryEngine(cache, isIndexed);
          cr.registerComponent(queryEngine, EmbeddedQueryEngine.class);
       }
@@ -156,6 +163,22 @@ private void registerMatcher(ComponentRegistry cr, SearchIntegrator searchFactor
       cr.registerComponent(reflectionMatcher, ReflectionMatcher.class);
    }
 
+   private void registerFieldIndexes(ComponentRegistry cr, Configuration cfg) {
+      InMemoryIndexConfiguration inMemoryIndexConfiguration = cfg.module(InMemoryIndexConfiguration.class);
+      if (inMemoryIndexConfiguration != null && !inMemoryIndexConfiguration.indexedFields().isEmpty()) {
+         ClassLoader classLoader = cr.getGlobalComponentRegistry().getComponent(ClassLoader.class);
+         FieldIndexes fieldIndexes = new FieldIndexes(inMemoryIndexConfiguration, new ReflectionEntityNamesResolver(classLoader));
+         cr.registerComponent(fieldIndexes, FieldIndexes.class);
+
+         // the interceptor wraps the entry wrapping interceptor, so it sees the entries once they are committed
+         // a restarted cache still has the interceptor of the previous indexes
+         AsyncInterceptorChain ic = cr.getComponent(AsyncInterceptorChain.class);
+         ic.removeInterceptor(FieldIndexInterceptor.class);
+         EntryWrappingInterceptor wrappingInterceptor = ic.findInterceptorExtending(EntryWrappingInterceptor.class);
+         ic.addInterceptorBefore(new FieldIndexInterceptor(fieldIndexes), wrappingInterceptor.getClass());
+      }
+   }
+
    private void addCacheDependencyIfNeeded(String cacheStarting, EmbeddedCacheManager cacheManager, IndexingConfiguration indexingConfiguration) {
       if (indexingConfiguration.indexedEntities().isEmpty()) {
          // todo [anistor] remove dependency on QueryKnownClasses in Infinispan 10.0
@@ -225,6 +248,10 @@ public void cacheStarted(ComponentRegistry cr, String cacheName) {
          if (verifyChainContainsQueryInterceptor(cr)) {
             throw new IllegalStateException("It was NOT expected to find the Query interceptor registered in the InterceptorChain as indexing was disabled, but it was found");
          }
+         FieldIndexes fieldIndexes = cr.getComponent(FieldIndexes.class);
+         if (fieldIndexes != null) {
+            fieldIndexes.start(cr.getComponent(Cache.class).getAdvancedCache());
+         }
          return;
       }
       if (!verifyChainContainsQueryInterceptor(cr)) {
@@ -383,6 +410,10 @@ public void cacheStopping(ComponentRegistry cr, String cacheName) {
       if (queryInterceptor != null) {
          queryInterceptor.prepareForStopping();
       }
+      FieldIndexes fieldIndexes = cr.getComponent(FieldIndexes.class);
+      if (fieldIndexes != null) {
+         fieldIndexes.stop();
+      }
       //TODO move this to cacheStopped event (won't work right now as the ComponentRegistry is half empty at that point: ISPN-1006)
       Object searchFactoryIntegrator = cr.getComponent(SearchIntegrator.class);
       if (searchFactoryIntegrator != null && searchFactoryIntegrator != REMOVED_REGISTRY_COMPONENT) {
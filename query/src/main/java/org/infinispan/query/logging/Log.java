@@ -15,6 +15,8 @@
 import org.hibernate.search.exception.SearchException;
 import org.infinispan.commons.CacheConfigurationException;
 import org.infinispan.commons.CacheException;
+import org.infinispan.configuration.cache.CacheMode;
+import org.infinispan.configuration.cache.StorageType;
 import org.infinispan.objectfilter.ParsingException;
 import org.infinispan.remoting.transport.Address;
 import org.jboss.logging.BasicLogger;
@@ -165,4 +167,16 @@ public interface Log extends BasicLogger {
 
    @Message(value = "Unable to define sort, please use sorting in the query string instead.", id = 14041)
    SearchException sortNotSupportedWithQueryString();
+
+   @Message(value = "In-memory field indexes require a local cache, but the cache mode is %s", id = 14042)
+   CacheConfigurationException inMemoryIndexRequiresLocalCache(CacheMode cacheMode);
+
+   @Message(value = "In-memory field indexes require the OBJECT storage type, but the storage type is %s", id = 14043)
+   CacheConfigurationException inMemoryIndexRequiresObjectStorage(StorageType storageType);
+
+   @Message(value = "Cannot create an in-memory index on '%s', the entity or the property does not exist, the property is multi-valued or its type is not supported", id = 14044)
+   CacheConfigurationException cannotCreateInMemoryIndex(String field);
+
+   @Message(value = "In-memory field indexes are not supported by simple caches", id = 14045)
+   CacheConfigurationException inMemoryIndexNotSupportedBySimpleCache();
 }
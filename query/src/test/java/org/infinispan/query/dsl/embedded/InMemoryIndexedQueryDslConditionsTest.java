@@ -0,0 +1,118 @@
+package org.infinispan.query.dsl.embedded;
+
+import static org.testng.AssertJUnit.assertEquals;
+
+import java.util.List;
+
+import org.infinispan.AdvancedCache;
+import org.infinispan.Cache;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.context.Flag;
+import org.infinispan.query.Search;
+import org.infinispan.query.configuration.InMemoryIndexConfigurationBuilder;
+import org.infinispan.query.dsl.Query;
+import org.infinispan.query.dsl.QueryFactory;
+import org.infinispan.query.dsl.embedded.testdomain.User;
+import org.infinispan.query.dsl.embedded.testdomain.hsearch.TransactionHS;
+import org.infinispan.query.dsl.embedded.testdomain.hsearch.UserHS;
+import org.infinispan.test.fwk.TestCacheManagerFactory;
+import org.testng.annotations.Test;
+
+/**
+ * Runs the non-indexed query conditions tests on a cache having in-memory indexes on some of the fields, so the
+ * candidates of the queries are looked up in the indexes instead of scanning the cache.
+ *
+ * @since 9.2
+ */
+@Test(groups = "functional", testName = "query.dsl.embedded.InMemoryIndexedQueryDslConditionsTest")
+public class InMemoryIndexedQueryDslConditionsTest extends NonIndexedQueryDslConditionsTest {
+
+   private ConfigurationBuilder cfg;
+
+   @Override
+   protected void createCacheManagers() throws Throwable {
+      cfg = TestCacheManagerFactory.getDefaultCacheConfiguration(true);
+      cfg.addModule(InMemoryIndexConfigurationBuilder.class)
+            .addIndexedField(UserHS.class, "id")
+            .addIndexedField(UserHS.class, "name")
+            .addIndexedField(UserHS.class, "surname")
+            .addIndexedField(UserHS.class, "age")
+            .addIndexedField(UserHS.class, "gender")
+            .addIndexedField(TransactionHS.class, "accountId")
+            .addIndexedField(TransactionHS.class, "amount")
+            .addIndexedField(TransactionHS.class, "description");
+      createClusteredCaches(1, cfg);
+   }
+
+   public void testIndexFollowsUpdates() {
+      User user = getModelFactory().makeUser();
+      user.setId(16);
+      user.setName("Indexed");
+      user.setSurname("User");
+      user.setGender(User.Gender.FEMALE);
+      user.setAge(70);
+      getCacheForWrite().put("indexed_user_16", user);
+
+      QueryFactory qf = getQueryFactory();
+      Query q = qf.create("from " + getModelFactory().getUserTypeName() + " where age = :age");
+
+      q.setParameter("age", 70);
+      List<User> list = q.list();
+      assertEquals(1, list.size());
+      assertEquals(16, list.get(0).getId());
+
+      user.setAge(71);
+      getCacheForWrite().put("indexed_user_16", user);
+      assertEquals(0, q.list().size());
+      q.setParameter("age", 71);
+      assertEquals(1, q.list().size());
+
+      Query range = qf.create("from " + getModelFactory().getUserTypeName() + " where age >= 70 and name = 'Indexed'");
+      assertEquals(1, range.list().size());
+
+      getCacheForWrite().remove("indexed_user_16");
+      assertEquals(0, q.list().size());
+      assertEquals(0, range.list().size());
+   }
+
+   public void testIndexFollowsWritesSkippingListeners() {
+      User user = getModelFactory().makeUser();
+      user.setId(17);
+      user.setName("Silent");
+      user.setSurname("User");
+      user.setGender(User.Gender.MALE);
+      user.setAge(72);
+      AdvancedCache<Object, Object> cache = this.<Object, Object>advancedCache(0).withFlags(Flag.SKIP_LISTENER_NOTIFICATION);
+      cache.put("indexed_user_17", user);
+
+      Query q = getQueryFactory().create("from " + getModelFactory().getUserTypeName() + " where age = 72");
+      List<User> list = q.list();
+      assertEquals(1, list.size());
+      assertEquals(17, list.get(0).getId());
+
+      cache.remove("indexed_user_17");
+      assertEquals(0, q.list().size());
+   }
+
+   public void testIndexRebuiltOnClear() {
+      String cacheName = "clearedCache";
+      manager(0).defineConfiguration(cacheName, cfg.build());
+      Cache<Object, Object> cache = manager(0).getCache(cacheName);
+      User user = getModelFactory().makeUser();
+      user.setId(18);
+      user.setName("Cleared");
+      user.setSurname("User");
+      user.setGender(User.Gender.MALE);
+      user.setAge(73);
+      cache.put("indexed_user_18", user);
+
+      Query q = Search.getQueryFactory(cache).create("from " + getModelFactory().getUserTypeName() + " where age = 73");
+      assertEquals(1, q.list().size());
+
+      cache.clear();
+      assertEquals(0, q.list().size());
+
+      cache.put("indexed_user_18", user);
+      assertEquals(1, q.list().size());
+   }
+}
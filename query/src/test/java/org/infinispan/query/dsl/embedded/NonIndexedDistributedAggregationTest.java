@@ -0,0 +1,103 @@
+package org.infinispan.query.dsl.embedded;
+
+import static org.testng.AssertJUnit.assertEquals;
+
+import java.util.List;
+
+import org.infinispan.Cache;
+import org.infinispan.configuration.cache.CacheMode;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.distribution.MagicKey;
+import org.infinispan.query.Search;
+import org.infinispan.query.dsl.Query;
+import org.infinispan.query.test.Person;
+import org.infinispan.test.MultipleCacheManagersTest;
+import org.testng.annotations.Test;
+
+/**
+ * Tests the sorted queries with a limit and the grouping queries of a non-indexed distributed cache. Each node sorts
+ * or groups its own entries and sends the partial results to the originator, so this also checks that they can be
+ * marshalled.
+ *
+ * @since 9.2
+ */
+@Test(groups = "functional", testName = "query.dsl.embedded.NonIndexedDistributedAggregationTest")
+public class NonIndexedDistributedAggregationTest extends MultipleCacheManagersTest {
+
+   private static final int NUM_NODES = 3;
+
+   private static final int NUM_ENTRIES = 30;
+
+   @Override
+   protected void createCacheManagers() throws Throwable {
+      ConfigurationBuilder cfg = getDefaultClusteredCacheConfig(CacheMode.DIST_SYNC, false);
+      // every node owns different entries, so all of them send partial results
+      cfg.clustering().hash().numOwners(1);
+      createClusteredCaches(NUM_NODES, cfg);
+
+      for (int i = 0; i < NUM_ENTRIES; i++) {
+         Cache<Object, Person> cache = cache(i % NUM_NODES);
+         cache.put(new MagicKey(cache), new Person("name" + i % 3, null, i));
+      }
+   }
+
+   public void testOrderByWithLimit() {
+      Query q = Search.getQueryFactory(cache(0))
+            .create("from " + Person.class.getName() + " where age >= 5 order by age desc");
+      q.startOffset(3).maxResults(4);
+
+      List<Person> list = q.list();
+      assertEquals(4, list.size());
+      for (int i = 0; i < 4; i++) {
+         assertEquals(26 - i, list.get(i).getAge());
+      }
+      assertEquals(25, q.getResultSize());
+   }
+
+   public void testProjectionOrderByWithLimit() {
+      Query q = Search.getQueryFactory(cache(1))
+            .create("select name, age from " + Person.class.getName() + " order by name asc, age desc");
+      q.maxResults(3);
+
+      List<Object[]> list = q.list();
+      assertEquals(3, list.size());
+      for (int i = 0; i < 3; i++) {
+         assertEquals("name0", list.get(i)[0]);
+         assertEquals(27 - 3 * i, list.get(i)[1]);
+      }
+      assertEquals(NUM_ENTRIES, q.getResultSize());
+   }
+
+   public void testGroupBy() {
+      Query q = Search.getQueryFactory(cache(0))
+            .create("select name, count(age), sum(age), min(age), max(age) from " + Person.class.getName()
+                  + " group by name order by name");
+
+      List<Object[]> list = q.list();
+      assertEquals(3, list.size());
+      for (int i = 0; i < 3; i++) {
+         // the ages of name<i> are i, i + 3, ..., i + 27
+         Object[] row = list.get(i);
+         assertEquals("name" + i, row[0]);
+         assertEquals(10L, row[1]);
+         assertEquals(135L + 10 * i, row[2]);
+         assertEquals(i, row[3]);
+         assertEquals(27 + i, row[4]);
+      }
+      assertEquals(3, q.getResultSize());
+   }
+
+   public void testGroupByWithLimit() {
+      Query q = Search.getQueryFactory(cache(2))
+            .create("select name, sum(age) from " + Person.class.getName()
+                  + " where age < 20 group by name order by name desc");
+      q.startOffset(1).maxResults(1);
+
+      List<Object[]> list = q.list();
+      assertEquals(1, list.size());
+      assertEquals("name1", list.get(0)[0]);
+      // 1 + 4 + 7 + 10 + 13 + 16 + 19
+      assertEquals(70L, list.get(0)[1]);
+      assertEquals(3, q.getResultSize());
+   }
+}
@@ -28,5 +28,7 @@ private ExternalizerIds() { }
    public static final int TX_STATE = 1113;
    public static final int CACHE_XID = 1114;
    public static final int CLIENT_ADDRESS = 1115;
+   public static final int IF_UNMODIFIED_FUNCTION = 1116;
+   public static final int MEMCACHED_IF_UNMODIFIED_FUNCTION = 1117;
 
 }
@@ -1,19 +1,41 @@
 package org.infinispan.server.hotrod;
 
 import java.util.concurrent.CompletionException;
-import java.util.concurrent.Executor;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Supplier;
+
+import org.infinispan.util.concurrent.CompletableFutures;
 
 import io.netty.channel.Channel;
 
 public class BaseRequestProcessor {
    protected final Channel channel;
-   protected final Executor executor;
+   protected final ConnectionExecutor executor;
 
-   BaseRequestProcessor(Channel channel, Executor executor) {
+   BaseRequestProcessor(Channel channel, ConnectionExecutor executor) {
       this.channel = channel;
       this.executor = executor;
    }
 
+   /**
+    * Executes an operation that may block in the worker threads. The operation writes the response itself, unless the
+    * worker threads reject it or it throws an exception.
+    */
+   protected void executeBlocking(CacheDecodeContext cdc, Runnable operation) {
+      executeBlockingAsync(cdc, () -> {
+         operation.run();
+         return CompletableFutures.completedNull();
+      });
+   }
+
+   /**
+    * Same as {@link #executeBlocking(CacheDecodeContext, Runnable)} for an asynchronous operation that may only block
+    * while it starts. The request keeps its slot in the {@link ConnectionExecutor} until the returned stage completes.
+    */
+   protected void executeBlockingAsync(CacheDecodeContext cdc, Supplier<? extends CompletionStage<?>> operation) {
+      executor.execute(operation, t -> writeException(cdc, t));
+   }
+
    protected void writeException(CacheDecodeContext cdc, Throwable cause) {
       if (cause instanceof CompletionException && cause.getCause() != null) {
          cause = cause.getCause();
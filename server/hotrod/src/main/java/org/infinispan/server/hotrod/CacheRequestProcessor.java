@@ -3,22 +3,25 @@
 import java.util.BitSet;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.Executor;
 
 import javax.security.auth.Subject;
 
 import org.infinispan.AdvancedCache;
 import org.infinispan.commons.logging.LogFactory;
 import org.infinispan.container.entries.CacheEntry;
-import org.infinispan.container.versioning.NumericVersion;
 import org.infinispan.context.Flag;
 import org.infinispan.factories.ComponentRegistry;
+import org.infinispan.functional.FunctionalMap.ReadWriteMap;
+import org.infinispan.functional.impl.FunctionalMapImpl;
+import org.infinispan.functional.impl.ReadWriteMapImpl;
 import org.infinispan.lifecycle.ComponentStatus;
 import org.infinispan.notifications.Listener;
 import org.infinispan.notifications.cachemanagerlistener.annotation.CacheStopped;
 import org.infinispan.notifications.cachemanagerlistener.event.CacheStoppedEvent;
 import org.infinispan.persistence.manager.PersistenceManager;
+import org.infinispan.security.AuthorizationPermission;
 import org.infinispan.security.impl.SecureCacheImpl;
 import org.infinispan.server.hotrod.iteration.IterableIterationResult;
 import org.infinispan.server.hotrod.logging.Log;
@@ -39,7 +42,7 @@ class CacheRequestProcessor extends BaseRequestProcessor {
    // cacheStopped could be invoked concurrently
    private final Map<String, CacheInfo> cacheInfo = new ConcurrentHashMap<>();
 
-   CacheRequestProcessor(Channel channel, Executor executor, HotRodServer server) {
+   CacheRequestProcessor(Channel channel, ConnectionExecutor executor, HotRodServer server) {
       super(channel, executor);
       this.server = server;
       listenerRegistry = server.getClientListenerRegistry();
@@ -96,14 +99,14 @@ void get(CacheDecodeContext cdc) {
       if (entry != null) {
          handleGet(cdc, entry, null);
       } else if (isBlockingRead(cdc, info)) {
-         executor.execute(() -> getInternal(cdc));
+         executeBlockingAsync(cdc, () -> getInternal(cdc));
       } else {
          getInternal(cdc);
       }
    }
 
-   private void getInternal(CacheDecodeContext cdc) {
-      cdc.cache().withFlags(SKIP_STATISTICS).getCacheEntryAsync(cdc.key)
+   private CompletionStage<?> getInternal(CacheDecodeContext cdc) {
+      return cdc.cache().withFlags(SKIP_STATISTICS).getCacheEntryAsync(cdc.key)
             .whenComplete((result, throwable) -> handleGet(cdc, result, throwable));
    }
 
@@ -126,14 +129,14 @@ void getKeyMetadata(CacheDecodeContext cdc) {
       if (entry != null) {
          handleGetKeyMetadata(cdc, entry, null);
       } else if (isBlockingRead(cdc, info)) {
-         executor.execute(() -> getKeyMetadataInternal(cdc));
+         executeBlockingAsync(cdc, () -> getKeyMetadataInternal(cdc));
       } else {
          getKeyMetadataInternal(cdc);
       }
    }
 
-   private void getKeyMetadataInternal(CacheDecodeContext cdc) {
-      cdc.cache().withFlags(SKIP_STATISTICS).getCacheEntryAsync(cdc.key)
+   private CompletionStage<?> getKeyMetadataInternal(CacheDecodeContext cdc) {
+      return cdc.cache().withFlags(SKIP_STATISTICS).getCacheEntryAsync(cdc.key)
             .whenComplete((ce, throwable) -> handleGetKeyMetadata(cdc, ce, throwable));
    }
 
@@ -160,14 +163,14 @@ void containsKey(CacheDecodeContext cdc) {
       if (contains) {
          writeSuccess(cdc, null);
       } else if (isBlockingRead(cdc, info)) {
-         executor.execute(() -> containsKeyInternal(cdc));
+         executeBlockingAsync(cdc, () -> containsKeyInternal(cdc));
       } else {
          containsKeyInternal(cdc);
       }
    }
 
-   private void containsKeyInternal(CacheDecodeContext cdc) {
-      cdc.cache().withFlags(SKIP_STATISTICS).containsKeyAsync(cdc.key)
+   private CompletionStage<?> containsKeyInternal(CacheDecodeContext cdc) {
+      return cdc.cache().withFlags(SKIP_STATISTICS).containsKeyAsync(cdc.key)
             .whenComplete((result, throwable) -> handleContainsKey(cdc, result, throwable));
    }
 
@@ -183,14 +186,14 @@ private void handleContainsKey(CacheDecodeContext cdc, Boolean result, Throwable
 
    void put(CacheDecodeContext cdc) {
       if (isBlockingWrite(cdc)) {
-         executor.execute(() -> putInternal(cdc));
+         executeBlockingAsync(cdc, () -> putInternal(cdc));
       } else {
          putInternal(cdc);
       }
    }
 
-   private void putInternal(CacheDecodeContext cdc) {
-      cdc.cache().putAsync(cdc.key, (byte[]) cdc.operationDecodeContext, cdc.buildMetadata())
+   private CompletionStage<?> putInternal(CacheDecodeContext cdc) {
+      return cdc.cache().putAsync(cdc.key, (byte[]) cdc.operationDecodeContext, cdc.buildMetadata())
             .whenComplete((result, throwable) -> handlePut(cdc, result, throwable));
    }
 
@@ -204,67 +207,56 @@ private void handlePut(CacheDecodeContext cdc, byte[] result, Throwable throwabl
 
    void replaceIfUnmodified(CacheDecodeContext cdc) {
       if (isBlockingWrite(cdc)) {
-         executor.execute(() -> replaceIfUnmodifiedInternal(cdc));
+         executeBlockingAsync(cdc, () -> replaceIfUnmodifiedInternal(cdc));
       } else {
          replaceIfUnmodifiedInternal(cdc);
       }
    }
 
-   private void replaceIfUnmodifiedInternal(CacheDecodeContext cdc) {
-      cdc.cache().withFlags(Flag.SKIP_LISTENER_NOTIFICATION).getCacheEntryAsync(cdc.key)
-            .whenComplete((entry, throwable) -> handleGetForReplaceIfUnmodified(cdc, entry, throwable));
+   private CompletionStage<?> replaceIfUnmodifiedInternal(CacheDecodeContext cdc) {
+      IfUnmodifiedFunction function = new IfUnmodifiedFunction(cdc.params.streamVersion,
+                                                               (byte[]) cdc.operationDecodeContext, cdc.buildMetadata());
+      return readWriteMap(cdc).eval(cdc.key, function)
+            .whenComplete((result, throwable) -> handleIfUnmodified(cdc, result, throwable));
    }
 
-   private void handleGetForReplaceIfUnmodified(CacheDecodeContext cdc, CacheEntry<byte[], byte[]> entry, Throwable throwable) {
+   private void handleIfUnmodified(CacheDecodeContext cdc, KeyValuePair<byte[], Boolean> result, Throwable throwable) {
       if (throwable != null) {
          writeException(cdc, throwable);
-      } else if (entry != null) {
-         byte[] prev = entry.getValue();
-         NumericVersion streamVersion = new NumericVersion(cdc.params.streamVersion);
-         if (entry.getMetadata().version().equals(streamVersion)) {
-            cdc.cache().replaceAsync(cdc.key, prev, (byte[]) cdc.operationDecodeContext, cdc.buildMetadata())
-                  .whenComplete((replaced, throwable2) -> {
-                     if (throwable2 != null) {
-                        writeException(cdc, throwable2);
-                     } else if (replaced) {
-                        writeSuccess(cdc, prev);
-                     } else {
-                        writeNotExecuted(cdc, prev);
-                     }
-                  });
-         } else {
-            writeNotExecuted(cdc, prev);
-         }
-      } else {
+      } else if (result == null) {
          writeNotExist(cdc);
+      } else if (result.getValue()) {
+         writeSuccess(cdc, result.getKey());
+      } else {
+         writeNotExecuted(cdc, result.getKey());
       }
    }
 
+   /**
+    * The functional map doesn't check permissions, so with authorization enabled the permission is checked here and
+    * the commands are invoked on the unsecured cache.
+    */
+   private ReadWriteMap<byte[], byte[]> readWriteMap(CacheDecodeContext cdc) {
+      AdvancedCache<byte[], byte[]> cache = cdc.cache();
+      if (cache instanceof SecureCacheImpl) {
+         SecurityActions.getCacheAuthorizationManager(cache).checkPermission(cdc.subject, AuthorizationPermission.WRITE);
+         cache = SecurityActions.getUnwrappedCache(cache);
+      }
+      return ReadWriteMapImpl.create(FunctionalMapImpl.create(cache));
+   }
+
    void replace(CacheDecodeContext cdc) {
       if (isBlockingWrite(cdc)) {
-         executor.execute(() -> replaceInternal(cdc));
+         executeBlockingAsync(cdc, () -> replaceInternal(cdc));
       } else {
          replaceInternal(cdc);
       }
    }
 
-   private void replaceInternal(CacheDecodeContext cdc) {
-      // Avoid listener notification for a simple optimization
-      // on whether a new version should be calculated or not.
-      cdc.cache().withFlags(Flag.SKIP_LISTENER_NOTIFICATION).getAsync(cdc.key)
-            .whenComplete((prev, throwable) -> handleGetForReplace(cdc, prev, throwable));
-   }
-
-   private void handleGetForReplace(CacheDecodeContext cdc, byte[] prev, Throwable throwable) {
-      if (throwable != null) {
-         writeException(cdc, throwable);
-      } else if (prev != null) {
-         // Generate new version only if key present
-         cdc.cache().replaceAsync(cdc.key, (byte[]) cdc.operationDecodeContext, cdc.buildMetadata())
-               .whenComplete((result, throwable1) -> handleReplace(cdc, result, throwable1));
-      } else {
-         writeNotExecuted(cdc, null);
-      }
+   private CompletionStage<?> replaceInternal(CacheDecodeContext cdc) {
+      // The version is generated even if the key is not present, as reading the key first would need another command
+      return cdc.cache().replaceAsync(cdc.key, (byte[]) cdc.operationDecodeContext, cdc.buildMetadata())
+            .whenComplete((result, throwable) -> handleReplace(cdc, result, throwable));
    }
 
    private void handleReplace(CacheDecodeContext cdc, byte[] result, Throwable throwable) {
@@ -279,26 +271,16 @@ private void handleReplace(CacheDecodeContext cdc, byte[] result, Throwable thro
 
    void putIfAbsent(CacheDecodeContext cdc) {
       if (isBlockingWrite(cdc)) {
-         executor.execute(() -> putIfAbsent(cdc));
+         executeBlockingAsync(cdc, () -> putIfAbsentInternal(cdc));
       } else {
          putIfAbsentInternal(cdc);
       }
    }
 
-   private void putIfAbsentInternal(CacheDecodeContext cdc) {
-      cdc.cache().getAsync(cdc.key).whenComplete((prev, throwable) -> handleGetForPutIfAbsent(cdc, prev, throwable));
-   }
-
-   private void handleGetForPutIfAbsent(CacheDecodeContext cdc, byte[] prev, Throwable throwable) {
-      if (throwable != null) {
-         writeException(cdc, throwable);
-      } else if (prev == null) {
-         // Generate new version only if key not present
-         cdc.cache().putIfAbsentAsync(cdc.key, (byte[]) cdc.operationDecodeContext, cdc.buildMetadata())
-               .whenComplete((result, throwable1) -> handlePutIfAbsent(cdc, result, throwable1));
-      } else {
-         writeNotExecuted(cdc, prev);
-      }
+   private CompletionStage<?> putIfAbsentInternal(CacheDecodeContext cdc) {
+      // The version is generated even if the key is present, as reading the key first would need another command
+      return cdc.cache().putIfAbsentAsync(cdc.key, (byte[]) cdc.operationDecodeContext, cdc.buildMetadata())
+            .whenComplete((result, throwable) -> handlePutIfAbsent(cdc, result, throwable));
    }
 
    private void handlePutIfAbsent(CacheDecodeContext cdc, byte[] result, Throwable throwable) {
@@ -313,14 +295,14 @@ private void handlePutIfAbsent(CacheDecodeContext cdc, byte[] result, Throwable
 
    void remove(CacheDecodeContext cdc) {
       if (isBlockingWrite(cdc)) {
-         executor.execute(() -> removeInternal(cdc));
+         executeBlockingAsync(cdc, () -> removeInternal(cdc));
       } else {
          removeInternal(cdc);
       }
    }
 
-   private void removeInternal(CacheDecodeContext cdc) {
-      cdc.cache().removeAsync(cdc.key).whenComplete((prev, throwable) -> handleRemove(cdc, prev, throwable));
+   private CompletionStage<?> removeInternal(CacheDecodeContext cdc) {
+      return cdc.cache().removeAsync(cdc.key).whenComplete((prev, throwable) -> handleRemove(cdc, prev, throwable));
    }
 
    private void handleRemove(CacheDecodeContext cdc, byte[] prev, Throwable throwable) {
@@ -335,51 +317,28 @@ private void handleRemove(CacheDecodeContext cdc, byte[] prev, Throwable throwab
 
    void removeIfUnmodified(CacheDecodeContext cdc) {
       if (isBlockingWrite(cdc)) {
-         executor.execute(() -> removeIfUnmodifiedInternal(cdc));
+         executeBlockingAsync(cdc, () -> removeIfUnmodifiedInternal(cdc));
       } else {
          removeIfUnmodifiedInternal(cdc);
       }
    }
 
-   private void removeIfUnmodifiedInternal(CacheDecodeContext cdc) {
-      cdc.cache().getCacheEntryAsync(cdc.key)
-            .whenComplete((entry, throwable) -> handleGetForRemoveIfUnmodified(cdc, entry, throwable));
-   }
-
-   private void handleGetForRemoveIfUnmodified(CacheDecodeContext cdc, CacheEntry<byte[], byte[]> entry, Throwable throwable) {
-      if (throwable != null) {
-         writeException(cdc, throwable);
-      } else if (entry != null) {
-         byte[] prev = entry.getValue();
-         NumericVersion streamVersion = new NumericVersion(cdc.params.streamVersion);
-         if (entry.getMetadata().version().equals(streamVersion)) {
-            cdc.cache().removeAsync(cdc.key, prev).whenComplete((removed, throwable2) -> {
-               if (throwable2 != null) {
-                  writeException(cdc, throwable2);
-               } else if (removed) {
-                  writeSuccess(cdc, prev);
-               } else {
-                  writeNotExecuted(cdc, prev);
-               }
-            });
-         } else {
-            writeNotExecuted(cdc, prev);
-         }
-      } else {
-         writeNotExist(cdc);
-      }
+   private CompletionStage<?> removeIfUnmodifiedInternal(CacheDecodeContext cdc) {
+      IfUnmodifiedFunction function = new IfUnmodifiedFunction(cdc.params.streamVersion, null, null);
+      return readWriteMap(cdc).eval(cdc.key, function)
+            .whenComplete((result, throwable) -> handleIfUnmodified(cdc, result, throwable));
    }
 
    void clear(CacheDecodeContext cdc) {
       if (isBlockingWrite(cdc)) {
-         executor.execute(() -> clearInternal(cdc));
+         executeBlockingAsync(cdc, () -> clearInternal(cdc));
       } else {
          clearInternal(cdc);
       }
    }
 
-   private void clearInternal(CacheDecodeContext cdc) {
-      cdc.cache().clearAsync().whenComplete((nil, throwable) -> {
+   private CompletionStage<?> clearInternal(CacheDecodeContext cdc) {
+      return cdc.cache().clearAsync().whenComplete((nil, throwable) -> {
          if (throwable != null) {
             writeException(cdc, throwable);
          } else {
@@ -390,14 +349,14 @@ private void clearInternal(CacheDecodeContext cdc) {
 
    void putAll(CacheDecodeContext cdc) {
       if (isBlockingWrite(cdc)) {
-         executor.execute(() -> putAllInternal(cdc));
+         executeBlockingAsync(cdc, () -> putAllInternal(cdc));
       } else {
          putAllInternal(cdc);
       }
    }
 
-   private void putAllInternal(CacheDecodeContext cdc) {
-      cdc.cache().putAllAsync(cdc.operationContext(), cdc.buildMetadata())
+   private CompletionStage<?> putAllInternal(CacheDecodeContext cdc) {
+      return cdc.cache().putAllAsync(cdc.operationContext(), cdc.buildMetadata())
             .whenComplete((nil, throwable) -> handlePutAll(cdc, throwable));
    }
 
@@ -411,14 +370,14 @@ private void handlePutAll(CacheDecodeContext cdc, Throwable throwable) {
 
    void getAll(CacheDecodeContext cdc) {
       if (isBlockingRead(cdc, getCacheInfo(cdc))) {
-         executor.execute(() -> getAllInternal(cdc));
+         executeBlockingAsync(cdc, () -> getAllInternal(cdc));
       } else {
          getAllInternal(cdc);
       }
    }
 
-   private void getAllInternal(CacheDecodeContext cdc) {
-      cdc.cache().getAllAsync(cdc.operationContext())
+   private CompletionStage<?> getAllInternal(CacheDecodeContext cdc) {
+      return cdc.cache().getAllAsync(cdc.operationContext())
             .whenComplete((map, throwable) -> handleGetAll(cdc, map, throwable));
    }
 
@@ -432,7 +391,7 @@ private void handleGetAll(CacheDecodeContext cdc, Map<byte[], byte[]> map, Throw
    }
 
    void size(CacheDecodeContext cdc) {
-      executor.execute(() -> sizeInternal(cdc));
+      executeBlocking(cdc, () -> sizeInternal(cdc));
    }
 
    private void sizeInternal(CacheDecodeContext cdc) {
@@ -447,7 +406,7 @@ private void sizeInternal(CacheDecodeContext cdc) {
    }
 
    void bulkGet(CacheDecodeContext cdc) {
-      executor.execute(() -> bulkGetInternal(cdc));
+      executeBlocking(cdc, () -> bulkGetInternal(cdc));
    }
 
    private void bulkGetInternal(CacheDecodeContext cdc) {
@@ -466,7 +425,7 @@ private void bulkGetInternal(CacheDecodeContext cdc) {
    }
 
    public void bulkGetKeys(CacheDecodeContext cdc) {
-      executor.execute(() -> bulkGetKeysInternal(cdc));
+      executeBlocking(cdc, () -> bulkGetKeysInternal(cdc));
    }
 
    private void bulkGetKeysInternal(CacheDecodeContext cdc) {
@@ -484,7 +443,7 @@ private void bulkGetKeysInternal(CacheDecodeContext cdc) {
    }
 
    void query(CacheDecodeContext cdc) {
-      executor.execute(() -> queryInternal(cdc));
+      executeBlocking(cdc, () -> queryInternal(cdc));
    }
 
    private void queryInternal(CacheDecodeContext cdc) {
@@ -498,7 +457,7 @@ private void queryInternal(CacheDecodeContext cdc) {
    }
 
    void addClientListener(CacheDecodeContext cdc) {
-      executor.execute(() -> addClientListenerInternal(cdc));
+      executeBlocking(cdc, () -> addClientListenerInternal(cdc));
    }
 
    private void addClientListenerInternal(CacheDecodeContext cdc) {
@@ -513,7 +472,7 @@ private void addClientListenerInternal(CacheDecodeContext cdc) {
    }
 
    void removeClientListener(CacheDecodeContext cdc) {
-      executor.execute(() -> removeClientListenerInternal(cdc));
+      executeBlocking(cdc, () -> removeClientListenerInternal(cdc));
    }
 
    private void removeClientListenerInternal(CacheDecodeContext cdc) {
@@ -530,7 +489,7 @@ private void removeClientListenerInternal(CacheDecodeContext cdc) {
    }
 
    void iterationStart(CacheDecodeContext cdc) {
-      executor.execute(() -> iterationStartInternal(cdc));
+      executeBlocking(cdc, () -> iterationStartInternal(cdc));
    }
 
    private void iterationStartInternal(CacheDecodeContext cdc) {
@@ -554,7 +513,7 @@ private void iterationStartInternal(CacheDecodeContext cdc) {
    }
 
    void iterationNext(CacheDecodeContext cdc) {
-      executor.execute(() -> iterationNextInternal(cdc));
+      executeBlocking(cdc, () -> iterationNextInternal(cdc));
    }
 
    private void iterationNextInternal(CacheDecodeContext cdc) {
@@ -570,7 +529,7 @@ private void iterationNextInternal(CacheDecodeContext cdc) {
    }
 
    void iterationEnd(CacheDecodeContext cdc) {
-      executor.execute(() -> iterationEndInternal(cdc));
+      executeBlocking(cdc, () -> iterationEndInternal(cdc));
    }
 
    private void iterationEndInternal(CacheDecodeContext cdc) {
@@ -0,0 +1,155 @@
+package org.infinispan.server.hotrod;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import org.infinispan.commons.logging.LogFactory;
+import org.infinispan.server.hotrod.logging.Log;
+
+import io.netty.channel.Channel;
+
+/**
+ * Executes the requests of a single connection on the shared worker threads, at most {@code maxConcurrentRequests}
+ * at a time. Only the requests that may block go through it, such as the operations on caches with a store or
+ * indexing, the others are executed by the I/O thread of the connection.
+ * <p>
+ * A request is running from the moment it is submitted until the stage returned by its operation completes, so an
+ * asynchronous operation keeps its slot while it waits for other nodes. The other requests wait in the queue of the
+ * connection. When a request completes, the next one from the same connection goes to the back of the worker queue,
+ * so the worker threads serve the connections in turn instead of executing all the requests pipelined by a single
+ * client first. When more than {@code maxQueuedRequests} requests are waiting, the server stops reading from the
+ * connection until half of them have been executed.
+ * <p>
+ * If the worker threads reject a request, the requests waiting in the queue are rejected as well, as the worker
+ * threads would most likely reject them too.
+ *
+ * @since 9.2
+ */
+class ConnectionExecutor {
+   private final static Log log = LogFactory.getLog(ConnectionExecutor.class, Log.class);
+   private final static boolean trace = log.isTraceEnabled();
+
+   private final Channel channel;
+   private final Executor executor;
+   private final int maxConcurrentRequests;
+   private final int maxQueuedRequests;
+
+   // Guarded by this
+   private final Queue<Request> queue = new ArrayDeque<>();
+   private int running;
+   private boolean readSuspended;
+
+   ConnectionExecutor(Channel channel, Executor executor, int maxConcurrentRequests, int maxQueuedRequests) {
+      this.channel = channel;
+      this.executor = executor;
+      this.maxConcurrentRequests = maxConcurrentRequests;
+      this.maxQueuedRequests = maxQueuedRequests;
+   }
+
+   /**
+    * Executes an operation in the worker threads, or queues it if the connection has too many running requests.
+    *
+    * @param operation Starts the operation and returns a stage that completes when the operation is done, it must
+    *                  write the response itself.
+    * @param onError Writes the response of the request instead of the operation, if the worker threads reject it or
+    *                if the operation throws an exception instead of returning a stage.
+    */
+   void execute(Supplier<? extends CompletionStage<?>> operation, Consumer<Throwable> onError) {
+      Request request = new Request(operation, onError);
+      synchronized (this) {
+         if (running >= maxConcurrentRequests) {
+            queue.add(request);
+            if (!readSuspended && queue.size() >= maxQueuedRequests) {
+               if (trace)
+                  log.tracef("Suspending reads from %s, %d requests are waiting", channel, queue.size());
+               readSuspended = true;
+               channel.config().setAutoRead(false);
+            }
+            return;
+         }
+         running++;
+      }
+      submit(request);
+   }
+
+   private void submit(Request request) {
+      try {
+         executor.execute(() -> run(request));
+      } catch (RejectedExecutionException e) {
+         reject(request, e);
+      }
+   }
+
+   private void run(Request request) {
+      CompletionStage<?> stage;
+      try {
+         stage = request.operation.get();
+      } catch (Throwable t) {
+         try {
+            request.onError.accept(t);
+         } finally {
+            completed();
+         }
+         return;
+      }
+      stage.whenComplete((ignored, throwable) -> completed());
+   }
+
+   private void completed() {
+      Request next;
+      synchronized (this) {
+         next = queue.poll();
+         if (next == null) {
+            running--;
+         }
+         resumeReadsIfNeeded();
+      }
+      if (next != null) {
+         submit(next);
+      }
+   }
+
+   private void reject(Request request, RejectedExecutionException e) {
+      List<Request> rejected;
+      synchronized (this) {
+         running--;
+         rejected = new ArrayList<>(queue);
+         queue.clear();
+         resumeReadsIfNeeded();
+      }
+      if (trace)
+         log.tracef("Worker threads rejected a request from %s, rejecting %d waiting requests too", channel,
+               rejected.size());
+      request.onError.accept(e);
+      for (Request r : rejected) {
+         r.onError.accept(e);
+      }
+   }
+
+   // Must be invoked while holding the lock
+   private void resumeReadsIfNeeded() {
+      if (readSuspended && queue.size() <= maxQueuedRequests / 2) {
+         if (trace)
+            log.tracef("Resuming reads from %s", channel);
+         readSuspended = false;
+         channel.config().setAutoRead(true);
+      }
+   }
+
+   private static class Request {
+      final Supplier<? extends CompletionStage<?>> operation;
+      final Consumer<Throwable> onError;
+
+      Request(Supplier<? extends CompletionStage<?>> operation, Consumer<Throwable> onError) {
+         this.operation = operation;
+         this.onError = onError;
+      }
+   }
+}
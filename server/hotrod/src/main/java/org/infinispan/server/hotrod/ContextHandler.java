@@ -13,6 +13,7 @@
 import org.infinispan.multimap.impl.EmbeddedMultimapCache;
 import org.infinispan.registry.InternalCacheRegistry;
 import org.infinispan.server.core.transport.NettyTransport;
+import org.infinispan.server.hotrod.configuration.HotRodServerConfiguration;
 import org.infinispan.server.hotrod.logging.Log;
 
 import io.netty.channel.ChannelHandlerContext;
@@ -46,6 +47,12 @@ public ContextHandler(EmbeddedCacheManager cacheManager, Executor executor, Nett
 
    @Override
    public void handlerAdded(ChannelHandlerContext ctx) {
+      HotRodServerConfiguration configuration = server.getConfiguration();
+      // Without a limit the requests are never queued, but the executor still reports the rejected requests
+      int maxConcurrentRequests = configuration.maxConcurrentRequests() > 0 ? configuration.maxConcurrentRequests()
+            : Integer.MAX_VALUE;
+      ConnectionExecutor executor = new ConnectionExecutor(ctx.channel(), this.executor, maxConcurrentRequests,
+            configuration.maxQueuedRequests());
       cacheProcessor = new TransactionRequestProcessor(ctx.channel(), executor, server);
       counterProcessor = new CounterRequestProcessor(ctx.channel(), (EmbeddedCounterManager) EmbeddedCounterManagerFactory.asCounterManager(cacheManager), executor, server);
       multimapRequestProcessor = new MultimapRequestProcessor(ctx.channel(), executor);
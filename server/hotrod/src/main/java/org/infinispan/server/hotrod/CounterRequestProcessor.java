@@ -3,7 +3,6 @@
 import static org.infinispan.server.hotrod.Response.createEmptyResponse;
 import static org.infinispan.util.concurrent.CompletableFutures.extractException;
 
-import java.util.concurrent.Executor;
 import java.util.function.BiConsumer;
 
 import org.infinispan.counter.api.CounterConfiguration;
@@ -37,7 +36,7 @@ class CounterRequestProcessor extends BaseRequestProcessor {
    private final BiConsumer<CacheDecodeContext, StrongCounter> handleStrongReset = this::handleResetStrong;
    private final BiConsumer<CacheDecodeContext, WeakCounter> handleWeakReset = this::handleResetWeak;
 
-   CounterRequestProcessor(Channel channel, EmbeddedCounterManager counterManager, Executor executor, HotRodServer server) {
+   CounterRequestProcessor(Channel channel, EmbeddedCounterManager counterManager, ConnectionExecutor executor, HotRodServer server) {
       super(channel, executor);
       this.counterManager = counterManager;
       notificationManager = server.getClientCounterNotificationManager();
@@ -49,7 +48,7 @@ private EmbeddedCounterManager counterManager(CacheDecodeContext cdc) {
    }
 
    void removeCounterListener(CacheDecodeContext cdc) {
-      executor.execute(() -> removeCounterListenerInternal(cdc));
+      executeBlocking(cdc, () -> removeCounterListenerInternal(cdc));
    }
 
    private void removeCounterListenerInternal(CacheDecodeContext cdc) {
@@ -63,7 +62,7 @@ private void removeCounterListenerInternal(CacheDecodeContext cdc) {
    }
 
    void addCounterListener(CacheDecodeContext cdc) {
-      executor.execute(() -> addCounterListenerInternal(cdc));
+      executeBlocking(cdc, () -> addCounterListenerInternal(cdc));
    }
 
    private void addCounterListenerInternal(CacheDecodeContext cdc) {
@@ -81,7 +80,7 @@ void getCounterNames(CacheDecodeContext cdc) {
    }
 
    void counterRemove(CacheDecodeContext cdc) {
-      executor.execute(() -> counterRemoveInternal(cdc));
+      executeBlocking(cdc, () -> counterRemoveInternal(cdc));
    }
 
    private void counterRemoveInternal(CacheDecodeContext cdc) {
@@ -20,6 +20,7 @@
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.DoubleToLongFunction;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
@@ -70,6 +71,8 @@ class Decoder2x implements VersionedDecoder {
    private static final long EXPIRATION_DEFAULT = -2;
 
    private static final ExpirationParam DEFAULT_EXPIRATION = new ExpirationParam(-1, TimeUnitValue.SECONDS);
+   private static final ExpirationParam EXPIRATION_DEFAULT_PARAM = new ExpirationParam(EXPIRATION_DEFAULT, TimeUnitValue.DEFAULT);
+   private static final ExpirationParam EXPIRATION_NONE_PARAM = new ExpirationParam(EXPIRATION_NONE, TimeUnitValue.INFINITE);
 
    @Override
    public boolean readHeader(ByteBuf buffer, byte version, long messageId, HotRodHeader header) throws Exception {
@@ -88,6 +91,9 @@ public boolean readHeader(ByteBuf buffer, byte version, long messageId, HotRodHe
             return false;
          } else if (length == 0) {
             header.cacheName = "";
+         } else if (sameAsciiString(header.cacheName, buffer, length)) {
+            // Requests usually target the same cache as the previous one on the connection
+            buffer.skipBytes(length);
          } else {
             byte[] bytes = new byte[length];
             buffer.readBytes(bytes);
@@ -120,6 +126,24 @@ public boolean readHeader(ByteBuf buffer, byte version, long messageId, HotRodHe
       return true;
    }
 
+   /**
+    * Checks whether the next {@code length} bytes of the buffer are the UTF-8 encoding of an ASCII string, without
+    * moving the reader index.
+    */
+   private static boolean sameAsciiString(String s, ByteBuf buffer, int length) {
+      if (s == null || s.length() != length) {
+         return false;
+      }
+      int offset = buffer.readerIndex();
+      for (int i = 0; i < length; i++) {
+         char c = s.charAt(i);
+         if (c >= 0x80 || buffer.getByte(offset + i) != (byte) c) {
+            return false;
+         }
+      }
+      return true;
+   }
+
    @Override
    public CacheDecodeContext.RequestParameters readParameters(HotRodHeader header, ByteBuf buffer) {
       switch (header.op) {
@@ -202,10 +226,10 @@ private static ExpirationParam readExpirationParam(boolean pre22Version, boolean
          switch (timeUnit) {
             // Default time unit
             case 0x07:
-               return new ExpirationParam(EXPIRATION_DEFAULT, TimeUnitValue.decode(timeUnit));
+               return EXPIRATION_DEFAULT_PARAM;
             // Infinite time unit
             case 0x08:
-               return new ExpirationParam(EXPIRATION_NONE, TimeUnitValue.decode(timeUnit));
+               return EXPIRATION_NONE_PARAM;
             default:
                long timeDuration = ExtendedByteBufJava.readMaybeVLong(buffer);
                if (timeDuration == Long.MIN_VALUE) {
@@ -764,6 +788,9 @@ public StatsResponse createStatsResponse(CacheDecodeContext ctx, Stats cacheStat
       stats.put("misses", String.valueOf(cacheStats.getMisses()));
       stats.put("removeHits", String.valueOf(cacheStats.getRemoveHits()));
       stats.put("removeMisses", String.valueOf(cacheStats.getRemoveMisses()));
+      putPercentiles(stats, "readTime", cacheStats::getReadTimePercentile);
+      putPercentiles(stats, "writeTime", cacheStats::getWriteTimePercentile);
+      putPercentiles(stats, "removeTime", cacheStats::getRemoveTimePercentile);
       stats.put("totalBytesRead", t.getTotalBytesRead());
       stats.put("totalBytesWritten", t.getTotalBytesWritten());
 
@@ -784,6 +811,13 @@ public StatsResponse createStatsResponse(CacheDecodeContext ctx, Stats cacheStat
       return new StatsResponse(h.version, h.messageId, h.cacheName, h.clientIntel, stats, h.topologyId);
    }
 
+   private static void putPercentiles(Map<String, String> stats, String prefix, DoubleToLongFunction percentiles) {
+      stats.put(prefix + "P50", String.valueOf(percentiles.applyAsLong(50)));
+      stats.put(prefix + "P99", String.valueOf(percentiles.applyAsLong(99)));
+      stats.put(prefix + "P999", String.valueOf(percentiles.applyAsLong(99.9)));
+      stats.put(prefix + "Max", String.valueOf(percentiles.applyAsLong(100)));
+   }
+
    @Override
    public ErrorResponse createErrorResponse(HotRodHeader h, Throwable t) {
       if (t instanceof SuspectException) {
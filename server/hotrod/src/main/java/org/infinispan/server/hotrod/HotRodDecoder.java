@@ -1,5 +1,6 @@
 package org.infinispan.server.hotrod;
 
+import java.util.Arrays;
 import java.util.List;
 import java.util.function.Predicate;
 
@@ -34,6 +35,7 @@ public class HotRodDecoder extends ByteToMessageDecoder {
    private HotRodDecoderState state = HotRodDecoderState.DECODE_HEADER;
 
    private boolean resetRequested = true;
+   private int valueOffset;
 
    public HotRodDecoder(NettyTransport transport, HotRodServer server,
                         Predicate<? super String> ignoreCache) {
@@ -49,10 +51,14 @@ public NettyTransport getTransport() {
    }
 
    void resetNow() {
+      String previousCacheName = decodeCtx.header != null ? decodeCtx.header.cacheName : null;
       decodeCtx = new CacheDecodeContext(server);
       decodeCtx.header = new HotRodHeader();
+      // Lets the decoder reuse the cache name instead of allocating a new String for every request
+      decodeCtx.header.cacheName = previousCacheName;
       state = HotRodDecoderState.DECODE_HEADER;
       resetRequested = false;
+      valueOffset = 0;
    }
 
    /**
@@ -324,12 +330,23 @@ boolean decodeValue(ByteBuf in, List<Object> out) {
       HotRodOperation op = decodeCtx.header.op;
       if (op.requireValue()) {
          int valueLength = decodeCtx.params.valueLength;
-         if (in.readableBytes() < valueLength) {
+         byte[] bytes = (byte[]) decodeCtx.operationDecodeContext;
+         // Copy the bytes as they arrive, so that large values are not accumulated in the inbound buffer first
+         int readBytes = Math.min(in.readableBytes(), valueLength - valueOffset);
+         int capacity = bytes == null ? 0 : bytes.length;
+         if (bytes == null || capacity < valueOffset + readBytes) {
+            // The length is sent by the client, so only allocate for the bytes that actually arrived. Doubling the
+            // array up to the value length keeps the copies linear and ends with an array of the exact length.
+            int newCapacity = (int) Math.min(valueLength, Math.max(valueOffset + readBytes, 2L * capacity));
+            bytes = bytes == null ? new byte[newCapacity] : Arrays.copyOf(bytes, newCapacity);
+            decodeCtx.operationDecodeContext = bytes;
+         }
+         in.readBytes(bytes, valueOffset, readBytes);
+         valueOffset += readBytes;
+         in.markReaderIndex();
+         if (valueOffset < valueLength) {
             return false;
          }
-         byte[] bytes = new byte[valueLength];
-         in.readBytes(bytes);
-         decodeCtx.operationDecodeContext = bytes;
          if (trace) {
             log.tracef("Body value: %s", Util.printArray(bytes));
          }
@@ -0,0 +1,80 @@
+package org.infinispan.server.hotrod;
+
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.util.Collections;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+
+import org.infinispan.commons.marshall.AbstractExternalizer;
+import org.infinispan.commons.marshall.MarshallUtil;
+import org.infinispan.container.versioning.NumericVersion;
+import org.infinispan.functional.EntryView.ReadWriteEntryView;
+import org.infinispan.functional.MetaParam;
+import org.infinispan.metadata.Metadata;
+import org.infinispan.util.KeyValuePair;
+
+/**
+ * Replaces or removes an entry only if its version is the one sent by the client, so that
+ * {@link CacheRequestProcessor#replaceIfUnmodified(CacheDecodeContext)} and
+ * {@link CacheRequestProcessor#removeIfUnmodified(CacheDecodeContext)} need a single command, executed on the primary
+ * owner of the key, instead of a read followed by a conditional write.
+ * <p>
+ * Returns {@code null} if the key doesn't exist, otherwise the previous value and whether the entry was modified.
+ * The entry is removed if there is no new value.
+ *
+ * @since 9.2
+ */
+class IfUnmodifiedFunction implements Function<ReadWriteEntryView<byte[], byte[]>, KeyValuePair<byte[], Boolean>> {
+   private final long version;
+   private final byte[] value;
+   private final Metadata metadata;
+
+   IfUnmodifiedFunction(long version, byte[] value, Metadata metadata) {
+      this.version = version;
+      this.value = value;
+      this.metadata = metadata;
+   }
+
+   @Override
+   public KeyValuePair<byte[], Boolean> apply(ReadWriteEntryView<byte[], byte[]> view) {
+      Optional<byte[]> prev = view.find();
+      if (!prev.isPresent()) {
+         return null;
+      }
+      Optional<MetaParam.MetaEntryVersion> entryVersion = view.findMetaParam(MetaParam.MetaEntryVersion.class);
+      if (!entryVersion.isPresent() || !entryVersion.get().get().equals(new NumericVersion(version))) {
+         return new KeyValuePair<>(prev.get(), Boolean.FALSE);
+      }
+      if (value != null) {
+         view.set(value, metadata);
+      } else {
+         view.remove();
+      }
+      return new KeyValuePair<>(prev.get(), Boolean.TRUE);
+   }
+
+   static class Externalizer extends AbstractExternalizer<IfUnmodifiedFunction> {
+      @Override
+      public Set<Class<? extends IfUnmodifiedFunction>> getTypeClasses() {
+         return Collections.singleton(IfUnmodifiedFunction.class);
+      }
+
+      @Override
+      public void writeObject(ObjectOutput output, IfUnmodifiedFunction object) throws IOException {
+         output.writeLong(object.version);
+         MarshallUtil.marshallByteArray(object.value, output);
+         output.writeObject(object.metadata);
+      }
+
+      @Override
+      public IfUnmodifiedFunction readObject(ObjectInput input) throws IOException, ClassNotFoundException {
+         long version = input.readLong();
+         byte[] value = MarshallUtil.unmarshallByteArray(input);
+         Metadata metadata = (Metadata) input.readObject();
+         return new IfUnmodifiedFunction(version, value, metadata);
+      }
+   }
+}
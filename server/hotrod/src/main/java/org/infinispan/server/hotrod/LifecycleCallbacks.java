@@ -5,6 +5,7 @@
 import static org.infinispan.server.core.ExternalizerIds.BINARY_FILTER_CONVERTER;
 import static org.infinispan.server.core.ExternalizerIds.CACHE_XID;
 import static org.infinispan.server.core.ExternalizerIds.CLIENT_ADDRESS;
+import static org.infinispan.server.core.ExternalizerIds.IF_UNMODIFIED_FUNCTION;
 import static org.infinispan.server.core.ExternalizerIds.ITERATION_FILTER;
 import static org.infinispan.server.core.ExternalizerIds.KEY_VALUE_VERSION_CONVERTER;
 import static org.infinispan.server.core.ExternalizerIds.KEY_VALUE_WITH_PREVIOUS_CONVERTER;
@@ -66,6 +67,7 @@ public void cacheManagerStarting(GlobalComponentRegistry gcr, GlobalConfiguratio
       externalizers.put(TX_STATE, TxState.EXTERNALIZER);
       externalizers.put(CACHE_XID, CacheXid.EXTERNALIZER);
       externalizers.put(CLIENT_ADDRESS, ClientAddress.EXTERNALIZER);
+      externalizers.put(IF_UNMODIFIED_FUNCTION, new IfUnmodifiedFunction.Externalizer());
    }
 
    @Override
@@ -3,7 +3,6 @@
 import java.util.Collection;
 import java.util.Optional;
 import java.util.Set;
-import java.util.concurrent.Executor;
 import java.util.function.BiConsumer;
 import java.util.stream.Collectors;
 
@@ -20,7 +19,7 @@ class MultimapRequestProcessor extends BaseRequestProcessor {
    private static final Log log = LogFactory.getLog(MultimapRequestProcessor.class, Log.class);
    private static final boolean trace = log.isTraceEnabled();
 
-   MultimapRequestProcessor(Channel channel, Executor executor) {
+   MultimapRequestProcessor(Channel channel, ConnectionExecutor executor) {
       super(channel, executor);
    }
 
@@ -10,8 +10,10 @@
 import org.infinispan.factories.GlobalComponentRegistry;
 import org.infinispan.manager.EmbeddedCacheManager;
 import org.infinispan.notifications.Listenable;
+import org.infinispan.security.AuthorizationManager;
 import org.infinispan.security.Security;
 import org.infinispan.security.actions.AddCacheManagerListenerAction;
+import org.infinispan.security.actions.GetCacheAuthorizationManagerAction;
 import org.infinispan.security.actions.GetCacheAction;
 import org.infinispan.security.actions.GetCacheComponentRegistryAction;
 import org.infinispan.security.actions.GetCacheConfigurationAction;
@@ -43,6 +45,11 @@ static ComponentRegistry getCacheComponentRegistry(final AdvancedCache<?, ?> cac
       return doPrivileged(action);
    }
 
+   static AuthorizationManager getCacheAuthorizationManager(final AdvancedCache<?, ?> cache) {
+      GetCacheAuthorizationManagerAction action = new GetCacheAuthorizationManagerAction(cache);
+      return doPrivileged(action);
+   }
+
    static Configuration getCacheConfiguration(final AdvancedCache<?, ?> cache) {
       GetCacheConfigurationAction action = new GetCacheConfigurationAction(cache);
       return doPrivileged(action);
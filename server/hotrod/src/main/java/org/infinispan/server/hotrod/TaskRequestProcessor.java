@@ -1,7 +1,5 @@
 package org.infinispan.server.hotrod;
 
-import java.util.concurrent.Executor;
-
 import org.infinispan.commons.marshall.Marshaller;
 import org.infinispan.commons.marshall.jboss.GenericJBossMarshaller;
 import org.infinispan.tasks.TaskContext;
@@ -13,7 +11,7 @@ public class TaskRequestProcessor extends BaseRequestProcessor {
    private final HotRodServer server;
    private final TaskManager taskManager;
 
-   TaskRequestProcessor(Channel channel, Executor executor, HotRodServer server) {
+   TaskRequestProcessor(Channel channel, ConnectionExecutor executor, HotRodServer server) {
       super(channel, executor);
       this.server = server;
       this.taskManager = SecurityActions.getGlobalComponentRegistry(server.getCacheManager()).getComponent(TaskManager.class);
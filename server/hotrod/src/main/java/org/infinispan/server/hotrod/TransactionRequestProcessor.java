@@ -1,7 +1,5 @@
 package org.infinispan.server.hotrod;
 
-import java.util.concurrent.Executor;
-
 import javax.transaction.HeuristicMixedException;
 import javax.transaction.HeuristicRollbackException;
 import javax.transaction.RollbackException;
@@ -31,7 +29,7 @@ class TransactionRequestProcessor extends CacheRequestProcessor {
    private static final Log log = LogFactory.getLog(TransactionRequestProcessor.class, Log.class);
    private static final boolean isTrace = log.isTraceEnabled();
 
-   TransactionRequestProcessor(Channel channel, Executor executor, HotRodServer server) {
+   TransactionRequestProcessor(Channel channel, ConnectionExecutor executor, HotRodServer server) {
       super(channel, executor, server);
    }
 
@@ -41,7 +39,7 @@ class TransactionRequestProcessor extends CacheRequestProcessor {
     */
    void rollbackTransaction(CacheDecodeContext cdc) {
       validateConfiguration(cdc, cdc.cache());
-      executor.execute(() -> rollbackTransactionInternal(cdc));
+      executeBlocking(cdc, () -> rollbackTransactionInternal(cdc));
    }
 
    private void rollbackTransactionInternal(CacheDecodeContext cdc) {
@@ -58,7 +56,7 @@ private void rollbackTransactionInternal(CacheDecodeContext cdc) {
     */
    void prepareTransaction(CacheDecodeContext cdc) {
       validateConfiguration(cdc, cdc.cache());
-      executor.execute(() -> prepareTransactionInternal(cdc));
+      executeBlocking(cdc, () -> prepareTransactionInternal(cdc));
    }
 
    private void prepareTransactionInternal(CacheDecodeContext cdc) {
@@ -127,7 +125,7 @@ private void prepareTransactionInternal(CacheDecodeContext cdc) {
     */
    void commitTransaction(CacheDecodeContext cdc) {
       validateConfiguration(cdc, cdc.cache());
-      executor.execute(() -> commitTransactionInternal(cdc));
+      executeBlocking(cdc, () -> commitTransactionInternal(cdc));
    }
 
    private void commitTransactionInternal(CacheDecodeContext cdc) {
@@ -48,4 +48,14 @@ public HotRodServerChildConfigurationBuilder topologyStateTransfer(boolean topol
       return builder.topologyStateTransfer(topologyStateTransfer);
    }
 
+   @Override
+   public HotRodServerChildConfigurationBuilder maxConcurrentRequests(int maxConcurrentRequests) {
+      return builder.maxConcurrentRequests(maxConcurrentRequests);
+   }
+
+   @Override
+   public HotRodServerChildConfigurationBuilder maxQueuedRequests(int maxQueuedRequests) {
+      return builder.maxQueuedRequests(maxQueuedRequests);
+   }
+
 }
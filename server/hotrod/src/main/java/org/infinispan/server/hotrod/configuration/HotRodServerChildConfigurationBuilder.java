@@ -52,4 +52,17 @@ public interface HotRodServerChildConfigurationBuilder {
     */
    HotRodServerChildConfigurationBuilder topologyStateTransfer(boolean topologyStateTransfer);
 
+   /**
+    * Sets the maximum number of requests received on a single connection that the worker threads execute
+    * concurrently. Requests answered from memory by the I/O threads are not limited. Defaults to 0, which means no
+    * limit.
+    */
+   HotRodServerChildConfigurationBuilder maxConcurrentRequests(int maxConcurrentRequests);
+
+   /**
+    * Sets the number of requests that can wait in the queue of a connection before the server stops reading from
+    * it. Defaults to 1024.
+    */
+   HotRodServerChildConfigurationBuilder maxQueuedRequests(int maxQueuedRequests);
+
 }
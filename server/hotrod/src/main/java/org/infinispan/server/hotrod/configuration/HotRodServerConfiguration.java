@@ -17,9 +17,12 @@ public class HotRodServerConfiguration extends ProtocolServerConfiguration {
    private final long topologyReplTimeout;
    private final boolean topologyAwaitInitialTransfer;
    private final boolean topologyStateTransfer;
+   private final int maxConcurrentRequests;
+   private final int maxQueuedRequests;
    private final AuthenticationConfiguration authentication;
 
    HotRodServerConfiguration(String defaultCacheName, String proxyHost, int proxyPort, long topologyLockTimeout, long topologyReplTimeout, boolean topologyAwaitInitialTransfer, boolean topologyStateTransfer,
+         int maxConcurrentRequests, int maxQueuedRequests,
          String name, String host, int port, int idleTimeout, int recvBufSize, int sendBufSize, SslConfiguration ssl, boolean tcpNoDelay, int workerThreads, AuthenticationConfiguration authentication, Set<String> ignoredCaches,
          boolean startTransport, AdminOperationsHandler adminOperationsHandler) {
       super(defaultCacheName, name, host, port, idleTimeout, recvBufSize, sendBufSize, ssl, tcpNoDelay, workerThreads,
@@ -31,6 +34,8 @@ public class HotRodServerConfiguration extends ProtocolServerConfiguration {
       this.topologyReplTimeout = topologyReplTimeout;
       this.topologyStateTransfer = topologyStateTransfer;
       this.topologyAwaitInitialTransfer = topologyAwaitInitialTransfer;
+      this.maxConcurrentRequests = maxConcurrentRequests;
+      this.maxQueuedRequests = maxQueuedRequests;
       this.authentication = authentication;
    }
 
@@ -62,6 +67,14 @@ public boolean topologyStateTransfer() {
       return topologyStateTransfer;
    }
 
+   public int maxConcurrentRequests() {
+      return maxConcurrentRequests;
+   }
+
+   public int maxQueuedRequests() {
+      return maxQueuedRequests;
+   }
+
    public AuthenticationConfiguration authentication() {
       return authentication;
    }
@@ -76,6 +89,8 @@ public String toString() {
             ", topologyReplTimeout=" + topologyReplTimeout +
             ", topologyAwaitInitialTransfer=" + topologyAwaitInitialTransfer +
             ", topologyStateTransfer=" + topologyStateTransfer +
+            ", maxConcurrentRequests=" + maxConcurrentRequests +
+            ", maxQueuedRequests=" + maxQueuedRequests +
             ", authentication=" + authentication +
             ", " + super.toString() +
             ']';
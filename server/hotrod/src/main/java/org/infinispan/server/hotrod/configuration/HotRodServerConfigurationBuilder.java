@@ -26,6 +26,8 @@ public class HotRodServerConfigurationBuilder extends ProtocolServerConfiguratio
    private long topologyReplTimeout = 10000L;
    private boolean topologyAwaitInitialTransfer = true;
    private boolean topologyStateTransfer = true;
+   private int maxConcurrentRequests = 0;
+   private int maxQueuedRequests = 1024;
 
 
    public HotRodServerConfigurationBuilder() {
@@ -101,9 +103,33 @@ public HotRodServerConfigurationBuilder topologyStateTransfer(boolean topologySt
       return this;
    }
 
+   /**
+    * Sets the maximum number of requests received on a single connection that the worker threads execute
+    * concurrently. The other requests wait in a queue of their connection, so that a client sending many requests
+    * cannot starve the others. Responses are written as soon as their request completes, possibly out of order,
+    * and clients match them to their requests by message id. Only the requests handed to the worker threads are
+    * limited, such as the operations on caches with a store or indexing: the requests that can be answered from memory
+    * are executed right away by the I/O threads. Defaults to 0, which means no limit.
+    */
+   @Override
+   public HotRodServerConfigurationBuilder maxConcurrentRequests(int maxConcurrentRequests) {
+      this.maxConcurrentRequests = maxConcurrentRequests;
+      return this;
+   }
+
+   /**
+    * Sets the number of requests that can wait in the queue of a connection before the server stops reading from
+    * it. Only used when {@link #maxConcurrentRequests(int)} is set. Defaults to 1024.
+    */
+   @Override
+   public HotRodServerConfigurationBuilder maxQueuedRequests(int maxQueuedRequests) {
+      this.maxQueuedRequests = maxQueuedRequests;
+      return this;
+   }
+
    @Override
    public HotRodServerConfiguration create() {
-      return new HotRodServerConfiguration(defaultCacheName, proxyHost == null ? host : proxyHost, proxyPort < 0 ? port : proxyPort, topologyLockTimeout, topologyReplTimeout, topologyAwaitInitialTransfer, topologyStateTransfer, name, host, port, idleTimeout,
+      return new HotRodServerConfiguration(defaultCacheName, proxyHost == null ? host : proxyHost, proxyPort < 0 ? port : proxyPort, topologyLockTimeout, topologyReplTimeout, topologyAwaitInitialTransfer, topologyStateTransfer, maxConcurrentRequests, maxQueuedRequests, name, host, port, idleTimeout,
             recvBufSize, sendBufSize, ssl.create(), tcpNoDelay, workerThreads, authentication.create(), ignoredCaches, startTransport, adminOperationsHandler);
    }
 
@@ -116,6 +142,8 @@ public HotRodServerConfigurationBuilder read(HotRodServerConfiguration template)
       this.topologyReplTimeout = template.topologyReplTimeout();
       this.topologyAwaitInitialTransfer = template.topologyAwaitInitialTransfer();
       this.topologyStateTransfer = template.topologyStateTransfer();
+      this.maxConcurrentRequests = template.maxConcurrentRequests();
+      this.maxQueuedRequests = template.maxQueuedRequests();
       return this;
    }
 
@@ -125,6 +153,12 @@ public void validate() {
       if (proxyHost == null && host == null) {
          throw log.missingHostAddress();
       }
+      if (maxConcurrentRequests < 0) {
+         throw log.invalidMaxConcurrentRequests(maxConcurrentRequests);
+      }
+      if (maxConcurrentRequests > 0 && maxQueuedRequests <= 0) {
+         throw log.invalidMaxQueuedRequests(maxQueuedRequests);
+      }
       authentication.validate();
    }
 
@@ -127,6 +127,12 @@ public interface Log extends BasicLogger {
    @Message(value = "Cache '%s' must have REPEATABLE_READ isolation level", id = 6021)
    IllegalStateException unexpectedIsolationLevel(String cacheName);
 
+   @Message(value = "The maximum number of concurrent requests per connection must not be negative, but is %d", id = 6022)
+   CacheConfigurationException invalidMaxConcurrentRequests(int maxConcurrentRequests);
+
+   @Message(value = "The maximum number of queued requests per connection must be positive, but is %d", id = 6023)
+   CacheConfigurationException invalidMaxQueuedRequests(int maxQueuedRequests);
+
    @Message(value = "Expects a STRONG counter for '%s'", id = 28023)
    CounterException invalidWeakCounter(String name);
 }
@@ -23,6 +23,7 @@
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Random;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
@@ -72,6 +73,23 @@ public void testPutOnDefaultCache(Method m) {
       assertHotRodEquals(cacheManager, k(m), v(m));
    }
 
+   public void testPutAlternatingCaches(Method m) {
+      for (int i = 0; i < 3; i++) {
+         byte[] value = v(m, "v" + i + "-");
+         assertStatus(client().execute(0xA0, (byte) 0x01, "", k(m), 0, 0, value, 0, (byte) 1, 0), Success);
+         assertHotRodEquals(cacheManager, k(m), value);
+         assertStatus(client().put(k(m), 0, 0, value), Success);
+         assertHotRodEquals(cacheManager, cacheName, k(m), value);
+      }
+   }
+
+   public void testPutLargeValue(Method m) {
+      byte[] value = new byte[4 * 1024 * 1024];
+      new Random().nextBytes(value);
+      assertStatus(client().put(k(m), 0, 0, value), Success);
+      assertSuccess(client().assertGet(m), value);
+   }
+
    public void testPutOnUndefinedCache(Method m) {
       TestErrorResponse
             resp =
@@ -0,0 +1,182 @@
+package org.infinispan.server.hotrod;
+
+import static org.infinispan.server.hotrod.OperationStatus.Success;
+import static org.infinispan.server.hotrod.test.HotRodTestingUtil.assertStatus;
+import static org.infinispan.server.hotrod.test.HotRodTestingUtil.k;
+import static org.infinispan.server.hotrod.test.HotRodTestingUtil.startHotRodServer;
+import static org.infinispan.server.hotrod.test.HotRodTestingUtil.v;
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.infinispan.commands.write.PutKeyValueCommand;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.configuration.global.GlobalConfigurationBuilder;
+import org.infinispan.context.InvocationContext;
+import org.infinispan.interceptors.DDAsyncInterceptor;
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.persistence.dummy.DummyInMemoryStoreConfigurationBuilder;
+import org.infinispan.server.hotrod.configuration.HotRodServerConfigurationBuilder;
+import org.infinispan.server.hotrod.test.Op;
+import org.infinispan.test.TestingUtil;
+import org.infinispan.test.fwk.TestCacheManagerFactory;
+import org.testng.annotations.Test;
+
+import io.netty.channel.Channel;
+import io.netty.channel.group.ChannelGroup;
+
+/**
+ * Tests that the requests pipelined on a single connection are all executed when the server limits the number of
+ * concurrent requests per connection, including when it has to stop reading from the connection, and that an
+ * asynchronous request counts against the limit until it completes. The cache has a store, so the writes are executed
+ * by the worker threads and go through the limit.
+ *
+ * @since 9.2
+ */
+@Test(groups = "functional", testName = "server.hotrod.HotRodPipeliningTest")
+public class HotRodPipeliningTest extends HotRodSingleNodeTest {
+
+   private static final int MAX_QUEUED_REQUESTS = 16;
+
+   @Override
+   public EmbeddedCacheManager createCacheManager() {
+      ConfigurationBuilder builder = new ConfigurationBuilder();
+      builder.persistence()
+             .addStore(DummyInMemoryStoreConfigurationBuilder.class)
+             .storeName(getClass().getName());
+      EmbeddedCacheManager cacheManager = TestCacheManagerFactory.createCacheManager(
+            new GlobalConfigurationBuilder().nonClusteredDefault().defaultCacheName(cacheName),
+            builder);
+
+      advancedCache = cacheManager.<byte[], byte[]>getCache(cacheName).getAdvancedCache();
+      return cacheManager;
+   }
+
+   @Override
+   protected HotRodServer createStartHotRodServer(EmbeddedCacheManager cacheManager) {
+      HotRodServerConfigurationBuilder builder = new HotRodServerConfigurationBuilder();
+      builder.maxConcurrentRequests(1).maxQueuedRequests(MAX_QUEUED_REQUESTS);
+      return startHotRodServer(cacheManager, builder);
+   }
+
+   public void testPipelinedPuts(Method m) {
+      List<Op> ops = writePuts(m, 500);
+
+      for (Op op : ops) {
+         assertStatus(client().getResponse(op), Success);
+      }
+      assertValues(m, 500);
+   }
+
+   public void testReadsSuspendedWhileRequestsAreQueued(Method m) throws InterruptedException {
+      CountDownLatch release = new CountDownLatch(1);
+      BlockingPutInterceptor interceptor = new BlockingPutInterceptor(release);
+      advancedCache.getAsyncInterceptorChain().addInterceptor(interceptor, 0);
+      try {
+         int numOps = 4 * MAX_QUEUED_REQUESTS;
+         List<Op> ops = writePuts(m, numOps);
+
+         // The first put blocks the only request the connection can execute, the others fill its queue
+         assertTrue(interceptor.blocked.await(10, TimeUnit.SECONDS));
+         Channel channel = serverChannel();
+         eventually(() -> !channel.config().isAutoRead());
+
+         release.countDown();
+         // The requests that were not read when the reads were suspended are only answered if reading resumed
+         for (Op op : ops) {
+            assertStatus(client().getResponse(op), Success);
+         }
+         assertValues(m, numOps);
+         eventually(() -> channel.config().isAutoRead());
+      } finally {
+         release.countDown();
+         advancedCache.getAsyncInterceptorChain().removeInterceptor(BlockingPutInterceptor.class);
+      }
+   }
+
+   public void testAsyncRequestKeepsItsSlotUntilItCompletes(Method m) throws InterruptedException {
+      CompletableFuture<Void> release = new CompletableFuture<>();
+      DelayingPutInterceptor interceptor = new DelayingPutInterceptor(release);
+      advancedCache.getAsyncInterceptorChain().addInterceptor(interceptor, 0);
+      try {
+         List<Op> ops = writePuts(m, 2);
+
+         // The first put doesn't use a worker thread while it waits, but the second one must still wait for it
+         eventually(() -> interceptor.invocations.get() == 1);
+         Thread.sleep(100);
+         assertEquals(1, interceptor.invocations.get());
+
+         release.complete(null);
+         for (Op op : ops) {
+            assertStatus(client().getResponse(op), Success);
+         }
+         assertEquals(2, interceptor.invocations.get());
+         assertValues(m, 2);
+      } finally {
+         release.complete(null);
+         advancedCache.getAsyncInterceptorChain().removeInterceptor(DelayingPutInterceptor.class);
+      }
+   }
+
+   private List<Op> writePuts(Method m, int numOps) {
+      List<Op> ops = new ArrayList<>(numOps);
+      for (int i = 0; i < numOps; i++) {
+         Op op = new Op(0xA0, client().protocolVersion(), (byte) 0x01, cacheName, k(m, "k" + i + "-"), 0, 0,
+               v(m, "v" + i + "-"), 0, 0, (byte) 1, 0);
+         client().writeOp(op);
+         ops.add(op);
+      }
+      return ops;
+   }
+
+   private void assertValues(Method m, int numOps) {
+      for (int i = 0; i < numOps; i++) {
+         assertTrue(Arrays.equals(v(m, "v" + i + "-"), advancedCache.get(k(m, "k" + i + "-"))));
+      }
+   }
+
+   private Channel serverChannel() {
+      ChannelGroup acceptedChannels = TestingUtil.extractField(server().getTransport(), "acceptedChannels");
+      assertEquals(1, acceptedChannels.size());
+      return acceptedChannels.iterator().next();
+   }
+
+   static class BlockingPutInterceptor extends DDAsyncInterceptor {
+      private final CountDownLatch release;
+      final CountDownLatch blocked = new CountDownLatch(1);
+
+      BlockingPutInterceptor(CountDownLatch release) {
+         this.release = release;
+      }
+
+      @Override
+      public Object visitPutKeyValueCommand(InvocationContext ctx, PutKeyValueCommand command) throws Throwable {
+         blocked.countDown();
+         release.await(10, TimeUnit.SECONDS);
+         return invokeNext(ctx, command);
+      }
+   }
+
+   static class DelayingPutInterceptor extends DDAsyncInterceptor {
+      private final CompletableFuture<Void> release;
+      final AtomicInteger invocations = new AtomicInteger();
+
+      DelayingPutInterceptor(CompletableFuture<Void> release) {
+         this.release = release;
+      }
+
+      @Override
+      public Object visitPutKeyValueCommand(InvocationContext ctx, PutKeyValueCommand command) throws Throwable {
+         invocations.incrementAndGet();
+         return asyncInvokeNext(ctx, command, release);
+      }
+   }
+}
@@ -62,12 +62,16 @@ public void testStats(Method m) {
 
       assertFalse(Objects.equals(s.get("totalBytesRead"), "0"));
       assertFalse(Objects.equals(s.get("totalBytesWritten"), "0"));
+      assertTrue(Long.parseLong(s.get("writeTimeMax")) > 0);
+      assertTrue(Long.parseLong(s.get("writeTimeP50")) <= Long.parseLong(s.get("writeTimeMax")));
 
       assertSuccess(client().assertGet(m), v(m));
       s = client().stats();
       assertEquals(s.get("hits"), "1");
       assertEquals(s.get("misses"), "0");
       assertEquals(s.get("retrievals"), "1");
+      assertTrue(Long.parseLong(s.get("readTimeMax")) > 0);
+      assertEquals(s.get("removeTimeMax"), "0");
       bytesRead = assertHigherBytes(bytesRead, s.get("totalBytesRead"));
       bytesWritten = assertHigherBytes(bytesWritten, s.get("totalBytesWritten"));
 
@@ -0,0 +1,98 @@
+package org.infinispan.server.memcached;
+
+/**
+ * Memcached binary protocol constants.
+ *
+ * @since 9.2
+ */
+public class BinaryProtocolUtil {
+   private BinaryProtocolUtil() {
+   }
+
+   public static final byte MAGIC_REQUEST = (byte) 0x80;
+   public static final byte MAGIC_RESPONSE = (byte) 0x81;
+   public static final int HEADER_LENGTH = 24;
+   public static final int MAX_KEY_LENGTH = 250;
+
+   // Operations, the quiet ones only send a response on failure
+   public static final byte GET = 0x00;
+   public static final byte SET = 0x01;
+   public static final byte ADD = 0x02;
+   public static final byte REPLACE = 0x03;
+   public static final byte DELETE = 0x04;
+   public static final byte INCREMENT = 0x05;
+   public static final byte DECREMENT = 0x06;
+   public static final byte QUIT = 0x07;
+   public static final byte FLUSH = 0x08;
+   public static final byte GETQ = 0x09;
+   public static final byte NOOP = 0x0a;
+   public static final byte VERSION = 0x0b;
+   public static final byte GETK = 0x0c;
+   public static final byte GETKQ = 0x0d;
+   public static final byte APPEND = 0x0e;
+   public static final byte PREPEND = 0x0f;
+   public static final byte STAT = 0x10;
+   public static final byte SETQ = 0x11;
+   public static final byte ADDQ = 0x12;
+   public static final byte REPLACEQ = 0x13;
+   public static final byte DELETEQ = 0x14;
+   public static final byte INCREMENTQ = 0x15;
+   public static final byte DECREMENTQ = 0x16;
+   public static final byte QUITQ = 0x17;
+   public static final byte FLUSHQ = 0x18;
+   public static final byte APPENDQ = 0x19;
+   public static final byte PREPENDQ = 0x1a;
+
+   // Response status
+   public static final short STATUS_NO_ERROR = 0x0000;
+   public static final short STATUS_KEY_NOT_FOUND = 0x0001;
+   public static final short STATUS_KEY_EXISTS = 0x0002;
+   public static final short STATUS_VALUE_TOO_LARGE = 0x0003;
+   public static final short STATUS_INVALID_ARGUMENTS = 0x0004;
+   public static final short STATUS_ITEM_NOT_STORED = 0x0005;
+   public static final short STATUS_NON_NUMERIC_VALUE = 0x0006;
+   public static final short STATUS_UNKNOWN_COMMAND = 0x0081;
+   public static final short STATUS_INTERNAL_ERROR = 0x0084;
+   public static final short STATUS_TEMPORARY_FAILURE = 0x0086;
+
+   // Increment and decrement only create the counter if the expiration is not this value
+   public static final int NO_INITIAL_VALUE = 0xffffffff;
+
+   /**
+    * @return the non-quiet version of a quiet operation, or the operation itself
+    */
+   static byte toLoud(byte opcode) {
+      switch (opcode) {
+         case GETQ:
+            return GET;
+         case GETKQ:
+            return GETK;
+         case SETQ:
+            return SET;
+         case ADDQ:
+            return ADD;
+         case REPLACEQ:
+            return REPLACE;
+         case DELETEQ:
+            return DELETE;
+         case INCREMENTQ:
+            return INCREMENT;
+         case DECREMENTQ:
+            return DECREMENT;
+         case QUITQ:
+            return QUIT;
+         case FLUSHQ:
+            return FLUSH;
+         case APPENDQ:
+            return APPEND;
+         case PREPENDQ:
+            return PREPEND;
+         default:
+            return opcode;
+      }
+   }
+
+   static boolean isQuiet(byte opcode) {
+      return toLoud(opcode) != opcode;
+   }
+}
@@ -0,0 +1,96 @@
+package org.infinispan.server.memcached;
+
+import static org.infinispan.server.memcached.BinaryProtocolUtil.APPEND;
+import static org.infinispan.server.memcached.BinaryProtocolUtil.DELETE;
+import static org.infinispan.server.memcached.BinaryProtocolUtil.PREPEND;
+import static org.infinispan.server.memcached.TextProtocolUtil.concat;
+
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.util.Collections;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+
+import org.infinispan.commons.marshall.AbstractExternalizer;
+import org.infinispan.commons.marshall.MarshallUtil;
+import org.infinispan.container.versioning.NumericVersion;
+import org.infinispan.functional.EntryView.ReadWriteEntryView;
+import org.infinispan.functional.MetaParam;
+import org.infinispan.metadata.Metadata;
+
+/**
+ * Modifies an entry only if its version is the CAS value expected by the binary protocol, so that the version is
+ * compared and the entry written by a single command, executed on the primary owner of the key, instead of a read
+ * followed by a conditional write.
+ * <p>
+ * The operation is {@link BinaryProtocolUtil#DELETE}, {@link BinaryProtocolUtil#APPEND},
+ * {@link BinaryProtocolUtil#PREPEND} or any other operation, which replaces the value. Returns {@code null} if the key
+ * doesn't exist, otherwise whether the entry was modified.
+ *
+ * @since 9.2
+ */
+class IfUnmodifiedFunction implements Function<ReadWriteEntryView<String, byte[]>, Boolean> {
+   private final byte opcode;
+   private final long version;
+   private final byte[] value;
+   private final Metadata metadata;
+
+   IfUnmodifiedFunction(byte opcode, long version, byte[] value, Metadata metadata) {
+      this.opcode = opcode;
+      this.version = version;
+      this.value = value;
+      this.metadata = metadata;
+   }
+
+   @Override
+   public Boolean apply(ReadWriteEntryView<String, byte[]> view) {
+      Optional<byte[]> prev = view.find();
+      if (!prev.isPresent()) {
+         return null;
+      }
+      Optional<MetaParam.MetaEntryVersion> entryVersion = view.findMetaParam(MetaParam.MetaEntryVersion.class);
+      if (!entryVersion.isPresent() || !entryVersion.get().get().equals(new NumericVersion(version))) {
+         return Boolean.FALSE;
+      }
+      switch (opcode) {
+         case DELETE:
+            view.remove();
+            break;
+         case APPEND:
+            view.set(concat(prev.get(), value), metadata);
+            break;
+         case PREPEND:
+            view.set(concat(value, prev.get()), metadata);
+            break;
+         default:
+            view.set(value, metadata);
+      }
+      return Boolean.TRUE;
+   }
+
+   static class Externalizer extends AbstractExternalizer<IfUnmodifiedFunction> {
+      @Override
+      public Set<Class<? extends IfUnmodifiedFunction>> getTypeClasses() {
+         return Collections.singleton(IfUnmodifiedFunction.class);
+      }
+
+      @Override
+      public void writeObject(ObjectOutput output, IfUnmodifiedFunction object) throws IOException {
+         output.writeByte(object.opcode);
+         output.writeLong(object.version);
+         MarshallUtil.marshallByteArray(object.value, output);
+         output.writeObject(object.metadata);
+      }
+
+      @Override
+      public IfUnmodifiedFunction readObject(ObjectInput input) throws IOException, ClassNotFoundException {
+         byte opcode = input.readByte();
+         long version = input.readLong();
+         byte[] value = MarshallUtil.unmarshallByteArray(input);
+         Metadata metadata = (Metadata) input.readObject();
+         return new IfUnmodifiedFunction(opcode, version, value, metadata);
+      }
+   }
+}
@@ -1,5 +1,6 @@
 package org.infinispan.server.memcached;
 
+import static org.infinispan.server.core.ExternalizerIds.MEMCACHED_IF_UNMODIFIED_FUNCTION;
 import static org.infinispan.server.core.ExternalizerIds.MEMCACHED_METADATA;
 
 import org.infinispan.configuration.global.GlobalConfiguration;
@@ -18,5 +19,7 @@ public class LifecycleCallbacks implements ModuleLifecycle {
    public void cacheManagerStarting(GlobalComponentRegistry gcr, GlobalConfiguration globalConfiguration) {
       globalConfiguration.serialization().advancedExternalizers().put(MEMCACHED_METADATA,
             new MemcachedMetadataExternalizer());
+      globalConfiguration.serialization().advancedExternalizers().put(MEMCACHED_IF_UNMODIFIED_FUNCTION,
+            new IfUnmodifiedFunction.Externalizer());
    }
 }
@@ -0,0 +1,475 @@
+package org.infinispan.server.memcached;
+
+import static org.infinispan.server.memcached.BinaryProtocolUtil.ADD;
+import static org.infinispan.server.memcached.BinaryProtocolUtil.APPEND;
+import static org.infinispan.server.memcached.BinaryProtocolUtil.DECREMENT;
+import static org.infinispan.server.memcached.BinaryProtocolUtil.DELETE;
+import static org.infinispan.server.memcached.BinaryProtocolUtil.FLUSH;
+import static org.infinispan.server.memcached.BinaryProtocolUtil.GET;
+import static org.infinispan.server.memcached.BinaryProtocolUtil.GETK;
+import static org.infinispan.server.memcached.BinaryProtocolUtil.HEADER_LENGTH;
+import static org.infinispan.server.memcached.BinaryProtocolUtil.INCREMENT;
+import static org.infinispan.server.memcached.BinaryProtocolUtil.MAGIC_REQUEST;
+import static org.infinispan.server.memcached.BinaryProtocolUtil.MAGIC_RESPONSE;
+import static org.infinispan.server.memcached.BinaryProtocolUtil.MAX_KEY_LENGTH;
+import static org.infinispan.server.memcached.BinaryProtocolUtil.NOOP;
+import static org.infinispan.server.memcached.BinaryProtocolUtil.NO_INITIAL_VALUE;
+import static org.infinispan.server.memcached.BinaryProtocolUtil.PREPEND;
+import static org.infinispan.server.memcached.BinaryProtocolUtil.QUIT;
+import static org.infinispan.server.memcached.BinaryProtocolUtil.REPLACE;
+import static org.infinispan.server.memcached.BinaryProtocolUtil.SET;
+import static org.infinispan.server.memcached.BinaryProtocolUtil.STAT;
+import static org.infinispan.server.memcached.BinaryProtocolUtil.STATUS_INTERNAL_ERROR;
+import static org.infinispan.server.memcached.BinaryProtocolUtil.STATUS_INVALID_ARGUMENTS;
+import static org.infinispan.server.memcached.BinaryProtocolUtil.STATUS_ITEM_NOT_STORED;
+import static org.infinispan.server.memcached.BinaryProtocolUtil.STATUS_KEY_EXISTS;
+import static org.infinispan.server.memcached.BinaryProtocolUtil.STATUS_KEY_NOT_FOUND;
+import static org.infinispan.server.memcached.BinaryProtocolUtil.STATUS_NON_NUMERIC_VALUE;
+import static org.infinispan.server.memcached.BinaryProtocolUtil.STATUS_NO_ERROR;
+import static org.infinispan.server.memcached.BinaryProtocolUtil.STATUS_TEMPORARY_FAILURE;
+import static org.infinispan.server.memcached.BinaryProtocolUtil.STATUS_UNKNOWN_COMMAND;
+import static org.infinispan.server.memcached.BinaryProtocolUtil.VERSION;
+import static org.infinispan.server.memcached.BinaryProtocolUtil.isQuiet;
+import static org.infinispan.server.memcached.BinaryProtocolUtil.toLoud;
+import static org.infinispan.server.memcached.TextProtocolUtil.concat;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+import org.infinispan.AdvancedCache;
+import org.infinispan.Version;
+import org.infinispan.commons.logging.LogFactory;
+import org.infinispan.container.entries.CacheEntry;
+import org.infinispan.container.versioning.EntryVersion;
+import org.infinispan.container.versioning.NumericVersion;
+import org.infinispan.context.Flag;
+import org.infinispan.functional.FunctionalMap.ReadWriteMap;
+import org.infinispan.functional.impl.FunctionalMapImpl;
+import org.infinispan.functional.impl.ReadWriteMapImpl;
+import org.infinispan.metadata.Metadata;
+import org.infinispan.server.core.transport.NettyTransport;
+import org.infinispan.server.memcached.logging.Log;
+import org.infinispan.stats.Stats;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.ByteToMessageDecoder;
+import io.netty.util.CharsetUtil;
+
+/**
+ * A decoder for the Memcached binary protocol.
+ * <p>
+ * Responses are written as the requests are decoded, but the channel is only flushed once there is nothing more to
+ * read, so pipelined requests are answered with as few writes as possible. Consecutive get requests, e.g. the quiet
+ * gets of a multi-get followed by a no-op, are answered with a single {@link AdvancedCache#getAllCacheEntries(Set)}
+ * invocation, which only sends one request to each owner.
+ *
+ * @since 9.2
+ */
+public class MemcachedBinaryDecoder extends ByteToMessageDecoder {
+   private final static Log log = LogFactory.getLog(MemcachedBinaryDecoder.class, Log.class);
+   private final static boolean isTrace = log.isTraceEnabled();
+
+   private final AdvancedCache<String, byte[]> cache;
+   private final ReadWriteMap<String, byte[]> readWriteMap;
+   private final ScheduledExecutorService scheduler;
+   private final NettyTransport transport;
+   private final Predicate<? super String> ignoreCache;
+   private final List<PendingGet> pendingGets = new ArrayList<>();
+
+   public MemcachedBinaryDecoder(AdvancedCache<String, byte[]> memcachedCache, ScheduledExecutorService scheduler,
+                                 NettyTransport transport, Predicate<? super String> ignoreCache) {
+      this.cache = MemcachedDecoder.withCompatEncoding(memcachedCache);
+      this.readWriteMap = ReadWriteMapImpl.create(FunctionalMapImpl.create(cache));
+      this.scheduler = scheduler;
+      this.transport = transport;
+      this.ignoreCache = ignoreCache;
+   }
+
+   @Override
+   protected void decode(ChannelHandlerContext ctx, ByteBuf in, List<Object> out) {
+      if (in.readableBytes() < HEADER_LENGTH)
+         return;
+
+      int start = in.readerIndex();
+      byte magic = in.getByte(start);
+      long bodyLength = in.getUnsignedInt(start + 8);
+      if (magic != MAGIC_REQUEST || bodyLength > Integer.MAX_VALUE - HEADER_LENGTH) {
+         // There is no way to find where the next request starts
+         log.debugf("Invalid request header (magic %x, body length %d), closing the connection", magic, bodyLength);
+         in.skipBytes(in.readableBytes());
+         ctx.close();
+         return;
+      }
+      if (in.readableBytes() < HEADER_LENGTH + bodyLength)
+         return;
+
+      in.skipBytes(1);
+      byte opcode = in.readByte();
+      int keyLength = in.readUnsignedShort();
+      int extrasLength = in.readUnsignedByte();
+      // Data type, vbucket id and total body length
+      in.skipBytes(7);
+      int opaque = in.readInt();
+      long cas = in.readLong();
+      int valueLength = (int) bodyLength - keyLength - extrasLength;
+      if (valueLength < 0 || keyLength > MAX_KEY_LENGTH) {
+         in.skipBytes((int) bodyLength);
+         writeResponse(ctx, opcode, STATUS_INVALID_ARGUMENTS, opaque, 0, null, null, null);
+         return;
+      }
+      ByteBuf extras = in.readSlice(extrasLength);
+      String key = in.readCharSequence(keyLength, CharsetUtil.UTF_8).toString();
+      byte[] value = new byte[valueLength];
+      in.readBytes(value);
+
+      if (isTrace) log.tracef("Operation %x, key '%s', opaque %d", opcode, key, opaque);
+      handleRequest(ctx, opcode, opaque, cas, extras, key, value);
+   }
+
+   private void handleRequest(ChannelHandlerContext ctx, byte opcode, int opaque, long cas, ByteBuf extras, String key,
+                              byte[] value) {
+      byte loudOpcode = toLoud(opcode);
+      if (loudOpcode == GET || loudOpcode == GETK) {
+         pendingGets.add(new PendingGet(opcode, opaque, key));
+         return;
+      }
+      // Answer the pending gets first, so that the responses are sent in the same order as the requests
+      flushGets(ctx);
+      if (loudOpcode != NOOP && loudOpcode != VERSION && loudOpcode != QUIT && ignoreCache.test(cache.getName())) {
+         writeResponse(ctx, opcode, STATUS_TEMPORARY_FAILURE, opaque, 0, null, null, null);
+         return;
+      }
+      try {
+         switch (loudOpcode) {
+            case SET:
+            case ADD:
+            case REPLACE:
+               store(ctx, opcode, opaque, cas, extras, key, value);
+               break;
+            case APPEND:
+            case PREPEND:
+               concatenate(ctx, opcode, opaque, cas, key, value);
+               break;
+            case DELETE:
+               delete(ctx, opcode, opaque, cas, key);
+               break;
+            case INCREMENT:
+            case DECREMENT:
+               incrDecr(ctx, opcode, opaque, extras, key);
+               break;
+            case FLUSH:
+               flushAll(ctx, opcode, opaque, extras);
+               break;
+            case NOOP:
+               writeResponse(ctx, opcode, STATUS_NO_ERROR, opaque, 0, null, null, null);
+               break;
+            case VERSION:
+               writeResponse(ctx, opcode, STATUS_NO_ERROR, opaque, 0, null, null, Version.getVersion().getBytes());
+               break;
+            case STAT:
+               stats(ctx, opcode, opaque, key);
+               break;
+            case QUIT:
+               writeResult(ctx, opcode, STATUS_NO_ERROR, opaque, 0, null);
+               ctx.flush();
+               ctx.close();
+               break;
+            default:
+               writeResponse(ctx, opcode, STATUS_UNKNOWN_COMMAND, opaque, 0, null, null, null);
+         }
+      } catch (NumberFormatException e) {
+         writeResponse(ctx, opcode, STATUS_NON_NUMERIC_VALUE, opaque, 0, null, null, null);
+      } catch (Exception e) {
+         log.exceptionReported(e);
+         writeResponse(ctx, opcode, STATUS_INTERNAL_ERROR, opaque, 0, null, null, errorMessage(e));
+      }
+   }
+
+   private void flushGets(ChannelHandlerContext ctx) {
+      if (pendingGets.isEmpty())
+         return;
+
+      try {
+         if (ignoreCache.test(cache.getName())) {
+            for (PendingGet get : pendingGets) {
+               writeResponse(ctx, get.opcode, STATUS_TEMPORARY_FAILURE, get.opaque, 0, null, null, null);
+            }
+            return;
+         }
+         Map<String, CacheEntry<String, byte[]>> entries;
+         if (pendingGets.size() == 1) {
+            String key = pendingGets.get(0).key;
+            CacheEntry<String, byte[]> entry = cache.getCacheEntry(key);
+            entries = entry != null ? Collections.singletonMap(key, entry) : Collections.emptyMap();
+         } else {
+            Set<String> keys = new HashSet<>(pendingGets.size());
+            for (PendingGet get : pendingGets) {
+               keys.add(get.key);
+            }
+            entries = cache.getAllCacheEntries(keys);
+         }
+         for (PendingGet get : pendingGets) {
+            CacheEntry<String, byte[]> entry = entries.get(get.key);
+            byte loudOpcode = toLoud(get.opcode);
+            byte[] key = loudOpcode == GETK ? get.key.getBytes(CharsetUtil.UTF_8) : null;
+            if (entry != null) {
+               Metadata metadata = entry.getMetadata();
+               writeResponse(ctx, get.opcode, STATUS_NO_ERROR, get.opaque, casOf(metadata),
+                     toBytes((int) flagsOf(metadata)), key, entry.getValue());
+            } else if (!isQuiet(get.opcode)) {
+               writeResponse(ctx, get.opcode, STATUS_KEY_NOT_FOUND, get.opaque, 0, null, key, null);
+            }
+         }
+      } catch (Exception e) {
+         log.exceptionReported(e);
+         for (PendingGet get : pendingGets) {
+            writeResponse(ctx, get.opcode, STATUS_INTERNAL_ERROR, get.opaque, 0, null, null, errorMessage(e));
+         }
+      } finally {
+         pendingGets.clear();
+      }
+   }
+
+   private void store(ChannelHandlerContext ctx, byte opcode, int opaque, long cas, ByteBuf extras, String key,
+                      byte[] value) {
+      if (extras.readableBytes() != 8 || key.isEmpty()) {
+         writeResponse(ctx, opcode, STATUS_INVALID_ARGUMENTS, opaque, 0, null, null, null);
+         return;
+      }
+      long flags = extras.readUnsignedInt();
+      int expiration = extras.readInt();
+      Metadata metadata = buildMetadata(flags, expiration);
+      byte loudOpcode = toLoud(opcode);
+      short status;
+      if (cas != 0 && loudOpcode != ADD) {
+         Boolean modified = evalIfUnmodified(loudOpcode, key, cas, value, metadata);
+         status = modified == null ? STATUS_KEY_NOT_FOUND : modified ? STATUS_NO_ERROR : STATUS_KEY_EXISTS;
+      } else if (loudOpcode == SET) {
+         cache.withFlags(Flag.IGNORE_RETURN_VALUES).put(key, value, metadata);
+         status = STATUS_NO_ERROR;
+      } else if (loudOpcode == ADD) {
+         status = cache.putIfAbsent(key, value, metadata) == null ? STATUS_NO_ERROR : STATUS_KEY_EXISTS;
+      } else {
+         status = cache.replace(key, value, metadata) != null ? STATUS_NO_ERROR : STATUS_KEY_NOT_FOUND;
+      }
+      writeResult(ctx, opcode, status, opaque, casOf(metadata), null);
+   }
+
+   /**
+    * Compares the version of the entry with the CAS value and applies the operation in a single atomic command.
+    *
+    * @return {@code null} if the key doesn't exist, otherwise whether the entry had the expected version and was
+    * modified
+    */
+   private Boolean evalIfUnmodified(byte loudOpcode, String key, long cas, byte[] value, Metadata metadata) {
+      return readWriteMap.eval(key, new IfUnmodifiedFunction(loudOpcode, cas, value, metadata)).join();
+   }
+
+   private void concatenate(ChannelHandlerContext ctx, byte opcode, int opaque, long cas, String key, byte[] value) {
+      CacheEntry<String, byte[]> entry = cache.getCacheEntry(key);
+      if (entry == null) {
+         writeResponse(ctx, opcode, STATUS_ITEM_NOT_STORED, opaque, 0, null, null, null);
+         return;
+      }
+      if (cas != 0 && casOf(entry.getMetadata()) != cas) {
+         writeResponse(ctx, opcode, STATUS_KEY_EXISTS, opaque, 0, null, null, null);
+         return;
+      }
+      Metadata metadata = buildMetadata(flagsOf(entry.getMetadata()), 0);
+      short status;
+      if (cas != 0) {
+         // The flags were read with the expected version, so they are still the flags of the entry if it is modified
+         Boolean modified = evalIfUnmodified(toLoud(opcode), key, cas, value, metadata);
+         status = modified == null ? STATUS_ITEM_NOT_STORED : modified ? STATUS_NO_ERROR : STATUS_KEY_EXISTS;
+      } else {
+         byte[] prev = entry.getValue();
+         byte[] concatenated = toLoud(opcode) == APPEND ? concat(prev, value) : concat(value, prev);
+         status = cache.replace(key, prev, concatenated, metadata) ? STATUS_NO_ERROR : STATUS_ITEM_NOT_STORED;
+      }
+      writeResult(ctx, opcode, status, opaque, casOf(metadata), null);
+   }
+
+   private void delete(ChannelHandlerContext ctx, byte opcode, int opaque, long cas, String key) {
+      short status;
+      if (cas != 0) {
+         Boolean modified = evalIfUnmodified(DELETE, key, cas, null, null);
+         status = modified == null ? STATUS_KEY_NOT_FOUND : modified ? STATUS_NO_ERROR : STATUS_KEY_EXISTS;
+      } else {
+         status = cache.remove(key) != null ? STATUS_NO_ERROR : STATUS_KEY_NOT_FOUND;
+      }
+      writeResult(ctx, opcode, status, opaque, 0, null);
+   }
+
+   private void incrDecr(ChannelHandlerContext ctx, byte opcode, int opaque, ByteBuf extras, String key) {
+      if (extras.readableBytes() != 20 || key.isEmpty()) {
+         writeResponse(ctx, opcode, STATUS_INVALID_ARGUMENTS, opaque, 0, null, null, null);
+         return;
+      }
+      BigInteger delta = toUnsigned(extras.readLong());
+      long initial = extras.readLong();
+      int expiration = extras.readInt();
+      byte[] initialValue = null;
+      if (expiration != NO_INITIAL_VALUE) {
+         initialValue = toUnsigned(initial).toString().getBytes();
+      }
+      Metadata metadata = buildMetadata(0, expiration != NO_INITIAL_VALUE ? expiration : 0);
+      byte[] counter = MemcachedDecoder.computeCounter(cache, key, delta, toLoud(opcode) == INCREMENT, initialValue,
+            metadata);
+      if (counter == null) {
+         writeResponse(ctx, opcode, STATUS_KEY_NOT_FOUND, opaque, 0, null, null, null);
+      } else {
+         long counterValue = new BigInteger(new String(counter)).longValue();
+         writeResult(ctx, opcode, STATUS_NO_ERROR, opaque, casOf(metadata), toBytes(counterValue));
+      }
+   }
+
+   private void flushAll(ChannelHandlerContext ctx, byte opcode, int opaque, ByteBuf extras) {
+      int delay = extras.readableBytes() >= 4 ? extras.readInt() : 0;
+      if (delay == 0) {
+         cache.clear();
+      } else {
+         scheduler.schedule(cache::clear, MemcachedDecoder.toMillis(delay), TimeUnit.MILLISECONDS);
+      }
+      writeResult(ctx, opcode, STATUS_NO_ERROR, opaque, 0, null);
+   }
+
+   private void stats(ChannelHandlerContext ctx, byte opcode, int opaque, String key) {
+      if (!key.isEmpty()) {
+         // Only the general statistics are supported
+         writeResponse(ctx, opcode, STATUS_KEY_NOT_FOUND, opaque, 0, null, null, null);
+         return;
+      }
+      Stats stats = cache.getStats();
+      writeStat(ctx, opcode, opaque, "pid", 0);
+      writeStat(ctx, opcode, opaque, "uptime", stats.getTimeSinceStart());
+      writeStat(ctx, opcode, opaque, "time", TimeUnit.MILLISECONDS.toSeconds(System.currentTimeMillis()));
+      writeStat(ctx, opcode, opaque, "version", cache.getVersion());
+      writeStat(ctx, opcode, opaque, "curr_items", stats.getCurrentNumberOfEntries());
+      writeStat(ctx, opcode, opaque, "total_items", stats.getTotalNumberOfEntries());
+      writeStat(ctx, opcode, opaque, "cmd_get", stats.getRetrievals());
+      writeStat(ctx, opcode, opaque, "cmd_set", stats.getStores());
+      writeStat(ctx, opcode, opaque, "get_hits", stats.getHits());
+      writeStat(ctx, opcode, opaque, "get_misses", stats.getMisses());
+      writeStat(ctx, opcode, opaque, "delete_misses", stats.getRemoveMisses());
+      writeStat(ctx, opcode, opaque, "delete_hits", stats.getRemoveHits());
+      writeStat(ctx, opcode, opaque, "evictions", stats.getEvictions());
+      writeStat(ctx, opcode, opaque, "bytes_read", transport.getTotalBytesRead());
+      writeStat(ctx, opcode, opaque, "bytes_written", transport.getTotalBytesWritten());
+      // The last response has no key and no value
+      writeResponse(ctx, opcode, STATUS_NO_ERROR, opaque, 0, null, null, null);
+   }
+
+   private void writeStat(ChannelHandlerContext ctx, byte opcode, int opaque, String name, Object value) {
+      writeResponse(ctx, opcode, STATUS_NO_ERROR, opaque, 0, null, name.getBytes(CharsetUtil.UTF_8),
+            String.valueOf(value).getBytes(CharsetUtil.UTF_8));
+   }
+
+   /**
+    * Writes the response of an operation, unless it succeeded and the operation is a quiet one.
+    */
+   private void writeResult(ChannelHandlerContext ctx, byte opcode, short status, int opaque, long cas, byte[] value) {
+      if (status != STATUS_NO_ERROR || !isQuiet(opcode)) {
+         writeResponse(ctx, opcode, status, opaque, status == STATUS_NO_ERROR ? cas : 0, null, null, value);
+      }
+   }
+
+   private void writeResponse(ChannelHandlerContext ctx, byte opcode, short status, int opaque, long cas,
+                              byte[] extras, byte[] key, byte[] value) {
+      int extrasLength = extras != null ? extras.length : 0;
+      int keyLength = key != null ? key.length : 0;
+      int valueLength = value != null ? value.length : 0;
+      int bodyLength = extrasLength + keyLength + valueLength;
+      ByteBuf buf = ctx.alloc().buffer(HEADER_LENGTH + bodyLength);
+      buf.writeByte(MAGIC_RESPONSE);
+      buf.writeByte(opcode);
+      buf.writeShort(keyLength);
+      buf.writeByte(extrasLength);
+      // Data type
+      buf.writeByte(0);
+      buf.writeShort(status);
+      buf.writeInt(bodyLength);
+      buf.writeInt(opaque);
+      buf.writeLong(cas);
+      if (extras != null) buf.writeBytes(extras);
+      if (key != null) buf.writeBytes(key);
+      if (value != null) buf.writeBytes(value);
+      if (isTrace) log.tracef("Write response to operation %x with status %x", opcode, status);
+      ctx.write(buf, ctx.voidPromise());
+   }
+
+   @Override
+   public void channelReadComplete(ChannelHandlerContext ctx) throws Exception {
+      flushGets(ctx);
+      ctx.flush();
+      super.channelReadComplete(ctx);
+   }
+
+   @Override
+   public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
+      // Log it just in case the channel is closed or similar
+      log.debug("Exception caught", cause);
+      ctx.close();
+   }
+
+   private Metadata buildMetadata(long flags, int expiration) {
+      MemcachedMetadataBuilder metadata = new MemcachedMetadataBuilder();
+      metadata.version(MemcachedDecoder.generateVersion(cache));
+      metadata.flags(flags);
+      if (expiration > 0) {
+         metadata.lifespan(MemcachedDecoder.toMillis(expiration));
+      }
+      return metadata.build();
+   }
+
+   private static long casOf(Metadata metadata) {
+      EntryVersion version = metadata.version();
+      return version instanceof NumericVersion ? ((NumericVersion) version).getVersion() : 0;
+   }
+
+   private static long flagsOf(Metadata metadata) {
+      return metadata instanceof MemcachedMetadata ? ((MemcachedMetadata) metadata).flags : 0;
+   }
+
+   private static BigInteger toUnsigned(long value) {
+      BigInteger result = BigInteger.valueOf(value & Long.MAX_VALUE);
+      return value < 0 ? result.setBit(Long.SIZE - 1) : result;
+   }
+
+   private static byte[] toBytes(int value) {
+      return new byte[]{(byte) (value >>> 24), (byte) (value >>> 16), (byte) (value >>> 8), (byte) value};
+   }
+
+   private static byte[] toBytes(long value) {
+      byte[] bytes = new byte[8];
+      for (int i = 7; i >= 0; i--) {
+         bytes[i] = (byte) value;
+         value >>>= 8;
+      }
+      return bytes;
+   }
+
+   private static byte[] errorMessage(Exception e) {
+      return String.valueOf(e.getMessage()).getBytes(CharsetUtil.UTF_8);
+   }
+
+   private static final class PendingGet {
+      final byte opcode;
+      final int opaque;
+      final String key;
+
+      PendingGet(byte opcode, int opaque, String key) {
+         this.opcode = opcode;
+         this.opaque = opaque;
+         this.key = key;
+      }
+   }
+}
@@ -34,10 +34,12 @@
 import java.io.StreamCorruptedException;
 import java.math.BigInteger;
 import java.nio.channels.ClosedChannelException;
-import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
@@ -68,6 +70,7 @@
 import org.infinispan.server.core.transport.NettyTransport;
 import org.infinispan.server.memcached.logging.Log;
 import org.infinispan.stats.Stats;
+import org.infinispan.util.function.SerializableBiFunction;
 import org.infinispan.util.KeyValuePair;
 
 import io.netty.buffer.ByteBuf;
@@ -88,19 +91,25 @@ public class MemcachedDecoder extends ReplayingDecoder<MemcachedDecoderState> {
    public MemcachedDecoder(AdvancedCache<String, byte[]> memcachedCache, ScheduledExecutorService scheduler,
                            NettyTransport transport, Predicate<? super String> ignoreCache) {
       super(MemcachedDecoderState.DECODE_HEADER);
+      cache = withCompatEncoding(memcachedCache);
+      this.scheduler = scheduler;
+      this.transport = transport;
+      this.ignoreCache = ignoreCache;
+      isStatsEnabled = cache.getCacheConfiguration().jmxStatistics().enabled();
+   }
+
+   /**
+    * In compatibility mode, values must be converted to and from the format of the other endpoints.
+    */
+   static AdvancedCache<String, byte[]> withCompatEncoding(AdvancedCache<String, byte[]> memcachedCache) {
       CompatibilityModeConfiguration compatibility = memcachedCache.getCacheConfiguration().compatibility();
-      boolean compat = compatibility.enabled();
       AdvancedCache<?, ?> c = memcachedCache.getAdvancedCache();
-      if (compat) {
+      if (compatibility.enabled()) {
          boolean hasCompatMarshaller = compatibility.marshaller() != null;
          Class<? extends Encoder> valueEncoder = hasCompatMarshaller ? CompatModeEncoder.class : JavaCompatEncoder.class;
          c = c.withEncoding(IdentityEncoder.class, valueEncoder);
       }
-      cache = (AdvancedCache<String, byte[]>) c;
-      this.scheduler = scheduler;
-      this.transport = transport;
-      this.ignoreCache = ignoreCache;
-      isStatsEnabled = cache.getCacheConfiguration().jmxStatistics().enabled();
+      return (AdvancedCache<String, byte[]>) c;
    }
 
    private final AdvancedCache<String, byte[]> cache;
@@ -377,9 +386,15 @@ public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
    protected Object get(ByteBuf buffer) throws StreamCorruptedException {
       List<String> keys = readKeys(buffer);
       if (keys.size() > 1) {
-         Map<String, CacheEntry<String, byte[]>> map = new HashMap<>();
+         Set<String> keySet = new HashSet<>(keys.size());
+         for (String key : keys) {
+            keySet.add(checkKeyLength(key, true, buffer));
+         }
+         // A single batch, so that the keys owned by each node are retrieved with a single remote call
+         Map<String, CacheEntry<String, byte[]>> entries = cache.getAllCacheEntries(keySet);
+         Map<String, CacheEntry<String, byte[]>> map = new LinkedHashMap<>();
          for (String key : keys) {
-            CacheEntry<String, byte[]> entry = cache.getCacheEntry(checkKeyLength(key, true, buffer));
+            CacheEntry<String, byte[]> entry = entries.get(key);
             if (entry != null) {
                map.put(key, entry);
             }
@@ -480,8 +495,8 @@ private MemcachedParameters readStorageParameters(List<String> args, ByteBuf b)
       return new MemcachedParameters(length, lifespan, -1, streamVersion, noReply, flags, "", 0);
    }
 
-   private EntryVersion generateVersion(Cache<String, byte[]> cache) {
-      ComponentRegistry registry = getCacheRegistry();
+   static EntryVersion generateVersion(AdvancedCache<?, ?> cache) {
+      ComponentRegistry registry = cache.getComponentRegistry();
       VersionGenerator cacheVersionGenerator = registry.getComponent(VersionGenerator.class);
       if (cacheVersionGenerator == null) {
          // It could be null, for example when not running in compatibility mode.
@@ -553,10 +568,6 @@ private Configuration getCacheConfiguration() {
       return cache.getCacheConfiguration();
    }
 
-   private ComponentRegistry getCacheRegistry() {
-      return cache.getComponentRegistry();
-   }
-
    private void customDecodeHeader(ChannelHandlerContext ctx, ByteBuf buffer) throws IOException {
       Channel ch = ctx.channel();
       switch (header.operation) {
@@ -633,39 +644,20 @@ protected void customDecodeValue(ChannelHandlerContext ctx, ByteBuf buffer) thro
    }
 
    private void incrDecr(Channel ch) throws StreamCorruptedException {
-      byte[] prev = cache.get(key);
       Object ret;
       MemcachedOperation op = header.operation;
-      if (prev != null) {
-         BigInteger prevCounter = new BigInteger(new String(prev));
-         BigInteger delta = validateDelta(params.delta);
-         BigInteger candidateCounter;
-         switch (op) {
-            case IncrementRequest:
-               candidateCounter = prevCounter.add(delta);
-               candidateCounter = candidateCounter.compareTo(MAX_UNSIGNED_LONG) > 0 ? MIN_UNSIGNED : candidateCounter;
-               break;
-            case DecrementRequest:
-               candidateCounter = prevCounter.subtract(delta);
-               candidateCounter = candidateCounter.compareTo(MIN_UNSIGNED) < 0 ? MIN_UNSIGNED : candidateCounter;
-               break;
-            default:
-               throw new IllegalArgumentException("Operation " + op + " not supported!");
-         }
-         String counterString = candidateCounter.toString();
-         if (cache.replace(key, prev, counterString.getBytes(), buildMetadata())) {
-            if (isStatsEnabled) {
-               if (op == MemcachedOperation.IncrementRequest) {
-                  incrHits.incrementAndGet();
-               } else {
-                  decrHits.incrementAndGet();
-               }
+      BigInteger delta = validateDelta(params.delta);
+      byte[] counter = computeCounter(cache, key, delta, op == MemcachedOperation.IncrementRequest, null,
+            buildMetadata());
+      if (counter != null) {
+         if (isStatsEnabled) {
+            if (op == MemcachedOperation.IncrementRequest) {
+               incrHits.incrementAndGet();
+            } else {
+               decrHits.incrementAndGet();
             }
-            ret = !params.noReply ? counterString + CRLF : null;
-         } else {
-            // If there's a concurrent modification on this key, the spec does not say what to do, so treat it as exceptional
-            throw new CacheException("Value modified since we retrieved from the cache, old value was " + prevCounter);
          }
+         ret = !params.noReply ? new String(counter) + CRLF : null;
       } else {
          if (isStatsEnabled) {
             if (op == MemcachedOperation.IncrementRequest) {
@@ -679,6 +671,48 @@ private void incrDecr(Channel ch) throws StreamCorruptedException {
       writeResponse(ch, ret);
    }
 
+   /**
+    * Increments or decrements a counter with a single atomic operation on the primary owner of the key, instead of a
+    * get followed by a conditional replace.
+    *
+    * @param initial the value to store if the key does not exist, or {@code null} to leave it absent
+    * @return the new value of the counter, or {@code null} if the key does not exist and there is no initial value
+    * @throws NumberFormatException if the current value is not a number
+    */
+   static byte[] computeCounter(AdvancedCache<String, byte[]> cache, String key, BigInteger delta, boolean increment,
+                                byte[] initial, Metadata metadata) {
+      try {
+         return cache.compute(key, counterFunction(delta, increment, initial), metadata);
+      } catch (CacheException e) {
+         // The exception thrown by the function may be wrapped, e.g. if the primary owner is another node
+         Throwable cause = e;
+         while (cause != null && !(cause instanceof NumberFormatException)) {
+            cause = cause.getCause();
+         }
+         if (cause != null)
+            throw (NumberFormatException) cause;
+         throw e;
+      }
+   }
+
+   private static SerializableBiFunction<String, byte[], byte[]> counterFunction(BigInteger delta, boolean increment,
+                                                                                 byte[] initial) {
+      return (k, prev) -> {
+         if (prev == null)
+            return initial;
+         BigInteger prevCounter = new BigInteger(new String(prev));
+         BigInteger candidateCounter;
+         if (increment) {
+            candidateCounter = prevCounter.add(delta);
+            candidateCounter = candidateCounter.compareTo(MAX_UNSIGNED_LONG) > 0 ? MIN_UNSIGNED : candidateCounter;
+         } else {
+            candidateCounter = prevCounter.subtract(delta);
+            candidateCounter = candidateCounter.compareTo(MIN_UNSIGNED) < 0 ? MIN_UNSIGNED : candidateCounter;
+         }
+         return candidateCounter.toString().getBytes();
+      };
+   }
+
    private void flushAll(ByteBuf b, Channel ch, boolean isReadParams) throws IOException {
       if (isReadParams) readParameters(ch, b);
       Consumer<Cache<?, ?>> consumer = c -> c.clear();
@@ -856,7 +890,7 @@ private StringBuilder logAndCreateErrorMessage(StringBuilder sb, MemcachedExcept
     * Otherwise it's just considered number of seconds from
     * now and it's returned in milliseconds unit.
     */
-   private long toMillis(int lifespan) {
+   static long toMillis(int lifespan) {
       if (lifespan > SecondsInAMonth) {
          long unixTimeExpiry = TimeUnit.SECONDS.toMillis(lifespan) - System.currentTimeMillis();
          return unixTimeExpiry < 0 ? 0 : unixTimeExpiry;
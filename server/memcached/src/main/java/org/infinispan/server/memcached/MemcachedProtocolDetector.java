@@ -0,0 +1,38 @@
+package org.infinispan.server.memcached;
+
+import static org.infinispan.server.memcached.BinaryProtocolUtil.MAGIC_REQUEST;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.ByteToMessageDecoder;
+
+/**
+ * Replaces itself with the binary or the text protocol decoder, depending on the first byte sent by the client. Binary
+ * requests always start with the request magic byte, which is not a printable character, so it can't be the first
+ * byte of a text command.
+ *
+ * @since 9.2
+ */
+public class MemcachedProtocolDetector extends ByteToMessageDecoder {
+   private final Supplier<ChannelHandler> binaryDecoder;
+   private final Supplier<ChannelHandler> textDecoder;
+
+   public MemcachedProtocolDetector(Supplier<ChannelHandler> binaryDecoder, Supplier<ChannelHandler> textDecoder) {
+      this.binaryDecoder = binaryDecoder;
+      this.textDecoder = textDecoder;
+   }
+
+   @Override
+   protected void decode(ChannelHandlerContext ctx, ByteBuf in, List<Object> out) {
+      if (!in.isReadable())
+         return;
+
+      ChannelHandler decoder = in.getByte(in.readerIndex()) == MAGIC_REQUEST ? binaryDecoder.get() : textDecoder.get();
+      // The bytes read so far are passed on to the new decoder when this one is removed
+      ctx.pipeline().replace(this, "decoder", decoder);
+   }
+}
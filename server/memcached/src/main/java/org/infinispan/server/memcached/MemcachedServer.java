@@ -23,7 +23,8 @@
 
 /**
  * Memcached server defining its decoder/encoder settings. In fact, Memcached does not use an encoder since there's
- * no really common headers between protocol operations.
+ * no really common headers between protocol operations. Each connection can use either the text or the binary
+ * protocol, detected from the first request.
  *
  * @author Galder Zamarreño
  * @since 4.1
@@ -60,7 +61,9 @@ public ChannelOutboundHandler getEncoder() {
 
    @Override
    public ChannelInboundHandler getDecoder() {
-      return new MemcachedDecoder(memcachedCache, scheduler, transport, this::isCacheIgnored);
+      return new MemcachedProtocolDetector(
+            () -> new MemcachedBinaryDecoder(memcachedCache, scheduler, transport, this::isCacheIgnored),
+            () -> new MemcachedDecoder(memcachedCache, scheduler, transport, this::isCacheIgnored));
    }
 
    @Override
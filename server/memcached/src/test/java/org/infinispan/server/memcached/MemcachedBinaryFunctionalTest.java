@@ -0,0 +1,132 @@
+package org.infinispan.server.memcached;
+
+import static org.infinispan.server.memcached.test.MemcachedTestingUtil.createMemcachedBinaryClient;
+import static org.infinispan.server.memcached.test.MemcachedTestingUtil.startMemcachedTextServer;
+import static org.infinispan.test.TestingUtil.k;
+import static org.infinispan.test.TestingUtil.v;
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertFalse;
+import static org.testng.AssertJUnit.assertNull;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.testng.annotations.Test;
+
+import net.spy.memcached.CASResponse;
+import net.spy.memcached.CASValue;
+import net.spy.memcached.internal.OperationFuture;
+
+/**
+ * Tests the Memcached binary protocol, using the same server as the text protocol.
+ *
+ * @since 9.2
+ */
+@Test(groups = "functional", testName = "server.memcached.MemcachedBinaryFunctionalTest")
+public class MemcachedBinaryFunctionalTest extends MemcachedSingleNodeTest {
+
+   @Override
+   protected EmbeddedCacheManager createCacheManager() throws Exception {
+      cacheManager = createTestCacheManager();
+      server = startMemcachedTextServer(cacheManager);
+      client = createMemcachedBinaryClient(60000, server.getPort());
+      cache = cacheManager.getCache(server.getConfiguration().defaultCacheName());
+      return cacheManager;
+   }
+
+   public void testSetAndGet(Method m) throws Exception {
+      OperationFuture<Boolean> f = client.set(k(m), 0, v(m));
+      assertTrue(f.get(timeout, TimeUnit.SECONDS));
+      assertEquals(v(m), client.get(k(m)));
+      assertNull(client.get(k(m, "missing-")));
+   }
+
+   public void testAddAndReplace(Method m) throws Exception {
+      assertFalse(client.replace(k(m), 0, v(m)).get(timeout, TimeUnit.SECONDS));
+      assertTrue(client.add(k(m), 0, v(m)).get(timeout, TimeUnit.SECONDS));
+      assertFalse(client.add(k(m), 0, v(m, "v1-")).get(timeout, TimeUnit.SECONDS));
+      assertTrue(client.replace(k(m), 0, v(m, "v2-")).get(timeout, TimeUnit.SECONDS));
+      assertEquals(v(m, "v2-"), client.get(k(m)));
+   }
+
+   public void testDelete(Method m) throws Exception {
+      assertFalse(client.delete(k(m)).get(timeout, TimeUnit.SECONDS));
+      assertTrue(client.set(k(m), 0, v(m)).get(timeout, TimeUnit.SECONDS));
+      assertTrue(client.delete(k(m)).get(timeout, TimeUnit.SECONDS));
+      assertNull(client.get(k(m)));
+   }
+
+   public void testCas(Method m) throws Exception {
+      assertTrue(client.set(k(m), 0, v(m)).get(timeout, TimeUnit.SECONDS));
+      CASValue<Object> value = client.gets(k(m));
+      assertEquals(v(m), value.getValue());
+      assertEquals(CASResponse.OK, client.cas(k(m), value.getCas(), v(m, "v1-")));
+      assertEquals(CASResponse.EXISTS, client.cas(k(m), value.getCas(), v(m, "v2-")));
+      assertEquals(CASResponse.NOT_FOUND, client.cas(k(m, "missing-"), value.getCas(), v(m)));
+      assertEquals(v(m, "v1-"), client.get(k(m)));
+   }
+
+   public void testIncrementAndDecrement(Method m) throws Exception {
+      assertEquals(-1, client.incr(k(m), 1));
+      assertEquals(10, client.incr(k(m), 1, 10));
+      assertEquals(15, client.incr(k(m), 5));
+      assertEquals(12, client.decr(k(m), 3));
+      assertEquals(0, client.decr(k(m), 20));
+   }
+
+   public void testIncrementNonNumeric(Method m) throws Exception {
+      assertTrue(client.set(k(m), 0, "a").get(timeout, TimeUnit.SECONDS));
+      assertEquals(-1, client.incr(k(m), 1));
+      assertEquals("a", client.get(k(m)));
+   }
+
+   public void testAppendAndPrepend(Method m) throws Exception {
+      assertFalse(client.append(0, k(m), v(m)).get(timeout, TimeUnit.SECONDS));
+      assertTrue(client.set(k(m), 0, "b").get(timeout, TimeUnit.SECONDS));
+      assertTrue(client.append(0, k(m), "c").get(timeout, TimeUnit.SECONDS));
+      assertTrue(client.prepend(0, k(m), "a").get(timeout, TimeUnit.SECONDS));
+      assertEquals("abc", client.get(k(m)));
+   }
+
+   public void testGetBulk(Method m) throws Exception {
+      List<String> keys = new ArrayList<>();
+      for (int i = 0; i < 100; i++) {
+         keys.add(k(m, i + "-"));
+         if (i % 2 == 0)
+            assertTrue(client.set(k(m, i + "-"), 0, v(m, i + "-")).get(timeout, TimeUnit.SECONDS));
+      }
+      Map<String, Object> values = client.getBulk(keys);
+      assertEquals(50, values.size());
+      for (int i = 0; i < 100; i += 2) {
+         assertEquals(v(m, i + "-"), values.get(k(m, i + "-")));
+      }
+   }
+
+   public void testPipelinedOperations(Method m) throws Exception {
+      List<OperationFuture<Boolean>> sets = new ArrayList<>();
+      for (int i = 0; i < 100; i++) {
+         sets.add(client.set(k(m, i + "-"), 0, v(m, i + "-")));
+      }
+      for (OperationFuture<Boolean> f : sets) {
+         assertTrue(f.get(timeout, TimeUnit.SECONDS));
+      }
+      for (int i = 0; i < 100; i++) {
+         assertEquals(v(m, i + "-"), client.asyncGet(k(m, i + "-")).get(timeout, TimeUnit.SECONDS));
+      }
+   }
+
+   public void testFlush(Method m) throws Exception {
+      assertTrue(client.set(k(m), 0, v(m)).get(timeout, TimeUnit.SECONDS));
+      assertTrue(client.flush().get(timeout, TimeUnit.SECONDS));
+      assertNull(client.get(k(m)));
+   }
+
+   public void testVersion() {
+      assertEquals(1, client.getVersions().size());
+   }
+}
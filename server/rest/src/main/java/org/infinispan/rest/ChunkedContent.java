@@ -0,0 +1,30 @@
+package org.infinispan.rest;
+
+import io.netty.buffer.ByteBuf;
+
+/**
+ * Content of an {@link InfinispanResponse} that is produced in chunks, so that it never has to be kept in memory
+ * whole.
+ * <p>
+ * HTTP/1.1 responses send every chunk as soon as it is written, using the chunked transfer encoding. HTTP/2 and
+ * HTTP/1.0 responses still collect all the chunks before sending the response, so the content of those should be
+ * bounded, see {@link InfinispanRequest#isChunkedResponseSupported()}.
+ *
+ * @since 9.2
+ */
+public interface ChunkedContent extends AutoCloseable {
+
+   /**
+    * Writes the next chunk. It may block, so it is never invoked from the event loop.
+    *
+    * @param buffer Buffer to write the chunk to.
+    * @return <code>true</code> if there are more chunks to write, <code>false</code> otherwise.
+    */
+   boolean writeChunk(ByteBuf buffer);
+
+   /**
+    * Releases the resources used for producing the content, even if not all the chunks were written.
+    */
+   @Override
+   void close();
+}
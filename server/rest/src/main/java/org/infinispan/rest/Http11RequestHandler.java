@@ -3,12 +3,24 @@
 import static io.netty.handler.codec.http.HttpResponseStatus.CONTINUE;
 import static io.netty.handler.codec.http.HttpVersion.HTTP_1_1;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.infinispan.rest.operations.exceptions.ServiceUnavailableException;
+import org.infinispan.util.concurrent.CompletableFutures;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelFutureListener;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.codec.http.DefaultFullHttpResponse;
+import io.netty.handler.codec.http.DefaultHttpContent;
 import io.netty.handler.codec.http.FullHttpRequest;
 import io.netty.handler.codec.http.FullHttpResponse;
+import io.netty.handler.codec.http.HttpResponse;
 import io.netty.handler.codec.http.HttpUtil;
+import io.netty.handler.codec.http.LastHttpContent;
 
 /**
  * Netty REST handler for HTTP/1.1
@@ -17,6 +29,10 @@
  */
 public class Http11RequestHandler extends Http20RequestHandler {
 
+   // HTTP/1.1 responses must be sent in the same order as the requests, even if they complete in a different order.
+   // Only accessed from the event loop.
+   private CompletionStage<Void> lastResponse = CompletableFutures.completedNull();
+
    /**
     * Creates new {@link Http11RequestHandler}.
     *
@@ -35,6 +51,62 @@ public void channelRead0(ChannelHandlerContext ctx, FullHttpRequest request) thr
       super.channelRead0(ctx, request);
    }
 
+   @Override
+   protected void sendResponse(ChannelHandlerContext ctx, FullHttpRequest request, CompletionStage<InfinispanResponse> response) {
+      CompletionStage<Void> previousResponse = lastResponse;
+      lastResponse = response.handle((r, throwable) -> r)
+            .thenCombine(previousResponse, (r, ignored) -> r)
+            .thenCompose(r -> {
+               if (r == null) {
+                  return CompletableFutures.completedNull();
+               }
+               if (r.getChunkedContent() != null) {
+                  return sendChunkedResponse(ctx, request, r);
+               }
+               sendResponse(ctx, request, r.toNettyHttpResponse());
+               return CompletableFutures.completedNull();
+            })
+            .handle((ignored, throwable) -> {
+               if (throwable != null) {
+                  logger.uncaughtExceptionInThePipeline(CompletableFutures.extractException(throwable));
+                  ctx.close();
+               }
+               request.release();
+               return null;
+            });
+   }
+
+   /**
+    * Sends the response headers, and then the chunks as they are written. The chunks are produced in the blocking pool,
+    * one task per chunk. When the channel is not writable, the next chunk is only produced after the previous one was
+    * flushed, so a slow client doesn't make the chunks pile up in memory, and no thread waits for it meanwhile.
+    */
+   private CompletionStage<Void> sendChunkedResponse(ChannelHandlerContext ctx, FullHttpRequest request, InfinispanResponse response) {
+      if (!HTTP_1_1.equals(request.protocolVersion())) {
+         // HTTP/1.0 doesn't support the chunked transfer encoding
+         try {
+            return CompletableFuture.runAsync(() -> sendResponse(ctx, request, response.toNettyHttpResponse()),
+                  restServer.getExecutor());
+         } catch (RejectedExecutionException e) {
+            response.getChunkedContent().close();
+            sendServiceUnavailable(ctx, request, response);
+            return CompletableFutures.completedNull();
+         }
+      }
+      ChunkWriter writer = new ChunkWriter(ctx, request, response);
+      writer.submit();
+      return writer.done;
+   }
+
+   /**
+    * Replaces a response whose content can't be produced because the blocking pool is full.
+    */
+   private void sendServiceUnavailable(ChannelHandlerContext ctx, FullHttpRequest request, InfinispanResponse response) {
+      ServiceUnavailableException exception = logger.tooManyPendingOperations();
+      logger.errorWhileResponding(exception);
+      sendResponse(ctx, request, exception.toResponse(response.getRequest()).toNettyHttpResponse());
+   }
+
    @Override
    protected void sendResponse(ChannelHandlerContext ctx, FullHttpRequest request, FullHttpResponse response) {
       ctx.executor().execute(() -> {
@@ -46,4 +118,112 @@ protected void sendResponse(ChannelHandlerContext ctx, FullHttpRequest request,
          }
       });
    }
+
+   /**
+    * Writes one chunk each time it runs and schedules itself again for the next one.
+    */
+   private class ChunkWriter implements Runnable {
+      private final ChannelHandlerContext ctx;
+      private final FullHttpRequest request;
+      private final InfinispanResponse response;
+      private final HttpResponse headers;
+      private final ChunkedContent content;
+      private final CompletableFuture<Void> done = new CompletableFuture<>();
+      private long responseSize;
+      private boolean headersSent;
+      private boolean closed;
+
+      ChunkWriter(ChannelHandlerContext ctx, FullHttpRequest request, InfinispanResponse response) {
+         this.ctx = ctx;
+         this.request = request;
+         this.response = response;
+         this.headers = response.toNettyChunkedHttpResponse();
+         this.content = response.getChunkedContent();
+      }
+
+      void submit() {
+         try {
+            restServer.getExecutor().execute(this);
+         } catch (RejectedExecutionException e) {
+            if (headersSent) {
+               // The status was already sent, so the response can only be cut short
+               fail(e);
+            } else {
+               closeContent();
+               sendServiceUnavailable(ctx, request, response);
+               done.complete(null);
+            }
+         }
+      }
+
+      @Override
+      public void run() {
+         ByteBuf chunk = null;
+         try {
+            if (!ctx.channel().isActive()) {
+               closeContent();
+               done.complete(null);
+               return;
+            }
+            if (!headersSent) {
+               headersSent = true;
+               ctx.writeAndFlush(headers);
+            }
+            chunk = ctx.alloc().buffer();
+            boolean hasMoreChunks = content.writeChunk(chunk);
+            ChannelFuture future = null;
+            if (chunk.isReadable()) {
+               responseSize += chunk.readableBytes();
+               future = ctx.writeAndFlush(new DefaultHttpContent(chunk));
+            } else {
+               chunk.release();
+            }
+            chunk = null;
+            if (!hasMoreChunks) {
+               closeContent();
+               finish();
+            } else if (future == null || ctx.channel().isWritable()) {
+               submit();
+            } else {
+               future.addListener(f -> {
+                  if (f.isSuccess()) {
+                     submit();
+                  } else {
+                     fail(f.cause());
+                  }
+               });
+            }
+         } catch (Throwable t) {
+            if (chunk != null) {
+               chunk.release();
+            }
+            fail(t);
+         }
+      }
+
+      private void finish() {
+         restAccessLoggingHandler.log(ctx, request, headers, responseSize);
+         if (HttpUtil.isKeepAlive(headers)) {
+            ctx.writeAndFlush(LastHttpContent.EMPTY_LAST_CONTENT);
+         } else {
+            ctx.writeAndFlush(LastHttpContent.EMPTY_LAST_CONTENT).addListener(ChannelFutureListener.CLOSE);
+         }
+         done.complete(null);
+      }
+
+      private void fail(Throwable t) {
+         try {
+            closeContent();
+         } finally {
+            done.completeExceptionally(t);
+         }
+      }
+
+      private void closeContent() {
+         if (!closed) {
+            closed = true;
+            content.close();
+         }
+      }
+   }
 }
@@ -3,11 +3,15 @@
 import static io.netty.handler.codec.http.HttpResponseStatus.REQUEST_ENTITY_TOO_LARGE;
 import static io.netty.handler.codec.http.HttpVersion.HTTP_1_1;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
 import org.infinispan.rest.authentication.Authenticator;
 import org.infinispan.rest.configuration.RestServerConfiguration;
 import org.infinispan.rest.context.WrongContextException;
 import org.infinispan.rest.logging.Log;
 import org.infinispan.rest.logging.RestAccessLoggingHandler;
+import org.infinispan.util.concurrent.CompletableFutures;
 import org.infinispan.util.logging.LogFactory;
 
 import io.netty.channel.ChannelFutureListener;
@@ -45,7 +49,7 @@ public class Http20RequestHandler extends SimpleChannelInboundHandler<FullHttpRe
 
    @Override
    public void channelRead0(ChannelHandlerContext ctx, FullHttpRequest request) throws Exception {
-      InfinispanResponse response;
+      CompletionStage<InfinispanResponse> response;
       InfinispanRequest infinispanRequest = null;
       try {
          restAccessLoggingHandler.preLog(request);
@@ -55,9 +59,49 @@ public void channelRead0(ChannelHandlerContext ctx, FullHttpRequest request) thr
          response = infinispanRequest.execute();
       } catch (RestResponseException responseException) {
          logger.errorWhileResponding(responseException);
-         response = responseException.toResponse(infinispanRequest);
+         response = CompletableFuture.completedFuture(responseException.toResponse(infinispanRequest));
       }
-      sendResponse(ctx, request, response.toNettyHttpResponse());
+
+      // The response may complete in another thread, after this handler released the request
+      request.retain();
+      InfinispanRequest finalRequest = infinispanRequest;
+      sendResponse(ctx, request, response.handle((r, throwable) -> {
+         if (throwable == null) {
+            return r;
+         }
+         Throwable cause = CompletableFutures.extractException(throwable);
+         if (cause instanceof RestResponseException) {
+            RestResponseException responseException = (RestResponseException) cause;
+            logger.errorWhileResponding(responseException);
+            return responseException.toResponse(finalRequest);
+         }
+         logger.uncaughtExceptionInThePipeline(cause);
+         ctx.close();
+         return null;
+      }));
+   }
+
+   /**
+    * Sends the response when it completes, and releases the request.
+    * <p>
+    * Chunked content is collected in a single response, because HTTP/2 responses can only be streamed as HTTP/2
+    * frames.
+    *
+    * @param response a stage that completes with the response, or with {@code null} if there is no response to send.
+    */
+   protected void sendResponse(ChannelHandlerContext ctx, FullHttpRequest request, CompletionStage<InfinispanResponse> response) {
+      response.whenComplete((r, throwable) -> {
+         try {
+            if (r != null) {
+               sendResponse(ctx, request, r.toNettyHttpResponse());
+            }
+         } catch (Throwable t) {
+            logger.uncaughtExceptionInThePipeline(t);
+            ctx.close();
+         } finally {
+            request.release();
+         }
+      });
    }
 
    private void checkContext(InfinispanRequest infinispanRequest) {
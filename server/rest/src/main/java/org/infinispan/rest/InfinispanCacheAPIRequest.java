@@ -1,13 +1,14 @@
 package org.infinispan.rest;
 
-import static io.netty.handler.codec.http.HttpResponseStatus.NOT_IMPLEMENTED;
-
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 
 import org.infinispan.rest.operations.CacheOperations;
 import org.infinispan.rest.operations.StaticContent;
+import org.infinispan.rest.operations.exceptions.MalformedRequest;
 
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.codec.http.FullHttpRequest;
@@ -38,16 +39,16 @@ public Optional<Object> getKey() {
    }
 
    @Override
-   protected InfinispanResponse execute() {
-      InfinispanResponse response = InfinispanErrorResponse.asError(this, NOT_IMPLEMENTED, null);
+   protected CompletionStage<InfinispanResponse> execute() {
+      CompletionStage<InfinispanResponse> response;
 
       switch (request.method().name()) {
          case "GET":
             if (request.uri().endsWith("banner.png")) {
-               response = StaticContent.INSTANCE.serveBannerFile(this);
+               response = CompletableFuture.completedFuture(StaticContent.INSTANCE.serveBannerFile(this));
             } else if (!getCacheName().isPresent()) {
                //we are hitting root context here
-               response = StaticContent.INSTANCE.serveHtmlFile(this);
+               response = CompletableFuture.completedFuture(StaticContent.INSTANCE.serveHtmlFile(this));
             } else if (!key.isPresent()) {
                response = cacheOperations.getCacheValues(this);
             } else {
@@ -70,7 +71,7 @@ protected InfinispanResponse execute() {
             }
             break;
          default:
-            return InfinispanErrorResponse.asError(this, HttpResponseStatus.NOT_IMPLEMENTED, null);
+            return CompletableFuture.completedFuture(InfinispanErrorResponse.asError(this, HttpResponseStatus.NOT_IMPLEMENTED, null));
       }
 
       return response;
@@ -152,6 +153,41 @@ public Optional<String> getCacheControl() {
       return Optional.ofNullable(request.headers().get(HttpHeaderNames.CACHE_CONTROL));
    }
 
+   /**
+    * Returns <code>cursor</code> parameter value, the token returned with the previous page when listing the keys of a
+    * cache.
+    *
+    * @return <code>cursor</code> parameter value.
+    */
+   public Optional<String> getCursor() {
+      return Optional.ofNullable(getParameterValue("cursor"));
+   }
+
+   /**
+    * Returns <code>limit</code> parameter value, the maximum number of keys to return when listing the keys of a
+    * cache.
+    *
+    * @return <code>limit</code> parameter value.
+    */
+   public Optional<Long> getLimit() {
+      return getNonNegativeLongParameter("limit");
+   }
+
+   private Optional<Long> getNonNegativeLongParameter(String name) {
+      String value = getParameterValue(name);
+      if (value == null) {
+         return Optional.empty();
+      }
+      try {
+         long longValue = Long.parseLong(value);
+         if (longValue >= 0) {
+            return Optional.of(longValue);
+         }
+      } catch (NumberFormatException ignored) {
+      }
+      throw new MalformedRequest("The '" + name + "' parameter must be a non-negative number");
+   }
+
    /**
     * Returns whether client wishes to return 'Extended Headers'.
     *
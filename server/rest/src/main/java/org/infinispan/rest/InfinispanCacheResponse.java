@@ -6,8 +6,8 @@
 import java.util.Optional;
 import java.util.concurrent.TimeUnit;
 
-import io.netty.handler.codec.http.FullHttpResponse;
 import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpResponse;
 
 /**
  * @since 9.2
@@ -20,6 +20,7 @@ public class InfinispanCacheResponse extends InfinispanResponse {
    private final static String CLUSTER_PRIMARY_OWNER_HEADER = "Cluster-Primary-Owner";
    private final static String CLUSTER_NODE_NAME_HEADER = "Cluster-Node-Name";
    private final static String CLUSTER_SERVER_ADDRESS_HEADER = "Cluster-Server-Address";
+   private final static String CURSOR_HEADER = "Cursor";
 
    private Optional<String> etag = Optional.empty();
    private Optional<CacheControl> cacheControl = Optional.empty();
@@ -30,6 +31,7 @@ public class InfinispanCacheResponse extends InfinispanResponse {
    private Optional<String> clusterPrimaryOwner = Optional.empty();
    private Optional<String> clusterNodeName = Optional.empty();
    private Optional<String> clusterServerAddress = Optional.empty();
+   private Optional<String> cursor = Optional.empty();
 
 
    private InfinispanCacheResponse(Optional<InfinispanRequest> request) {
@@ -37,7 +39,7 @@ private InfinispanCacheResponse(Optional<InfinispanRequest> request) {
    }
 
    @Override
-   protected void addSpecificHeaders(FullHttpResponse response) {
+   protected void addSpecificHeaders(HttpResponse response) {
       etag.ifPresent(e -> response.headers().set(HttpHeaderNames.ETAG, e));
       cacheControl.ifPresent(e -> response.headers().set(HttpHeaderNames.CACHE_CONTROL, e));
       lastModified.ifPresent(e -> response.headers().set(HttpHeaderNames.LAST_MODIFIED, DATE_TIME_FORMATTER.format(e.toInstant())));
@@ -47,6 +49,7 @@ protected void addSpecificHeaders(FullHttpResponse response) {
       clusterPrimaryOwner.ifPresent(e -> response.headers().set(CLUSTER_PRIMARY_OWNER_HEADER, e));
       clusterNodeName.ifPresent(e -> response.headers().set(CLUSTER_NODE_NAME_HEADER, e));
       clusterServerAddress.ifPresent(e -> response.headers().set(CLUSTER_SERVER_ADDRESS_HEADER, e));
+      cursor.ifPresent(e -> response.headers().set(CURSOR_HEADER, e));
    }
 
    /**
@@ -138,5 +141,14 @@ public void clusterServerAddress(String serverAddress) {
       this.clusterServerAddress = Optional.of(serverAddress);
    }
 
+   /**
+    * Adds <code>Cursor</code> header.
+    *
+    * @param cursor <code>Cursor</code> header value.
+    */
+   public void cursor(String cursor) {
+      this.cursor = Optional.of(cursor);
+   }
+
 
 }
@@ -4,13 +4,16 @@
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletionStage;
 
 import org.infinispan.commons.dataconversion.MediaType;
 
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.codec.http.FullHttpRequest;
 import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpVersion;
 import io.netty.handler.codec.http2.HttpConversionUtil;
 
 /**
@@ -39,7 +42,12 @@ protected InfinispanRequest(FullHttpRequest request, ChannelHandlerContext ctx,
       this.parameters = parameters;
    }
 
-   protected abstract InfinispanResponse execute();
+   /**
+    * Executes the request. It is invoked in the event loop, so it must not block.
+    *
+    * @return a stage that completes with the response, or exceptionally with a {@link RestResponseException}.
+    */
+   protected abstract CompletionStage<InfinispanResponse> execute();
 
    /**
     * @return cache name.
@@ -55,6 +63,14 @@ Optional<String> getStreamId() {
       return streamId;
    }
 
+   /**
+    * @return <code>true</code> if the response can be sent with the chunked transfer encoding, which is only the case
+    * for HTTP/1.1 requests.
+    */
+   public boolean isChunkedResponseSupported() {
+      return !streamId.isPresent() && HttpVersion.HTTP_1_1.equals(request.protocolVersion());
+   }
+
    /***
     * @return Netty request.
     */
@@ -119,12 +135,12 @@ public String getContext() {
    public Optional<byte[]> data() {
       if (request.content() != null) {
          ByteBuf content = request.content();
-         if (content.hasArray()) {
+         if (content.hasArray() && content.arrayOffset() == 0 && content.readerIndex() == 0
+               && content.readableBytes() == content.array().length) {
+            // Avoid copying large values
             return Optional.of(content.array());
          } else {
-            byte[] bufferCopy = new byte[content.readableBytes()];
-            content.readBytes(bufferCopy);
-            return Optional.of(bufferCopy);
+            return Optional.of(ByteBufUtil.getBytes(content));
          }
       }
       return Optional.empty();
@@ -8,9 +8,11 @@
 import io.netty.buffer.ByteBufUtil;
 import io.netty.buffer.Unpooled;
 import io.netty.handler.codec.http.DefaultFullHttpResponse;
+import io.netty.handler.codec.http.DefaultHttpResponse;
 import io.netty.handler.codec.http.FullHttpResponse;
 import io.netty.handler.codec.http.HttpHeaderNames;
 import io.netty.handler.codec.http.HttpHeaderValues;
+import io.netty.handler.codec.http.HttpResponse;
 import io.netty.handler.codec.http.HttpResponseStatus;
 import io.netty.handler.codec.http.HttpUtil;
 import io.netty.handler.codec.http.HttpVersion;
@@ -25,6 +27,7 @@ public abstract class InfinispanResponse {
 
    private Optional<InfinispanRequest> request;
    private ByteBuf content = Unpooled.buffer();
+   private ChunkedContent chunkedContent;
    private String contentType;
    private HttpVersion httpVersion = HttpVersion.HTTP_1_1;
    private HttpResponseStatus httpStatus = HttpResponseStatus.OK;
@@ -35,6 +38,13 @@ protected InfinispanResponse(Optional<InfinispanRequest> request) {
       this.request = request;
    }
 
+   /**
+    * @return the request this response replies to, or <code>null</code> if it is unknown.
+    */
+   InfinispanRequest getRequest() {
+      return request.orElse(null);
+   }
+
    /**
     * Adds content as text. Converts it internally to <code>UTF-8</code>.
     *
@@ -50,7 +60,28 @@ public void contentAsText(String content) {
     * @param content Content.
     */
    public void contentAsBytes(byte[] content) {
-      this.content.writeBytes(content);
+      if (this.content.isReadable()) {
+         this.content.writeBytes(content);
+      } else {
+         // Avoid copying large values
+         this.content = Unpooled.wrappedBuffer(content);
+      }
+   }
+
+   /**
+    * Adds content that is written in chunks, after the response headers are sent.
+    *
+    * @param content Content.
+    */
+   public void contentAsChunks(ChunkedContent content) {
+      this.chunkedContent = content;
+   }
+
+   /**
+    * @return the content that is written in chunks, or <code>null</code> if the content is not chunked.
+    */
+   public ChunkedContent getChunkedContent() {
+      return chunkedContent;
    }
 
    /**
@@ -90,17 +121,44 @@ public boolean isKeepAlive() {
       return (httpVersion == HttpVersion.HTTP_1_1 || httpVersion == HttpVersion.HTTP_1_0) && isKeepAlive;
    }
 
-   protected void addSpecificHeaders(FullHttpResponse response) {
+   protected void addSpecificHeaders(HttpResponse response) {
    }
 
    /**
     * Renders {@link FullHttpResponse} object.
+    * <p>
+    * If the content is chunked, all the chunks are collected in the response.
     *
     * @return {@link FullHttpResponse} object based on this {@link InfinispanResponse}.
     */
    public FullHttpResponse toNettyHttpResponse() {
+      if (chunkedContent != null) {
+         try (ChunkedContent chunks = chunkedContent) {
+            while (chunks.writeChunk(content)) {
+               // Keep writing
+            }
+         }
+         chunkedContent = null;
+      }
       FullHttpResponse response = new DefaultFullHttpResponse(httpVersion, httpStatus, content);
+      addHeaders(response);
+      HttpUtil.setContentLength(response, response.content().readableBytes());
+      return response;
+   }
 
+   /**
+    * Renders the headers of a response with chunked content. The chunks must be sent separately.
+    *
+    * @return {@link HttpResponse} object based on this {@link InfinispanResponse}.
+    */
+   public HttpResponse toNettyChunkedHttpResponse() {
+      HttpResponse response = new DefaultHttpResponse(httpVersion, httpStatus);
+      addHeaders(response);
+      HttpUtil.setTransferEncodingChunked(response, true);
+      return response;
+   }
+
+   private void addHeaders(HttpResponse response) {
       request.flatMap(InfinispanRequest::getStreamId)
             .ifPresent(streamId -> response.headers().set(HttpConversionUtil.ExtensionHeaderNames.STREAM_ID.text(), streamId));
 
@@ -117,8 +175,6 @@ public FullHttpResponse toNettyHttpResponse() {
          charset.ifPresent(charset -> contentTypeWithCharset.append(';').append(charset));
          response.headers().set(HttpHeaderNames.CONTENT_TYPE, contentTypeWithCharset.toString());
       }
-      HttpUtil.setContentLength(response, response.content().readableBytes());
-      return response;
    }
 
 
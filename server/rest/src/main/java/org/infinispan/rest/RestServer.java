@@ -1,6 +1,12 @@
 package org.infinispan.rest;
 
 import java.util.Collections;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 import org.infinispan.manager.EmbeddedCacheManager;
 import org.infinispan.rest.authentication.Authenticator;
@@ -16,6 +22,7 @@
 import io.netty.channel.ChannelInboundHandler;
 import io.netty.channel.ChannelInitializer;
 import io.netty.channel.ChannelOutboundHandler;
+import io.netty.util.concurrent.DefaultThreadFactory;
 
 /**
  * REST Protocol Server.
@@ -27,6 +34,8 @@ public class RestServer extends AbstractProtocolServer<RestServerConfiguration>
    private Authenticator authenticator = new VoidAuthenticator();
    private CacheOperations cacheOperations;
    private SearchOperations searchOperations;
+   private ExecutorService executor;
+   private ScheduledExecutorService scheduler;
 
    public RestServer() {
       super("REST");
@@ -73,6 +82,10 @@ SearchOperations getSearchOperations() {
       return searchOperations;
    }
 
+   ExecutorService getExecutor() {
+      return executor;
+   }
+
    /**
     * Sets Authentication mechanism.
     *
@@ -86,7 +99,33 @@ public void setAuthenticator(Authenticator authenticator) {
    protected void startInternal(RestServerConfiguration configuration, EmbeddedCacheManager cacheManager) {
       super.startInternal(configuration, cacheManager);
       RestCacheManager<Object> restCacheManager = new RestCacheManager<>(cacheManager, this::isCacheIgnored);
-      this.cacheOperations = new CacheOperations(configuration, restCacheManager);
-      this.searchOperations = new SearchOperations(configuration, restCacheManager);
+      this.executor = createExecutor();
+      this.scheduler = Executors.newSingleThreadScheduledExecutor(
+            new DefaultThreadFactory(getQualifiedName() + "-Scheduler"));
+      this.cacheOperations = new CacheOperations(configuration, restCacheManager, executor, scheduler);
+      this.searchOperations = new SearchOperations(configuration, restCacheManager, executor);
+   }
+
+   @Override
+   public void stop() {
+      if (cacheOperations != null) cacheOperations.stop();
+      if (executor != null) executor.shutdownNow();
+      if (scheduler != null) scheduler.shutdownNow();
+      super.stop();
+   }
+
+   /**
+    * Creates the pool for the operations that may block, so that they don't block the event loop. Its queue is bounded,
+    * the operations that it rejects are answered with <code>503 Service Unavailable</code>.
+    */
+   private ExecutorService createExecutor() {
+      DefaultThreadFactory factory = new DefaultThreadFactory(getQualifiedName() + "-ServerHandler");
+      int workerThreads = configuration.workerThreads();
+      return new ThreadPoolExecutor(
+            workerThreads,
+            workerThreads,
+            0L, TimeUnit.MILLISECONDS,
+            new LinkedBlockingQueue<>(configuration.maxPendingOperations()),
+            factory);
    }
 }
@@ -3,6 +3,7 @@
 import static org.infinispan.commons.dataconversion.MediaType.MATCH_ALL;
 
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Predicate;
 
 import org.infinispan.AdvancedCache;
@@ -95,6 +96,10 @@ public void remove(String cacheName, Object key, MediaType keyContentType, boole
 
    }
 
+   public CompletableFuture<V> removeAsync(String cacheName, Object key, MediaType keyContentType) {
+      return getCache(cacheName, keyContentType, MediaType.MATCH_ALL).removeAsync(key);
+   }
+
    public MediaType getValueConfiguredFormat(String cacheName) {
       return getCache(cacheName).getCacheConfiguration().encoding().valueDataType().mediaType();
    }
@@ -106,6 +111,13 @@ public CacheEntry<Object, V> getInternalEntry(String cacheName, Object key, bool
       return cache.getCacheEntry(key);
    }
 
+   public CompletableFuture<CacheEntry<Object, V>> getInternalEntryAsync(String cacheName, Object key, boolean skipListener, MediaType keyContentType, MediaType mediaType) {
+      AdvancedCache<Object, V> cache =
+            skipListener ? getCache(cacheName, keyContentType, mediaType).withFlags(Flag.SKIP_LISTENER_NOTIFICATION) : getCache(cacheName, keyContentType, mediaType);
+
+      return cache.getCacheEntryAsync(key);
+   }
+
    public String getNodeName() {
       Address addressToBeReturned = instance.getAddress();
       if (addressToBeReturned == null) {
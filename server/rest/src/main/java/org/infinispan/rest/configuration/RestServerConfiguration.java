@@ -15,18 +15,21 @@ public class RestServerConfiguration extends ProtocolServerConfiguration {
    private final int maxContentLength;
    private final List<String> corsAllowOrigins;
    private final int compressionLevel;
+   private final int maxPendingOperations;
 
    RestServerConfiguration(String defaultCacheName, String name, ExtendedHeaders extendedHeaders, String host, int port,
                            Set<String> ignoredCaches, SslConfiguration ssl, boolean startTransport, String contextPath,
                            AdminOperationsHandler adminOperationsHandler, int maxContentLength,
-                           List<String> corsAllowOrigins, int compressionLevel) {
+                           List<String> corsAllowOrigins, int compressionLevel, int workerThreads,
+                           int maxPendingOperations) {
       super(defaultCacheName, name, host, port, -1, -1, -1, ssl, false,
-            -1, ignoredCaches, startTransport, adminOperationsHandler);
+            workerThreads, ignoredCaches, startTransport, adminOperationsHandler);
       this.extendedHeaders = extendedHeaders;
       this.contextPath = contextPath;
       this.maxContentLength = maxContentLength;
       this.corsAllowOrigins = corsAllowOrigins;
       this.compressionLevel = compressionLevel;
+      this.maxPendingOperations = maxPendingOperations;
    }
 
    public ExtendedHeaders extendedHeaders() {
@@ -56,4 +59,12 @@ public List<String> getCorsAllowOrigins() {
    public int getCompressionLevel() {
       return compressionLevel;
    }
+
+   /**
+    * @return the maximum number of operations waiting for a thread of the blocking pool. Requests beyond that are
+    * rejected with <code>503 Service Unavailable</code>.
+    */
+   public int maxPendingOperations() {
+      return maxPendingOperations;
+   }
 }
@@ -24,12 +24,14 @@ public class RestServerConfigurationBuilder extends ProtocolServerConfigurationB
    public static final String DEFAULT_NAME = "rest";
    public static final int DEFAULT_MAX_CONTENT_LENGTH = 10 * 1024 * 1024;
    public static final int DEFAULT_COMPRESS_LEVEL = 6;
+   public static final int DEFAULT_MAX_PENDING_OPERATIONS = 1000;
 
    private ExtendedHeaders extendedHeaders = ExtendedHeaders.ON_DEMAND;
    private List<String> corsAllowOrigins = new ArrayList<>(6);
    private String contextPath = DEFAULT_CONTEXT_PATH;
    private int maxContentLength = DEFAULT_MAX_CONTENT_LENGTH;
    private int compressionLevel = DEFAULT_COMPRESS_LEVEL;
+   private int maxPendingOperations = DEFAULT_MAX_PENDING_OPERATIONS;
 
    public RestServerConfigurationBuilder() {
       super(DEFAULT_PORT);
@@ -56,6 +58,16 @@ public RestServerConfigurationBuilder compressionLevel(int compressLevel) {
       return this;
    }
 
+   /**
+    * Sets the maximum number of operations that wait for a thread of the blocking pool, the operations that can't be
+    * executed in the event loop. Requests beyond that are rejected with <code>503 Service Unavailable</code>. Defaults
+    * to {@value #DEFAULT_MAX_PENDING_OPERATIONS}.
+    */
+   public RestServerConfigurationBuilder maxPendingOperations(int maxPendingOperations) {
+      this.maxPendingOperations = maxPendingOperations;
+      return this;
+   }
+
    public RestServerConfigurationBuilder corsAllowForLocalhost(String scheme, int port) {
       this.corsAllowOrigins.add(scheme + "://" + "127.0.0.1" + ":" + port);
       this.corsAllowOrigins.add(scheme + "://" + "localhost" + ":" + port);
@@ -68,12 +80,16 @@ public void validate() {
       if (compressionLevel < 0 || compressionLevel > 9) {
          throw logger.illegalCompressionLevel(compressionLevel);
       }
+      if (maxPendingOperations <= 0) {
+         throw logger.illegalMaxPendingOperations(maxPendingOperations);
+      }
    }
 
    @Override
    public RestServerConfiguration create() {
       return new RestServerConfiguration(defaultCacheName, name, extendedHeaders, host, port, ignoredCaches, ssl.create(),
-            startTransport, contextPath, adminOperationsHandler, maxContentLength, corsAllowOrigins, compressionLevel);
+            startTransport, contextPath, adminOperationsHandler, maxContentLength, corsAllowOrigins, compressionLevel,
+            workerThreads, maxPendingOperations);
    }
 
    @Override
@@ -84,6 +100,8 @@ public Builder<?> read(RestServerConfiguration template) {
       this.maxContentLength = template.maxContentLength();
       this.corsAllowOrigins = template.getCorsAllowOrigins();
       this.compressionLevel = template.getCompressionLevel();
+      this.workerThreads = template.workerThreads();
+      this.maxPendingOperations = template.maxPendingOperations();
       return this;
    }
 
@@ -126,9 +144,4 @@ public RestServerConfigurationBuilder recvBufSize(int recvBufSize) {
    public RestServerConfigurationBuilder sendBufSize(int sendBufSize) {
       throw logger.unsupportedConfigurationOption();
    }
-
-   @Override
-   public RestServerConfigurationBuilder workerThreads(int workerThreads) {
-      throw logger.unsupportedConfigurationOption();
-   }
 }
@@ -61,4 +61,10 @@ public interface Log extends BasicLogger {
 
    @Message(value = "Illegal compression level '%d'. The value must be >= 0 and <= 9", id = 12014)
    CacheConfigurationException illegalCompressionLevel(int compressionLevel);
+
+   @Message(value = "Illegal maximum number of pending operations '%d'. The value must be > 0", id = 12015)
+   CacheConfigurationException illegalMaxPendingOperations(int maxPendingOperations);
+
+   @Message(value = "Too many operations are waiting to be processed, retry later", id = 12016)
+   ServiceUnavailableException tooManyPendingOperations();
 }
@@ -9,6 +9,7 @@
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.codec.http.FullHttpRequest;
 import io.netty.handler.codec.http.FullHttpResponse;
+import io.netty.handler.codec.http.HttpResponse;
 
 /**
  * Logging filter that can be used to output requests in a similar fashion to HTTPD log output
@@ -34,6 +35,12 @@ public void preLog(FullHttpRequest request) {
    }
 
    public void log(ChannelHandlerContext ctx, FullHttpRequest request, FullHttpResponse response) {
+      if (isEnabled()) {
+         log(ctx, request, response, response.content().readableBytes());
+      }
+   }
+
+   public void log(ChannelHandlerContext ctx, FullHttpRequest request, HttpResponse response, long responseSize) {
       if (isEnabled()) {
          // IP
          String remoteAddress = request.headers().getAsString(X_FORWARDED_FOR);
@@ -55,8 +62,6 @@ public void log(ChannelHandlerContext ctx, FullHttpRequest request, FullHttpResp
          int status = response.status().code();
          // Body request size
          int requestSize = request.content().readableBytes();
-         // Body response Size - usually -1 so we calculate below
-         int responseSize = response.content().readableBytes();
          // Response time
          long duration = now - requestTime;
          MDC.clear();
@@ -4,8 +4,14 @@
 import static org.infinispan.commons.dataconversion.MediaType.TEXT_PLAIN;
 
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 import org.infinispan.AdvancedCache;
+import org.infinispan.commons.CacheException;
 import org.infinispan.commons.dataconversion.EncodingException;
 import org.infinispan.commons.dataconversion.MediaType;
 import org.infinispan.commons.hash.MurmurHash3;
@@ -15,7 +21,9 @@
 import org.infinispan.rest.cachemanager.RestCacheManager;
 import org.infinispan.rest.configuration.RestServerConfiguration;
 import org.infinispan.rest.logging.Log;
+import org.infinispan.rest.operations.exceptions.ServiceUnavailableException;
 import org.infinispan.rest.operations.exceptions.UnacceptableDataFormatException;
+import org.infinispan.util.concurrent.CompletableFutures;
 import org.infinispan.util.logging.LogFactory;
 
 import io.netty.handler.codec.http.HttpResponseStatus;
@@ -27,10 +35,51 @@ abstract class AbstractOperations {
 
    final RestCacheManager<Object> restCacheManager;
    final RestServerConfiguration restServerConfiguration;
+   final Executor executor;
 
-   AbstractOperations(RestServerConfiguration configuration, RestCacheManager<Object> cacheManager) {
+   AbstractOperations(RestServerConfiguration configuration, RestCacheManager<Object> cacheManager, Executor executor) {
       this.restServerConfiguration = configuration;
       this.restCacheManager = cacheManager;
+      this.executor = executor;
+   }
+
+   /**
+    * Runs an operation that blocks in the blocking pool, so that it doesn't block the event loop.
+    * <p>
+    * If the pool rejects the operation the returned future fails with a {@link ServiceUnavailableException}.
+    */
+   <T> CompletableFuture<T> supplyBlocking(Supplier<T> operation) {
+      try {
+         return CompletableFuture.supplyAsync(operation, executor);
+      } catch (RejectedExecutionException e) {
+         return CompletableFutures.completedExceptionFuture(logger.tooManyPendingOperations());
+      }
+   }
+
+   /**
+    * Starts an asynchronous cache operation.
+    * <p>
+    * The asynchronous operations still invoke the cache stores and the transaction manager in the caller's thread, so
+    * for caches that have stores or are transactional the operation is started in the blocking pool.
+    */
+   <T> CompletableFuture<T> invokeAsync(AdvancedCache<?, ?> cache, Supplier<CompletableFuture<T>> operation) {
+      Configuration cacheConfiguration = cache.getCacheConfiguration();
+      if (cacheConfiguration.persistence().usingStores() || cacheConfiguration.transaction().transactionMode().isTransactional()) {
+         return supplyBlocking(operation).thenCompose(Function.identity());
+      }
+      return operation.get();
+   }
+
+   /**
+    * Converts the failure of an asynchronous operation, like {@link #createResponseException(Throwable)} does for the
+    * synchronous operations.
+    */
+   RuntimeException toResponseException(Throwable throwable) {
+      Throwable cause = CompletableFutures.extractException(throwable);
+      if (cause instanceof CacheException || cause instanceof IllegalStateException) {
+         return createResponseException(cause);
+      }
+      return cause instanceof RuntimeException ? (RuntimeException) cause : new CacheException(cause);
    }
 
    RestResponseException createResponseException(Throwable exception) {
@@ -6,11 +6,15 @@
 import java.util.Date;
 import java.util.Optional;
 import java.util.OptionalInt;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
 
 import org.infinispan.AdvancedCache;
-import org.infinispan.CacheSet;
 import org.infinispan.commons.CacheException;
 import org.infinispan.commons.dataconversion.MediaType;
+import org.infinispan.commons.util.CloseableIterator;
 import org.infinispan.container.entries.CacheEntry;
 import org.infinispan.container.entries.InternalCacheEntry;
 import org.infinispan.metadata.Metadata;
@@ -27,26 +31,50 @@
 import org.infinispan.rest.operations.exceptions.NoKeyException;
 import org.infinispan.rest.operations.mediatypes.Charset;
 import org.infinispan.rest.operations.mediatypes.EntrySetFormatter;
+import org.infinispan.rest.operations.mediatypes.KeysChunkedContent;
 import org.infinispan.rest.operations.mediatypes.OutputPrinter;
 
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
 import io.netty.handler.codec.http.HttpMethod;
 import io.netty.handler.codec.http.HttpResponseStatus;
 
 /**
  * REST Operations implementation. All operations translate {@link InfinispanRequest} into {@link InfinispanResponse}.
+ * <p>
+ * The operations are invoked in the event loop, so they must not block: they use the asynchronous cache operations
+ * and complete the response when the cache operation completes. Operations without an asynchronous version are
+ * executed in the blocking pool.
  *
  * @author Sebastian Łaskawiec
  */
 public class CacheOperations extends AbstractOperations {
 
+   // Page size of the key listings that are not limited, when the keys can't be sent in chunks
+   static final long DEFAULT_PAGE_SIZE = 1000;
+
+   private final KeyCursors keyCursors;
+
    /**
     * Creates new instance of {@link CacheOperations}.
     *
     * @param configuration REST Server configuration.
     * @param cacheManager  Embedded Cache Manager for storing data.
+    * @param executor      Executor for the operations that block.
+    * @param scheduler     Executor for closing the key listings that were not continued.
+    */
+   public CacheOperations(RestServerConfiguration configuration, RestCacheManager<Object> cacheManager, Executor executor,
+                          ScheduledExecutorService scheduler) {
+      super(configuration, cacheManager, executor);
+      this.keyCursors = new KeyCursors(scheduler);
+   }
+
+   /**
+    * Closes the iterators kept for the next page of the key listings.
     */
-   public CacheOperations(RestServerConfiguration configuration, RestCacheManager<Object> cacheManager) {
-      super(configuration, cacheManager);
+   public void stop() {
+      keyCursors.close();
    }
 
    /**
@@ -56,23 +84,57 @@ public CacheOperations(RestServerConfiguration configuration, RestCacheManager<O
     * @return InfinispanResponse which shall be sent to the client.
     * @throws RestResponseException Thrown in case of any non-critical processing errors.
     */
-   public InfinispanResponse getCacheValues(InfinispanCacheAPIRequest request) throws RestResponseException {
+   public CompletionStage<InfinispanResponse> getCacheValues(InfinispanCacheAPIRequest request) throws RestResponseException {
       try {
          String cacheName = request.getCacheName().get();
          String accept = request.getAcceptContentType().orElse(MATCH_ALL_TYPE);
 
          MediaType contentType = negotiateMediaType(accept, cacheName);
          AdvancedCache<Object, Object> cache = restCacheManager.getCache(cacheName, TEXT_PLAIN, TEXT_PLAIN);
-         CacheSet<Object> keys = cache.keySet();
          Charset charset = request.getAcceptContentType()
                .map(Charset::fromMediaType)
                .orElse(Charset.UTF8);
-         InfinispanCacheResponse response = InfinispanCacheResponse.inReplyTo(request);
-         response.contentType(contentType.toString());
-         response.cacheControl(CacheControl.noCache());
-         OutputPrinter outputPrinter = EntrySetFormatter.forMediaType(contentType);
-         response.contentAsBytes(outputPrinter.print(cacheName, keys, charset));
-         return response;
+         Optional<String> cursor = request.getCursor();
+         // Without chunks the whole listing would be kept in memory, so it is split in pages
+         Optional<Long> limit = request.isChunkedResponseSupported() ? request.getLimit()
+               : Optional.of(request.getLimit().orElse(DEFAULT_PAGE_SIZE));
+         // Iterating over the keys blocks
+         return supplyBlocking(() -> {
+            CloseableIterator<?> keys = null;
+            try {
+               keys = cursor.isPresent() ? keyCursors.take(cursor.get(), cacheName) : cache.keySet().iterator();
+               InfinispanCacheResponse response = InfinispanCacheResponse.inReplyTo(request);
+               response.contentType(contentType.toString());
+               response.cacheControl(CacheControl.noCache());
+               OutputPrinter outputPrinter = EntrySetFormatter.forMediaType(contentType);
+               if (!limit.isPresent()) {
+                  // The keys are sent in chunks while iterating, instead of being collected first
+                  response.contentAsChunks(new KeysChunkedContent(cacheName, keys, outputPrinter, charset, Long.MAX_VALUE));
+                  return response;
+               }
+               // A page is bounded by the limit, so it is collected to tell in the headers whether more keys follow
+               KeysChunkedContent page = new KeysChunkedContent(cacheName, keys, outputPrinter, charset, limit.get());
+               ByteBuf content = Unpooled.buffer();
+               while (page.writeChunk(content)) {
+                  // Keep writing
+               }
+               response.contentAsBytes(ByteBufUtil.getBytes(content));
+               if (keys.hasNext()) {
+                  response.cursor(keyCursors.add(cacheName, keys));
+               } else {
+                  keys.close();
+               }
+               return response;
+            } catch (RuntimeException e) {
+               if (keys != null) {
+                  keys.close();
+               }
+               if (e instanceof CacheException) {
+                  throw createResponseException((CacheException) e);
+               }
+               throw e;
+            }
+         });
       } catch (CacheException cacheException) {
          throw createResponseException(cacheException);
       }
@@ -85,7 +147,7 @@ public InfinispanResponse getCacheValues(InfinispanCacheAPIRequest request) thro
     * @return InfinispanResponse which shall be sent to the client.
     * @throws RestResponseException Thrown in case of any non-critical processing errors.
     */
-   public InfinispanResponse getCacheValue(InfinispanCacheAPIRequest request) throws RestResponseException {
+   public CompletionStage<InfinispanResponse> getCacheValue(InfinispanCacheAPIRequest request) throws RestResponseException {
       try {
          String cacheName = request.getCacheName().get();
          String accept = request.getAcceptContentType().orElse(MATCH_ALL_TYPE);
@@ -95,59 +157,69 @@ public InfinispanResponse getCacheValue(InfinispanCacheAPIRequest request) throw
          Object key = request.getKey().orElseThrow(NoKeyException::new);
          String cacheControl = request.getCacheControl().orElse("");
          boolean returnBody = request.getRawRequest().method() == HttpMethod.GET;
-         CacheEntry<Object, Object> entry = restCacheManager.getInternalEntry(cacheName, key, keyContentType, requestedMediaType);
-         InfinispanCacheResponse response = InfinispanCacheResponse.inReplyTo(request);
-         response.status(HttpResponseStatus.NOT_FOUND);
-
-         if (entry instanceof InternalCacheEntry) {
-            InternalCacheEntry<Object, Object> ice = (InternalCacheEntry<Object, Object>) entry;
-            Date lastMod = CacheOperationsHelper.lastModified(ice);
-            Date expires = ice.canExpire() ? new Date(ice.getExpiryTime()) : null;
-            OptionalInt minFreshSeconds = CacheOperationsHelper.minFresh(cacheControl);
-            if (CacheOperationsHelper.entryFreshEnough(expires, minFreshSeconds)) {
-               Metadata meta = ice.getMetadata();
-               String etag = calcETAG(ice.getValue());
-               if (CacheOperationsHelper.ifNoneMatchMathesEtag(request.getEtagIfNoneMatch(), etag)) {
-                  response.status(HttpResponseStatus.NOT_MODIFIED);
-                  return response;
-               }
-               if (CacheOperationsHelper.ifMatchDoesntMatchEtag(request.getEtagIfMatch(), etag)) {
-                  response.status(HttpResponseStatus.PRECONDITION_FAILED);
-                  return response;
-               }
-               if (CacheOperationsHelper.ifUnmodifiedIsBeforeEntryModificationDate(request.getEtagIfUnmodifiedSince(), lastMod)) {
-                  response.status(HttpResponseStatus.PRECONDITION_FAILED);
-                  return response;
-               }
-               if (CacheOperationsHelper.ifModifiedIsAfterEntryModificationDate(request.getEtagIfModifiedSince(), lastMod)) {
-                  response.status(HttpResponseStatus.NOT_MODIFIED);
-                  return response;
-               }
-               Object value = ice.getValue();
-               MediaType configuredMediaType = restCacheManager.getValueConfiguredFormat(cacheName);
-               writeValue(value, requestedMediaType, configuredMediaType, response, returnBody);
-
-               response.status(HttpResponseStatus.OK);
-               response.lastModified(lastMod);
-               response.etag(etag);
-               response.cacheControl(CacheOperationsHelper.calcCacheControl(expires));
-               response.expires(expires);
-               response.timeToLive(meta.lifespan());
-               response.maxIdle(meta.maxIdle());
-
-               if (request.getExtended().isPresent() && CacheOperationsHelper.supportsExtendedHeaders(restServerConfiguration, request.getExtended().get())) {
-                  response.clusterPrimaryOwner(restCacheManager.getPrimaryOwner(cacheName, key));
-                  response.clusterNodeName(restCacheManager.getNodeName());
-                  response.clusterServerAddress(restCacheManager.getServerAddress());
-               }
-            }
-         }
-         return response;
+         return invokeAsync(restCacheManager.getCache(cacheName),
+               () -> restCacheManager.getInternalEntryAsync(cacheName, key, false, keyContentType, requestedMediaType))
+               .thenApply(entry -> getCacheValueResponse(request, cacheName, key, requestedMediaType, cacheControl, returnBody, entry))
+               .exceptionally(throwable -> {
+                  throw toResponseException(throwable);
+               });
       } catch (CacheException cacheException) {
          throw createResponseException(cacheException);
       }
    }
 
+   private InfinispanResponse getCacheValueResponse(InfinispanCacheAPIRequest request, String cacheName, Object key,
+                                                    MediaType requestedMediaType, String cacheControl,
+                                                    boolean returnBody, CacheEntry<Object, Object> entry) {
+      InfinispanCacheResponse response = InfinispanCacheResponse.inReplyTo(request);
+      response.status(HttpResponseStatus.NOT_FOUND);
+
+      if (entry instanceof InternalCacheEntry) {
+         InternalCacheEntry<Object, Object> ice = (InternalCacheEntry<Object, Object>) entry;
+         Date lastMod = CacheOperationsHelper.lastModified(ice);
+         Date expires = ice.canExpire() ? new Date(ice.getExpiryTime()) : null;
+         OptionalInt minFreshSeconds = CacheOperationsHelper.minFresh(cacheControl);
+         if (CacheOperationsHelper.entryFreshEnough(expires, minFreshSeconds)) {
+            Metadata meta = ice.getMetadata();
+            String etag = calcETAG(ice.getValue());
+            if (CacheOperationsHelper.ifNoneMatchMathesEtag(request.getEtagIfNoneMatch(), etag)) {
+               response.status(HttpResponseStatus.NOT_MODIFIED);
+               return response;
+            }
+            if (CacheOperationsHelper.ifMatchDoesntMatchEtag(request.getEtagIfMatch(), etag)) {
+               response.status(HttpResponseStatus.PRECONDITION_FAILED);
+               return response;
+            }
+            if (CacheOperationsHelper.ifUnmodifiedIsBeforeEntryModificationDate(request.getEtagIfUnmodifiedSince(), lastMod)) {
+               response.status(HttpResponseStatus.PRECONDITION_FAILED);
+               return response;
+            }
+            if (CacheOperationsHelper.ifModifiedIsAfterEntryModificationDate(request.getEtagIfModifiedSince(), lastMod)) {
+               response.status(HttpResponseStatus.NOT_MODIFIED);
+               return response;
+            }
+            Object value = ice.getValue();
+            MediaType configuredMediaType = restCacheManager.getValueConfiguredFormat(cacheName);
+            writeValue(value, requestedMediaType, configuredMediaType, response, returnBody);
+
+            response.status(HttpResponseStatus.OK);
+            response.lastModified(lastMod);
+            response.etag(etag);
+            response.cacheControl(CacheOperationsHelper.calcCacheControl(expires));
+            response.expires(expires);
+            response.timeToLive(meta.lifespan());
+            response.maxIdle(meta.maxIdle());
+
+            if (request.getExtended().isPresent() && CacheOperationsHelper.supportsExtendedHeaders(restServerConfiguration, request.getExtended().get())) {
+               response.clusterPrimaryOwner(restCacheManager.getPrimaryOwner(cacheName, key));
+               response.clusterNodeName(restCacheManager.getNodeName());
+               response.clusterServerAddress(restCacheManager.getServerAddress());
+            }
+         }
+      }
+      return response;
+   }
+
    private void writeValue(Object value, MediaType requested, MediaType configuredMediaType, InfinispanResponse response, boolean returnBody) {
       String responseContentType;
 
@@ -175,33 +247,42 @@ private void writeValue(Object value, MediaType requested, MediaType configuredM
     * @return InfinispanResponse which shall be sent to the client.
     * @throws RestResponseException Thrown in case of any non-critical processing errors.
     */
-   public InfinispanResponse deleteCacheValue(InfinispanCacheAPIRequest request) throws RestResponseException {
+   public CompletionStage<InfinispanResponse> deleteCacheValue(InfinispanCacheAPIRequest request) throws RestResponseException {
       try {
          String cacheName = request.getCacheName().get();
          Object key = request.getKey().orElseThrow(NoKeyException::new);
          Optional<Boolean> useAsync = request.getUseAsync();
 
          MediaType keyContentType = request.getKeyContentType();
-
-         CacheEntry<Object, Object> entry = restCacheManager.getInternalEntry(cacheName, key, keyContentType, MediaType.MATCH_ALL);
-
-         InfinispanResponse response = InfinispanCacheResponse.inReplyTo(request);
-         response.status(HttpResponseStatus.NOT_FOUND);
-
-         if (entry instanceof InternalCacheEntry) {
-            InternalCacheEntry<Object, Object> ice = (InternalCacheEntry<Object, Object>) entry;
-            String etag = calcETAG(ice.getValue());
-            Optional<String> clientEtag = request.getEtagIfNoneMatch();
-            if (clientEtag.map(t -> t.equals(etag)).orElse(true)) {
-               response.status(HttpResponseStatus.OK);
-               boolean async = useAsync.isPresent() && useAsync.get();
-               restCacheManager.remove(cacheName, key, keyContentType, async);
-            } else {
-               //ETags don't match, so preconditions failed
-               response.status(HttpResponseStatus.PRECONDITION_FAILED);
-            }
-         }
-         return response;
+         AdvancedCache<Object, Object> cache = restCacheManager.getCache(cacheName);
+
+         return invokeAsync(cache, () -> restCacheManager.getInternalEntryAsync(cacheName, key, false, keyContentType, MediaType.MATCH_ALL))
+               .thenCompose(entry -> {
+                  InfinispanResponse response = InfinispanCacheResponse.inReplyTo(request);
+                  response.status(HttpResponseStatus.NOT_FOUND);
+
+                  if (entry instanceof InternalCacheEntry) {
+                     InternalCacheEntry<Object, Object> ice = (InternalCacheEntry<Object, Object>) entry;
+                     String etag = calcETAG(ice.getValue());
+                     Optional<String> clientEtag = request.getEtagIfNoneMatch();
+                     if (clientEtag.map(t -> t.equals(etag)).orElse(true)) {
+                        response.status(HttpResponseStatus.OK);
+                        boolean async = useAsync.isPresent() && useAsync.get();
+                        CompletableFuture<Object> removeFuture =
+                              invokeAsync(cache, () -> restCacheManager.removeAsync(cacheName, key, keyContentType));
+                        if (!async) {
+                           return removeFuture.thenApply(ignored -> response);
+                        }
+                     } else {
+                        //ETags don't match, so preconditions failed
+                        response.status(HttpResponseStatus.PRECONDITION_FAILED);
+                     }
+                  }
+                  return CompletableFuture.completedFuture(response);
+               })
+               .exceptionally(throwable -> {
+                  throw toResponseException(throwable);
+               });
       } catch (CacheException cacheException) {
          throw createResponseException(cacheException);
       }
@@ -214,7 +295,7 @@ public InfinispanResponse deleteCacheValue(InfinispanCacheAPIRequest request) th
     * @return InfinispanResponse which shall be sent to the client.
     * @throws RestResponseException Thrown in case of any non-critical processing errors.
     */
-   public InfinispanResponse clearEntireCache(InfinispanCacheAPIRequest request) throws RestResponseException {
+   public CompletionStage<InfinispanResponse> clearEntireCache(InfinispanCacheAPIRequest request) throws RestResponseException {
       try {
          String cacheName = request.getCacheName().get();
          Optional<Boolean> useAsync = request.getUseAsync();
@@ -222,13 +303,15 @@ public InfinispanResponse clearEntireCache(InfinispanCacheAPIRequest request) th
          InfinispanResponse response = InfinispanCacheResponse.inReplyTo(request);
          response.status(HttpResponseStatus.OK);
 
+         AdvancedCache<Object, Object> cache = restCacheManager.getCache(cacheName);
+         CompletableFuture<Void> clearFuture = invokeAsync(cache, cache::clearAsync);
          if (useAsync.isPresent() && useAsync.get()) {
-            restCacheManager.getCache(cacheName).clearAsync();
-         } else {
-            restCacheManager.getCache(cacheName).clear();
+            return CompletableFuture.completedFuture(response);
          }
-
-         return response;
+         return clearFuture.thenApply(ignored -> response)
+               .exceptionally(throwable -> {
+                  throw toResponseException(throwable);
+               });
       } catch (CacheException cacheException) {
          throw createResponseException(cacheException);
       }
@@ -241,7 +324,7 @@ public InfinispanResponse clearEntireCache(InfinispanCacheAPIRequest request) th
     * @return InfinispanResponse which shall be sent to the client.
     * @throws RestResponseException Thrown in case of any non-critical processing errors.
     */
-   public InfinispanResponse putValueToCache(InfinispanCacheAPIRequest request) throws RestResponseException {
+   public CompletionStage<InfinispanResponse> putValueToCache(InfinispanCacheAPIRequest request) throws RestResponseException {
       try {
          String cacheName = request.getCacheName().get();
 
@@ -250,33 +333,40 @@ public InfinispanResponse putValueToCache(InfinispanCacheAPIRequest request) thr
 
          AdvancedCache<Object, Object> cache = restCacheManager.getCache(cacheName, keyContentType, contentType);
          Object key = request.getKey().orElseThrow(NoKeyException::new);
-
-         if (HttpMethod.POST.equals(request.getRawRequest().method()) && cache.containsKey(key)) {
-            return InfinispanErrorResponse.asError(request, HttpResponseStatus.CONFLICT, "An entry already exists");
-         } else {
-            InfinispanCacheResponse response = InfinispanCacheResponse.inReplyTo(request);
-            Optional<Object> oldData = Optional.empty();
-            byte[] data = request.data().orElseThrow(NoDataFoundException::new);
-            CacheEntry<Object, Object> entry = restCacheManager.getInternalEntry(cacheName, key, true, keyContentType, contentType);
-            if (entry instanceof InternalCacheEntry) {
-               InternalCacheEntry ice = (InternalCacheEntry) entry;
-               oldData = Optional.of(entry.getValue());
-               Optional<String> clientEtag = request.getEtagIfNoneMatch();
-               if (clientEtag.isPresent()) {
-                  String etag = calcETAG(ice.getValue());
-                  if (clientEtag.get().equals(etag)) {
-                     //client's and our ETAG match. Nothing to do, an entry is cached on the client side...
-                     response.status(HttpResponseStatus.NOT_MODIFIED);
-                     return response;
+         // Read the content now, the request is released when the response is sent
+         byte[] data = request.data().orElseThrow(NoDataFoundException::new);
+         boolean post = HttpMethod.POST.equals(request.getRawRequest().method());
+
+         return invokeAsync(cache, () -> restCacheManager.getInternalEntryAsync(cacheName, key, true, keyContentType, contentType))
+               .thenCompose(entry -> {
+                  if (post && entry != null) {
+                     return CompletableFuture.<InfinispanResponse>completedFuture(
+                           InfinispanErrorResponse.asError(request, HttpResponseStatus.CONFLICT, "An entry already exists"));
+                  }
+                  InfinispanCacheResponse response = InfinispanCacheResponse.inReplyTo(request);
+                  Optional<Object> oldData = Optional.empty();
+                  if (entry instanceof InternalCacheEntry) {
+                     InternalCacheEntry ice = (InternalCacheEntry) entry;
+                     oldData = Optional.of(entry.getValue());
+                     Optional<String> clientEtag = request.getEtagIfNoneMatch();
+                     if (clientEtag.isPresent()) {
+                        String etag = calcETAG(ice.getValue());
+                        if (clientEtag.get().equals(etag)) {
+                           //client's and our ETAG match. Nothing to do, an entry is cached on the client side...
+                           response.status(HttpResponseStatus.NOT_MODIFIED);
+                           return CompletableFuture.<InfinispanResponse>completedFuture(response);
+                        }
+                     }
                   }
-               }
-            }
 
-            boolean useAsync = request.getUseAsync().orElse(false);
-            Optional<Long> ttl = request.getTimeToLiveSeconds();
-            Optional<Long> idle = request.getMaxIdleTimeSeconds();
-            return putInCache(response, useAsync, cache, key, data, ttl, idle, oldData);
-         }
+                  boolean useAsync = request.getUseAsync().orElse(false);
+                  Optional<Long> ttl = request.getTimeToLiveSeconds();
+                  Optional<Long> idle = request.getMaxIdleTimeSeconds();
+                  return putInCache(response, useAsync, cache, key, data, ttl, idle, oldData);
+               })
+               .exceptionally(throwable -> {
+                  throw toResponseException(throwable);
+               });
       } catch (CacheException | IllegalStateException e) {
          throw createResponseException(e);
       }
@@ -286,24 +376,25 @@ private <V> String calcETAG(V value) {
       return String.valueOf(hashFunc.hash(value));
    }
 
-   private InfinispanResponse putInCache(InfinispanCacheResponse response, boolean useAsync, AdvancedCache<Object, Object> cache, Object key,
-                                         byte[] data, Optional<Long> ttl, Optional<Long> idleTime, Optional<Object> prevCond) {
+   private CompletableFuture<InfinispanResponse> putInCache(InfinispanCacheResponse response, boolean useAsync, AdvancedCache<Object, Object> cache, Object key,
+                                                            byte[] data, Optional<Long> ttl, Optional<Long> idleTime, Optional<Object> prevCond) {
       final Metadata metadata = CacheOperationsHelper.createMetadata(cache.getCacheConfiguration(), ttl, idleTime);
+      response.etag(calcETAG(data));
       if (prevCond.isPresent()) {
-         boolean replaced = cache.replace(key, prevCond.get(), data, metadata);
-         // If not replaced, simply send back that the precondition failed
-         if (!replaced) {
-            response.status(HttpResponseStatus.PRECONDITION_FAILED);
-         }
+         return invokeAsync(cache, () -> cache.replaceAsync(key, prevCond.get(), data, metadata)).thenApply(replaced -> {
+            // If not replaced, simply send back that the precondition failed
+            if (!replaced) {
+               response.status(HttpResponseStatus.PRECONDITION_FAILED);
+            }
+            return response;
+         });
       } else {
+         CompletableFuture<Object> putFuture = invokeAsync(cache, () -> cache.putAsync(key, data, metadata));
          if (useAsync) {
-            cache.putAsync(key, data, metadata);
-         } else {
-            cache.put(key, data, metadata);
+            return CompletableFuture.completedFuture(response);
          }
+         return putFuture.thenApply(ignored -> response);
       }
-      response.etag(calcETAG(data));
-      return response;
    }
 
 }
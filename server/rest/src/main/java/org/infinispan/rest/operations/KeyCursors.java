@@ -0,0 +1,115 @@
+package org.infinispan.rest.operations;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+import org.infinispan.commons.util.CloseableIterator;
+import org.infinispan.rest.operations.exceptions.NoCursorFoundException;
+import org.infinispan.rest.operations.exceptions.ServiceUnavailableException;
+
+/**
+ * Iterators over the keys of a cache that were left open by a key listing with a <code>limit</code>, so the next page
+ * continues where the previous one stopped instead of skipping the keys again. A cursor can only be used once, the
+ * next page gets a new one.
+ * <p>
+ * Each cursor keeps an iterator open, so their number is bounded, and cursors that are not used for a while are closed
+ * by a periodic task, even if no other listing is requested.
+ *
+ * @since 9.2
+ */
+class KeyCursors {
+
+   static final int MAX_CURSORS = 1000;
+   private static final long IDLE_TIMEOUT_NANOS = TimeUnit.MINUTES.toNanos(1);
+   private static final long CLOSE_IDLE_PERIOD_SECONDS = 10;
+
+   private final Map<String, Cursor> cursors = new ConcurrentHashMap<>();
+   // Counted separately, because ConcurrentHashMap.size() is only an estimate while it is modified
+   private final AtomicInteger open = new AtomicInteger();
+   private final ScheduledFuture<?> closeIdleTask;
+
+   /**
+    * @param scheduler Executor for the task that closes the idle cursors.
+    */
+   KeyCursors(ScheduledExecutorService scheduler) {
+      closeIdleTask = scheduler.scheduleWithFixedDelay(() -> closeIdle(System.nanoTime()), CLOSE_IDLE_PERIOD_SECONDS,
+            CLOSE_IDLE_PERIOD_SECONDS, TimeUnit.SECONDS);
+   }
+
+   /**
+    * Keeps the iterator until the next page is requested.
+    *
+    * @param cacheName Name of the cache the keys belong to.
+    * @param keys Iterator positioned on the first key of the next page.
+    * @return The token identifying the cursor.
+    * @throws ServiceUnavailableException if {@link #MAX_CURSORS} cursors are already open. The iterator is not kept,
+    *                                     so the caller must close it.
+    */
+   String add(String cacheName, CloseableIterator<?> keys) {
+      if (open.incrementAndGet() > MAX_CURSORS) {
+         open.decrementAndGet();
+         throw new ServiceUnavailableException("Too many key listings in progress, retry later");
+      }
+      String token = UUID.randomUUID().toString();
+      cursors.put(token, new Cursor(cacheName, keys, System.nanoTime()));
+      return token;
+   }
+
+   /**
+    * Removes the cursor, the caller becomes responsible for closing the iterator.
+    *
+    * @param token The token returned by {@link #add(String, CloseableIterator)}.
+    * @param cacheName Name of the cache the keys are listed from.
+    * @return The iterator positioned on the first key of the page.
+    * @throws NoCursorFoundException if the cursor does not exist, was already used or expired.
+    */
+   CloseableIterator<?> take(String token, String cacheName) {
+      Cursor cursor = cursors.get(token);
+      if (cursor == null || !cursor.cacheName.equals(cacheName) || !cursors.remove(token, cursor)) {
+         throw new NoCursorFoundException("Cursor '" + token + "' not found");
+      }
+      open.decrementAndGet();
+      return cursor.keys;
+   }
+
+   /**
+    * Stops closing the idle cursors and closes all the cursors.
+    */
+   void close() {
+      closeIdleTask.cancel(false);
+      closeCursors(cursor -> true);
+   }
+
+   private void closeIdle(long now) {
+      closeCursors(cursor -> now - cursor.created > IDLE_TIMEOUT_NANOS);
+   }
+
+   private void closeCursors(Predicate<Cursor> predicate) {
+      for (Map.Entry<String, Cursor> entry : cursors.entrySet()) {
+         Cursor cursor = entry.getValue();
+         // A cursor that is taken concurrently belongs to the request that took it
+         if (predicate.test(cursor) && cursors.remove(entry.getKey(), cursor)) {
+            open.decrementAndGet();
+            cursor.keys.close();
+         }
+      }
+   }
+
+   private static class Cursor {
+      final String cacheName;
+      final CloseableIterator<?> keys;
+      final long created;
+
+      Cursor(String cacheName, CloseableIterator<?> keys, long created) {
+         this.cacheName = cacheName;
+         this.keys = keys;
+         this.created = created;
+      }
+   }
+}
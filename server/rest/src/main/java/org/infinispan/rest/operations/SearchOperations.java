@@ -1,6 +1,8 @@
 package org.infinispan.rest.operations;
 
 import java.util.List;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
 import java.util.stream.Collectors;
 
 import org.infinispan.AdvancedCache;
@@ -8,6 +10,7 @@
 import org.infinispan.objectfilter.ParsingException;
 import org.infinispan.query.remote.impl.RemoteQueryManager;
 import org.infinispan.query.remote.impl.RemoteQueryResult;
+import org.infinispan.rest.InfinispanResponse;
 import org.infinispan.rest.cachemanager.RestCacheManager;
 import org.infinispan.rest.configuration.RestServerConfiguration;
 import org.infinispan.rest.search.Hit;
@@ -24,8 +27,15 @@
  */
 public class SearchOperations extends AbstractOperations {
 
-   public SearchOperations(RestServerConfiguration configuration, RestCacheManager<Object> cacheManager) {
-      super(configuration, cacheManager);
+   public SearchOperations(RestServerConfiguration configuration, RestCacheManager<Object> cacheManager, Executor executor) {
+      super(configuration, cacheManager, executor);
+   }
+
+   /**
+    * Executes the query in the blocking pool.
+    */
+   public CompletionStage<InfinispanResponse> searchAsync(String cacheName, QueryRequest query, InfinispanSearchRequest request) {
+      return supplyBlocking(() -> search(cacheName, query, request));
    }
 
    public InfinispanSearchResponse search(String cacheName, QueryRequest query, InfinispanSearchRequest request) {
@@ -0,0 +1,13 @@
+package org.infinispan.rest.operations.exceptions;
+
+import org.infinispan.rest.RestResponseException;
+
+import io.netty.handler.codec.http.HttpResponseStatus;
+
+public class NoCursorFoundException extends RestResponseException {
+
+   public NoCursorFoundException(String description) {
+      super(HttpResponseStatus.NOT_FOUND, description);
+   }
+
+}
@@ -0,0 +1,71 @@
+package org.infinispan.rest.operations.mediatypes;
+
+import org.infinispan.commons.util.CloseableIterator;
+import org.infinispan.rest.ChunkedContent;
+
+import io.netty.buffer.ByteBuf;
+
+/**
+ * Prints the keys of a cache with an {@link OutputPrinter} while iterating over them, so that only the keys of the
+ * current chunk are kept in memory.
+ *
+ * @since 9.2
+ */
+public class KeysChunkedContent implements ChunkedContent {
+
+   // Each chunk is a bit larger, because the key that crosses this limit is still added to the chunk
+   static final int CHUNK_SIZE = 8192;
+
+   private final String cacheName;
+   private final CloseableIterator<?> keys;
+   private final OutputPrinter printer;
+   private final java.nio.charset.Charset charset;
+   private long remaining;
+   private boolean started;
+   private boolean firstKey = true;
+
+   /**
+    * Creates new {@link KeysChunkedContent}.
+    *
+    * @param cacheName Cache name.
+    * @param keys Iterator over the keys, closed with this content.
+    * @param printer Printer for the keys.
+    * @param charset Desired {@link Charset}.
+    * @param limit Maximum number of keys to print.
+    */
+   public KeysChunkedContent(String cacheName, CloseableIterator<?> keys, OutputPrinter printer, Charset charset,
+                             long limit) {
+      this.cacheName = cacheName;
+      this.keys = keys;
+      this.printer = printer;
+      this.charset = charset.getJavaCharset();
+      this.remaining = limit;
+   }
+
+   @Override
+   public boolean writeChunk(ByteBuf buffer) {
+      int start = buffer.writerIndex();
+      if (!started) {
+         started = true;
+         buffer.writeCharSequence(printer.prefix(cacheName), charset);
+      }
+      while (remaining > 0 && keys.hasNext()) {
+         if (buffer.writerIndex() - start >= CHUNK_SIZE) {
+            return true;
+         }
+         if (!firstKey) {
+            buffer.writeCharSequence(printer.separator(), charset);
+         }
+         firstKey = false;
+         buffer.writeCharSequence(printer.printKey(keys.next()), charset);
+         remaining--;
+      }
+      buffer.writeCharSequence(printer.suffix(cacheName), charset);
+      return false;
+   }
+
+   @Override
+   public void close() {
+      keys.close();
+   }
+}
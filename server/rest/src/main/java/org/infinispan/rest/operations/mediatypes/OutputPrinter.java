@@ -2,16 +2,15 @@
 
 import java.io.UnsupportedEncodingException;
 
-import org.infinispan.CacheSet;
 import org.infinispan.commons.dataconversion.EncodingException;
 import org.infinispan.rest.operations.exceptions.ServerInternalException;
 
 /**
- * Converts binary array from {@link org.infinispan.Cache} into output format.
+ * Converts keys from {@link org.infinispan.Cache} into output format.
  *
  * <p>
- *    In order to avoid unnecessary conversion steps, all methods need to return a byte array. This way
- *    Netty doesn't need to do any conversion - it just wraps it into a {@link io.netty.buffer.ByteBuf}.
+ *    The keys are printed one at a time, so that the output can be sent in chunks while iterating over the cache,
+ *    instead of keeping all the keys in memory.
  * </p>
  *
  * @author Sebastian Łaskawiec
@@ -19,15 +18,40 @@
 public interface OutputPrinter {
 
    /**
-    * Converts all values in the cache to a desired output format.
+    * Returns the text that precedes the first key.
     *
     * @param cacheName Cache name (sometimes might be used as xml or json key).
-    * @param cacheSet Key Set.
-    * @param charset Desired {@link Charset}
-    * @return Byte array representation of converted values.
+    * @return Text before the keys.
+    */
+   default String prefix(String cacheName) {
+      return "";
+   }
+
+   /**
+    * @return Text between two consecutive keys.
+    */
+   default String separator() {
+      return "\n";
+   }
+
+   /**
+    * Returns the text that follows the last key.
+    *
+    * @param cacheName Cache name (sometimes might be used as xml or json key).
+    * @return Text after the keys.
+    */
+   default String suffix(String cacheName) {
+      return "";
+   }
+
+   /**
+    * Converts a single key to a desired output format.
+    *
+    * @param key Key.
+    * @return Text representation of the key.
     * @throws ServerInternalException Thrown if conversion was not successful.
     */
-   byte[] print(String cacheName, CacheSet<?> cacheSet, Charset charset) throws ServerInternalException;
+   String printKey(Object key) throws ServerInternalException;
 
    default String asString(Object k) {
       try {
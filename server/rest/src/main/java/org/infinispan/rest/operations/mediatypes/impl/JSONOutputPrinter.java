@@ -1,10 +1,6 @@
 package org.infinispan.rest.operations.mediatypes.impl;
 
-import java.util.stream.Collectors;
-
-import org.infinispan.CacheSet;
 import org.infinispan.rest.logging.Log;
-import org.infinispan.rest.operations.mediatypes.Charset;
 import org.infinispan.rest.operations.mediatypes.OutputPrinter;
 import org.infinispan.util.logging.LogFactory;
 
@@ -18,11 +14,23 @@ public class JSONOutputPrinter implements OutputPrinter {
    protected final static Log logger = LogFactory.getLog(JSONOutputPrinter.class, Log.class);
 
    @Override
-   public byte[] print(String cacheName, CacheSet<?> keys, Charset charset) {
-      return keys.stream()
-            .map(this::asString)
-            .collect(() -> Collectors.joining(",", "keys=[", "]"))
-            .getBytes(charset.getJavaCharset());
+   public String prefix(String cacheName) {
+      return "keys=[";
+   }
+
+   @Override
+   public String separator() {
+      return ",";
+   }
+
+   @Override
+   public String suffix(String cacheName) {
+      return "]";
+   }
+
+   @Override
+   public String printKey(Object key) {
+      return asString(key);
    }
 
 }
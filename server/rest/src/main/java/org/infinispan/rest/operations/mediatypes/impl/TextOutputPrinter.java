@@ -1,9 +1,5 @@
 package org.infinispan.rest.operations.mediatypes.impl;
 
-import java.util.stream.Collectors;
-
-import org.infinispan.CacheSet;
-import org.infinispan.rest.operations.mediatypes.Charset;
 import org.infinispan.rest.operations.mediatypes.OutputPrinter;
 
 /**
@@ -14,11 +10,8 @@
 public class TextOutputPrinter implements OutputPrinter {
 
    @Override
-   public byte[] print(String cacheName, CacheSet<?> keys, Charset charset) {
-      return keys.stream()
-            .map(this::asString)
-            .collect(Collectors.joining("\n", "", ""))
-            .getBytes(charset.getJavaCharset());
+   public String printKey(Object key) {
+      return asString(key);
    }
 
 }
@@ -10,6 +10,8 @@
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 
 import org.codehaus.jackson.map.ObjectMapper;
 import org.infinispan.query.dsl.IndexedQueryMode;
@@ -38,7 +40,7 @@ public InfinispanSearchRequest(SearchOperations searchOperations, FullHttpReques
    }
 
    @Override
-   protected InfinispanResponse execute() {
+   protected CompletionStage<InfinispanResponse> execute() {
       Optional<String> cacheName = getCacheName();
       if (!cacheName.isPresent()) {
          throw new NoCacheFoundException("Cache name must be provided");
@@ -56,15 +58,16 @@ protected InfinispanResponse execute() {
                queryRequest = getQueryFromJSON();
                break;
             default:
-               return InfinispanErrorResponse.asError(this, NOT_IMPLEMENTED, null);
+               return CompletableFuture.completedFuture(InfinispanErrorResponse.asError(this, NOT_IMPLEMENTED, null));
          }
          String queryString = queryRequest.getQuery();
          if (queryString == null || queryString.isEmpty()) {
-            return InfinispanSearchResponse.badRequest(this, "Invalid search request, missing 'query' parameter", null);
+            return CompletableFuture.completedFuture(
+                  InfinispanSearchResponse.badRequest(this, "Invalid search request, missing 'query' parameter", null));
          }
-         return searchOperations.search(cacheName.get(), queryRequest, this);
+         return searchOperations.searchAsync(cacheName.get(), queryRequest, this);
       } catch (IOException e) {
-         return InfinispanSearchResponse.badRequest(this, "Invalid search request", e.getMessage());
+         return CompletableFuture.completedFuture(InfinispanSearchResponse.badRequest(this, "Invalid search request", e.getMessage()));
       }
    }
 
@@ -18,6 +18,8 @@
 import java.io.ObjectOutputStream;
 import java.net.URLEncoder;
 import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeoutException;
 
@@ -30,6 +32,7 @@
 import org.eclipse.jetty.client.util.StringContentProvider;
 import org.eclipse.jetty.http.HttpHeader;
 import org.eclipse.jetty.http.HttpMethod;
+import org.eclipse.jetty.http.HttpVersion;
 import org.infinispan.AdvancedCache;
 import org.infinispan.commons.dataconversion.IdentityEncoder;
 import org.infinispan.commons.dataconversion.MediaType;
@@ -582,6 +585,105 @@ public void shouldGetAllEntriesConvertedToBytes() throws Exception {
       ResponseAssertion.assertThat(response).hasReturnedText(String.format("%s\n%s", bytesToHex("key1".getBytes()), bytesToHex("key2".getBytes())));
    }
 
+   @Test
+   public void shouldGetEntriesPageByPage() throws Exception {
+      //given
+      putStringValueInCache("textCache", "key1", "test1");
+      putStringValueInCache("textCache", "key2", "test2");
+      putStringValueInCache("textCache", "key3", "test3");
+
+      //when
+      List<String> keys = new ArrayList<>();
+      String url = String.format("http://localhost:%d/rest/%s?limit=1", restServer.getPort(), "textCache");
+      String cursor = null;
+      do {
+         ContentResponse response = client
+               .newRequest(cursor == null ? url : url + "&cursor=" + cursor)
+               .header(HttpHeader.ACCEPT, "text/plain")
+               .send();
+         ResponseAssertion.assertThat(response).isOk();
+         keys.add(response.getContentAsString());
+         cursor = response.getHeaders().get("Cursor");
+      } while (cursor != null);
+
+      //then
+      Assertions.assertThat(keys).hasSize(3).containsOnly("key1", "key2", "key3");
+   }
+
+   @Test
+   public void shouldRejectUnknownCursor() throws Exception {
+      //when
+      ContentResponse response = client
+            .newRequest(String.format("http://localhost:%d/rest/%s?limit=1&cursor=unknown", restServer.getPort(), "textCache"))
+            .header(HttpHeader.ACCEPT, "text/plain")
+            .send();
+
+      //then
+      ResponseAssertion.assertThat(response).isNotFound();
+   }
+
+   @Test
+   public void shouldRejectNegativeLimit() throws Exception {
+      //when
+      ContentResponse response = client
+            .newRequest(String.format("http://localhost:%d/rest/%s?limit=-1", restServer.getPort(), "textCache"))
+            .header(HttpHeader.ACCEPT, "text/plain")
+            .send();
+
+      //then
+      ResponseAssertion.assertThat(response).isBadRequest();
+   }
+
+   @Test
+   public void shouldGetManyEntriesInChunks() throws Exception {
+      //given
+      int numberOfKeys = 500;
+      for (int i = 0; i < numberOfKeys; i++) {
+         putStringValueInCache("textCache", "a-key-long-enough-to-fill-several-chunks-" + i, "test");
+      }
+
+      //when
+      ContentResponse response = client
+            .newRequest(String.format("http://localhost:%d/rest/%s", restServer.getPort(), "textCache"))
+            .header(HttpHeader.ACCEPT, "text/plain")
+            .send();
+
+      //then
+      ResponseAssertion.assertThat(response).isOk();
+      ResponseAssertion.assertThat(response).hasHeaderMatching("Transfer-Encoding", "chunked");
+      Assertions.assertThat(response.getContentAsString().split("\n")).hasSize(numberOfKeys);
+   }
+
+   @Test
+   public void shouldGetEntriesPageByPageWithoutChunks() throws Exception {
+      //given
+      int numberOfKeys = 1001;
+      for (int i = 0; i < numberOfKeys; i++) {
+         putStringValueInCache("textCache", "key" + i, "test");
+      }
+
+      //when
+      ContentResponse firstPage = client
+            .newRequest(String.format("http://localhost:%d/rest/%s", restServer.getPort(), "textCache"))
+            .version(HttpVersion.HTTP_1_0)
+            .header(HttpHeader.ACCEPT, "text/plain")
+            .send();
+      String cursor = firstPage.getHeaders().get("Cursor");
+      ContentResponse lastPage = client
+            .newRequest(String.format("http://localhost:%d/rest/%s?cursor=%s", restServer.getPort(), "textCache", cursor))
+            .version(HttpVersion.HTTP_1_0)
+            .header(HttpHeader.ACCEPT, "text/plain")
+            .send();
+
+      //then
+      ResponseAssertion.assertThat(firstPage).isOk();
+      Assertions.assertThat(firstPage.getContentAsString().split("\n")).hasSize(1000);
+      Assertions.assertThat(cursor).isNotNull();
+      ResponseAssertion.assertThat(lastPage).isOk();
+      Assertions.assertThat(lastPage.getContentAsString().split("\n")).hasSize(1);
+      Assertions.assertThat(lastPage.getHeaders().get("Cursor")).isNull();
+   }
+
    @Test
    public void shouldAcceptMultipleAcceptHeaderValues() throws Exception {
       //given
@@ -8,6 +8,10 @@
 import static org.infinispan.dataconversion.Gzip.decompress;
 import static org.infinispan.rest.JSONConstants.TYPE;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import org.assertj.core.api.Assertions;
 import org.eclipse.jetty.client.HttpClient;
@@ -18,6 +22,10 @@
 import org.infinispan.commons.dataconversion.IdentityEncoder;
 import org.infinispan.commons.dataconversion.MediaType;
 import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.notifications.Listener;
+import org.infinispan.notifications.cachelistener.annotation.CacheEntryCreated;
+import org.infinispan.notifications.cachelistener.event.CacheEntryCreatedEvent;
+import org.infinispan.persistence.dummy.DummyInMemoryStoreConfigurationBuilder;
 import org.infinispan.rest.assertion.ResponseAssertion;
 import org.testng.annotations.Test;
 
@@ -43,8 +51,12 @@ protected void defineCaches() {
       ConfigurationBuilder legacyStorageCache = getDefaultCacheBuilder();
       legacyStorageCache.encoding().key().mediaType("application/x-java-object;type=java.lang.String");
 
+      ConfigurationBuilder storeCache = getDefaultCacheBuilder();
+      storeCache.persistence().addStore(DummyInMemoryStoreConfigurationBuilder.class);
+
       restServer.defineCache("objectCache", object);
       restServer.defineCache("legacy", legacyStorageCache);
+      restServer.defineCache("storeCache", storeCache);
 
    }
 
@@ -323,4 +335,31 @@ public void testCompression() throws Exception {
       assertEquals(decompress(response.getContent()), payload);
    }
 
+   @Test
+   public void shouldWriteToCacheStoreOutsideTheEventLoop() throws Exception {
+      //given
+      ThreadRecorder recorder = new ThreadRecorder();
+      restServer.getCacheManager().getCache("storeCache").addListener(recorder);
+
+      try {
+         //when
+         putStringValueInCache("storeCache", "k1", "v1");
+
+         //then
+         assertEquals(recorder.threadNames.size(), 1);
+         assertTrue(recorder.threadNames.get(0).contains("-ServerHandler"), recorder.threadNames.get(0));
+      } finally {
+         restServer.getCacheManager().getCache("storeCache").removeListener(recorder);
+      }
+   }
+
+   @Listener
+   public static class ThreadRecorder {
+      final List<String> threadNames = new CopyOnWriteArrayList<>();
+
+      @CacheEntryCreated
+      public void entryCreated(CacheEntryCreatedEvent<?, ?> event) {
+         if (!event.isPre()) threadNames.add(Thread.currentThread().getName());
+      }
+   }
 }
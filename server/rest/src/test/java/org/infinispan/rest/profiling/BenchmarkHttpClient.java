@@ -67,54 +67,77 @@ public void performGets(int pertentageOfMisses, int numberOfGets, String existin
       Random r = ThreadLocalRandom.current();
       for (int i = 0; i < numberOfGets; ++i) {
          String key = r.nextInt(100) < pertentageOfMisses ? nonExistingKey : existingKey;
-         executorCompletionService.submit(() -> {
-            if (http2) {
-               FullHttpRequest getRequest = new DefaultFullHttpRequest(HTTP_1_1, GET, "/rest/default/" + key);
-               http2Client.sendRequest(getRequest);
-            } else {
-               try {
-                  String scheme = usesTLS ? "https" : "http";
-                  http1Client
-                        .GET(String.format("%s://localhost:%d/rest/%s/%s", scheme, port, "default", key));
-               } catch (Exception e) {
-                  throw new RuntimeException(e);
-               }
-            }
-            return 1;
-         });
-      }
-      for (int i = 0; i < numberOfGets; ++i) {
-         executorCompletionService.take().get();
-      }
-      if (http2) {
-         http2Client.awaitForResponses();
+         submitGet("default", key);
       }
+      awaitResponses(numberOfGets);
    }
 
    public void performPuts(int numberOfInserts) throws Exception {
       for (int i = 0; i < numberOfInserts; ++i) {
-         String randomKey = UUID.randomUUID().toString();
-         executorCompletionService.submit(() -> {
-            if (http2) {
-               FullHttpRequest putValueInCacheRequest = new DefaultFullHttpRequest(HTTP_1_1, POST, "/rest/default/" + randomKey,
-                     wrappedBuffer("test".getBytes(CharsetUtil.UTF_8)));
-               http2Client.sendRequest(putValueInCacheRequest);
+         submitPut("default");
+      }
+      awaitResponses(numberOfInserts);
+   }
+
+   /**
+    * Reads an existing key from the default cache, but sends a part of the requests as writes to another cache,
+    * e.g. one with a slow cache store.
+    */
+   public void performMixed(int percentageOfPuts, int numberOfRequests, String putCacheName, String existingKey) throws Exception {
+      Random r = ThreadLocalRandom.current();
+      for (int i = 0; i < numberOfRequests; ++i) {
+         if (r.nextInt(100) < percentageOfPuts) {
+            submitPut(putCacheName);
+         } else {
+            submitGet("default", existingKey);
+         }
+      }
+      awaitResponses(numberOfRequests);
+   }
+
+   private void submitGet(String cacheName, String key) {
+      executorCompletionService.submit(() -> {
+         if (http2) {
+            FullHttpRequest getRequest = new DefaultFullHttpRequest(HTTP_1_1, GET, "/rest/" + cacheName + "/" + key);
+            http2Client.sendRequest(getRequest);
+         } else {
+            try {
+               String scheme = usesTLS ? "https" : "http";
+               http1Client
+                     .GET(String.format("%s://localhost:%d/rest/%s/%s", scheme, port, cacheName, key));
+            } catch (Exception e) {
+               throw new RuntimeException(e);
+            }
+         }
+         return 1;
+      });
+   }
+
+   private void submitPut(String cacheName) {
+      String randomKey = UUID.randomUUID().toString();
+      executorCompletionService.submit(() -> {
+         if (http2) {
+            FullHttpRequest putValueInCacheRequest = new DefaultFullHttpRequest(HTTP_1_1, POST, "/rest/" + cacheName + "/" + randomKey,
+                  wrappedBuffer("test".getBytes(CharsetUtil.UTF_8)));
+            http2Client.sendRequest(putValueInCacheRequest);
+            return 1;
+         } else {
+            try {
+               String scheme = usesTLS ? "https" : "http";
+               http1Client
+                     .POST(String.format("%s://localhost:%d/rest/%s/%s", scheme, port, cacheName, randomKey))
+                     .content(new StringContentProvider("test"))
+                     .send();
                return 1;
-            } else {
-               try {
-                  String scheme = usesTLS ? "https" : "http";
-                  http1Client
-                        .POST(String.format("%s://localhost:%d/rest/%s/%s", scheme, port, "default", "randomKey"))
-                        .content(new StringContentProvider("test"))
-                        .send();
-                  return 1;
-               } catch (Exception e) {
-                  throw new RuntimeException(e);
-               }
+            } catch (Exception e) {
+               throw new RuntimeException(e);
             }
-         });
-      }
-      for (int i = 0; i < numberOfInserts; ++i) {
+         }
+      });
+   }
+
+   private void awaitResponses(int numberOfRequests) throws Exception {
+      for (int i = 0; i < numberOfRequests; ++i) {
          executorCompletionService.take().get();
       }
       if (http2) {
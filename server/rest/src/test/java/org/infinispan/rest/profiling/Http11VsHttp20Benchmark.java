@@ -2,6 +2,8 @@
 
 import java.util.concurrent.TimeUnit;
 
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.persistence.dummy.DummyInMemoryStoreConfigurationBuilder;
 import org.infinispan.rest.helper.RestServerHelper;
 import org.openjdk.jmh.annotations.Benchmark;
 import org.openjdk.jmh.annotations.Mode;
@@ -53,6 +55,7 @@ public static class BenchmarkState {
       private static final String TRUST_STORE_PATH = BenchmarkState.class.getClassLoader().getResource("./default_client_truststore.jks").getPath();
       private final String EXISTING_KEY = "existing_key";
       private final String NON_EXISTING_KEY = "non_existing_key";
+      private final String SLOW_STORE_CACHE = "slowStore";
 
       @Param({"1", "2", "4", "8"})
       public int httpClientThreads;
@@ -75,6 +78,9 @@ public void setup() throws Exception {
          System.setProperty("infinispan.server.channel.epoll", "false");
 
          restServer = RestServerHelper.defaultRestServer();
+         ConfigurationBuilder slowStore = new ConfigurationBuilder();
+         slowStore.persistence().addStore(DummyInMemoryStoreConfigurationBuilder.class).slow(true);
+         restServer.defineCache(SLOW_STORE_CACHE, slowStore);
          if (useTLS) {
             client = new BenchmarkHttpClient(KEY_STORE_PATH, "secret", TRUST_STORE_PATH, "secret");
             restServer.withKeyStore(KEY_STORE_PATH, "secret");
@@ -109,6 +115,19 @@ public void measure_get() throws Exception {
          }
          client.performGets(0, 100, EXISTING_KEY, NON_EXISTING_KEY);
       }
+
+      /**
+       * Mostly gets from the default cache, with a few puts to a cache whose store takes 100ms for each write. The
+       * gets should not wait for the slow writes.
+       */
+      @Benchmark
+      @OperationsPerInvocation(100)
+      public void measure_mixed_with_slow_store() throws Exception {
+         if (useHttp2 && httpClientThreads > 1) {
+            return;
+         }
+         client.performMixed(5, 100, SLOW_STORE_CACHE, EXISTING_KEY);
+      }
    }
 
 